@@ -1,7 +1,9 @@
 package it.polimi.se2019.controller;
 
 import it.polimi.se2019.model.Model;
+import it.polimi.se2019.model.ModelSnapshot;
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.view.server.Event;
 import it.polimi.se2019.view.server.VirtualView;
@@ -63,6 +65,15 @@ public class Controller implements Observer {
 		return model.isGameEnded();
 	}
 
+	/**
+	 * Returns the last snapshot of the state of the game, it can be called from any thread.
+	 *
+	 * @return the last snapshot of the state of the game, or null if the game isn't started.
+	 */
+	public ModelSnapshot getModelSnapshot() {
+		return model.getSnapshot();
+	}
+
 
 	@Override
 	public void update(Observable o, Object arg) {
@@ -77,15 +88,15 @@ public class Controller implements Observer {
 		for (VirtualView virtualView : virtualViewsContainer.getVirtualViews()) {
 			// Add VirtualView's observers to the model. (VirtualView -👀-> Model)
 			model.addGameBoardObserver(virtualView.getGameBoardObserver());
-			Utils.logInfo(virtualView.getNickname() + " now observes Game Board.");
+			Utils.logInfo(LogCategory.GENERAL, () -> virtualView.getNickname() + " now observes Game Board.");
 			model.addGameMapObserver(virtualView.getGameMapObserver());
-			Utils.logInfo(virtualView.getNickname() + " now observes Game Map.");
+			Utils.logInfo(LogCategory.GENERAL, () -> virtualView.getNickname() + " now observes Game Map.");
 			model.addPlayersObserver(virtualView.getPlayerObserver());
-			Utils.logInfo(virtualView.getNickname() + " now observes all the Players.");
+			Utils.logInfo(LogCategory.GENERAL, () -> virtualView.getNickname() + " now observes all the Players.");
 
 			// Add Controller's observer to the VirtualView. (Controller -👀-> VirtualView)
 			virtualView.addObserver(this);
-			Utils.logInfo("Controller now observes virtual View of " + virtualView.getNickname());
+			Utils.logInfo(LogCategory.GENERAL, () -> "Controller now observes virtual View of " + virtualView.getNickname());
 		}
 	}
 
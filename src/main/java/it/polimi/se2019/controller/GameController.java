@@ -5,6 +5,7 @@ import it.polimi.se2019.model.player.TurnStatus;
 import it.polimi.se2019.network.message.IntMessage;
 import it.polimi.se2019.network.message.MessageSubtype;
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.view.server.Event;
 import it.polimi.se2019.view.server.VirtualView;
@@ -88,7 +89,7 @@ public class GameController {
 	private void startTurn() {
 		String currentPlayerName = model.getCurrentPlayerName();
 
-		Utils.logInfo("######STARTING THE TURN OF " + currentPlayerName + "######################");
+		Utils.logInfo(LogCategory.GENERAL, () -> "######STARTING THE TURN OF " + currentPlayerName + "######################");
 
 		// Check if the player is to be spawned.
 		// Which should be only in its beginning turns.
@@ -170,7 +171,7 @@ public class GameController {
 		String playerName = virtualView.getNickname();
 		MessageSubtype messageSubtype = event.getMessage().getMessageSubtype();
 
-		Utils.logInfo("GameController -> processEvent(): processing an event received from \"" + playerName + "\" with a message of type " + event.getMessage().getMessageType() + " and subtype " + messageSubtype + ".");
+		Utils.logInfo(LogCategory.GENERAL, () -> "GameController -> processEvent(): processing an event received from \"" + playerName + "\" with a message of type " + event.getMessage().getMessageType() + " and subtype " + messageSubtype + ".");
 
 		switch (event.getMessage().getMessageType()) {
 			case END_TURN:
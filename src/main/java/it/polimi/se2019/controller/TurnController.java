@@ -5,6 +5,7 @@ import it.polimi.se2019.model.cards.ammo.AmmoType;
 import it.polimi.se2019.model.gamemap.Coordinates;
 import it.polimi.se2019.network.message.*;
 import it.polimi.se2019.utils.ActionType;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.QuestionContainer;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.view.server.Event;
@@ -51,7 +52,7 @@ public class TurnController {
 	 */
 	void processEvent(Event event) {
 
-		Utils.logInfo("TurnController -> processEvent(): processing an event received from \"" + event.getVirtualView().getNickname() + "\" with a message of type " + event.getMessage().getMessageType() + " and subtype " + event.getMessage().getMessageSubtype() + ".");
+		Utils.logInfo(LogCategory.GENERAL, () -> "TurnController -> processEvent(): processing an event received from \"" + event.getVirtualView().getNickname() + "\" with a message of type " + event.getMessage().getMessageType() + " and subtype " + event.getMessage().getMessageSubtype() + ".");
 
 		switch (event.getMessage().getMessageType()) {
 			case ACTION:
@@ -97,7 +98,7 @@ public class TurnController {
 	 */
 	private void handleActionEvent(Event event) {
 		IntMessage message = ((IntMessage) event.getMessage());
-		Utils.logInfo("Setting " + event.getVirtualView().getNickname() + " next MacroAction to " + message.getContent());
+		Utils.logInfo(LogCategory.GENERAL, () -> "Setting " + event.getVirtualView().getNickname() + " next MacroAction to " + message.getContent());
 		model.setNextMacroAction(event.getVirtualView().getNickname(), ((IntMessage) event.getMessage()).getContent());
 		handleNextMacroActionStep(event.getVirtualView());
 	}
@@ -256,7 +257,7 @@ public class TurnController {
 	 */
 	private void handleNextMacroActionStep(VirtualView playerVirtualView) {
 		ActionType actionType = model.getNextActionToExecuteAndAdvance(playerVirtualView.getNickname());
-		Utils.logInfo("TurnController -> handleNextMacroActionStep(): Performing " + actionType + " of " + model.getCurrentAction());
+		Utils.logInfo(LogCategory.GENERAL, () -> "TurnController -> handleNextMacroActionStep(): Performing " + actionType + " of " + model.getCurrentAction());
 		switch (actionType) {
 			case MOVE:
 				playerVirtualView.askMove(model.getCoordinatesWherePlayerCanMove());
@@ -272,7 +273,7 @@ public class TurnController {
 				break;
 			case END:
 				//The MacroAction is already refilled.
-				Utils.logInfo("Ending the action of player " + playerVirtualView.getNickname());
+				Utils.logInfo(LogCategory.GENERAL, () -> "Ending the action of player " + playerVirtualView.getNickname());
 				handleMacroActionEnd(playerVirtualView);
 				break;
 			default:
@@ -474,7 +475,7 @@ public class TurnController {
 			// If the player is in a MacroAction (ex: he used targeting scope while firing, we need to continue the MacroAction.
 			// Else, we need to resume its turn, whether he has actions left or no.
 			if (model.isInAMacroAction(virtualView.getNickname())) {
-				Utils.logInfo(virtualView.getNickname() + " IS IN A MACROACTION");
+				Utils.logInfo(LogCategory.GENERAL, () -> virtualView.getNickname() + " IS IN A MACROACTION");
 				handleNextMacroActionStep(virtualView);
 			} else {
 				endOnTurnAction(virtualView);
@@ -0,0 +1,84 @@
+package it.polimi.se2019.model;
+
+import java.util.List;
+
+/**
+ * Cache of the indexes of the cards that can be activated by a player, computed checking every card with canBeActivated().
+ * A result is valid only for the state version of the model in which it has been computed,
+ * so the same query repeated before the next change of the model is computed once.
+ * Only the last result of every query is kept, since the queries of a decision point are all about the same player.
+ *
+ * @author Marchingegno
+ */
+class ActivabilityCache {
+
+	/**
+	 * The queries whose result is cached.
+	 */
+	enum Query {
+		WEAPONS,
+		ON_SHOOT_POWERUPS,
+		ON_TURN_POWERUPS
+	}
+
+	private final long[] stateVersions = new long[Query.values().length];
+	private final String[] playerNames = new String[Query.values().length];
+	private final Object[] results = new Object[Query.values().length];
+
+	// Metrics of the cache.
+	private long hits = 0;
+	private long misses = 0;
+
+
+	/**
+	 * Returns the result of the query for the player if it has been computed in the same state version.
+	 *
+	 * @param query        the query.
+	 * @param playerName   the name of the player.
+	 * @param stateVersion the current state version of the model.
+	 * @return the cached result, that must not be modified, or null if it has to be computed.
+	 */
+	@SuppressWarnings("unchecked")
+	List<Integer> get(Query query, String playerName, long stateVersion) {
+		int index = query.ordinal();
+		if (results[index] != null && stateVersions[index] == stateVersion && playerNames[index].equals(playerName)) {
+			hits++;
+			return (List<Integer>) results[index];
+		}
+		misses++;
+		return null;
+	}
+
+	/**
+	 * Saves the result of the query for the player, replacing the previous result of the same query.
+	 *
+	 * @param query        the query.
+	 * @param playerName   the name of the player.
+	 * @param stateVersion the state version of the model in which the result has been computed.
+	 * @param result       the result, that must not be modified after being saved.
+	 */
+	void put(Query query, String playerName, long stateVersion, List<Integer> result) {
+		int index = query.ordinal();
+		stateVersions[index] = stateVersion;
+		playerNames[index] = playerName;
+		results[index] = result;
+	}
+
+	/**
+	 * Returns the number of queries answered with a cached result.
+	 *
+	 * @return the number of hits.
+	 */
+	long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of queries that had to be computed.
+	 *
+	 * @return the number of misses.
+	 */
+	long getMisses() {
+		return misses;
+	}
+}
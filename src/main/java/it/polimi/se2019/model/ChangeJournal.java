@@ -0,0 +1,95 @@
+package it.polimi.se2019.model;
+
+import it.polimi.se2019.model.gamemap.Coordinates;
+
+import java.util.*;
+
+/**
+ * Journal of the changes done to a part of the model since its representation was last updated.
+ * The mutation methods append a typed record, so the representation can be rebuilt only for the parts that have been touched.
+ *
+ * @author MarcerAndrea
+ */
+public class ChangeJournal {
+
+	/**
+	 * Types of the changes recorded in the journal.
+	 */
+	public enum ChangeType {
+		SQUARE_CHANGED, // The cards in a square changed, recorded with the coordinates of the square.
+		PLAYER_MOVED, // A player moved, recorded with the coordinates where the player moved to.
+		DAMAGE_CHANGED, // The damage board of a player changed.
+		MARKS_CHANGED // The marks of a player changed.
+	}
+
+	private final EnumMap<ChangeType, Integer> numberOfRecords = new EnumMap<>(ChangeType.class);
+	private final Set<Coordinates> changedSquares = new HashSet<>();
+
+
+	/**
+	 * Records a change.
+	 *
+	 * @param changeType the type of the change.
+	 */
+	public void record(ChangeType changeType) {
+		numberOfRecords.merge(changeType, 1, Integer::sum);
+	}
+
+	/**
+	 * Records a change of a square.
+	 *
+	 * @param changeType  the type of the change.
+	 * @param coordinates the coordinates of the square touched by the change.
+	 */
+	public void record(ChangeType changeType, Coordinates coordinates) {
+		record(changeType);
+		if (changeType == ChangeType.SQUARE_CHANGED)
+			changedSquares.add(coordinates);
+	}
+
+	/**
+	 * Returns true if and only if at least a change of the specified type has been recorded.
+	 *
+	 * @param changeType the type of the change.
+	 * @return true if and only if at least a change of the specified type has been recorded.
+	 */
+	public boolean hasChanged(ChangeType changeType) {
+		return numberOfRecords.containsKey(changeType);
+	}
+
+	/**
+	 * Returns the number of changes of the specified type that have been recorded.
+	 *
+	 * @param changeType the type of the change.
+	 * @return the number of changes of the specified type that have been recorded.
+	 */
+	public int getNumberOfRecords(ChangeType changeType) {
+		return numberOfRecords.getOrDefault(changeType, 0);
+	}
+
+	/**
+	 * Returns the coordinates of the squares that changed.
+	 *
+	 * @return the coordinates of the squares that changed.
+	 */
+	public Set<Coordinates> getChangedSquares() {
+		return Collections.unmodifiableSet(changedSquares);
+	}
+
+	/**
+	 * Returns true if and only if no change has been recorded.
+	 *
+	 * @return true if and only if no change has been recorded.
+	 */
+	public boolean isEmpty() {
+		return numberOfRecords.isEmpty();
+	}
+
+	/**
+	 * Removes all the records, called after the representation has been updated.
+	 */
+	public void clear() {
+		numberOfRecords.clear();
+		changedSquares.clear();
+	}
+}
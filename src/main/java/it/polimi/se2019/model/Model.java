@@ -6,12 +6,15 @@ import it.polimi.se2019.model.cards.ammo.AmmoType;
 import it.polimi.se2019.model.cards.powerups.PowerupCard;
 import it.polimi.se2019.model.cards.weapons.WeaponCard;
 import it.polimi.se2019.model.gameboard.GameBoard;
+import it.polimi.se2019.model.gameboard.GameBoardRep;
 import it.polimi.se2019.model.gameboard.KillShot;
 import it.polimi.se2019.model.gamemap.Coordinates;
 import it.polimi.se2019.model.gamemap.GameMap;
+import it.polimi.se2019.model.gamemap.GameMapRep;
 import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.model.player.PlayerBoard;
 import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.model.player.TokenTrack;
 import it.polimi.se2019.model.player.TurnStatus;
 import it.polimi.se2019.model.player.damagestatus.FrenzyAfter;
 import it.polimi.se2019.model.player.damagestatus.FrenzyBefore;
@@ -36,6 +39,12 @@ public class Model {
 	private Event savedEvent;
 	private ArrayDeque<String> playersWaitingForDamagePowerups;
 
+	// Version of the state, incremented by every change, so the cached evaluations of the cards are computed again only after a change.
+	private long stateVersion = 0;
+	private final ActivabilityCache activabilityCache = new ActivabilityCache();
+	// Last published snapshot of the state, read by the other threads without locking the match.
+	private volatile ModelSnapshot snapshot;
+
 	// Game ending variables
 	private boolean gameEnded = false;
 	private List<PlayerRepPosition> finalPlayerRepPosition;
@@ -97,6 +106,16 @@ public class Model {
 		return gameEnded;
 	}
 
+	/**
+	 * Returns the last snapshot of the state, published after every update of the reps.
+	 * Unlike the other methods of the model, it can be called from any thread.
+	 *
+	 * @return the last snapshot of the state, or null if the reps have never been updated.
+	 */
+	public ModelSnapshot getSnapshot() {
+		return snapshot;
+	}
+
 	/**
 	 * Returns true if and only if the game can continue.
 	 *
@@ -218,7 +237,7 @@ public class Model {
 		Player player = getPlayerFromName(playerName);
 		PlayerBoard playerBoard = player.getPlayerBoard();
 		List<AmmoType> price = new ArrayList<>(priceToPay);
-		Utils.logInfo("Model -> pay(): " + playerName + " is paying the price of " + price + " with indexes of powerups " + indexesOfPowerup);
+		Utils.logInfo(LogCategory.MODEL, () -> "Model -> pay(): " + playerName + " is paying the price of " + price + " with indexes of powerups " + indexesOfPowerup);
 		while (!indexesOfPowerup.isEmpty()) {
 			Integer max = Collections.max(indexesOfPowerup);
 			PowerupCard discardedPowerup = playerBoard.removePowerup(max);
@@ -228,6 +247,7 @@ public class Model {
 		}
 		playerBoard.getAmmoContainer().removeAmmo(price);
 		setPayed(true);
+		stateChanged();
 	}
 
 	/**
@@ -239,12 +259,12 @@ public class Model {
 	 */
 	public boolean canUsePowerupToPay(String playerName, List<AmmoType> ammoToPay) {
 		List<PowerupCard> powerupCards = getPlayerFromName(playerName).getPlayerBoard().getPowerupCards();
-		Utils.logInfo("Model() -> canUsePowerupToPay: " + playerName + " needs to pay " + ammoToPay + " and has " + powerupCards + " and " + getCurrentPlayer().getPlayerBoard().getAmmoContainer().getAmmo());
+		Utils.logInfo(LogCategory.MODEL, () -> "Model() -> canUsePowerupToPay: " + playerName + " needs to pay " + ammoToPay + " and has " + powerupCards + " and " + getCurrentPlayer().getPlayerBoard().getAmmoContainer().getAmmo());
 		for (PowerupCard powerupCard : powerupCards) {
 			if (ammoToPay.contains(powerupCard.getAssociatedAmmo()))
 				return true;
 		}
-		Utils.logInfo("Model() -> canUsePowerupToPay: " + playerName + " has no powerup to pay with");
+		Utils.logInfo(LogCategory.MODEL, () -> "Model() -> canUsePowerupToPay: " + playerName + " has no powerup to pay with");
 		return false;
 	}
 
@@ -320,6 +340,7 @@ public class Model {
 	public void endAction(String playerName) {
 		Player player = getPlayerFromName(playerName);
 		gameBoard.endAction(player);
+		stateChanged();
 	}
 
 	/**
@@ -374,6 +395,7 @@ public class Model {
 		// Reset payment
 		hasPayed = false;
 		savedEvent = null;
+		stateChanged();
 	}
 
 	/**
@@ -417,7 +439,7 @@ public class Model {
 	 * @param playerName name of the player that needs to receive the powerup.
 	 */
 	public void addSpawnPowerupCardTo(String playerName) {
-		getGameBoard().addSpawnPowerupCardTo(getPlayerFromName(playerName));
+		gameBoard.addSpawnPowerupCardTo(getPlayerFromName(playerName));
 		updateReps();
 	}
 
@@ -532,7 +554,7 @@ public class Model {
 		}
 		if (indexes.isEmpty())
 			throw new IllegalStateException("The player should grab at least one weapon");
-		Utils.logInfo("Model -> getIndexesOfTheGrabbableWeaponCurrentPlayer(): player can grab " + indexes);
+		Utils.logInfo(LogCategory.MODEL, () -> "Model -> getIndexesOfTheGrabbableWeaponCurrentPlayer(): player can grab " + indexes);
 		return indexes;
 	}
 
@@ -631,14 +653,9 @@ public class Model {
 	}
 
 	private void scorePlayerEndGame(Player player) {
-		Utils.logInfo("Model -> scorePlayerEndGame(): Scoring " + player.getPlayerName());
+		Utils.logInfo(LogCategory.MODEL, () -> "Model -> scorePlayerEndGame(): Scoring " + player.getPlayerName());
 		PlayerBoard playerBoard = player.getPlayerBoard();
-		DamageDone damageDone = new DamageDone();
-		List<Player> sortedPlayers;
-
-		playerBoard.getDamageBoard().forEach(damageDone::damageUp);
-
-		sortedPlayers = damageDone.getSortedPlayers();
+		List<Player> sortedPlayers = playerBoard.getDamageTrack().getSortedPlayers();
 		awardPoints(playerBoard, sortedPlayers);
 	}
 
@@ -651,18 +668,15 @@ public class Model {
 
 		Utils.logInfo("Model -> awardKillshotTrackPoint(): Awarding killshots points.");
 
-		for (KillShot killShot : killShotList) {
-			damageDone.damageUp(killShot.getPlayer());
-			if (killShot.isOverkill()) {
-				damageDone.damageUp(killShot.getPlayer());
-			}
-		}
+		for (KillShot killShot : killShotList)
+			damageDone.damageUp(killShot.getPlayer(), killShot.isOverkill() ? 2 : 1);
 
 		sortedPlayers = damageDone.getSortedPlayers();
 
 		int offset = 0;
 		for (Player p : sortedPlayers) {
-			Utils.logInfo("Model -> awardKillShotTrackPoint(): Killshot: player " + p.getPlayerName() + " is awarded " + GameConstants.KILLSHOT_SCORES.get(offset) + " points.");
+			int points = GameConstants.KILLSHOT_SCORES.get(offset);
+			Utils.logInfo(LogCategory.MODEL, () -> "Model -> awardKillShotTrackPoint(): Killshot: player " + p.getPlayerName() + " is awarded " + points + " points.");
 			p.getPlayerBoard().addPoints(GameConstants.KILLSHOT_SCORES.get(offset));
 			offset++;
 		}
@@ -688,13 +702,13 @@ public class Model {
 		List<Player> players = gameBoard.getPlayers();
 
 		Utils.logInfo("Model -> setWinners(): Players before sorting: ");
-		players.forEach(player -> Utils.logInfo("\t\t" + player.getPlayerName() + "with points " + player.getPlayerBoard().getPoints()));
+		players.forEach(player -> Utils.logInfo(LogCategory.MODEL, () -> "\t\t" + player.getPlayerName() + "with points " + player.getPlayerBoard().getPoints()));
 
 		players.sort(playerComparator);
 
 		Utils.logInfo("----------------------------------------------------------");
 		Utils.logInfo("Model -> setWinners(): Players after sorting: ");
-		players.forEach(player -> Utils.logInfo("\t\t" + player.getPlayerName() + "with points " + player.getPlayerBoard().getPoints()));
+		players.forEach(player -> Utils.logInfo(LogCategory.MODEL, () -> "\t\t" + player.getPlayerName() + "with points " + player.getPlayerBoard().getPoints()));
 
 
 		int precPoint = -1;
@@ -702,15 +716,17 @@ public class Model {
 		int tiesFound = 0;
 		for (int i = 0; i < players.size(); i++) {
 			Player currPlayer = players.get(i);
-			Utils.logInfo("Adding to leaderbord player " + currPlayer.getPlayerName());
+			Utils.logInfo(LogCategory.MODEL, () -> "Adding to leaderbord player " + currPlayer.getPlayerName());
 			if (currPlayer.getPlayerBoard().getPoints() == precPoint) {
 				//This is a tie,
-				Utils.logInfo("Found a tie. Points " + currPlayer.getPlayerBoard().getPoints());
-				Utils.logInfo("Adding in position " + precIndex);
+				Utils.logInfo(LogCategory.MODEL, () -> "Found a tie. Points " + currPlayer.getPlayerBoard().getPoints());
+				int position = precIndex;
+				Utils.logInfo(LogCategory.MODEL, () -> "Adding in position " + position);
 				leaderboard.get(precIndex).addInPosition(currPlayer);
 				tiesFound++;
 			} else {
-				Utils.logInfo("Adding in position " + (i - tiesFound));
+				int position = i - tiesFound;
+				Utils.logInfo(LogCategory.MODEL, () -> "Adding in position " + position);
 				precPoint = currPlayer.getPlayerBoard().getPoints();
 				precIndex = i - tiesFound;
 				leaderboard.add(i - tiesFound, new LeaderboardSlot());
@@ -754,7 +770,7 @@ public class Model {
 				for (Player player : orderedPlayers) {
 					playerRepLeaderboard.add(nextPosition, new PlayerRepPosition());
 					playerRepLeaderboard.get(nextPosition).addInPosition((PlayerRep) player.getRep());
-					Utils.logInfo("Model -> tieBreak(): Adding in position " + nextPosition + " player " + player.getPlayerName());
+					Utils.logInfo(LogCategory.MODEL, "Model -> tieBreak(): Adding in position " + nextPosition + " player " + player.getPlayerName());
 					nextPosition++;
 				}
 
@@ -764,14 +780,14 @@ public class Model {
 				if (!tiedPlayers.isEmpty()) {
 					for (Player player : tiedPlayers) {
 						playerRepLeaderboard.get(nextPosition).addInPosition((PlayerRep) player.getRep());
-						Utils.logInfo("Model -> tieBreak(): Adding in position " + nextPosition + " player " + player.getPlayerName());
+						Utils.logInfo(LogCategory.MODEL, "Model -> tieBreak(): Adding in position " + nextPosition + " player " + player.getPlayerName());
 					}
 					nextPosition++;
 				}
 			} else {
 				playerRepLeaderboard.add(nextPosition, new PlayerRepPosition());
 				playerRepLeaderboard.get(nextPosition).addInPosition((PlayerRep) leaderboard.get(i).getPlayer().getRep());
-				Utils.logInfo("Model -> tieBreak(): Adding in position " + nextPosition + " player " + leaderboard.get(i).getPlayer().getPlayerName());
+				Utils.logInfo(LogCategory.MODEL, "Model -> tieBreak(): Adding in position " + nextPosition + " player " + leaderboard.get(i).getPlayer().getPlayerName());
 				nextPosition++;
 			}
 		}
@@ -815,6 +831,7 @@ public class Model {
 	 */
 	public ActionType getNextActionToExecuteAndAdvance(String playerName) {
 		Player player = getPlayerFromName(playerName);
+		stateChanged();
 		return player.getDamageStatus().getNextActionToExecuteAndAdvance();
 	}
 
@@ -828,7 +845,7 @@ public class Model {
 		Player player = getPlayerFromName(playerName);
 		player.getDamageStatus().decreaseMacroActionsToPerform();
 		player.getDamageStatus().setCurrentMacroActionIndex(indexOfMacroAction);
-		Utils.logInfo("Model -> setNextMacroAction(): Set " + playerName + "'s next macro action to " + player.getDamageStatus().getCurrentMacroAction().toString());
+		Utils.logInfo(LogCategory.MODEL, () -> "Model -> setNextMacroAction(): Set " + playerName + "'s next macro action to " + player.getDamageStatus().getCurrentMacroAction().toString());
 		updateReps();
 	}
 
@@ -855,13 +872,7 @@ public class Model {
 	 * @return true if and only if the specified weapon can be activated.
 	 */
 	public boolean canWeaponBeActivated(String playerName, int indexOfWeapon) {
-		Player player = getPlayerFromName(playerName);
-		List<WeaponCard> weaponCards = player.getPlayerBoard().getWeaponCards();
-
-		if (indexOfWeapon >= weaponCards.size() || indexOfWeapon < 0)
-			return false;
-
-		return weaponCards.get(indexOfWeapon).canBeActivated();
+		return getCachedActivableWeapons(playerName).contains(indexOfWeapon);
 	}
 
 	public boolean isPaymentStep(String playerName) {
@@ -876,11 +887,25 @@ public class Model {
 
 	/**
 	 * Returns a list of weapons that can be activated in the current state.
+	 * The list is computed once for every state of the model.
 	 *
 	 * @param playerName the name of the player.
 	 * @return a list of weapons that can be activated in the current state.
 	 */
 	public List<Integer> getActivableWeapons(String playerName) {
+		return new ArrayList<>(getCachedActivableWeapons(playerName));
+	}
+
+	private List<Integer> getCachedActivableWeapons(String playerName) {
+		List<Integer> activableWeapons = activabilityCache.get(ActivabilityCache.Query.WEAPONS, playerName, stateVersion);
+		if (activableWeapons == null) {
+			activableWeapons = computeActivableWeapons(playerName);
+			activabilityCache.put(ActivabilityCache.Query.WEAPONS, playerName, stateVersion, activableWeapons);
+		}
+		return activableWeapons;
+	}
+
+	private List<Integer> computeActivableWeapons(String playerName) {
 		Player player = getPlayerFromName(playerName);
 		List<WeaponCard> weaponCards = player.getPlayerBoard().getWeaponCards();
 		List<Integer> activableWeapons = new ArrayList<>();
@@ -1019,31 +1044,18 @@ public class Model {
 	 * @return true if the player has an activable powerup of type ON_SHOOT.
 	 */
 	public boolean doesPlayerHaveActivableOnShootPowerups(String playerName) {
-		Player player = getPlayerFromName(playerName);
-		List<PowerupCard> powerupCards = player.getPlayerBoard().getPowerupCards();
-
-		return powerupCards.stream()
-				.anyMatch(powerupCard -> powerupCard.getUseCase() == PowerupCard.PowerupUseCaseType.ON_SHOOT && powerupCard.canBeActivated());
+		return !getCachedActivablePowerups(ActivabilityCache.Query.ON_SHOOT_POWERUPS, playerName).isEmpty();
 	}
 
 	/**
 	 * Returns a list of activable powerup of type ON_SHOOT for the selected player.
+	 * The list is computed once for every state of the model.
 	 *
 	 * @param playerName the player to check for activable powerups.
 	 * @return a list of activable powerup of type ON_SHOOT.
 	 */
 	public List<Integer> getActivableOnShootPowerups(String playerName) {
-		Player player = getPlayerFromName(playerName);
-		List<PowerupCard> powerupCards = player.getPlayerBoard().getPowerupCards();
-		List<Integer> activablePowerups = new ArrayList<>();
-
-		for (int i = 0; i < powerupCards.size(); i++) {
-			if (powerupCards.get(i).getUseCase() == PowerupCard.PowerupUseCaseType.ON_SHOOT && powerupCards.get(i).canBeActivated()) {
-				activablePowerups.add(i);
-			}
-		}
-
-		return activablePowerups;
+		return new ArrayList<>(getCachedActivablePowerups(ActivabilityCache.Query.ON_SHOOT_POWERUPS, playerName));
 	}
 
 	/**
@@ -1076,17 +1088,18 @@ public class Model {
 		Player shootingPlayer = getPlayerFromName(shootingPlayerName);
 		List<PowerupCard> powerupCards = damagedPlayer.getPlayerBoard().getPowerupCards();
 		List<Integer> activablePowerups = new ArrayList<>();
-		Utils.logInfo("Model -> getActivableOnDamagePowerups(): checking if " + shootingPlayerName + " has activable powerups");
+		Utils.logInfo(LogCategory.MODEL, () -> "Model -> getActivableOnDamagePowerups(): checking if " + shootingPlayerName + " has activable powerups");
 
 		for (int i = 0; i < powerupCards.size(); i++) {
-			if (powerupCards.get(i).getUseCase() == PowerupCard.PowerupUseCaseType.ON_DAMAGE) {
-				Utils.logInfo("Model -> getActivableOnDamagePowerups(): checking powerup " + powerupCards.get(i));
-				powerupCards.get(i).setShootingPlayer(shootingPlayer);
-				if (powerupCards.get(i).canBeActivated()) {
-					Utils.logInfo("Model -> getActivableOnDamagePowerups(): added " + powerupCards.get(i));
+			PowerupCard powerupCard = powerupCards.get(i);
+			if (powerupCard.getUseCase() == PowerupCard.PowerupUseCaseType.ON_DAMAGE) {
+				Utils.logInfo(LogCategory.MODEL, () -> "Model -> getActivableOnDamagePowerups(): checking powerup " + powerupCard);
+				powerupCard.setShootingPlayer(shootingPlayer);
+				if (powerupCard.canBeActivated()) {
+					Utils.logInfo(LogCategory.MODEL, () -> "Model -> getActivableOnDamagePowerups(): added " + powerupCard);
 					activablePowerups.add(i);
 				} else
-					powerupCards.get(i).setShootingPlayer(null);
+					powerupCard.setShootingPlayer(null);
 			}
 		}
 
@@ -1095,22 +1108,13 @@ public class Model {
 
 	/**
 	 * Returns a list of activable powerup of type ON_TURN for the selected player.
+	 * The list is computed once for every state of the model.
 	 *
 	 * @param playerName the player to check for activable powerups.
 	 * @return a list of activable powerup of type ON_TURN.
 	 */
 	public List<Integer> getActivableOnTurnPowerups(String playerName) {
-		Player player = getPlayerFromName(playerName);
-		List<PowerupCard> powerupCards = player.getPlayerBoard().getPowerupCards();
-		List<Integer> activablePowerups = new ArrayList<>();
-
-		for (int i = 0; i < powerupCards.size(); i++) {
-			if (powerupCards.get(i).getUseCase() == PowerupCard.PowerupUseCaseType.ON_TURN && powerupCards.get(i).canBeActivated()) {
-				activablePowerups.add(i);
-			}
-		}
-
-		return activablePowerups;
+		return new ArrayList<>(getCachedActivablePowerups(ActivabilityCache.Query.ON_TURN_POWERUPS, playerName));
 	}
 
 	/**
@@ -1120,11 +1124,7 @@ public class Model {
 	 * @return true if the player has an activable powerup of type ON_TURN.
 	 */
 	public boolean doesPlayerHaveActivableOnTurnPowerups(String playerName) {
-		Player player = getPlayerFromName(playerName);
-		List<PowerupCard> powerupCards = player.getPlayerBoard().getPowerupCards();
-
-		return powerupCards.stream()
-				.anyMatch(powerupCard -> powerupCard.getUseCase() == PowerupCard.PowerupUseCaseType.ON_TURN && powerupCard.canBeActivated());
+		return !getCachedActivablePowerups(ActivabilityCache.Query.ON_TURN_POWERUPS, playerName).isEmpty();
 	}
 
 	/**
@@ -1216,6 +1216,37 @@ public class Model {
 		return !getActivableOnDamagePowerups(damagedPlayerName, shootingPlayerName).isEmpty();
 	}
 
+	private List<Integer> getCachedActivablePowerups(ActivabilityCache.Query query, String playerName) {
+		List<Integer> activablePowerups = activabilityCache.get(query, playerName, stateVersion);
+		if (activablePowerups == null) {
+			PowerupCard.PowerupUseCaseType useCase = query == ActivabilityCache.Query.ON_SHOOT_POWERUPS ? PowerupCard.PowerupUseCaseType.ON_SHOOT : PowerupCard.PowerupUseCaseType.ON_TURN;
+			activablePowerups = computeActivablePowerups(playerName, useCase);
+			activabilityCache.put(query, playerName, stateVersion, activablePowerups);
+		}
+		return activablePowerups;
+	}
+
+	private List<Integer> computeActivablePowerups(String playerName, PowerupCard.PowerupUseCaseType useCase) {
+		Player player = getPlayerFromName(playerName);
+		List<PowerupCard> powerupCards = player.getPlayerBoard().getPowerupCards();
+		List<Integer> activablePowerups = new ArrayList<>();
+
+		for (int i = 0; i < powerupCards.size(); i++) {
+			if (powerupCards.get(i).getUseCase() == useCase && powerupCards.get(i).canBeActivated()) {
+				activablePowerups.add(i);
+			}
+		}
+
+		return activablePowerups;
+	}
+
+	/**
+	 * Increments the state version, called by every method that changes the state of the model.
+	 */
+	private void stateChanged() {
+		stateVersion++;
+	}
+
 	private Player getCurrentPlayer() {
 		return gameBoard.getCurrentPlayer();
 	}
@@ -1235,21 +1266,19 @@ public class Model {
 
 	private void scoreDeadPlayer(Player player) {
 		PlayerBoard playerBoard = player.getPlayerBoard();
-		DamageDone damageDone = new DamageDone();
+		TokenTrack damageTrack = playerBoard.getDamageTrack();
 		List<Player> sortedPlayers;
 		Player killingPlayer;
 		boolean overkill = false;
 
 		//This will check the damageBoard of the player and award killShot points.
-		killingPlayer = playerBoard.getDamageBoard().get(GameConstants.DEATH_DAMAGE - 1);
-		if (playerBoard.getDamageBoard().lastIndexOf(killingPlayer) == GameConstants.OVERKILL_DAMAGE - 1) {
+		killingPlayer = damageTrack.get(GameConstants.DEATH_DAMAGE - 1);
+		if (damageTrack.size() >= GameConstants.OVERKILL_DAMAGE && damageTrack.get(GameConstants.OVERKILL_DAMAGE - 1) == killingPlayer) {
 			overkill = true;
 		}
 		gameBoard.addKillShot(killingPlayer, overkill);
 
-		playerBoard.getDamageBoard().forEach(damageDone::damageUp);
-
-		sortedPlayers = damageDone.getSortedPlayers();
+		sortedPlayers = damageTrack.getSortedPlayers();
 		awardPoints(playerBoard, sortedPlayers);
 
 		player.resetAfterDeath(); //This automatically increases its number of deaths.
@@ -1258,7 +1287,7 @@ public class Model {
 
 	private void awardPoints(PlayerBoard playerBoardToScore, List<Player> sortedPlayers) {
 		int offset = 0;
-		if (playerBoardToScore.getDamageBoard().isEmpty()) {
+		if (playerBoardToScore.getDamageTrack().isEmpty()) {
 			return;
 		}
 
@@ -1270,7 +1299,7 @@ public class Model {
 			}
 		} else {
 			//AWARD FIRST BLOOD POINT wronggg
-			sortedPlayers.get(sortedPlayers.indexOf(playerBoardToScore.getDamageBoard().get(0))).getPlayerBoard().addPoints(GameConstants.FIRST_BLOOD_SCORE);
+			playerBoardToScore.getDamageTrack().get(0).getPlayerBoard().addPoints(GameConstants.FIRST_BLOOD_SCORE);
 
 			for (Player p : sortedPlayers) {
 				p.getPlayerBoard().addPoints(GameConstants.PLAYER_SCORES.get(playerBoardToScore.getNumberOfDeaths() + offset));
@@ -1286,6 +1315,7 @@ public class Model {
 	}
 
 	private void updateReps() {
+		stateChanged();
 		gameBoard.updateRep();
 		gameBoard.notifyObservers();
 		gameMap.updateRep();
@@ -1294,9 +1324,11 @@ public class Model {
 			player.updateRep();
 			player.notifyObservers();
 		}
+		publishSnapshot();
 	}
 
 	private void forceUpdateOfReps() {
+		stateChanged();
 		gameBoard.forceUpdateOfReps();
 		gameBoard.notifyObservers();
 		gameMap.forceUpdateOfReps();
@@ -1305,6 +1337,14 @@ public class Model {
 			player.forceUpdateOfReps();
 			player.notifyObservers();
 		}
+		publishSnapshot();
+	}
+
+	private void publishSnapshot() {
+		List<PlayerRep> playerReps = new ArrayList<>(gameBoard.getPlayers().size());
+		for (Player player : gameBoard.getPlayers())
+			playerReps.add((PlayerRep) player.getRep());
+		snapshot = ModelSnapshot.next(snapshot, stateVersion, (GameBoardRep) gameBoard.getRep(), (GameMapRep) gameMap.getRep(), playerReps, gameEnded);
 	}
 
 	// ####################################
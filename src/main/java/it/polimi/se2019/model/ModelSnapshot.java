@@ -0,0 +1,129 @@
+package it.polimi.se2019.model;
+
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.player.PlayerRep;
+
+import java.util.*;
+
+/**
+ * Consistent view of the state of the model after an action step, made of the reps of the game board, of the game map and of all the players.
+ * A snapshot can't be modified and is published by the model as a whole, so it can be read from any thread without locking the match.
+ * The reps that didn't change are the same instances of the previous snapshot.
+ * Note: the reps are shared with the rest of the server and must not be modified, the lists of the reps can't be modified while the squares of the GameMapRep are not copied and applyChanges() is only for the reps of the client.
+ *
+ * @author Marchingegno
+ */
+public final class ModelSnapshot {
+
+	private final long version;
+	private final GameBoardRep gameBoardRep;
+	private final GameMapRep gameMapRep;
+	private final Map<String, PlayerRep> playerReps;
+	private final boolean gameEnded;
+
+
+	private ModelSnapshot(long version, GameBoardRep gameBoardRep, GameMapRep gameMapRep, Map<String, PlayerRep> playerReps, boolean gameEnded) {
+		this.version = version;
+		this.gameBoardRep = gameBoardRep;
+		this.gameMapRep = gameMapRep;
+		this.playerReps = playerReps;
+		this.gameEnded = gameEnded;
+	}
+
+	/**
+	 * Creates the snapshot that follows the previous one, reusing the map of the player reps if none of them changed.
+	 *
+	 * @param previousSnapshot the last published snapshot, or null if this is the first one.
+	 * @param version          the state version of the model.
+	 * @param gameBoardRep     the rep of the game board.
+	 * @param gameMapRep       the rep of the game map.
+	 * @param playerReps       the full reps of the players, in the order of the turns.
+	 * @param gameEnded        true if the game is ended.
+	 * @return the new snapshot.
+	 */
+	static ModelSnapshot next(ModelSnapshot previousSnapshot, long version, GameBoardRep gameBoardRep, GameMapRep gameMapRep, List<PlayerRep> playerReps, boolean gameEnded) {
+		Map<String, PlayerRep> playerRepsByName;
+		if (previousSnapshot != null && previousSnapshot.hasSamePlayerReps(playerReps)) {
+			playerRepsByName = previousSnapshot.playerReps;
+		} else {
+			playerRepsByName = new LinkedHashMap<>();
+			for (PlayerRep playerRep : playerReps)
+				playerRepsByName.put(playerRep.getPlayerName(), playerRep);
+			playerRepsByName = Collections.unmodifiableMap(playerRepsByName);
+		}
+		return new ModelSnapshot(version, gameBoardRep, gameMapRep, playerRepsByName, gameEnded);
+	}
+
+
+	/**
+	 * Returns the state version of the model when the snapshot has been published, a later snapshot always has a greater version.
+	 *
+	 * @return the state version of the model.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the rep of the game board.
+	 *
+	 * @return the rep of the game board.
+	 */
+	public GameBoardRep getGameBoardRep() {
+		return gameBoardRep;
+	}
+
+	/**
+	 * Returns the rep of the game map.
+	 *
+	 * @return the rep of the game map.
+	 */
+	public GameMapRep getGameMapRep() {
+		return gameMapRep;
+	}
+
+	/**
+	 * Returns the full rep of the player.
+	 *
+	 * @param playerName the name of the player.
+	 * @return the full rep of the player, or null if there isn't a player with that name.
+	 */
+	public PlayerRep getPlayerRep(String playerName) {
+		return playerReps.get(playerName);
+	}
+
+	/**
+	 * Returns the full reps of all the players, in the order of the turns.
+	 *
+	 * @return the full reps of all the players.
+	 */
+	public Collection<PlayerRep> getPlayerReps() {
+		return playerReps.values();
+	}
+
+	/**
+	 * Returns true if and only if the game is ended.
+	 *
+	 * @return true if and only if the game is ended.
+	 */
+	public boolean isGameEnded() {
+		return gameEnded;
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private boolean hasSamePlayerReps(List<PlayerRep> otherPlayerReps) {
+		if (otherPlayerReps.size() != playerReps.size())
+			return false;
+		Iterator<PlayerRep> iterator = playerReps.values().iterator();
+		for (PlayerRep otherPlayerRep : otherPlayerReps) {
+			if (iterator.next() != otherPlayerRep)
+				return false;
+		}
+		return true;
+	}
+}
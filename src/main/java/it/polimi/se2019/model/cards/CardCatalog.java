@@ -0,0 +1,207 @@
+package it.polimi.se2019.model.cards;
+
+import com.google.gson.*;
+import it.polimi.se2019.model.cards.ammo.AmmoCard;
+import it.polimi.se2019.model.cards.ammo.AmmoType;
+import it.polimi.se2019.model.cards.powerups.*;
+import it.polimi.se2019.model.cards.weapons.*;
+import it.polimi.se2019.utils.LogCategory;
+import it.polimi.se2019.utils.Utils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Catalog of all the cards of the game, the files of the decks are read and parsed only once, when the catalog is first used.
+ * The weapons and the powerups have a state, so every deck receives new instances created by the factories registered for their class,
+ * while the ammo cards can't be modified and are shared by all the decks.
+ * The server loads the catalog at startup, so the first match doesn't wait for the parsing and a broken file of a deck stops the server immediately.
+ *
+ * @author Desno365
+ */
+public final class CardCatalog {
+
+	private static final Map<String, Function<JsonObject, WeaponCard>> WEAPON_FACTORIES = createWeaponFactories();
+	private static final Map<String, Function<AmmoType, PowerupCard>> POWERUP_FACTORIES = createPowerupFactories();
+	private static final CardCatalog CARD_CATALOG = new CardCatalog();
+
+	private final List<Supplier<WeaponCard>> weapons = new ArrayList<>();
+	private final List<Supplier<PowerupCard>> powerups = new ArrayList<>();
+	private final List<AmmoCard> ammoCards = new ArrayList<>();
+
+
+	private CardCatalog() {
+		this("/decks/Weapon.json", "/decks/PowerupDeck.json", "/decks/AmmoDeck.json");
+	}
+
+	/**
+	 * Creates a catalog with the cards of the specified files.
+	 *
+	 * @param weaponsFile   the resource with the weapons.
+	 * @param powerupsFile  the resource with the powerups.
+	 * @param ammoCardsFile the resource with the ammo cards.
+	 * @throws IllegalStateException if a file is missing or can't be parsed.
+	 */
+	CardCatalog(String weaponsFile, String powerupsFile, String ammoCardsFile) {
+		loadWeapons(weaponsFile);
+		loadPowerups(powerupsFile);
+		loadAmmoCards(ammoCardsFile);
+	}
+
+
+	/**
+	 * Returns the catalog of the cards, loading it if it hasn't been loaded yet.
+	 * If the files of the decks can't be parsed the first call throws an ExceptionInInitializerError.
+	 *
+	 * @return the catalog of the cards.
+	 */
+	public static CardCatalog getCardCatalog() {
+		return CARD_CATALOG;
+	}
+
+	/**
+	 * Creates a new instance of every weapon, in the order of the file of the deck.
+	 *
+	 * @return new instances of all the weapons.
+	 */
+	public List<WeaponCard> createWeapons() {
+		List<WeaponCard> createdWeapons = new ArrayList<>(weapons.size());
+		for (Supplier<WeaponCard> weapon : weapons)
+			createdWeapons.add(weapon.get());
+		return createdWeapons;
+	}
+
+	/**
+	 * Creates a new instance of every powerup, in the order of the file of the deck.
+	 *
+	 * @return new instances of all the powerups.
+	 */
+	public List<PowerupCard> createPowerups() {
+		List<PowerupCard> createdPowerups = new ArrayList<>(powerups.size());
+		for (Supplier<PowerupCard> powerup : powerups)
+			createdPowerups.add(powerup.get());
+		return createdPowerups;
+	}
+
+	/**
+	 * Returns all the ammo cards, in the order of the file of the deck.
+	 * The ammo cards can't be modified, so the same instances are shared by all the decks.
+	 *
+	 * @return all the ammo cards.
+	 */
+	public List<AmmoCard> getAmmoCards() {
+		return Collections.unmodifiableList(ammoCards);
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private void loadWeapons(String file) {
+		try {
+			JsonArray weaponsToAdd = parseFile(file).getAsJsonArray("weapons");
+			for (JsonElement entry : weaponsToAdd) {
+				JsonObject weaponToAdd = entry.getAsJsonObject();
+				String className = weaponToAdd.get("className").getAsString();
+				Function<JsonObject, WeaponCard> factory = WEAPON_FACTORIES.get(className);
+				if (factory == null)
+					throw new JsonParseException("No such weapon: " + className);
+				weapons.add(() -> factory.apply(weaponToAdd));
+				Utils.logInfo(LogCategory.WEAPONS, () -> "CardCatalog -> loadWeapons(): Added " + className);
+			}
+		} catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+			throw new IllegalStateException("Cannot parse weapon cards of " + file, e);
+		}
+	}
+
+	private void loadPowerups(String file) {
+		try {
+			JsonArray powerupsToAdd = parseFile(file).getAsJsonArray("powerups");
+			for (JsonElement entry : powerupsToAdd) {
+				JsonObject powerupToAdd = entry.getAsJsonObject();
+				String name = powerupToAdd.get("name").getAsString();
+				AmmoType ammoType = AmmoType.valueOf(powerupToAdd.get("ammoType").getAsString());
+				Function<AmmoType, PowerupCard> factory = POWERUP_FACTORIES.get(name);
+				if (factory == null)
+					throw new JsonParseException("No such powerup: " + name);
+				powerups.add(() -> factory.apply(ammoType));
+				Utils.logInfo(LogCategory.MODEL, () -> "CardCatalog -> loadPowerups(): Added " + ammoType + " " + name);
+			}
+		} catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+			throw new IllegalStateException("Cannot parse powerup cards of " + file, e);
+		}
+	}
+
+	private void loadAmmoCards(String file) {
+		try {
+			JsonArray ammoCardsToAdd = parseFile(file).getAsJsonArray("ammocards");
+			for (JsonElement entry : ammoCardsToAdd) {
+				JsonObject cardToAdd = entry.getAsJsonObject();
+
+				List<AmmoType> ammo = new ArrayList<>();
+				for (JsonElement ammoToAdd : cardToAdd.getAsJsonArray("ammo")) {
+					ammo.add(AmmoType.valueOf(ammoToAdd.getAsString()));
+				}
+				Utils.logInfo(LogCategory.MODEL, () -> "CardCatalog -> loadAmmoCards(): Adding ammo card: " + ammo + (cardToAdd.get("powerup").getAsBoolean() ? " Powerup" : ""));
+				ammoCards.add(new AmmoCard(ammo, cardToAdd.get("powerup").getAsBoolean(), cardToAdd.get("name").getAsString(), cardToAdd.get("path").getAsString()));
+			}
+		} catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+			throw new IllegalStateException("Cannot parse ammo cards of " + file, e);
+		}
+	}
+
+	private JsonObject parseFile(String file) {
+		InputStream inputStream = getClass().getResourceAsStream(file);
+		if (inputStream == null)
+			throw new JsonParseException("No such file: " + file);
+		Reader reader = new BufferedReader(new InputStreamReader(inputStream));
+		return new JsonParser().parse(reader).getAsJsonObject();
+	}
+
+	/**
+	 * Returns the factories of the weapons, with the name of their class in the file of the deck as key.
+	 */
+	private static Map<String, Function<JsonObject, WeaponCard>> createWeaponFactories() {
+		Map<String, Function<JsonObject, WeaponCard>> factories = new HashMap<>();
+		factories.put("Cyberblade", Cyberblade::new);
+		factories.put("Electroscythe", Electroscythe::new);
+		factories.put("Flamethrower", Flamethrower::new);
+		factories.put("Furnace", Furnace::new);
+		factories.put("GrenadeLauncher", GrenadeLauncher::new);
+		factories.put("Heatseeker", Heatseeker::new);
+		factories.put("Hellion", Hellion::new);
+		factories.put("LockRifle", LockRifle::new);
+		factories.put("MachineGun", MachineGun::new);
+		factories.put("PlasmaGun", PlasmaGun::new);
+		factories.put("PowerGlove", PowerGlove::new);
+		factories.put("Railgun", Railgun::new);
+		factories.put("RocketLauncher", RocketLauncher::new);
+		factories.put("Shockwave", Shockwave::new);
+		factories.put("Shotgun", Shotgun::new);
+		factories.put("Sledgehammer", Sledgehammer::new);
+		factories.put("Thor", Thor::new);
+		factories.put("TractorBeam", TractorBeam::new);
+		factories.put("VortexCannon", VortexCannon::new);
+		factories.put("Whisper", Whisper::new);
+		factories.put("ZX_2", ZX_2::new);
+		return factories;
+	}
+
+	/**
+	 * Returns the factories of the powerups, with their name in the file of the deck as key.
+	 */
+	private static Map<String, Function<AmmoType, PowerupCard>> createPowerupFactories() {
+		Map<String, Function<AmmoType, PowerupCard>> factories = new HashMap<>();
+		factories.put("Teleporter", Teleporter::new);
+		factories.put("Newton", Newton::new);
+		factories.put("Targetting scope", TargetingScope::new);
+		factories.put("Tagback grenade", TagbackGrenade::new);
+		return factories;
+	}
+}
@@ -1,5 +1,6 @@
 package it.polimi.se2019.model.cards;
 
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
 import java.util.*;
@@ -57,7 +58,7 @@ public abstract class Deck<C extends Card> {
 	 * Refills the deck by using the discard deck and then shuffles it.
 	 */
 	public void refillDeck() {
-		Utils.logInfo("Deck -> refillDeck(): Refilling actualDeck[" + actualDeck.size() + "] with the discardDeck[" + discardDeck.size() + "]");
+		Utils.logInfo(LogCategory.MODEL, () -> "Deck -> refillDeck(): Refilling actualDeck[" + actualDeck.size() + "] with the discardDeck[" + discardDeck.size() + "]");
 		actualDeck.addAll(discardDeck);
 		discardDeck.clear();
 		shuffleDeck();
@@ -69,7 +70,7 @@ public abstract class Deck<C extends Card> {
 	 * @param cardToDiscard the card to discard.
 	 */
 	public void discardCard(C cardToDiscard) {
-		Utils.logInfo("Deck -> discardCard(): Adding to the discardDeck " + cardToDiscard);
+		Utils.logInfo(LogCategory.MODEL, () -> "Deck -> discardCard(): Adding to the discardDeck " + cardToDiscard);
 		discardDeck.push(cardToDiscard);
 	}
 
@@ -84,7 +85,7 @@ public abstract class Deck<C extends Card> {
 	 * @param cardToAdd the card to add to the deck.
 	 */
 	protected void addCard(C cardToAdd) {
-		Utils.logInfo("Deck -> addCard(): Adding to actualDeck " + cardToAdd);
+		Utils.logInfo(LogCategory.MODEL, () -> "Deck -> addCard(): Adding to actualDeck " + cardToAdd);
 		actualDeck.push(cardToAdd);
 	}
 
@@ -1,6 +1,7 @@
 package it.polimi.se2019.model.cards.ammo;
 
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
 import java.util.ArrayList;
@@ -62,7 +63,7 @@ public class AmmoContainer {
 		if (ammo[ammoToAdd.ordinal()] > GameConstants.MAX_AMMO_PER_AMMO_TYPE)
 			ammo[ammoToAdd.ordinal()] = GameConstants.MAX_AMMO_PER_AMMO_TYPE;
 		setChanged();
-		Utils.logInfo("AmmoContainer -> addAmmo(): Added " + numOfAmmoToAdd + " " + ammoToAdd.toString());
+		Utils.logInfo(LogCategory.MODEL, () -> "AmmoContainer -> addAmmo(): Added " + numOfAmmoToAdd + " " + ammoToAdd.toString());
 	}
 
 	/**
@@ -91,7 +92,7 @@ public class AmmoContainer {
 
 		ammo[ammoToRemove.ordinal()] -= numOfAmmoToRemove;
 		setChanged();
-		Utils.logInfo("AmmoContainer -> removeAmmo(): Removed " + numOfAmmoToRemove + " " + ammoToRemove);
+		Utils.logInfo(LogCategory.MODEL, () -> "AmmoContainer -> removeAmmo(): Removed " + numOfAmmoToRemove + " " + ammoToRemove);
 	}
 
 	/**
@@ -123,7 +124,7 @@ public class AmmoContainer {
 	 * ammo to pay the price.
 	 */
 	public boolean hasEnoughAmmo(List<AmmoType> price) {
-		Utils.logInfo("AmmoContainer -> hasEnoughAmmo(): trying to pay " + price + " with " + ammo[0] + "," + ammo[1] + "," + ammo[2]);
+		Utils.logInfo(LogCategory.MODEL, () -> "AmmoContainer -> hasEnoughAmmo(): trying to pay " + price + " with " + ammo[0] + "," + ammo[1] + "," + ammo[2]);
 		if (price == null || price.isEmpty()) {
 			return true;
 		}
@@ -72,7 +72,7 @@ public abstract class AlternateFireWeapon extends WeaponCard {
 	@Override
 	public QuestionContainer doActivationStep(int choice) {
 		incrementCurrentStep();
-		Utils.logWeapon(this.getCardName() + ": executing main method with currentStep " + getCurrentStep() + " and choice " + choice);
+		Utils.logWeapon(() -> this.getCardName() + ": executing main method with currentStep " + getCurrentStep() + " and choice " + choice);
 		if (getCurrentStep() == 1) {
 			return initialQuestion();
 		} else if (getCurrentStep() == 2) {
@@ -91,11 +91,11 @@ public abstract class AlternateFireWeapon extends WeaponCard {
 		List<String> options = new ArrayList<>();
 		if (canPrimaryBeActivated()) {
 			options.add("Standard fire.");
-			Utils.logWeapon(this.getCardName() + ": added Standard fire to the options.");
+			Utils.logWeapon(() -> this.getCardName() + ": added Standard fire to the options.");
 		}
 		if (canSecondaryBeActivated()) {
 			options.add("Alternate fire.");
-			Utils.logWeapon(this.getCardName() + ": added Alternate fire to the options.");
+			Utils.logWeapon(() -> this.getCardName() + ": added Alternate fire to the options.");
 		}
 		return QuestionContainer.createStringQuestionContainer("Which fire mode do you want to use?", options);
 	}
@@ -138,11 +138,11 @@ public class Cyberblade extends OptionalChoiceWeapon {
         canAddMove = canAddMove && isOptionalActive(1);
         canAddExtra = canAddExtra && isOptionalActive(2);
 
-        Utils.logWeapon("is the first optional active: " + isOptionalActive(1));
-        Utils.logWeapon("is the second optional active: " + isOptionalActive(2));
+        Utils.logWeapon(() -> "is the first optional active: " + isOptionalActive(1));
+        Utils.logWeapon(() -> "is the second optional active: " + isOptionalActive(2));
 
         Utils.logWeapon("canAddBase - canAddExtra - canAddMove");
-        Utils.logWeapon(canAddBase + " - " + canAddExtra + " - " + canAddBase);
+        Utils.logWeapon(() -> canAddBase + " - " + canAddExtra + " - " + canAddBase);
     }
 
     private boolean isExtraActive() {
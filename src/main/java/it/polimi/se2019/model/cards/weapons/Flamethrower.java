@@ -2,8 +2,10 @@ package it.polimi.se2019.model.cards.weapons;
 
 import com.google.gson.JsonObject;
 import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.GameMap;
 import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.utils.CardinalDirection;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.QuestionContainer;
 import it.polimi.se2019.utils.Utils;
 
@@ -53,7 +55,7 @@ public class Flamethrower extends AlternateFireWeapon {
 				try {
 					firstSquareTarget = getCurrentTargets().get(choice);
 				} catch (IndexOutOfBoundsException e) {
-					Utils.logInfo("There are no players in the first square chosen by " + getOwner().getPlayerName() + ".");
+					Utils.logInfo(LogCategory.WEAPONS, () -> "There are no players in the first square chosen by " + getOwner().getPlayerName() + ".");
 					firstSquareTarget = null;
 				}
 
@@ -72,7 +74,7 @@ public class Flamethrower extends AlternateFireWeapon {
 				try {
 					secondSquareTarget = getCurrentTargets().get(choice);
 				} catch (IndexOutOfBoundsException e) {
-					Utils.logInfo("There are no players in the second square chosen by " + getOwner().getPlayerName() + ".");
+					Utils.logInfo(LogCategory.WEAPONS, () -> "There are no players in the second square chosen by " + getOwner().getPlayerName() + ".");
 					secondSquareTarget = null;
 				}
 				primaryFire();
@@ -180,21 +182,38 @@ public class Flamethrower extends AlternateFireWeapon {
 	private List<String> getAvailableDirections() {
 		List<String> directionsFound = new ArrayList<>();
 		for (CardinalDirection direction : CardinalDirection.values()) {
-			chosenDirection = direction;
-			List<Player> possibleTargets = getPrimaryTargets();
-			possibleTargets.addAll(getSecondSquareTargets());
-			chosenDirection = null;
-			if (!possibleTargets.isEmpty()) {
+			if (hasPlayersInDirection(direction)) {
 				directionsFound.add(direction.toString());
 			}
 		}
 		return directionsFound;
 	}
 
+	/**
+	 * Checks with the bitmasks of the game map if there are players in the two squares in the direction, without creating objects.
+	 *
+	 * @param direction the direction to check.
+	 * @return true if there is at least a player in the two squares in the direction.
+	 */
+	private boolean hasPlayersInDirection(CardinalDirection direction) {
+		int nextSquare = getGameMap().getNeighborSquareIndex(getGameMap().getPlayerSquareIndex(getOwner()), direction);
+		if (nextSquare == -1)
+			return false;
+		long targetSquares = GameMap.getSquareMask(nextSquare);
+		int nextNextSquare = getGameMap().getNeighborSquareIndex(nextSquare, direction);
+		if (nextNextSquare != -1)
+			targetSquares |= GameMap.getSquareMask(nextNextSquare);
+		return getGameMap().getPlayersIn(targetSquares) != 0;
+	}
+
 	@Override
 	public boolean canPrimaryBeActivated() {
 		//There's at least one player in two squares away in one direction.
-		return !getAvailableDirections().isEmpty();
+		for (CardinalDirection direction : CardinalDirection.values()) {
+			if (hasPlayersInDirection(direction))
+				return true;
+		}
+		return false;
 	}
 
 	@Override
@@ -2,7 +2,9 @@ package it.polimi.se2019.model.cards.weapons;
 
 import com.google.gson.JsonObject;
 import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.GameMap;
 import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.utils.CardinalDirection;
 import it.polimi.se2019.utils.QuestionContainer;
 import it.polimi.se2019.utils.Utils;
 
@@ -131,12 +133,21 @@ public class Furnace extends AlternateFireWeapon {
 	@Override
 	boolean canSecondaryBeFired() {
 		//There's at least one square next to the player with enemies in it.
-		return !getSecondaryCoordinates().isEmpty();
+		int ownerSquare = getGameMap().getPlayerSquareIndex(getOwner());
+		long oneMoveSquares = getGameMap().getReachableSquares(ownerSquare, 1) & ~GameMap.getSquareMask(ownerSquare);
+		return getGameMap().getPlayersIn(oneMoveSquares) != 0;
 	}
 
 	@Override
 	protected boolean canPrimaryBeActivated() {
 		//There's at least one door with players in the other room
-		return !getPrimaryCoordinates().isEmpty();
+		int ownerSquare = getGameMap().getPlayerSquareIndex(getOwner());
+		long ownerRoom = getGameMap().getRoomSquares(ownerSquare);
+		for (CardinalDirection direction : CardinalDirection.values()) {
+			int door = getGameMap().getNeighborSquareIndex(ownerSquare, direction);
+			if (door != -1 && (ownerRoom & GameMap.getSquareMask(door)) == 0 && getGameMap().getPlayersIn(getGameMap().getRoomSquares(door)) != 0)
+				return true;
+		}
+		return false;
 	}
 }
\ No newline at end of file
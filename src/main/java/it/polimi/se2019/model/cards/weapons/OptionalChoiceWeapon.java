@@ -85,7 +85,7 @@ public abstract class OptionalChoiceWeapon extends OptionalEffectsWeapon {
             return true;
         } else {
             weaponState = new Pair<>(weaponState.getFirst(), EffectState.values()[weaponState.getSecond().ordinal() + 1]);
-            Utils.logWeapon("Setting weapon state to: " + weaponState.toString());
+            Utils.logWeapon(() -> "Setting weapon state to: " + weaponState.toString());
         }
         return false;
     }
@@ -162,7 +162,7 @@ public abstract class OptionalChoiceWeapon extends OptionalEffectsWeapon {
      * @return the Question Container to ask to the player.
      */
     private QuestionContainer handleActionSelect(int choice) {
-        Utils.logWeapon("Weapon " + this.getCardName() + " : executing handleActionSelect with weapon state: ");
+        Utils.logWeapon(() -> "Weapon " + this.getCardName() + " : executing handleActionSelect with weapon state: ");
         Utils.logWeapon(weaponState.toString());
 
         switch (weaponState.getSecond()) {
@@ -217,7 +217,7 @@ public abstract class OptionalChoiceWeapon extends OptionalEffectsWeapon {
      */
     QuestionContainer handleChoices(int choice) {
         QuestionContainer qc;
-        Utils.logWeapon("Executing handleChoices with choice " + choice + " and pair:");
+        Utils.logWeapon(() -> "Executing handleChoices with choice " + choice + " and pair:");
         Utils.logWeapon(weaponState.toString());
         switch (weaponState.getFirst()) {
             case ACTION:
@@ -75,7 +75,7 @@ public abstract class OptionalEffectsWeapon extends WeaponCard {
 				int j = i + 1;
 				options.add("Optional effect " + j + ".");
 				choices.add(j);
-				Utils.logWeapon("Added " + j + " to choices.");
+				Utils.logWeapon(() -> "Added " + j + " to choices.");
 			}
 		}
 		//the following is hardcoded.
@@ -120,7 +120,7 @@ public abstract class OptionalEffectsWeapon extends WeaponCard {
 	@Override
 	public QuestionContainer doActivationStep(int choice) {
 		incrementCurrentStep();
-		Utils.logWeapon(this.getCardName() + ": executing main method with currentStep " + getCurrentStep() + " and choice " + choice);
+		Utils.logWeapon(() -> this.getCardName() + ": executing main method with currentStep " + getCurrentStep() + " and choice " + choice);
 		if (getCurrentStep() == 1) {
 			return initialQuestion();
 		} else if (getCurrentStep() == 2) {
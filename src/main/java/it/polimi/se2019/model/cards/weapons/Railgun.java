@@ -101,7 +101,11 @@ public class Railgun extends AlternateFireWeapon {
 	@Override
 	public boolean canPrimaryBeActivated() {
 		//There's at least one direction with enemies in it.
-		return !getAvailableDirections().isEmpty();
+		for (CardinalDirection direction : CardinalDirection.values()) {
+			if (hasEnemiesInDirection(direction))
+				return true;
+		}
+		return false;
 	}
 
 	/**
@@ -112,17 +116,25 @@ public class Railgun extends AlternateFireWeapon {
 	private List<String> getAvailableDirections() {
 		List<String> directionsFound = new ArrayList<>();
 		for (CardinalDirection direction : CardinalDirection.values()) {
-			List<Player> playersInDirection = getGameMap().getPlayersInDirection(getGameMap().getPlayerCoordinates(getOwner()), direction);
-			playersInDirection.remove(getOwner());
-			Utils.logWeapon("RAILGUN: found in direction " + direction.toString() + " these player(s)");
-			playersInDirection.forEach(player -> Utils.logWeapon(player.getPlayerName()));
-			if (!playersInDirection.isEmpty()) {
+			if (hasEnemiesInDirection(direction)) {
+				Utils.logWeapon(() -> "RAILGUN: found players in direction " + direction.toString());
 				directionsFound.add(direction.toString());
 			}
 		}
 		return directionsFound;
 	}
 
+	/**
+	 * Checks with the bitmasks of the game map if there are enemies in the direction, through the walls, without creating objects.
+	 *
+	 * @param direction the direction to check.
+	 * @return true if there is at least an enemy in the direction.
+	 */
+	private boolean hasEnemiesInDirection(CardinalDirection direction) {
+		long squaresInDirection = getGameMap().getSquaresInDirection(getGameMap().getPlayerSquareIndex(getOwner()), direction);
+		return (getGameMap().getPlayersIn(squaresInDirection) & ~getGameMap().getPlayerMask(getOwner())) != 0;
+	}
+
 	@Override
 	protected boolean canSecondaryBeFired() {
 		return canPrimaryBeActivated();
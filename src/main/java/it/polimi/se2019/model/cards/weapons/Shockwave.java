@@ -2,6 +2,7 @@ package it.polimi.se2019.model.cards.weapons;
 
 import com.google.gson.JsonObject;
 import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.QuestionContainer;
 import it.polimi.se2019.utils.Utils;
 
@@ -57,7 +58,7 @@ public class Shockwave extends AlternateFireWeapon {
 			try {
 				chosenTargets.add(getCurrentTargets().get(choice));
 			} catch (IndexOutOfBoundsException e) {
-				Utils.logWarning("Shockwave: no targets near " + getOwner().getPlayerName() + ".");
+				Utils.logWarning(LogCategory.WEAPONS, () -> "Shockwave: no targets near " + getOwner().getPlayerName() + ".");
 			}
 		}
 		setCurrentTargets(getPrimaryTargets());
@@ -140,7 +140,17 @@ public class Thor extends OptionalEffectsWeapon {
 	 * @return true if there is a chain of three players; otherwise, returns false.
 	 */
 	private boolean isThereAChainOfThreePlayers() {
-		return !getChainOfThreePlayers().isEmpty();
+		int ownerMask = getGameMap().getPlayerMask(getOwner());
+		for (int firstPlayers = getGameMap().getVisiblePlayersMask(getOwner()); firstPlayers != 0; firstPlayers &= firstPlayers - 1) {
+			int firstPlayer = Integer.numberOfTrailingZeros(firstPlayers);
+			int secondPlayers = getVisiblePlayersMask(firstPlayer) & ~ownerMask;
+			for (; secondPlayers != 0; secondPlayers &= secondPlayers - 1) {
+				int secondPlayer = Integer.numberOfTrailingZeros(secondPlayers);
+				if ((getVisiblePlayersMask(secondPlayer) & ~ownerMask & ~(1 << firstPlayer)) != 0)
+					return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -149,7 +159,23 @@ public class Thor extends OptionalEffectsWeapon {
 	 * @return true if there is a chain of two players; otherwise, returns false.
 	 */
 	private boolean isThereAChainOfTwoPlayers() {
-		return !getChainOfTwoPlayers().isEmpty();
+		int ownerMask = getGameMap().getPlayerMask(getOwner());
+		for (int firstPlayers = getGameMap().getVisiblePlayersMask(getOwner()); firstPlayers != 0; firstPlayers &= firstPlayers - 1) {
+			if ((getVisiblePlayersMask(Integer.numberOfTrailingZeros(firstPlayers)) & ~ownerMask) != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the bitmask of the players visible from the player with the specified index in the bitmasks of the game map.
+	 * The chains are checked with the bitmasks, so no list is created.
+	 *
+	 * @param playerIndex index of the player.
+	 * @return the bitmask of the other players visible from the player.
+	 */
+	private int getVisiblePlayersMask(int playerIndex) {
+		return getGameMap().getVisiblePlayersMask(getGameMap().getPlayer(playerIndex));
 	}
 
 	/**
@@ -174,6 +200,11 @@ public class Thor extends OptionalEffectsWeapon {
 		return QuestionContainer.createStringQuestionContainer(question, options);
 	}
 
+	@Override
+	protected boolean canAddBaseWithoutEffects() {
+		return getGameMap().getVisiblePlayersMask(getOwner()) != 0;
+	}
+
 	@Override
 	protected boolean canFireOptionalEffect1() {
 		return isThereAChainOfTwoPlayers();
@@ -15,6 +15,7 @@ import it.polimi.se2019.model.player.damagestatus.HighDamage;
 import it.polimi.se2019.model.player.damagestatus.LowDamage;
 import it.polimi.se2019.model.player.damagestatus.MediumDamage;
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
 import java.util.ArrayList;
@@ -185,7 +186,7 @@ public class GameBoard extends Observable implements Representable {
 	private void addDoubleKill(Player shootingPlayer) {
 		doubleKills.add(shootingPlayer);
 		setChanged();
-		Utils.logInfo("GameBoard -> addDoubleKill(): adding to the double kill track " + shootingPlayer.getPlayerName());
+		Utils.logInfo(LogCategory.MODEL, () -> "GameBoard -> addDoubleKill(): adding to the double kill track " + shootingPlayer.getPlayerName());
 	}
 
 	/**
@@ -197,7 +198,7 @@ public class GameBoard extends Observable implements Representable {
 	 */
 	public void addKillShot(Player shootingPlayer, boolean overkill) {
 		killShots.add(new KillShot(shootingPlayer, overkill));
-		Utils.logInfo("GameBoard -> addKillShot(): adding to the killshot track " + shootingPlayer.getPlayerName() + (overkill ? " with overkill" : ""));
+		Utils.logInfo(LogCategory.MODEL, () -> "GameBoard -> addKillShot(): adding to the killshot track " + shootingPlayer.getPlayerName() + (overkill ? " with overkill" : ""));
 		if (shootingPlayer == getCurrentPlayer()) {
 			if (killShotInThisTurn) {
 				addDoubleKill(shootingPlayer);
@@ -205,7 +206,7 @@ public class GameBoard extends Observable implements Representable {
 
 			if (!areSkullsFinished()) {
 				remainingSkulls--;
-				Utils.logInfo("GameBoard -> addKillShot(): decreasing num of skulls to " + remainingSkulls);
+				Utils.logInfo(LogCategory.MODEL, () -> "GameBoard -> addKillShot(): decreasing num of skulls to " + remainingSkulls);
 			}
 
 			killShotInThisTurn = true;
@@ -319,16 +320,16 @@ public class GameBoard extends Observable implements Representable {
 			return;
 		}
 
-		List<Player> damageBoard = player.getPlayerBoard().getDamageBoard();
+		int damage = player.getPlayerBoard().getDamageTrack().size();
 
 		//If the game is in frenzy mode, then the player already has the right damageStatus.
 		if (isFrenzyStarted())
 			player.getDamageStatus().refillMacroActions();
 
-		else if (damageBoard.size() < GameConstants.MEDIUM_DAMAGE_THRESHOLD)
+		else if (damage < GameConstants.MEDIUM_DAMAGE_THRESHOLD)
 			player.setDamageStatus(new LowDamage());
 
-		else if (damageBoard.size() < GameConstants.HIGH_DAMAGE_THRESHOLD)
+		else if (damage < GameConstants.HIGH_DAMAGE_THRESHOLD)
 			player.setDamageStatus(new MediumDamage());
 
 		else
@@ -5,6 +5,7 @@ import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.utils.Color;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -58,7 +59,7 @@ public class GameBoardRep implements Representation {
 	 * @return the list of all double kills.
 	 */
 	public List<Color.CharacterColorType> getDoubleKills() {
-		return doubleKills;
+		return Collections.unmodifiableList(doubleKills);
 	}
 
 	/**
@@ -67,7 +68,7 @@ public class GameBoardRep implements Representation {
 	 * @return the list of all killshoots.
 	 */
 	public List<KillShotRep> getKillShoots() {
-		return killShoots;
+		return Collections.unmodifiableList(killShoots);
 	}
 
 	/**
@@ -7,6 +7,7 @@ import it.polimi.se2019.model.gameboard.GameBoard;
 import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.network.message.MessageType;
 import it.polimi.se2019.utils.Color;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.utils.exceptions.InventoryFullException;
 
@@ -32,7 +33,7 @@ public class AmmoSquare extends Square {
 	@Override
 	public void refillCards() {
 		if (!isFilled()) {
-			Utils.logInfo("AmmoSquare -> refillCards(): Refilling the ammo square in " + getCoordinates());
+			Utils.logInfo(LogCategory.MODEL, () -> "AmmoSquare -> refillCards(): Refilling the ammo square in " + getCoordinates());
 			cards.add(ammoDeck.drawCard());
 			setFilled();
 			setChanged();
@@ -64,7 +65,7 @@ public class AmmoSquare extends Square {
 			throw new IllegalArgumentException("This is an ammo square, index can be only 0 and you are asking " + index);
 		setNotFilled();
 		setChanged();
-		Utils.logInfo("AmmoSquare -> grabCard(): Grabbing " + cards.get(index).getCardDescription());
+		Utils.logInfo(LogCategory.MODEL, () -> "AmmoSquare -> grabCard(): Grabbing " + cards.get(index).getCardDescription());
 		return cards.remove(index);
 	}
 
@@ -82,7 +83,7 @@ public class AmmoSquare extends Square {
 			throw new NullPointerException("The card to add is null");
 		if (!isFilled()) {
 			cards.add(cardToAdd);
-			Utils.logInfo("AmmoSquare -> addCard(): Adding to the ammo square " + cardToAdd.getCardDescription());
+			Utils.logInfo(LogCategory.MODEL, () -> "AmmoSquare -> addCard(): Adding to the ammo square " + cardToAdd.getCardDescription());
 		} else
 			throw new InventoryFullException("The square inventory is full");
 	}
@@ -6,15 +6,21 @@ import it.polimi.se2019.utils.exceptions.NegativeCoordinatesException;
 import java.io.Serializable;
 
 import static java.lang.Math.abs;
-import static java.lang.Math.pow;
 
 /**
- * Class with two integers representing the positions in the map matrix
+ * Class with two integers representing the positions in the map matrix.
+ * The coordinates inside the maps are cached, use {@link #of(int, int)} to get them without creating a new object.
  *
  * @author MarcerAndrea
  */
 public class Coordinates implements Serializable {
 
+	// Size of the cache, bigger than all the maps of the game.
+	private static final int CACHED_ROWS = 8;
+	private static final int CACHED_COLUMNS = 8;
+	private static final Coordinates[][] CACHE = createCache();
+	private static final Coordinates[][] NEIGHBORS = createNeighbors();
+
 	private int row;
 	private int column;
 
@@ -30,28 +36,33 @@ public class Coordinates implements Serializable {
 		this.column = column;
 	}
 
+	/**
+	 * Returns the coordinates with the specified indexes. The cached instance is returned when the indexes are inside the cache.
+	 *
+	 * @param row    row index
+	 * @param column column index
+	 * @return the coordinates with the specified indexes.
+	 * @throws NegativeCoordinatesException when there are negative indexes
+	 */
+	public static Coordinates of(int row, int column) {
+		if (row >= 0 && row < CACHED_ROWS && column >= 0 && column < CACHED_COLUMNS)
+			return CACHE[row][column];
+		return new Coordinates(row, column);
+	}
+
 	/**
 	 * Given a coordinate and a direction returns the coordinates of the point directly adjacent in that direction.
 	 *
 	 * @param coordinates coordinates of the starting point
 	 * @param direction   direction of movement
-	 * @return the coordinates of the point directly adjacent to the given point in the specified direction
+	 * @return the coordinates of the point directly adjacent to the given point in the specified direction, null if it would have negative indexes
 	 */
 	static Coordinates getDirectionCoordinates(Coordinates coordinates, CardinalDirection direction) {
-		try {
-			switch (direction) {
-				case UP:
-					return new Coordinates(coordinates.getRow() - 1, coordinates.getColumn());
-				case RIGHT:
-					return new Coordinates(coordinates.getRow(), coordinates.getColumn() + 1);
-				case DOWN:
-					return new Coordinates(coordinates.getRow() + 1, coordinates.getColumn());
-				default:
-					return new Coordinates(coordinates.getRow(), coordinates.getColumn() - 1);
-			}
-		} catch (NegativeCoordinatesException e) {
-			return null;
-		}
+		int row = coordinates.getRow();
+		int column = coordinates.getColumn();
+		if (row < CACHED_ROWS && column < CACHED_COLUMNS)
+			return NEIGHBORS[row * CACHED_COLUMNS + column][direction.ordinal()];
+		return getNeighbor(row, column, direction);
 	}
 
 	/**
@@ -104,12 +115,73 @@ public class Coordinates implements Serializable {
 	}
 
 	/**
-	 * Returns the hash code of the object. To generate it is used the bijective function from f: NXN : N where f(n, m) = 2^(n - 1) * (2 * m - 1).
+	 * Returns the hash code of the object. The row is in the high 16 bits and the column in the low 16 bits,
+	 * so there are no collisions for indexes lower than 2^16.
 	 *
 	 * @return the hash code of the object
 	 */
 	@Override
 	public int hashCode() {
-		return (int) (pow((double) 2, (double) (row - 1)) * (2 * column - 1));
+		return (row << 16) | column;
+	}
+
+	/**
+	 * Replaces the deserialized coordinates with the cached instance.
+	 *
+	 * @return the cached coordinates with the same indexes.
+	 */
+	private Object readResolve() {
+		return of(row, column);
+	}
+
+	/**
+	 * Creates the cached coordinates.
+	 *
+	 * @return the cached coordinates.
+	 */
+	private static Coordinates[][] createCache() {
+		Coordinates[][] cache = new Coordinates[CACHED_ROWS][CACHED_COLUMNS];
+		for (int i = 0; i < CACHED_ROWS; i++) {
+			for (int j = 0; j < CACHED_COLUMNS; j++)
+				cache[i][j] = new Coordinates(i, j);
+		}
+		return cache;
+	}
+
+	/**
+	 * Creates the table of the coordinates adjacent to the cached ones in each direction.
+	 *
+	 * @return the table of the adjacent coordinates, indexed by the index of the cached coordinates and by the direction.
+	 */
+	private static Coordinates[][] createNeighbors() {
+		Coordinates[][] neighbors = new Coordinates[CACHED_ROWS * CACHED_COLUMNS][CardinalDirection.values().length];
+		for (int i = 0; i < CACHED_ROWS; i++) {
+			for (int j = 0; j < CACHED_COLUMNS; j++) {
+				for (CardinalDirection direction : CardinalDirection.values())
+					neighbors[i * CACHED_COLUMNS + j][direction.ordinal()] = getNeighbor(i, j, direction);
+			}
+		}
+		return neighbors;
+	}
+
+	/**
+	 * Returns the coordinates adjacent to the specified indexes in the direction, null if they would have negative indexes.
+	 *
+	 * @param row       row index of the starting point.
+	 * @param column    column index of the starting point.
+	 * @param direction direction of movement.
+	 * @return the adjacent coordinates in the direction, null if they would have negative indexes.
+	 */
+	private static Coordinates getNeighbor(int row, int column, CardinalDirection direction) {
+		switch (direction) {
+			case UP:
+				return row > 0 ? of(row - 1, column) : null;
+			case RIGHT:
+				return of(row, column + 1);
+			case DOWN:
+				return of(row + 1, column);
+			default:
+				return column > 0 ? of(row, column - 1) : null;
+		}
 	}
 }
\ No newline at end of file
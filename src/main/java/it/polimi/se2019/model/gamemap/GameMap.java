@@ -1,6 +1,7 @@
 package it.polimi.se2019.model.gamemap;
 
-import com.google.gson.*;
+import it.polimi.se2019.model.ChangeJournal;
+import it.polimi.se2019.model.ChangeJournal.ChangeType;
 import it.polimi.se2019.model.Representable;
 import it.polimi.se2019.model.Representation;
 import it.polimi.se2019.model.cards.Card;
@@ -8,15 +9,11 @@ import it.polimi.se2019.model.cards.ammo.AmmoType;
 import it.polimi.se2019.model.gameboard.GameBoard;
 import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.utils.CardinalDirection;
-import it.polimi.se2019.utils.Color;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.utils.exceptions.OutOfBoundariesException;
 import it.polimi.se2019.utils.exceptions.PlayerNotInTheMapException;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.util.*;
 
 /**
@@ -26,25 +23,31 @@ import java.util.*;
  */
 public class GameMap extends Observable implements Representable {
 
+	private final MapTopology mapTopology; // Structure of the map shared with the other games on the same map.
 	private String mapName;
 	private int numOfRows;
 	private int numOfColumns;
 	private Square[][] map;
-	private List<List<Coordinates>> rooms = new ArrayList<>();
-	private HashMap<Player, Coordinates> playersPositions = new HashMap<>();
-	private List<Coordinates> spawnSquaresCoordinates = new ArrayList<>();
+	// Positions of the players as bitmasks, a set of squares has a bit for each square index and a set of players has a bit for each index in players.
+	private final Player[] players;
+	private final long[] playersSquares; // Bitboard of each player, with only the bit of its square or 0 if it isn't in the map.
+	private final int[] squaresPlayers; // Bitmask of the players in each square.
 	private GameMapRep gameMapRep;
+	private final ChangeJournal changeJournal = new ChangeJournal(); // Changes done since the last update of the rep.
 
 	public GameMap(String mapName, GameBoard gameBoard) {
 
-		generateMapJson(mapName, gameBoard);
-		connectSquares();
-		addSquaresToRooms();
+		mapTopology = MapTopology.getMapTopology(mapName);
+		numOfRows = mapTopology.getNumOfRows();
+		numOfColumns = mapTopology.getNumOfColumns();
+		map = mapTopology.createSquares(gameBoard);
 		refillMap();
 
-		for (Player playerToAdd : gameBoard.getPlayers()) {
-			playersPositions.put(playerToAdd, null);
-		}
+		players = gameBoard.getPlayers().toArray(new Player[0]);
+		if (players.length > Integer.SIZE)
+			throw new IllegalArgumentException("too many players");
+		playersSquares = new long[players.length];
+		squaresPlayers = new int[mapTopology.getNumOfSquares()];
 
 		this.mapName = mapName;
 
@@ -89,15 +92,11 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public List<Coordinates> getAllCoordinates() {
 		List<Coordinates> coordinatesList = new ArrayList<>();
-		Coordinates coordinates;
-		for (int i = 0; i < numOfRows; i++) {
-			for (int j = 0; j < numOfColumns; j++) {
-				coordinates = new Coordinates(i, j);
-				if (isIn(coordinates))
-					coordinatesList.add(coordinates);
-			}
+		for (int index = 0; index < mapTopology.getNumOfSquares(); index++) {
+			if (getSquareFromIndex(index).getRoomID() != -1)
+				coordinatesList.add(mapTopology.getSquareCoordinates(index));
 		}
-		Utils.logInfo("GameMap -> getAllCoordinates(): Map coordinates are: " + coordinatesList);
+		Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> getAllCoordinates(): Map coordinates are: " + coordinatesList);
 		return coordinatesList;
 	}
 
@@ -110,7 +109,7 @@ public class GameMap extends Observable implements Representable {
 	public List<Coordinates> getAllCoordinatesExceptPlayer(Player player) {
 		List<Coordinates> result = getAllCoordinates();
 		result.remove(getPlayerCoordinates(player));
-		Utils.logInfo("GameMap -> getAllCoordinatesExceptPlayer(): Map coordinates without " + player.getPlayerName() + " are: " + result);
+		Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> getAllCoordinatesExceptPlayer(): Map coordinates without " + player.getPlayerName() + " are: " + result);
 		return result;
 	}
 
@@ -123,6 +122,7 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public Card grabCard(Coordinates coordinates, int index) {
 		setChanged();
+		changeJournal.record(ChangeType.SQUARE_CHANGED, coordinates);
 		return getSquare(coordinates).grabCard(index);
 	}
 
@@ -134,6 +134,7 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public void addCard(Coordinates coordinates, Card cardToAdd) {
 		setChanged();
+		changeJournal.record(ChangeType.SQUARE_CHANGED, coordinates);
 		getSquare(coordinates).addCard(cardToAdd);
 	}
 
@@ -144,7 +145,11 @@ public class GameMap extends Observable implements Representable {
 	public void refillMap() {
 		for (int i = 0; i < numOfRows; i++) {
 			for (int j = 0; j < numOfColumns; j++) {
-				map[i][j].refillCards();
+				if (!map[i][j].isFilled()) {
+					map[i][j].refillCards();
+					if (map[i][j].isFilled())
+						changeJournal.record(ChangeType.SQUARE_CHANGED, map[i][j].getCoordinates());
+				}
 			}
 		}
 		setChanged();
@@ -164,7 +169,7 @@ public class GameMap extends Observable implements Representable {
 			if (square.getRoomID() != playerSquare.getRoomID())
 				doors.add(square.getCoordinates());
 		}
-		Utils.logInfo("GameMap -> getDoors(): Doors for " + player.getPlayerName() + " in " + getPlayerCoordinates(player) + " are: " + doors);
+		Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> getDoors(): Doors for " + player.getPlayerName() + " in " + getPlayerCoordinates(player) + " are: " + doors);
 		return doors;
 	}
 
@@ -177,7 +182,7 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public List<Coordinates> getRoomCoordinates(Square square) {
 		if (isIn(square))
-			return new ArrayList<>(rooms.get(square.getRoomID()));
+			return new ArrayList<>(mapTopology.getRoomCoordinates(square.getRoomID()));
 		throw new OutOfBoundariesException("the square does not belong to the map " + getCoordinates(square));
 	}
 
@@ -190,7 +195,7 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public List<Coordinates> getRoomCoordinates(Coordinates coordinates) {
 		if (isIn(coordinates))
-			return new ArrayList<>(rooms.get(getSquare(coordinates).getRoomID()));
+			return new ArrayList<>(mapTopology.getRoomCoordinates(getSquare(coordinates).getRoomID()));
 		throw new OutOfBoundariesException("the coordinates do not belong to the map " + coordinates);
 	}
 
@@ -201,7 +206,7 @@ public class GameMap extends Observable implements Representable {
 	 * @return the coordinates of the spawn square associated with the ammo type or null if it could not find it
 	 */
 	public Coordinates getSpawnCoordinates(AmmoType ammoType) {
-		for (Coordinates spawnCoordinates : spawnSquaresCoordinates) {
+		for (Coordinates spawnCoordinates : mapTopology.getSpawnSquaresCoordinates()) {
 			if (((SpawnSquare) getSquare(spawnCoordinates)).getAmmoType().equals(ammoType))
 				return spawnCoordinates;
 		}
@@ -215,7 +220,7 @@ public class GameMap extends Observable implements Representable {
 	 * @return true if and only if at the coordinates there is a Spawn square
 	 */
 	public boolean isSpawnSquare(Coordinates coordinates) {
-		return spawnSquaresCoordinates.contains(coordinates);
+		return mapTopology.getSpawnSquaresCoordinates().contains(coordinates);
 	}
 
 	/**
@@ -226,8 +231,9 @@ public class GameMap extends Observable implements Representable {
 	 * @return the coordinates in the specified direction starting fomr the coordinates, null otherwise.
 	 */
 	public Coordinates getCoordinatesFromDirection(Coordinates coordinates, CardinalDirection direction) {
-		if (getSquare(coordinates).getPossibleDirections()[direction.ordinal()])
-			return Coordinates.getDirectionCoordinates(coordinates, direction);
+		int neighborSquare = mapTopology.getNeighborSquare(getSquareIndex(getSquare(coordinates).getCoordinates()), direction);
+		if (neighborSquare != MapTopology.NO_SQUARE)
+			return mapTopology.getSquareCoordinates(neighborSquare);
 		return null;
 	}
 
@@ -239,16 +245,24 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public List<Coordinates> getAdjacentRoomsCoordinates(Coordinates coordinates) {
 		List<Coordinates> coordinatesOfAdjacentRooms = new ArrayList<>();
-		List<Integer> adjacentRooms = new ArrayList<>();
-		for (Square square : getSquare(coordinates).getAdjacentSquares()) {
-			if (!(adjacentRooms.contains(square.getRoomID()) || square.getRoomID() == getSquare(coordinates).getRoomID()))
-				adjacentRooms.add(square.getRoomID());
-		}
-		for (Integer roomID : adjacentRooms) {
-			coordinatesOfAdjacentRooms.addAll(rooms.get(roomID));
+		int squareIndex = getSquareIndex(getSquare(coordinates).getCoordinates());
+		for (int roomID = 0; roomID < mapTopology.getNumOfRooms(); roomID++) {
+			if (mapTopology.getMapVisibility().hasDoorTo(squareIndex, roomID))
+				coordinatesOfAdjacentRooms.addAll(mapTopology.getRoomCoordinates(roomID));
 		}
 		return coordinatesOfAdjacentRooms;
 	}
+
+	/**
+	 * Returns the index of the square in the specified coordinates, counting the squares in row-major order.
+	 * The index can be used with the queries that don't need to create objects, like {@link #isVisible(int, int)}.
+	 *
+	 * @param coordinates coordinates of the square.
+	 * @return the index of the square in the specified coordinates.
+	 */
+	public int getSquareIndex(Coordinates coordinates) {
+		return coordinates.getRow() * numOfColumns + coordinates.getColumn();
+	}
 	// ####################################
 	// PLAYER METHODS
 	// ####################################
@@ -259,7 +273,7 @@ public class GameMap extends Observable implements Representable {
 	 * @return the position of all players.
 	 */
 	public Map<Player, Coordinates> getPlayersCoordinates() {
-		return new HashMap<>(playersPositions);
+		return new HashMap<>(getPlayersPositions());
 	}
 
 	/**
@@ -270,15 +284,12 @@ public class GameMap extends Observable implements Representable {
 	 * @throws PlayerNotInTheMapException when the player is not in the map.
 	 */
 	public Coordinates getPlayerCoordinates(Player playerToFind) {
-		Coordinates playerCoordinates = playersPositions.get(playerToFind);
-		if (playerCoordinates != null)
-			return playerCoordinates;
-		else
-			throw new PlayerNotInTheMapException("player position is null");
+		return mapTopology.getSquareCoordinates(getPlayerSquareIndex(playerToFind));
 	}
 
 	public boolean isInTheMap(Player player) {
-		return playersPositions.get(player) != null;
+		int playerIndex = getPlayerIndex(player);
+		return playerIndex != -1 && playersSquares[playerIndex] != 0;
 	}
 
 	/**
@@ -289,11 +300,7 @@ public class GameMap extends Observable implements Representable {
 	 * @throws PlayerNotInTheMapException when the player is not in the map.
 	 */
 	public Square getPlayerSquare(Player playerToFind) {
-		Coordinates playerCoordinates = playersPositions.get(playerToFind);
-		if (playerCoordinates != null)
-			return map[playerCoordinates.getRow()][playerCoordinates.getColumn()];
-		else
-			throw new PlayerNotInTheMapException("player position is null");
+		return getSquareFromIndex(getPlayerSquareIndex(playerToFind));
 	}
 
 	/**
@@ -303,16 +310,11 @@ public class GameMap extends Observable implements Representable {
 	 * @return the list of players that are in the specified coordinates.
 	 */
 	public List<Player> getPlayersFromCoordinates(Coordinates coordinates) {
-		List<Player> players = new ArrayList<>();
 		if (coordinates == null)
 			throw new NullPointerException();
-		for (Map.Entry entry : playersPositions.entrySet()) {
-			Player player = (Player) entry.getKey();
-			if (isInTheMap(player) && getPlayerCoordinates(player).equals(coordinates))
-				players.add(player);
-		}
-
-		return players;
+		if (!isIn(coordinates))
+			return new ArrayList<>();
+		return getPlayers(squaresPlayers[getSquareIndex(coordinates)]);
 	}
 
 	/**
@@ -324,9 +326,16 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public void movePlayerTo(Player playerToMove, Coordinates coordinates) {
 		if (isIn(coordinates)) {
-			playersPositions.replace(playerToMove, coordinates);
+			int playerIndex = getPlayerIndex(playerToMove);
+			if (playerIndex != -1) {
+				if (playersSquares[playerIndex] != 0)
+					squaresPlayers[Long.numberOfTrailingZeros(playersSquares[playerIndex])] &= ~(1 << playerIndex);
+				playersSquares[playerIndex] = 1L << getSquareIndex(coordinates);
+				squaresPlayers[getSquareIndex(coordinates)] |= 1 << playerIndex;
+			}
 			setChanged();
-			Utils.logInfo("GameMap -> movePlayerTo(): " + playerToMove.getPlayerName() + " moved to " + coordinates);
+			changeJournal.record(ChangeType.PLAYER_MOVED, coordinates);
+			Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> movePlayerTo(): " + playerToMove.getPlayerName() + " moved to " + coordinates);
 		} else {
 			throw new OutOfBoundariesException("tried to move the player out of the map" + coordinates.toString());
 		}
@@ -340,13 +349,9 @@ public class GameMap extends Observable implements Representable {
 	 * @return all the players in one direction, included the starting coordinates.
 	 */
 	public List<Player> getPlayersInDirection(Coordinates coordinates, CardinalDirection direction) {
-		List<Player> players = new ArrayList<>();
-		Coordinates coordinatesToCheck = coordinates;
-		while (coordinatesToCheck != null && isIn(coordinatesToCheck)) {
-			players.addAll(getPlayersFromCoordinates(coordinatesToCheck));
-			coordinatesToCheck = Coordinates.getDirectionCoordinates(coordinatesToCheck, direction);
-		}
-		return players;
+		if (coordinates == null || !isIn(coordinates))
+			return new ArrayList<>();
+		return getPlayers(getPlayersIn(getSquaresInDirection(getSquareIndex(coordinates), direction)));
 	}
 
 	/**
@@ -357,9 +362,8 @@ public class GameMap extends Observable implements Representable {
 	 * @return the list of reachable coordinates.
 	 */
 	public List<Coordinates> reachableCoordinates(Player player, int maxDistance) {
-		List<Coordinates> reachableCoordinates = new ArrayList<>();
-		reachableSquares(getSquare(playersPositions.get(player)), maxDistance, reachableCoordinates);
-		Utils.logInfo("GameMap -> reachableCoordinates(): " + player.getPlayerName() + " can reach in " + maxDistance + " moves: " + reachableCoordinates);
+		List<Coordinates> reachableCoordinates = reachableSquares(getPlayerSquare(player), maxDistance);
+		Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> reachableCoordinates(): " + player.getPlayerName() + " can reach in " + maxDistance + " moves: " + reachableCoordinates);
 		return reachableCoordinates;
 	}
 
@@ -372,9 +376,8 @@ public class GameMap extends Observable implements Representable {
 	 * @return the list of reachable coordinates.
 	 */
 	public List<Coordinates> reachableCoordinates(Coordinates coordinates, int maxDistance) {
-		ArrayList<Coordinates> reachableCoordinates = new ArrayList<>();
-		reachableSquares(getSquare(coordinates), maxDistance, reachableCoordinates);
-		Utils.logInfo("GameMap -> reachableCoordinates(): From " + coordinates + " is possible to reach in " + maxDistance + " moves: " + reachableCoordinates);
+		List<Coordinates> reachableCoordinates = reachableSquares(getSquare(coordinates), maxDistance);
+		Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> reachableCoordinates(): From " + coordinates + " is possible to reach in " + maxDistance + " moves: " + reachableCoordinates);
 		return reachableCoordinates;
 	}
 
@@ -433,19 +436,16 @@ public class GameMap extends Observable implements Representable {
 	 * @return true if and only if the player2 is visible from the player1.
 	 */
 	public boolean isVisible(Player watchingPlayer, Player otherPlayer) {
-		Coordinates watchingPlayerPostition = playersPositions.get(watchingPlayer);
-		Coordinates otherPlayerPostition = playersPositions.get(otherPlayer);
-
-		if (watchingPlayerPostition == null)
+		if (!isInTheMap(watchingPlayer))
 			throw new PlayerNotInTheMapException(watchingPlayer.getPlayerName() + " not in the map");
 
-		if (otherPlayerPostition == null)
+		if (!isInTheMap(otherPlayer))
 			return false;
 
 		if (watchingPlayer.getPlayerName().equals(otherPlayer.getPlayerName()))
 			throw new IllegalArgumentException("players must be different");
 
-		return isVisible(watchingPlayerPostition, otherPlayerPostition);
+		return isVisible(getPlayerSquareIndex(watchingPlayer), getPlayerSquareIndex(otherPlayer));
 	}
 
 	/**
@@ -463,22 +463,19 @@ public class GameMap extends Observable implements Representable {
 		if (coordinates1.equals(coordinates2))
 			return true;
 
-		Square square1 = getSquare(coordinates1);
-		Square square2 = getSquare(coordinates2);
-
-		if (square1.getRoomID() == square2.getRoomID()) {
-			Utils.logInfo("GameMap -> isVisible(): " + square1.getCoordinates() + " can see " + square2.getCoordinates());
-			return true;
-		}
+		return isVisible(getSquareIndex(getSquare(coordinates1).getCoordinates()), getSquareIndex(getSquare(coordinates2).getCoordinates()));
+	}
 
-		for (Square adjacentSquare : square1.getAdjacentSquares()) {
-			if (adjacentSquare.getRoomID() == square2.getRoomID()) {
-				Utils.logInfo("GameMap -> isVisible(): " + square1.getCoordinates() + " can see " + square2.getCoordinates());
-				return true;
-			}
-		}
-		Utils.logInfo("GameMap -> isVisible():  " + square1.getCoordinates() + " cannot see " + square2.getCoordinates());
-		return false;
+	/**
+	 * Returns true if and only if the square with index squareB is visible from the square with index squareA.
+	 * The result is read from the visibility table of the map, so no object is created.
+	 *
+	 * @param squareA index of the starting square, see {@link #getSquareIndex(Coordinates)}.
+	 * @param squareB index of the end square, see {@link #getSquareIndex(Coordinates)}.
+	 * @return true if and only if the square with index squareB is visible from the square with index squareA.
+	 */
+	public boolean isVisible(int squareA, int squareB) {
+		return mapTopology.getMapVisibility().isVisible(squareA, squareB);
 	}
 
 	/**
@@ -488,13 +485,8 @@ public class GameMap extends Observable implements Representable {
 	 * @return all visible players from the specified coordinate.
 	 */
 	public List<Player> getVisiblePlayers(Coordinates coordinates) {
-		List<Player> visiblePlayers = new ArrayList<>();
-
-		for (Player player : playersPositions.keySet()) {
-			if (isInTheMap(player) && isVisible(coordinates, getPlayerCoordinates(player)))
-				visiblePlayers.add(player);
-		}
-		return visiblePlayers;
+		int squareIndex = getSquareIndex(getSquare(coordinates).getCoordinates());
+		return getPlayers(getPlayersIn(getVisibleSquares(squareIndex)));
 	}
 
 	/**
@@ -504,13 +496,7 @@ public class GameMap extends Observable implements Representable {
 	 * @return all visible players.
 	 */
 	public List<Player> getVisiblePlayers(Player mainPlayer) {
-		List<Player> visiblePlayers = new ArrayList<>();
-
-		for (Player player : playersPositions.keySet()) {
-			if (isInTheMap(player) && !player.getPlayerName().equals(mainPlayer.getPlayerName()) && isVisible(mainPlayer, player))
-				visiblePlayers.add(player);
-		}
-		return visiblePlayers;
+		return getPlayers(getVisiblePlayersMask(mainPlayer));
 	}
 
 	/**
@@ -520,28 +506,14 @@ public class GameMap extends Observable implements Representable {
 	 * @return all visible coordinates.
 	 */
 	public List<Coordinates> getVisibleCoordinates(Player player) {
-		List<Integer> visibleRoomsIndexes = new ArrayList<>();
-		Square squarePlayer = getSquare(playersPositions.get(player));
-
-		visibleRoomsIndexes.add(getSquare(playersPositions.get(player)).getRoomID());
-
-		for (Square adjacentSquare : squarePlayer.getAdjacentSquares()) {
-			if (!visibleRoomsIndexes.contains(adjacentSquare.getRoomID())) {
-				visibleRoomsIndexes.add(adjacentSquare.getRoomID());
-			}
-		}
-
+		int playerSquareIndex = getSquareIndex(getPlayerSquare(player).getCoordinates());
 		List<Coordinates> visibleCoordinates = new ArrayList<>();
 
-		for (Integer roomID : visibleRoomsIndexes) {
-			visibleCoordinates.addAll(rooms.get(roomID));
+		for (int index = 0; index < numOfRows * numOfColumns; index++) {
+			if (isVisible(playerSquareIndex, index))
+				visibleCoordinates.add(getSquareFromIndex(index).getCoordinates());
 		}
-		Utils.logInfo("GameMap -> getVisibleCoordinates(): Player con see");
-		for (Coordinates squareCoordinates : visibleCoordinates) {
-			System.out.print(" " + squareCoordinates);
-		}
-		System.out.print("\n");
-
+		Utils.logInfo(LogCategory.MODEL, () -> "GameMap -> getVisibleCoordinates(): " + player.getPlayerName() + " can see " + visibleCoordinates);
 		return visibleCoordinates;
 	}
 
@@ -553,15 +525,10 @@ public class GameMap extends Observable implements Representable {
 	 * @return all the players that the specified player can reach within the specified distance.
 	 */
 	public List<Player> reachablePlayers(Player player, int distance) {
-		List<Player> reachablePlayers = new ArrayList<>();
-		List<Coordinates> reachableCoordinates = reachableCoordinates(player, distance);
-		if (reachableCoordinates.isEmpty())
+		long reachableSquares = getReachableSquares(getPlayerSquareIndex(player), distance);
+		if (reachableSquares == 0)
 			throw new IllegalStateException();
-		for (Coordinates coordinates : reachableCoordinates) {
-			reachablePlayers.addAll(getPlayersFromCoordinates(coordinates));
-		}
-		reachablePlayers.remove(player);
-		return reachablePlayers;
+		return getPlayers(getPlayersIn(reachableSquares) & ~getPlayerMask(player));
 	}
 
 	/**
@@ -572,13 +539,153 @@ public class GameMap extends Observable implements Representable {
 	 * @return all the visible players that the specified player can reach within the specified distance.
 	 */
 	public List<Player> reachableAndVisiblePlayers(Player player, int distance) {
-		List<Player> reachablePlayers = reachablePlayers(player, distance);
-		List<Player> reachableAndVisiblePlayers = new ArrayList<>();
-		for (Player otherPlayer : reachablePlayers) {
-			if (isVisible(player, otherPlayer))
-				reachableAndVisiblePlayers.add(otherPlayer);
+		int playerSquare = getPlayerSquareIndex(player);
+		long reachableSquares = getReachableSquares(playerSquare, distance);
+		if (reachableSquares == 0)
+			throw new IllegalStateException();
+		return getPlayers(getPlayersIn(reachableSquares & getVisibleSquares(playerSquare)) & ~getPlayerMask(player));
+	}
+
+
+	// ####################################
+	// BITMASK METHODS
+	// ####################################
+
+	/**
+	 * Returns the index of the square where the player is, see {@link #getSquareIndex(Coordinates)}.
+	 *
+	 * @param player the player to find.
+	 * @return the index of the square where the player is.
+	 * @throws PlayerNotInTheMapException when the player is not in the map.
+	 */
+	public int getPlayerSquareIndex(Player player) {
+		int playerIndex = getPlayerIndex(player);
+		if (playerIndex == -1 || playersSquares[playerIndex] == 0)
+			throw new PlayerNotInTheMapException("player position is null");
+		return Long.numberOfTrailingZeros(playersSquares[playerIndex]);
+	}
+
+	/**
+	 * Returns the bitmask of the player, that has only the bit of the player set.
+	 *
+	 * @param player the player.
+	 * @return the bitmask of the player, 0 if the player is not in the game.
+	 */
+	public int getPlayerMask(Player player) {
+		int playerIndex = getPlayerIndex(player);
+		return playerIndex == -1 ? 0 : 1 << playerIndex;
+	}
+
+	/**
+	 * Returns the bitmask of the players that are in the squares.
+	 *
+	 * @param squares bitmask of the squares.
+	 * @return the bitmask of the players in the squares.
+	 */
+	public int getPlayersIn(long squares) {
+		int playersMask = 0;
+		for (int playerIndex = 0; playerIndex < players.length; playerIndex++) {
+			if ((playersSquares[playerIndex] & squares) != 0)
+				playersMask |= 1 << playerIndex;
 		}
-		return reachableAndVisiblePlayers;
+		return playersMask;
+	}
+
+	/**
+	 * Returns the bitmask of the other players visible from the player.
+	 *
+	 * @param player the player who is watching.
+	 * @return the bitmask of the other players visible from the player.
+	 * @throws PlayerNotInTheMapException when the player is not in the map.
+	 */
+	public int getVisiblePlayersMask(Player player) {
+		return getPlayersIn(getVisibleSquares(getPlayerSquareIndex(player))) & ~getPlayerMask(player);
+	}
+
+	/**
+	 * Returns the player with the specified index in the bitmasks of the players.
+	 *
+	 * @param playerIndex index of the player, that is the position of its bit.
+	 * @return the player with the specified index.
+	 */
+	public Player getPlayer(int playerIndex) {
+		return players[playerIndex];
+	}
+
+	/**
+	 * Returns the players of the bitmask, in the order of the turns.
+	 *
+	 * @param playersMask bitmask of the players.
+	 * @return the players of the bitmask.
+	 */
+	public List<Player> getPlayers(int playersMask) {
+		List<Player> playersInMask = new ArrayList<>(Integer.bitCount(playersMask));
+		for (int remaining = playersMask; remaining != 0; remaining &= remaining - 1)
+			playersInMask.add(players[Integer.numberOfTrailingZeros(remaining)]);
+		return playersInMask;
+	}
+
+	/**
+	 * Returns the bitmask of the square with the specified index.
+	 *
+	 * @param square index of the square.
+	 * @return the bitmask of the square.
+	 */
+	public static long getSquareMask(int square) {
+		return 1L << square;
+	}
+
+	/**
+	 * Returns the bitmask of the squares visible from the square.
+	 *
+	 * @param square index of the square.
+	 * @return the bitmask of the squares visible from the square.
+	 */
+	public long getVisibleSquares(int square) {
+		return mapTopology.getMapVisibility().getVisibleSquares(square);
+	}
+
+	/**
+	 * Returns the bitmask of the squares that can be reached from the square within the distance, the square included.
+	 *
+	 * @param square      index of the starting square.
+	 * @param maxDistance maximum distance.
+	 * @return the bitmask of the squares that can be reached from the square within the distance.
+	 */
+	public long getReachableSquares(int square, int maxDistance) {
+		return mapTopology.getReachableSquares(square, maxDistance);
+	}
+
+	/**
+	 * Returns the bitmask of the squares in a straight line from the square in the direction, the square included and the walls ignored.
+	 *
+	 * @param square    index of the starting square.
+	 * @param direction the direction of the line.
+	 * @return the bitmask of the squares in the direction.
+	 */
+	public long getSquaresInDirection(int square, CardinalDirection direction) {
+		return mapTopology.getSquaresInDirection(square, direction);
+	}
+
+	/**
+	 * Returns the bitmask of the squares in the same room of the square.
+	 *
+	 * @param square index of the square.
+	 * @return the bitmask of the squares in the room.
+	 */
+	public long getRoomSquares(int square) {
+		return mapTopology.getRoomSquares(getSquareFromIndex(square).getRoomID());
+	}
+
+	/**
+	 * Returns the index of the square adjacent to the square in the direction, or -1 if there is a wall or the border of the map.
+	 *
+	 * @param square    index of the starting square.
+	 * @param direction the direction towards to move.
+	 * @return the index of the adjacent square in the direction, or -1.
+	 */
+	public int getNeighborSquareIndex(int square, CardinalDirection direction) {
+		return mapTopology.getNeighborSquare(square, direction);
 	}
 
 
@@ -616,23 +723,46 @@ public class GameMap extends Observable implements Representable {
 
 	/**
 	 * Returns the set of all reachable squares from the coordinates and distance at most max distance.
+	 * The distances are read from the walking distances of the MapTopology, the squares are returned in row-major order.
 	 *
 	 * @param square      square of the starting point
 	 * @param maxDistance maximum distance
 	 * @return the set of all reachable squares from the coordinates and distance at most max distance
 	 */
-	private List<Coordinates> reachableSquares(Square square, int maxDistance, List<Coordinates> reachableCoordinates) {
-		if (maxDistance != 0) {
-			for (Square adjacentSquare : square.getAdjacentSquares()) {
-				reachableSquares(adjacentSquare, maxDistance - 1, reachableCoordinates);
-			}
+	private List<Coordinates> reachableSquares(Square square, int maxDistance) {
+		List<Coordinates> reachableCoordinates = new ArrayList<>();
+		int[] distances = mapTopology.getWalkingDistances(getSquareIndex(getCoordinates(square)));
+		for (int index = 0; index < distances.length; index++) {
+			if (distances[index] <= maxDistance)
+				reachableCoordinates.add(getSquareFromIndex(index).getCoordinates());
 		}
-
-		if (!(reachableCoordinates.contains(getCoordinates(square))))
-			reachableCoordinates.add(getCoordinates(square));
 		return reachableCoordinates;
 	}
 
+	/**
+	 * Returns the square with the specified index, counting the squares in row-major order.
+	 *
+	 * @param index index of the square.
+	 * @return the square with the specified index.
+	 */
+	private Square getSquareFromIndex(int index) {
+		return map[index / numOfColumns][index % numOfColumns];
+	}
+
+	/**
+	 * Returns the index of the player in the bitmasks of the players, -1 if the player is not in the game.
+	 *
+	 * @param player the player to find.
+	 * @return the index of the player.
+	 */
+	private int getPlayerIndex(Player player) {
+		for (int playerIndex = 0; playerIndex < players.length; playerIndex++) {
+			if (players[playerIndex] == player)
+				return playerIndex;
+		}
+		return -1;
+	}
+
 	/**
 	 * Returns true if and only if the coordinates belong to the map
 	 *
@@ -655,123 +785,52 @@ public class GameMap extends Observable implements Representable {
 		return isIn(square.getCoordinates()) && map[coordinates.getRow()][coordinates.getColumn()].equals(square);
 	}
 
-	/**
-	 * Adds a Square to the map according to the specified coordinates.
-	 *
-	 * @param square JsonObject to parse.
-	 */
-	private void addSquareToMap(JsonObject square, GameBoard gameBoard) throws IOException {
-
-		Coordinates squareCoordinates = new Coordinates(square.get("row").getAsInt(), square.get("column").getAsInt());
-
-		switch (square.get("type").getAsString()) {
-			case "AmmoSquare":
-				map[squareCoordinates.getRow()][squareCoordinates.getColumn()] = new AmmoSquare(square.get("roomID").getAsInt(), Color.CharacterColorType.valueOf(square.get("squareColor").getAsString()), getBooleanArray(square.getAsJsonArray("possibleDirection")), squareCoordinates, gameBoard);
-				break;
-
-			case "SpawnSquare":
-				map[squareCoordinates.getRow()][squareCoordinates.getColumn()] = new SpawnSquare(square.get("roomID").getAsInt(), AmmoType.valueOf(square.get("ammoType").getAsString()), Color.CharacterColorType.valueOf(square.get("squareColor").getAsString()), getBooleanArray(square.getAsJsonArray("possibleDirection")), squareCoordinates, gameBoard);
-				spawnSquaresCoordinates.add(squareCoordinates);
-				break;
-
-			case "VoidSquare":
-				map[squareCoordinates.getRow()][squareCoordinates.getColumn()] = new VoidSquare(squareCoordinates);
-				break;
-
-			default:
-				throw new IOException("failed to add the map");
-		}
-	}
-
-	/**
-	 * Creates the structure to memorize the squares belonging to each room
-	 */
-	private void addSquaresToRooms() {
-		for (int i = 0; i < numOfRows; i++)
-			for (int j = 0; j < numOfColumns; j++) {
-				int roomID = map[i][j].getRoomID();
-				if (roomID >= 0)
-					rooms.get(roomID).add(new Coordinates(i, j));
-			}
-	}
+	// ####################################
+	// REPRESENTATION METHODS
+	// ####################################
 
 	/**
-	 * Links each square to the adjacent ones
+	 * Returns the squares's representation in the specified coordinates.
+	 *
+	 * @param coordinates coordinates of the square.
+	 * @return the squares's representation in the specified coordinates.
 	 */
-	private void connectSquares() {
-		Square square;
-		for (int i = 0; i < numOfRows; i++) {
-			for (int j = 0; j < numOfColumns; j++) {
-				for (CardinalDirection direction : CardinalDirection.values()) {
-					square = map[i][j];
-					if (square.getRoomID() != -1 && square.getPossibleDirections()[direction.ordinal()]) {
-						square.addAdjacentSquare(getSquare(Coordinates.getDirectionCoordinates(new Coordinates(i, j), direction)));
-						Utils.logInfo("GameMap -> connectSquares(): Adding " + getSquare(Coordinates.getDirectionCoordinates(new Coordinates(i, j), direction)).getCoordinates() + " to adjacent squares of " + square.getCoordinates());
-					}
-
-				}
-			}
-		}
+	SquareRep getSquareRep(Coordinates coordinates) {
+		return (SquareRep) map[coordinates.getRow()][coordinates.getColumn()].getRep();
 	}
 
 	/**
-	 * Receives the name of the map to generate and initialize the squares according to the file.
+	 * Returns the players' positions, with null for the players that are not in the map.
 	 *
-	 * @param mapName: name of the map to load
+	 * @return the players' positions.
 	 */
-	private void generateMapJson(String mapName, GameBoard gameBoard) {
-		Utils.logInfo("Loading map:" + mapName);
-		Reader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/maps/" + mapName + ".json")));
-		try {
-			JsonParser parser = new JsonParser();
-			JsonObject rootObject = parser.parse(reader).getAsJsonObject();
-			numOfRows = rootObject.get("row").getAsInt();
-			numOfColumns = rootObject.get("column").getAsInt();
-
-			map = new Square[numOfRows][numOfColumns];
-
-			for (int i = 0; i < Color.CharacterColorType.values().length; i++)
-				rooms.add(new ArrayList<>());
-
-			JsonArray squares = rootObject.getAsJsonArray("squares");
-			for (JsonElement entry : squares) {
-				addSquareToMap(entry.getAsJsonObject(), gameBoard);
-			}
-		} catch (IOException | JsonParseException e) {
-			Utils.logError("Cannot parse " + mapName, e);
-		}
-	}
-
-	private boolean[] getBooleanArray(JsonArray ja) {
-		boolean[] result = new boolean[4];
-
-		for (int i = 0; i < ja.size(); i++) {
-			result[i] = ja.get(i).getAsBoolean();
-		}
-
-		return result;
+	Map<Player, Coordinates> getPlayersPositions() {
+		Map<Player, Coordinates> playersPositions = new LinkedHashMap<>();
+		for (int playerIndex = 0; playerIndex < players.length; playerIndex++)
+			playersPositions.put(players[playerIndex], playersSquares[playerIndex] == 0 ? null : mapTopology.getSquareCoordinates(Long.numberOfTrailingZeros(playersSquares[playerIndex])));
+		return playersPositions;
 	}
 
-	// ####################################
-	// REPRESENTATION METHODS
-	// ####################################
-
 	/**
-	 * Returns the squares's representation in the specified coordinates.
+	 * Returns the journal of the changes done since the last update of the representation.
 	 *
-	 * @param coordinates coordinates of the square.
-	 * @return the squares's representation in the specified coordinates.
+	 * @return the journal of the changes done since the last update of the representation.
 	 */
-	SquareRep getSquareRep(Coordinates coordinates) {
-		return (SquareRep) map[coordinates.getRow()][coordinates.getColumn()].getRep();
+	ChangeJournal getChangeJournal() {
+		return changeJournal;
 	}
 
 	/**
 	 * Updates the game map's representation.
+	 * Only the squares recorded in the change journal are updated, the rest of the previous representation is reused.
 	 */
 	public void updateRep() {
-		if (gameMapRep == null || hasChanged()) {
+		if (gameMapRep == null) {
 			gameMapRep = new GameMapRep(this);
+			changeJournal.clear();
+		} else if (hasChanged()) {
+			gameMapRep = new GameMapRep(this, gameMapRep, changeJournal);
+			changeJournal.clear();
 			if (Utils.DEBUG_REPS)
 				Utils.logInfo("GameMap -> updateRep(): The game map representation has been updated");
 		} else if (Utils.DEBUG_REPS) {
@@ -784,6 +843,7 @@ public class GameMap extends Observable implements Representable {
 	 */
 	public void forceUpdateOfReps() {
 		gameMapRep = new GameMapRep(this);
+		changeJournal.clear();
 		setChanged();
 		if (Utils.DEBUG_REPS)
 			Utils.logInfo("GameMap -> forceUpdateOfReps(): The game map representation has been updated");
@@ -1,9 +1,12 @@
 package it.polimi.se2019.model.gamemap;
 
+import it.polimi.se2019.model.ChangeJournal;
+import it.polimi.se2019.model.ChangeJournal.ChangeType;
 import it.polimi.se2019.model.Representation;
 import it.polimi.se2019.model.cards.ammo.AmmoType;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,7 +31,7 @@ public class GameMapRep implements Representation {
 
 		for (int i = 0; i < numOfRows; i++) {
 			for (int j = 0; j < numOfColumns; j++) {
-				this.mapRep[i][j] = gameMapToRepresent.getSquareRep(new Coordinates(i, j));
+				this.mapRep[i][j] = gameMapToRepresent.getSquareRep(Coordinates.of(i, j));
 			}
 		}
 
@@ -37,12 +40,43 @@ public class GameMapRep implements Representation {
 			spawnSquares.put(ammoType, gameMapToRepresent.getSpawnCoordinates(ammoType));
 		}
 
-		playersPositions = new HashMap<>();
-		gameMapToRepresent.getPlayersCoordinates().forEach((player, coordinates) -> playersPositions.put(player.getPlayerName(), coordinates));
+		playersPositions = createPlayersPositions(gameMapToRepresent);
 
 		mapName = gameMapToRepresent.getName();
 	}
 
+	/**
+	 * Creates the rep of the game map updating only the parts recorded in the change journal,
+	 * the rest is reused from the previous rep, which is not modified.
+	 *
+	 * @param gameMapToRepresent the game map to represent.
+	 * @param previousRep        the previous rep of the same game map.
+	 * @param changeJournal      the changes done to the game map since the previous rep was created.
+	 */
+	GameMapRep(GameMap gameMapToRepresent, GameMapRep previousRep, ChangeJournal changeJournal) {
+		this.numOfColumns = previousRep.numOfColumns;
+		this.numOfRows = previousRep.numOfRows;
+
+		mapRep = new SquareRep[numOfRows][];
+		for (int i = 0; i < numOfRows; i++)
+			mapRep[i] = previousRep.mapRep[i].clone();
+		for (Coordinates coordinates : changeJournal.getChangedSquares())
+			mapRep[coordinates.getRow()][coordinates.getColumn()] = gameMapToRepresent.getSquareRep(coordinates);
+
+		spawnSquares = previousRep.spawnSquares; // The spawn squares never change.
+
+		// The same map is reused if nobody moved, so it is serialized only once and compared by reference.
+		playersPositions = changeJournal.hasChanged(ChangeType.PLAYER_MOVED) ? createPlayersPositions(gameMapToRepresent) : previousRep.playersPositions;
+
+		mapName = previousRep.mapName;
+	}
+
+	private static Map<String, Coordinates> createPlayersPositions(GameMap gameMapToRepresent) {
+		Map<String, Coordinates> playersPositions = new HashMap<>();
+		gameMapToRepresent.getPlayersPositions().forEach((player, coordinates) -> playersPositions.put(player.getPlayerName(), coordinates));
+		return playersPositions;
+	}
+
     /**
      * Returns the name of the map.
      *
@@ -122,4 +156,18 @@ public class GameMapRep implements Representation {
         return spawnSquares.containsValue(coordinates);
     }
 
+    /**
+     * Updates this rep in place with the changes received from the server.
+     * @param changedSquares     the reps of the squares that changed, they replace the squares with the same coordinates.
+     * @param playersCoordinates the new positions of the players, or null if they didn't change.
+     */
+    public void applyChanges(List<SquareRep> changedSquares, Map<String, Coordinates> playersCoordinates) {
+        for (SquareRep squareRep : changedSquares) {
+            Coordinates coordinates = squareRep.getCoordinates();
+            mapRep[coordinates.getRow()][coordinates.getColumn()] = squareRep;
+        }
+        if (playersCoordinates != null)
+            playersPositions = new HashMap<>(playersCoordinates);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,459 @@
+package it.polimi.se2019.model.gamemap;
+
+import com.google.gson.*;
+import it.polimi.se2019.model.cards.ammo.AmmoType;
+import it.polimi.se2019.model.gameboard.GameBoard;
+import it.polimi.se2019.utils.CardinalDirection;
+import it.polimi.se2019.utils.Color;
+import it.polimi.se2019.utils.LogCategory;
+import it.polimi.se2019.utils.Utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable structure of a map: the squares with their rooms and walls, the spawn squares,
+ * the walking distances between the squares and the visibility table.
+ * It is loaded from the json file only the first time a map is used and then shared by all the games played on the same map,
+ * every GameMap creates from it only its own squares, that contain the cards of the game.
+ * The squares are identified by their index in row-major order, a set of squares is a bitmask of type long with a bit for each index,
+ * so the squares in a room, in a direction or within a distance are precomputed masks and the queries on them are bitwise operations.
+ *
+ * @author MarcerAndrea
+ */
+final class MapTopology {
+
+	static final int UNREACHABLE = Integer.MAX_VALUE;
+	static final int NO_SQUARE = -1;
+
+	private static final Map<String, MapTopology> MAP_TOPOLOGIES = new ConcurrentHashMap<>();
+
+	private final String mapName;
+	private int numOfRows;
+	private int numOfColumns;
+	private SquareType[] squareTypes;
+	private int[] roomIDs;
+	private Color.CharacterColorType[] squareColors;
+	private AmmoType[] ammoTypes;
+	private boolean[][] possibleDirections;
+	private Coordinates[] squaresCoordinates;
+	private int[][] neighborSquares; // Index of the square in each direction, NO_SQUARE if there is a wall.
+	private int[][] adjacentSquares;
+	private final List<List<Coordinates>> rooms = new ArrayList<>();
+	private final List<Coordinates> spawnSquaresCoordinates = new ArrayList<>();
+	private int[][] walkingDistances;
+	private long[] roomSquares; // Bitmask of the squares in each room.
+	private long[][] squaresInDirection; // Bitmask of the squares in a straight line from each square, walls ignored.
+	private long[][] reachableSquares; // Bitmask of the squares within each walking distance from each square.
+	private MapVisibility mapVisibility;
+
+	private enum SquareType {
+		AMMO_SQUARE,
+		SPAWN_SQUARE,
+		VOID_SQUARE
+	}
+
+
+	/**
+	 * Loads the map from its json file.
+	 *
+	 * @param mapName name of the map to load.
+	 */
+	private MapTopology(String mapName) {
+		this.mapName = mapName;
+		generateMapJson();
+		connectSquares();
+		addSquaresToRooms();
+		computeWalkingDistances();
+		computeSquaresMasks();
+		mapVisibility = new MapVisibility(roomIDs, adjacentSquares);
+	}
+
+	/**
+	 * Returns the structure of the map with the specified name, loading it if it is the first time it is used.
+	 * The names of the maps are the ones of {@link it.polimi.se2019.utils.GameConstants.MapType}.
+	 *
+	 * @param mapName name of the map.
+	 * @return the structure of the map with the specified name.
+	 */
+	static MapTopology getMapTopology(String mapName) {
+		return MAP_TOPOLOGIES.computeIfAbsent(mapName, MapTopology::new);
+	}
+
+
+	// ####################################
+	// MAP METHODS
+	// ####################################
+
+	/**
+	 * Creates the squares of a new game on this map and links each square to the adjacent ones.
+	 *
+	 * @param gameBoard the game board of the game, used by the squares to get the cards.
+	 * @return the squares of the map.
+	 */
+	Square[][] createSquares(GameBoard gameBoard) {
+		Square[][] map = new Square[numOfRows][numOfColumns];
+		for (int index = 0; index < getNumOfSquares(); index++) {
+			Coordinates coordinates = squaresCoordinates[index];
+			switch (squareTypes[index]) {
+				case AMMO_SQUARE:
+					map[coordinates.getRow()][coordinates.getColumn()] = new AmmoSquare(roomIDs[index], squareColors[index], possibleDirections[index].clone(), coordinates, gameBoard);
+					break;
+				case SPAWN_SQUARE:
+					map[coordinates.getRow()][coordinates.getColumn()] = new SpawnSquare(roomIDs[index], ammoTypes[index], squareColors[index], possibleDirections[index].clone(), coordinates, gameBoard);
+					break;
+				default:
+					map[coordinates.getRow()][coordinates.getColumn()] = new VoidSquare(coordinates);
+					break;
+			}
+		}
+		for (int index = 0; index < getNumOfSquares(); index++) {
+			Square square = map[index / numOfColumns][index % numOfColumns];
+			for (int adjacentIndex : adjacentSquares[index])
+				square.addAdjacentSquare(map[adjacentIndex / numOfColumns][adjacentIndex % numOfColumns]);
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the name of the map.
+	 *
+	 * @return the name of the map.
+	 */
+	String getMapName() {
+		return mapName;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return the number of rows.
+	 */
+	int getNumOfRows() {
+		return numOfRows;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 *
+	 * @return the number of columns.
+	 */
+	int getNumOfColumns() {
+		return numOfColumns;
+	}
+
+	/**
+	 * Returns the number of squares, void squares included.
+	 *
+	 * @return the number of squares, void squares included.
+	 */
+	int getNumOfSquares() {
+		return numOfRows * numOfColumns;
+	}
+
+	/**
+	 * Returns the coordinates of the square with the specified index.
+	 *
+	 * @param square index of the square.
+	 * @return the coordinates of the square with the specified index.
+	 */
+	Coordinates getSquareCoordinates(int square) {
+		return squaresCoordinates[square];
+	}
+
+	/**
+	 * Returns the index of the square adjacent to the specified one in the direction, or NO_SQUARE if there is a wall.
+	 *
+	 * @param square    index of the starting square.
+	 * @param direction the direction towards to move.
+	 * @return the index of the adjacent square in the direction, or NO_SQUARE if there is a wall.
+	 */
+	int getNeighborSquare(int square, CardinalDirection direction) {
+		return neighborSquares[square][direction.ordinal()];
+	}
+
+	/**
+	 * Returns the number of rooms, that is the number of the possible room IDs.
+	 *
+	 * @return the number of rooms.
+	 */
+	int getNumOfRooms() {
+		return rooms.size();
+	}
+
+	/**
+	 * Returns the coordinates of the squares in the room.
+	 *
+	 * @param roomID ID of the room.
+	 * @return the coordinates of the squares in the room, the list can't be modified.
+	 */
+	List<Coordinates> getRoomCoordinates(int roomID) {
+		return rooms.get(roomID);
+	}
+
+	/**
+	 * Returns the coordinates of the spawn squares, in the order of the json file.
+	 *
+	 * @return the coordinates of the spawn squares, the list can't be modified.
+	 */
+	List<Coordinates> getSpawnSquaresCoordinates() {
+		return spawnSquaresCoordinates;
+	}
+
+	/**
+	 * Returns the walking distances from the square to all the squares of the map, indexed by the square index.
+	 * The array is shared and must not be modified.
+	 *
+	 * @param square index of the starting square.
+	 * @return the walking distances from the square to all the squares of the map.
+	 */
+	int[] getWalkingDistances(int square) {
+		return walkingDistances[square];
+	}
+
+	/**
+	 * Returns the bitmask of the squares in the room.
+	 *
+	 * @param roomID ID of the room.
+	 * @return the bitmask of the squares in the room.
+	 */
+	long getRoomSquares(int roomID) {
+		return roomSquares[roomID];
+	}
+
+	/**
+	 * Returns the bitmask of the squares in a straight line from the square in the direction, the square included.
+	 * The walls are ignored, the line ends at the border of the map or at a void square.
+	 *
+	 * @param square    index of the starting square.
+	 * @param direction the direction of the line.
+	 * @return the bitmask of the squares in the direction.
+	 */
+	long getSquaresInDirection(int square, CardinalDirection direction) {
+		return squaresInDirection[square][direction.ordinal()];
+	}
+
+	/**
+	 * Returns the bitmask of the squares that can be reached from the square walking at most the distance, the square included.
+	 *
+	 * @param square      index of the starting square.
+	 * @param maxDistance the maximum walking distance.
+	 * @return the bitmask of the squares within the distance.
+	 */
+	long getReachableSquares(int square, int maxDistance) {
+		long[] squaresWithinDistance = reachableSquares[square];
+		if (maxDistance < 0 || squaresWithinDistance.length == 0)
+			return 0L;
+		return squaresWithinDistance[Math.min(maxDistance, squaresWithinDistance.length - 1)];
+	}
+
+	/**
+	 * Returns the visibility table of the map.
+	 *
+	 * @return the visibility table of the map.
+	 */
+	MapVisibility getMapVisibility() {
+		return mapVisibility;
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Reads the squares of the map from its json file.
+	 */
+	private void generateMapJson() {
+		Utils.logInfo(LogCategory.MODEL, () -> "Loading map:" + mapName);
+		Reader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/maps/" + mapName + ".json")));
+		try {
+			JsonParser parser = new JsonParser();
+			JsonObject rootObject = parser.parse(reader).getAsJsonObject();
+			numOfRows = rootObject.get("row").getAsInt();
+			numOfColumns = rootObject.get("column").getAsInt();
+
+			int numOfSquares = getNumOfSquares();
+			squareTypes = new SquareType[numOfSquares];
+			roomIDs = new int[numOfSquares];
+			squareColors = new Color.CharacterColorType[numOfSquares];
+			ammoTypes = new AmmoType[numOfSquares];
+			possibleDirections = new boolean[numOfSquares][];
+			squaresCoordinates = new Coordinates[numOfSquares];
+
+			JsonArray squares = rootObject.getAsJsonArray("squares");
+			for (JsonElement entry : squares) {
+				addSquare(entry.getAsJsonObject());
+			}
+		} catch (IOException | JsonParseException e) {
+			Utils.logError("Cannot parse " + mapName, e);
+		}
+	}
+
+	/**
+	 * Reads a square of the map.
+	 *
+	 * @param square JsonObject to parse.
+	 */
+	private void addSquare(JsonObject square) throws IOException {
+		Coordinates squareCoordinates = Coordinates.of(square.get("row").getAsInt(), square.get("column").getAsInt());
+		int index = squareCoordinates.getRow() * numOfColumns + squareCoordinates.getColumn();
+		squaresCoordinates[index] = squareCoordinates;
+
+		switch (square.get("type").getAsString()) {
+			case "AmmoSquare":
+				squareTypes[index] = SquareType.AMMO_SQUARE;
+				break;
+
+			case "SpawnSquare":
+				squareTypes[index] = SquareType.SPAWN_SQUARE;
+				ammoTypes[index] = AmmoType.valueOf(square.get("ammoType").getAsString());
+				spawnSquaresCoordinates.add(squareCoordinates);
+				break;
+
+			case "VoidSquare":
+				squareTypes[index] = SquareType.VOID_SQUARE;
+				roomIDs[index] = -1;
+				possibleDirections[index] = new boolean[CardinalDirection.values().length];
+				return;
+
+			default:
+				throw new IOException("failed to add the map");
+		}
+		roomIDs[index] = square.get("roomID").getAsInt();
+		squareColors[index] = Color.CharacterColorType.valueOf(square.get("squareColor").getAsString());
+		possibleDirections[index] = getBooleanArray(square.getAsJsonArray("possibleDirection"));
+	}
+
+	private boolean[] getBooleanArray(JsonArray ja) {
+		boolean[] result = new boolean[CardinalDirection.values().length];
+
+		for (int i = 0; i < ja.size(); i++) {
+			result[i] = ja.get(i).getAsBoolean();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Finds the squares adjacent to each square following the possible directions.
+	 */
+	private void connectSquares() {
+		neighborSquares = new int[getNumOfSquares()][CardinalDirection.values().length];
+		adjacentSquares = new int[getNumOfSquares()][];
+		for (int index = 0; index < getNumOfSquares(); index++) {
+			Arrays.fill(neighborSquares[index], NO_SQUARE);
+			List<Integer> adjacentIndexes = new ArrayList<>();
+			if (roomIDs[index] != -1) {
+				for (CardinalDirection direction : CardinalDirection.values()) {
+					if (possibleDirections[index][direction.ordinal()]) {
+						Coordinates adjacentCoordinates = Coordinates.getDirectionCoordinates(squaresCoordinates[index], direction);
+						int adjacentIndex = adjacentCoordinates.getRow() * numOfColumns + adjacentCoordinates.getColumn();
+						neighborSquares[index][direction.ordinal()] = adjacentIndex;
+						adjacentIndexes.add(adjacentIndex);
+					}
+				}
+			}
+			adjacentSquares[index] = adjacentIndexes.stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	/**
+	 * Creates the structure to memorize the squares belonging to each room.
+	 */
+	private void addSquaresToRooms() {
+		List<List<Coordinates>> roomsToFill = new ArrayList<>();
+		for (int i = 0; i < Color.CharacterColorType.values().length; i++)
+			roomsToFill.add(new ArrayList<>());
+		for (int index = 0; index < getNumOfSquares(); index++) {
+			if (roomIDs[index] >= 0)
+				roomsToFill.get(roomIDs[index]).add(squaresCoordinates[index]);
+		}
+		for (List<Coordinates> room : roomsToFill)
+			rooms.add(Collections.unmodifiableList(room));
+	}
+
+	/**
+	 * Computes the walking distance between each pair of squares with a breadth-first search from every square.
+	 * Void squares and squares that can't be reached have an UNREACHABLE distance.
+	 */
+	private void computeWalkingDistances() {
+		int numOfSquares = getNumOfSquares();
+		walkingDistances = new int[numOfSquares][numOfSquares];
+		int[] queue = new int[numOfSquares];
+		for (int start = 0; start < numOfSquares; start++) {
+			int[] distances = walkingDistances[start];
+			Arrays.fill(distances, UNREACHABLE);
+			if (roomIDs[start] == -1)
+				continue;
+			distances[start] = 0;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = start;
+			while (head < tail) {
+				int current = queue[head++];
+				for (int adjacent : adjacentSquares[current]) {
+					if (distances[adjacent] == UNREACHABLE) {
+						distances[adjacent] = distances[current] + 1;
+						queue[tail++] = adjacent;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the bitmasks of the squares in the rooms, in the directions and within the walking distances.
+	 * The masks of the squares within the distances end at the distance of the farthest square, the greater distances use the last mask.
+	 */
+	private void computeSquaresMasks() {
+		int numOfSquares = getNumOfSquares();
+		if (numOfSquares > Long.SIZE)
+			throw new IllegalStateException("The map " + mapName + " has too many squares");
+
+		roomSquares = new long[rooms.size()];
+		squaresInDirection = new long[numOfSquares][CardinalDirection.values().length];
+		reachableSquares = new long[numOfSquares][];
+		for (int index = 0; index < numOfSquares; index++) {
+			if (roomIDs[index] == -1) {
+				reachableSquares[index] = new long[0];
+				continue;
+			}
+			roomSquares[roomIDs[index]] |= 1L << index;
+
+			for (CardinalDirection direction : CardinalDirection.values()) {
+				Coordinates coordinates = squaresCoordinates[index];
+				while (coordinates != null && isSquare(coordinates)) {
+					squaresInDirection[index][direction.ordinal()] |= 1L << (coordinates.getRow() * numOfColumns + coordinates.getColumn());
+					coordinates = Coordinates.getDirectionCoordinates(coordinates, direction);
+				}
+			}
+
+			int farthestDistance = 0;
+			for (int distance : walkingDistances[index]) {
+				if (distance != UNREACHABLE)
+					farthestDistance = Math.max(farthestDistance, distance);
+			}
+			reachableSquares[index] = new long[farthestDistance + 1];
+			for (int otherIndex = 0; otherIndex < numOfSquares; otherIndex++) {
+				int distance = walkingDistances[index][otherIndex];
+				if (distance == UNREACHABLE)
+					continue;
+				for (int maxDistance = distance; maxDistance <= farthestDistance; maxDistance++)
+					reachableSquares[index][maxDistance] |= 1L << otherIndex;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if and only if the coordinates are in the map and are not of a void square.
+	 */
+	private boolean isSquare(Coordinates coordinates) {
+		return coordinates.getRow() < numOfRows && coordinates.getColumn() < numOfColumns &&
+				roomIDs[coordinates.getRow() * numOfColumns + coordinates.getColumn()] != -1;
+	}
+}
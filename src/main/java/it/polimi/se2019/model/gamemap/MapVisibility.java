@@ -0,0 +1,77 @@
+package it.polimi.se2019.model.gamemap;
+
+/**
+ * Immutable table with the squares visible from each square of a map and the rooms each square has a door to.
+ * The squares are identified by their index in row-major order, the squares visible from a square are a bitmask with a bit for each index.
+ * The rooms of a map never change, so the table is part of the MapTopology shared by all the games played on the same map.
+ *
+ * @author MarcerAndrea
+ */
+final class MapVisibility {
+
+	private final long[] visibleSquares; // Bitmask of the squares visible from each square.
+	private final int[] adjacentRooms; // Bitmask of the rooms that each square has a door to.
+
+
+	/**
+	 * Creates the visibility table of the map.
+	 *
+	 * @param roomIDs         the room ID of each square, -1 for the void squares.
+	 * @param adjacentSquares the indexes of the squares adjacent to each square.
+	 */
+	MapVisibility(int[] roomIDs, int[][] adjacentSquares) {
+		int numOfSquares = roomIDs.length;
+		visibleSquares = new long[numOfSquares];
+		adjacentRooms = new int[numOfSquares];
+
+		for (int index = 0; index < numOfSquares; index++) {
+			for (int adjacentIndex : adjacentSquares[index]) {
+				if (roomIDs[adjacentIndex] != roomIDs[index])
+					adjacentRooms[index] |= 1 << roomIDs[adjacentIndex];
+			}
+		}
+
+		for (int index = 0; index < numOfSquares; index++) {
+			if (roomIDs[index] == -1)
+				continue;
+			int visibleRooms = adjacentRooms[index] | (1 << roomIDs[index]);
+			for (int otherIndex = 0; otherIndex < numOfSquares; otherIndex++) {
+				if (roomIDs[otherIndex] != -1 && (visibleRooms & (1 << roomIDs[otherIndex])) != 0)
+					visibleSquares[index] |= 1L << otherIndex;
+			}
+		}
+	}
+
+
+	/**
+	 * Returns true if and only if the second square is visible from the first one.
+	 *
+	 * @param squareA index of the square of the watching player.
+	 * @param squareB index of the square to check.
+	 * @return true if and only if the second square is visible from the first one.
+	 */
+	boolean isVisible(int squareA, int squareB) {
+		return (visibleSquares[squareA] & (1L << squareB)) != 0;
+	}
+
+	/**
+	 * Returns the bitmask of the squares visible from the square.
+	 *
+	 * @param square index of the square of the watching player.
+	 * @return the bitmask of the squares visible from the square.
+	 */
+	long getVisibleSquares(int square) {
+		return visibleSquares[square];
+	}
+
+	/**
+	 * Returns true if and only if the square has a door to the room.
+	 *
+	 * @param square index of the square.
+	 * @param roomID ID of the room.
+	 * @return true if and only if the square has a door to the room.
+	 */
+	boolean hasDoorTo(int square, int roomID) {
+		return (adjacentRooms[square] & (1 << roomID)) != 0;
+	}
+}
@@ -10,6 +10,7 @@ import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.network.message.MessageType;
 import it.polimi.se2019.utils.Color;
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
 /**
@@ -45,7 +46,7 @@ public class SpawnSquare extends Square {
 	public void refillCards() {
 		if (!isFilled()) {
 			for (int i = cards.size(); i < GameConstants.MAX_NUM_OF_WEAPONS_IN_SPAWN_SQUARE; i++) {
-				Utils.logInfo("SpawnSquare -> refillCards(): Refilling the spawn square in " + getCoordinates());
+				Utils.logInfo(LogCategory.MODEL, () -> "SpawnSquare -> refillCards(): Refilling the spawn square in " + getCoordinates());
 				if (!weaponDeck.isEmpty())
 					cards.add(weaponDeck.drawCard());
 			}
@@ -89,7 +90,7 @@ public class SpawnSquare extends Square {
 			throw new IllegalArgumentException("Index should be positive: " + index);
 		setNotFilled();
 		setChanged();
-		Utils.logInfo("SpawnSquare -> grabCard(): Grabbing " + cards.get(index).getCardName() + " from the square");
+		Utils.logInfo(LogCategory.MODEL, () -> "SpawnSquare -> grabCard(): Grabbing " + cards.get(index).getCardName() + " from the square");
 		return cards.remove(index);
 	}
 
@@ -107,7 +108,7 @@ public class SpawnSquare extends Square {
 		if (cards.size() < GameConstants.MAX_NUM_OF_WEAPONS_IN_SPAWN_SQUARE) {
 			cards.add(cardToAdd);
 			setChanged();
-			Utils.logInfo("SpawnSquare -> addCard(): Added " + cardToAdd.getCardName());
+			Utils.logInfo(LogCategory.MODEL, () -> "SpawnSquare -> addCard(): Added " + cardToAdd.getCardName());
 		} else
 			throw new IllegalArgumentException("Trying to add a weapon to a filled Spawn square: SpawnSquare refillCards(weapon)");
 	}
@@ -8,6 +8,7 @@ import it.polimi.se2019.model.cards.weapons.WeaponCard;
 import it.polimi.se2019.model.player.damagestatus.DamageStatus;
 import it.polimi.se2019.model.player.damagestatus.LowDamage;
 import it.polimi.se2019.utils.Color;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.MacroAction;
 import it.polimi.se2019.utils.QuestionContainer;
 import it.polimi.se2019.utils.Utils;
@@ -31,6 +32,7 @@ public class Player extends Observable implements Representable {
 	private PlayerBoard playerBoard;
 	private DamageStatus damageStatus;
 	private PlayerRep playerRep;
+	private PlayerRep hiddenPlayerRep; // Hidden version of playerRep, shared by all the other players.
 	private int firingWeapon = -1; //The current weapon that the player is firing with.
 	private int powerupInExecution = -1; // The current powerup that the player is using.
 	private boolean connected = true;
@@ -51,7 +53,7 @@ public class Player extends Observable implements Representable {
 
 	public void setConnected(boolean connected) {
 		this.connected = connected;
-		Utils.logInfo("Player -> setConnected(): set player as " + (connected ? "connected" : "disconnected") + ".");
+		Utils.logInfo(LogCategory.MODEL, () -> "Player -> setConnected(): set player as " + (connected ? "connected" : "disconnected") + ".");
 		setChanged();
 	}
 
@@ -120,7 +122,7 @@ public class Player extends Observable implements Representable {
 	 */
 	public void setDamageStatus(DamageStatus newDamageStatus) {
 		damageStatus = newDamageStatus;
-		Utils.logInfo("Player -> setdamageStatus(): " + playerName + "'s damage status set to " + newDamageStatus);
+		Utils.logInfo(LogCategory.MODEL, () -> "Player -> setdamageStatus(): " + playerName + "'s damage status set to " + newDamageStatus);
 		setChanged();
 	}
 
@@ -150,8 +152,8 @@ public class Player extends Observable implements Representable {
 	 */
 	public void setTurnStatus(TurnStatus status) {
 		this.turnStatus = status;
-		Utils.logInfo("Player -> setTurnStatus(): " + playerName + "'s turn status set to " + status);
-		setChanged();
+		Utils.logInfo(LogCategory.MODEL, () -> "Player -> setTurnStatus(): " + playerName + "'s turn status set to " + status);
+		// The turn status isn't part of the rep, so the rep doesn't need to be updated.
 	}
 
 	public void addDamage(Player shootingPlayer, int amountOfDamage) {
@@ -211,7 +213,7 @@ public class Player extends Observable implements Representable {
 
 	public QuestionContainer initialWeaponActivation(int indexOfWeapon) {
 		firingWeapon = indexOfWeapon;
-		Utils.logWeapon(playerName + " just started shooting with the weapon " + getFiringWeapon().getCardName());
+		Utils.logWeapon(() -> playerName + " just started shooting with the weapon " + getFiringWeapon().getCardName());
 		return getFiringWeapon().doActivationStep(0);
 	}
 
@@ -293,15 +295,16 @@ public class Player extends Observable implements Representable {
 			setChanged();
 
 		if (hasChanged() || playerRep == null) {
-			playerRep = new PlayerRep(this);
+			playerRep = new PlayerRep(this, playerRep);
+			hiddenPlayerRep = playerRep.getHiddenPlayerRep();
 			playerBoard.setNotChanged();
 			playerBoard.getAmmoContainer().setNotChanged();
 			damageStatus.setNotChanged();
 			if (Utils.DEBUG_REPS)
-				Utils.logRep("Player -> updateRep(): " + playerName + "'s representation has been updated");
+				Utils.logRep(() -> "Player -> updateRep(): " + playerName + "'s representation has been updated");
 		} else {
 			if (Utils.DEBUG_REPS)
-				Utils.logRep("Player -> updateRep(): " + playerName + "'s representation is already up to date");
+				Utils.logRep(() -> "Player -> updateRep(): " + playerName + "'s representation is already up to date");
 		}
 	}
 
@@ -310,23 +313,25 @@ public class Player extends Observable implements Representable {
 	 */
 	public void forceUpdateOfReps() {
 		playerRep = new PlayerRep(this);
+		hiddenPlayerRep = playerRep.getHiddenPlayerRep();
 		playerBoard.setNotChanged();
 		playerBoard.getAmmoContainer().setNotChanged();
 		damageStatus.setNotChanged();
 		setChanged();
 		if (Utils.DEBUG_REPS)
-			Utils.logInfo("Player -> forceUpdateOfReps(): " + playerName + " representation has been updated");
+			Utils.logInfo(LogCategory.MODEL, () -> "Player -> forceUpdateOfReps(): " + playerName + " representation has been updated");
 	}
 
 	/**
 	 * Returns the player representation. if the player who is asking the representation is the same player
 	 * the representation is complete, otherwise it is hidden.
+	 * The hidden representation is created once for every update of the representation and shared by all the other players.
 	 *
 	 * @param playerAsking name of the player who is asking the representation.
 	 * @return the player's representation.
 	 */
 	public Representation getRep(String playerAsking) {
-		return playerName.equals(playerAsking) ? playerRep : playerRep.getHiddenPlayerRep();
+		return playerName.equals(playerAsking) ? playerRep : hiddenPlayerRep;
 	}
 
 	/**
@@ -1,10 +1,13 @@
 package it.polimi.se2019.model.player;
 
+import it.polimi.se2019.model.ChangeJournal;
+import it.polimi.se2019.model.ChangeJournal.ChangeType;
 import it.polimi.se2019.model.cards.ammo.AmmoContainer;
 import it.polimi.se2019.model.cards.ammo.AmmoType;
 import it.polimi.se2019.model.cards.powerups.PowerupCard;
 import it.polimi.se2019.model.cards.weapons.WeaponCard;
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.utils.exceptions.InventoryFullException;
 
@@ -19,8 +22,8 @@ import java.util.List;
 public class PlayerBoard {
 
 	private String playerName;
-	private List<Player> damageBoard;
-	private List<Player> marks;
+	private final TokenTrack damageBoard;
+	private final TokenTrack marks;
 	private int numberOfDeaths;
 	private int points;
 	private boolean isFlipped; //Indicates if the damageBoard is flipped to the frenzy side.
@@ -28,6 +31,7 @@ public class PlayerBoard {
 	private List<PowerupCard> powerupCards;
 	private List<WeaponCard> weaponCards;
 	private boolean hasChanged;
+	private final ChangeJournal changeJournal = new ChangeJournal(); // Changes of the damage and of the marks since the last update of the rep.
 
 
 	/**
@@ -36,8 +40,8 @@ public class PlayerBoard {
 	 * @param playerName the name of the player (only used for debugging purposes).
 	 */
 	public PlayerBoard(String playerName) {
-		damageBoard = new ArrayList<>();
-		marks = new ArrayList<>();
+		damageBoard = new TokenTrack(GameConstants.OVERKILL_DAMAGE);
+		marks = new TokenTrack(GameConstants.MAX_MARKS_PER_PLAYER * GameConstants.MAX_PLAYERS);
 		numberOfDeaths = 0;
 		this.playerName = playerName;
 		points = 0;
@@ -62,21 +66,19 @@ public class PlayerBoard {
 		if (amountOfDamage == 0)
 			return;
 
-		// Add damageBoard
+		// Add damageBoard, the tokens over the overkill are lost.
 		for (int i = 0; i < amountOfDamage; i++)
-			if (damageBoard.size() < GameConstants.OVERKILL_DAMAGE)
-				damageBoard.add(shootingPlayer);
-
-		int i;
-		int marksDealt = 0;
-		for (i = marks.size() - 1; i >= 0; i--) {
-			if (marks.get(i).getPlayerName().equals(shootingPlayer.getPlayerName()) && damageBoard.size() < GameConstants.OVERKILL_DAMAGE) {
-				damageBoard.add(shootingPlayer);
-				marks.remove(i);
-				marksDealt++;
-			}
-		}
-		Utils.logInfo("PlayerBoard -> addDamage(): Recorded to the player board that " + shootingPlayer.getPlayerName() + " dealt " + amountOfDamage + " direct damage and " + marksDealt + " mark damage to " + playerName);
+			damageBoard.add(shootingPlayer);
+
+		// Convert the last marks of the shooting player into damage.
+		int marksDealt = marks.removeLast(shootingPlayer, GameConstants.OVERKILL_DAMAGE - damageBoard.size());
+		for (int i = 0; i < marksDealt; i++)
+			damageBoard.add(shootingPlayer);
+		changeJournal.record(ChangeType.DAMAGE_CHANGED);
+		if (marksDealt > 0)
+			changeJournal.record(ChangeType.MARKS_CHANGED);
+		int marksDamage = marksDealt;
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> addDamage(): Recorded to the player board that " + shootingPlayer.getPlayerName() + " dealt " + amountOfDamage + " direct damage and " + marksDamage + " mark damage to " + playerName);
 		setChanged();
 	}
 
@@ -95,10 +97,11 @@ public class PlayerBoard {
 
 		for (int i = 0; i < amountOfMarks; i++)
 			// check if the shooting player doesn't have the max number of marks on the target player.
-			if (marks.stream().filter(player -> player == shootingPlayer).count() < GameConstants.MAX_MARKS_PER_PLAYER)
+			if (marks.getTokensOf(shootingPlayer) < GameConstants.MAX_MARKS_PER_PLAYER)
 				marks.add(shootingPlayer);
+		changeJournal.record(ChangeType.MARKS_CHANGED);
 
-		Utils.logInfo("PlayerBoard -> addMarks(): Added " + amountOfMarks + " marks");
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> addMarks(): Added " + amountOfMarks + " marks");
 		setChanged();
 	}
 
@@ -108,7 +111,16 @@ public class PlayerBoard {
 	 * @return a copy of the List of damages done to the player.
 	 */
 	public List<Player> getDamageBoard() {
-		return new ArrayList<>(damageBoard);
+		return damageBoard.toList();
+	}
+
+	/**
+	 * Returns the track of the damage done to the player, that can be read without copying it.
+	 *
+	 * @return the track of the damage done to the player.
+	 */
+	public TokenTrack getDamageTrack() {
+		return damageBoard;
 	}
 
 	/**
@@ -123,15 +135,15 @@ public class PlayerBoard {
 		}
 		List<AmmoType> priceToPay = new ArrayList<>(ammoToCheck);
 		List<PowerupCard> powerups = new ArrayList<>(powerupCards);
-		Utils.logInfo("PlayerBoard -> hasEnoughAmmo(): trying to pay " + ammoToCheck + " with " + powerupCards + " and ammo " + getAmmoContainer().getAmmo());
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> hasEnoughAmmo(): trying to pay " + ammoToCheck + " with " + powerupCards + " and ammo " + getAmmoContainer().getAmmo());
 
 		for (PowerupCard powerup : powerupCards) {
-			Utils.logInfo("PlayerBoard -> hasEnoughAmmo(): this powerups " + powerups + " can be used to pay " + priceToPay + " ?");
+			Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> hasEnoughAmmo(): this powerups " + powerups + " can be used to pay " + priceToPay + " ?");
 			for (int i = priceToPay.size() - 1; i >= 0; i--) {
 				if (priceToPay.get(i).equals(powerup.getAssociatedAmmo())) {
 					priceToPay.remove(i);
 					powerups.remove(powerup);
-					Utils.logInfo("PlayerBoard -> hasEnoughAmmo(): can pay with " + powerup + " so it has been discarded");
+					Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> hasEnoughAmmo(): can pay with " + powerup + " so it has been discarded");
 					break;
 				}
 			}
@@ -158,7 +170,16 @@ public class PlayerBoard {
 	 * @return a copy of the the List of marks done to the player.
 	 */
 	public List<Player> getMarks() {
-		return new ArrayList<>(marks);
+		return marks.toList();
+	}
+
+	/**
+	 * Returns the track of the marks of the player, that can be read without copying it.
+	 *
+	 * @return the track of the marks of the player.
+	 */
+	public TokenTrack getMarksTrack() {
+		return marks;
 	}
 
 	/**
@@ -181,7 +202,7 @@ public class PlayerBoard {
 			throw new IllegalArgumentException("pointsToAdd cannot be negative.");
 
 		points += pointsToAdd;
-		Utils.logInfo("PlayerBoard -> addPoints(): Added " + pointsToAdd + " points");
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> addPoints(): Added " + pointsToAdd + " points");
 		setChanged();
 	}
 
@@ -205,10 +226,11 @@ public class PlayerBoard {
 
 		numberOfDeaths++;
 
-		Utils.logInfo("The player " + playerName + " now has " + numberOfDeaths + " deaths.");
+		Utils.logInfo(LogCategory.MODEL, () -> "The player " + playerName + " now has " + numberOfDeaths + " deaths.");
 		//resets the damage board
-		damageBoard = new ArrayList<>();
-		Utils.logInfo("PlayerBoard -> resetBoardAfterDeath(): Damage board has been reset after death, now the player has " + numberOfDeaths + " deaths");
+		damageBoard.clear();
+		changeJournal.record(ChangeType.DAMAGE_CHANGED);
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> resetBoardAfterDeath(): Damage board has been reset after death, now the player has " + numberOfDeaths + " deaths");
 		setChanged();
 	}
 
@@ -231,7 +253,7 @@ public class PlayerBoard {
 		if (weaponCards.size() >= GameConstants.MAX_WEAPON_CARDS_PER_PLAYER)
 			throw new InventoryFullException("Cannot add another weapon card since the inventory is full. Use swapWeapon to setChanged the weapon.");
 		weaponCards.add(weaponToAdd);
-		Utils.logInfo("PlayerBoard -> addWeapon(): Added to the player " + weaponToAdd.getCardName());
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> addWeapon(): Added to the player " + weaponToAdd.getCardName());
 		setChanged();
 	}
 
@@ -263,7 +285,7 @@ public class PlayerBoard {
 	public WeaponCard removeWeapon(int indexOfTheWeapon) {
 		if (indexOfTheWeapon < 0 || indexOfTheWeapon > numOfWeapons())
 			throw new IllegalArgumentException("Illegal index");
-		Utils.logInfo("PlayerBoard -> removeWeapon(): Removing " + weaponCards.get(indexOfTheWeapon));
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> removeWeapon(): Removing " + weaponCards.get(indexOfTheWeapon));
 		return weaponCards.remove(indexOfTheWeapon);
 	}
 
@@ -280,7 +302,7 @@ public class PlayerBoard {
 			throw new IllegalArgumentException("weaponCardToDrop is not owned by the player.");
 		WeaponCard weaponToDrop = weaponCards.remove(indexOfTheWeaponCardToDrop);
 		addWeapon(weaponToGrab);
-		Utils.logInfo("PlayerBoard -> swapWeapon(): Swaped " + weaponToDrop.getCardName() + " with " + weaponToGrab.getCardName());
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> swapWeapon(): Swaped " + weaponToDrop.getCardName() + " with " + weaponToGrab.getCardName());
 		setChanged();
 		return weaponToDrop;
 	}
@@ -296,7 +318,7 @@ public class PlayerBoard {
 			throw new InventoryFullException("Cannot add another powerup card since the inventory is full.");
 		}
 		powerupCards.add(powerupToAdd);
-		Utils.logInfo("PlayerBoard -> addPowerup(): Added to the player " + powerupToAdd.getCardName());
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> addPowerup(): Added to the player " + powerupToAdd.getCardName());
 		setChanged();
 	}
 
@@ -307,7 +329,7 @@ public class PlayerBoard {
 	 */
 	public void addSpawnPowerup(PowerupCard powerupToAdd) {
 		powerupCards.add(powerupToAdd);
-		Utils.logInfo("PlayerBoard -> addSpawnPowerup(): Added to the player " + powerupToAdd.getCardName());
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> addSpawnPowerup(): Added to the player " + powerupToAdd.getCardName());
 		setChanged();
 	}
 
@@ -328,7 +350,7 @@ public class PlayerBoard {
 	 * @return the removed powerup that should be added to the discarded deck.
 	 */
 	public PowerupCard removePowerup(int indexOfPowerCardToRemove) {
-		Utils.logInfo("PlayerBoard -> removePowerup(): Removing " + powerupCards.get(indexOfPowerCardToRemove).getCardName() + " from the playerBoard");
+		Utils.logInfo(LogCategory.MODEL, () -> "PlayerBoard -> removePowerup(): Removing " + powerupCards.get(indexOfPowerCardToRemove).getCardName() + " from the playerBoard");
 		PowerupCard powerupCard = powerupCards.get(indexOfPowerCardToRemove);
 		powerupCards.remove(indexOfPowerCardToRemove);
 		setChanged();
@@ -370,6 +392,16 @@ public class PlayerBoard {
 	 */
 	void setNotChanged() {
 		hasChanged = false;
+		changeJournal.clear();
+	}
+
+	/**
+	 * Returns the journal of the changes of the damage and of the marks since the last update of the representation.
+	 *
+	 * @return the journal of the changes of the damage and of the marks.
+	 */
+	ChangeJournal getChangeJournal() {
+		return changeJournal;
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package it.polimi.se2019.model.player;
 
+import it.polimi.se2019.model.ChangeJournal;
+import it.polimi.se2019.model.ChangeJournal.ChangeType;
 import it.polimi.se2019.model.Representation;
 import it.polimi.se2019.model.cards.ammo.AmmoType;
 import it.polimi.se2019.model.cards.powerups.PowerupCard;
@@ -11,10 +13,12 @@ import it.polimi.se2019.utils.Color;
 import it.polimi.se2019.utils.exceptions.HiddenException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * A sharable version of all the useful Player information.
+ * A PlayerRep can't be modified after its creation (the getters return unmodifiable lists), so the same instance can be sent to all the players.
  *
  * @author Desno365
  */
@@ -43,20 +47,34 @@ public class PlayerRep implements Representation {
 	 * @param player the player from which the information are extracted.
 	 */
 	public PlayerRep(Player player) {
+		this(player, null);
+	}
+
+	/**
+	 * Create a new PlayerRep with all the information of a Player, reusing from the previous rep the damage, the marks and the ammo
+	 * if the change journal of the player board and the ammo container say that they didn't change.
+	 *
+	 * @param player      the player from which the information are extracted.
+	 * @param previousRep the previous rep of the same player, or null to extract all the information.
+	 */
+	PlayerRep(Player player, PlayerRep previousRep) {
+		ChangeJournal changeJournal = player.getPlayerBoard().getChangeJournal();
 		playerName = player.getPlayerName();
 		playerColor = player.getPlayerColor();
 		points = player.getPlayerBoard().getPoints();
 		playerID = player.getPlayerID();
 		damageStatusRep = (DamageStatusRep) player.getDamageStatus().getRep();
 
-		damageBoard = new ArrayList<>(player.getPlayerBoard().getDamageBoard().size());
-		for (Player player1 : player.getPlayerBoard().getDamageBoard()) {
-			damageBoard.add(player1.getPlayerColor());
+		if (previousRep != null && !changeJournal.hasChanged(ChangeType.DAMAGE_CHANGED)) {
+			damageBoard = previousRep.damageBoard;
+		} else {
+			damageBoard = player.getPlayerBoard().getDamageTrack().toColors();
 		}
 
-		marks = new ArrayList<>(player.getPlayerBoard().getMarks().size());
-		for (Player player2 : player.getPlayerBoard().getMarks()) {
-			marks.add(player2.getPlayerColor());
+		if (previousRep != null && !changeJournal.hasChanged(ChangeType.MARKS_CHANGED)) {
+			marks = previousRep.marks;
+		} else {
+			marks = player.getPlayerBoard().getMarksTrack().toColors();
 		}
 
 		powerupCards = new ArrayList<>(player.getPlayerBoard().getPowerupCards().size());
@@ -69,9 +87,13 @@ public class PlayerRep implements Representation {
 			weaponReps.add((WeaponRep) weaponCard.getRep());
 		}
 
-		ammo = new int[AmmoType.values().length];
-		for (AmmoType ammoType : AmmoType.values()) {
-			ammo[ammoType.ordinal()] = player.getPlayerBoard().getAmmoContainer().getAmmo(ammoType);
+		if (previousRep != null && !player.getPlayerBoard().getAmmoContainer().hasChanged()) {
+			ammo = previousRep.ammo;
+		} else {
+			ammo = new int[AmmoType.values().length];
+			for (AmmoType ammoType : AmmoType.values()) {
+				ammo[ammoType.ordinal()] = player.getPlayerBoard().getAmmoContainer().getAmmo(ammoType);
+			}
 		}
 
 		this.flippedBoard = player.getPlayerBoard().isFlipped();
@@ -91,6 +113,7 @@ public class PlayerRep implements Representation {
 
 	/**
 	 * Returns a PlayerRep that contains only the information that are available also to the other players.
+	 * The lists that aren't filtered are shared with this PlayerRep, since they can't be modified.
 	 *
 	 * @return a new PlayerRep without the sensitive information.
 	 */
@@ -100,8 +123,8 @@ public class PlayerRep implements Representation {
 		newPlayerRep.playerColor = this.playerColor;
 		newPlayerRep.playerID = this.playerID;
 		newPlayerRep.points = -1; // hidden
-		newPlayerRep.damageBoard = new ArrayList<>(damageBoard);
-		newPlayerRep.marks = new ArrayList<>(marks);
+		newPlayerRep.damageBoard = damageBoard;
+		newPlayerRep.marks = marks;
 		newPlayerRep.damageStatusRep = null;//hidden
 		newPlayerRep.powerupCards = null; // hidden
 		newPlayerRep.weaponReps = new ArrayList<>();
@@ -111,7 +134,7 @@ public class PlayerRep implements Representation {
 		}
 		newPlayerRep.deaths = deaths;
 		newPlayerRep.flippedBoard = flippedBoard;
-		newPlayerRep.ammo = this.ammo.clone();
+		newPlayerRep.ammo = this.ammo;
 		newPlayerRep.connected = this.connected;
 		newPlayerRep.hidden = true;
 		newPlayerRep.pgName = pgName;
@@ -191,7 +214,7 @@ public class PlayerRep implements Representation {
 	 * @return the list of player's weapons.
 	 */
 	public List<WeaponRep> getWeaponReps() {
-		return weaponReps;
+		return Collections.unmodifiableList(weaponReps);
 	}
 
 	/**
@@ -221,7 +244,7 @@ public class PlayerRep implements Representation {
 	 * @return the damage board of this player with all the player names that made the damage.
 	 */
 	public List<Color.CharacterColorType> getDamageBoard() {
-		return damageBoard;
+		return Collections.unmodifiableList(damageBoard);
 	}
 
 	/**
@@ -230,7 +253,7 @@ public class PlayerRep implements Representation {
 	 * @return the marks of this player with all the player names that made the marks.
 	 */
 	public List<Color.CharacterColorType> getMarks() {
-		return marks;
+		return Collections.unmodifiableList(marks);
 	}
 
 	/**
@@ -242,7 +265,7 @@ public class PlayerRep implements Representation {
 	public List<PowerupCardRep> getPowerupCards() {
 		if (isHidden())
 			throw new HiddenException("The value of \"powerupCards\" is hidden in this PlayerRep.");
-		return powerupCards;
+		return Collections.unmodifiableList(powerupCards);
 	}
 
 	/**
@@ -255,8 +278,13 @@ public class PlayerRep implements Representation {
 		return ammo[ammoType.ordinal()];
 	}
 
+	/**
+	 * Returns a copy of the amount of ammo of every ammo type, indexed by the ordinal of the ammo type.
+	 *
+	 * @return the amount of ammo of every ammo type.
+	 */
 	public int[] getAmmo() {
-		return ammo;
+		return ammo.clone();
 	}
 
 	@Override
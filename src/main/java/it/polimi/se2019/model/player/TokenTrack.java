@@ -0,0 +1,172 @@
+package it.polimi.se2019.model.player;
+
+import it.polimi.se2019.utils.Color;
+import it.polimi.se2019.utils.DamageDone;
+import it.polimi.se2019.utils.GameConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Track of the tokens left by the players on a player board, used for the damage and the marks.
+ * The tokens are the IDs of the players in a fixed array of bytes and the number of tokens of each player is kept by ID,
+ * so adding, counting and removing the tokens doesn't box values or search lists.
+ *
+ * @author Desno365
+ */
+public class TokenTrack {
+
+	private final byte[] tokens; // ID of the player of each token, in the order the tokens were added.
+	private int size;
+	private final int[] tokensOfPlayers = new int[GameConstants.MAX_PLAYERS]; // Number of tokens of each player, by player ID.
+	private final Player[] players = new Player[GameConstants.MAX_PLAYERS]; // The players that left a token, by player ID.
+
+
+	/**
+	 * Creates an empty track.
+	 *
+	 * @param capacity the max number of tokens of the track.
+	 */
+	TokenTrack(int capacity) {
+		tokens = new byte[capacity];
+	}
+
+
+	/**
+	 * Adds a token of the player at the end of the track, if the track isn't full.
+	 *
+	 * @param player the player that leaves the token.
+	 * @return true if and only if the token has been added.
+	 */
+	boolean add(Player player) {
+		if (size == tokens.length)
+			return false;
+		int playerID = player.getPlayerID();
+		tokens[size++] = (byte) playerID;
+		tokensOfPlayers[playerID]++;
+		players[playerID] = player;
+		return true;
+	}
+
+	/**
+	 * Removes the last tokens of the player, the other tokens keep their order.
+	 *
+	 * @param player the player whose tokens are removed.
+	 * @param amount the max number of tokens to remove.
+	 * @return the number of tokens removed.
+	 */
+	int removeLast(Player player, int amount) {
+		int playerID = player.getPlayerID();
+		int tokensToRemove = Math.min(amount, getTokensOf(player));
+		if (tokensToRemove <= 0)
+			return 0;
+
+		int removed = 0;
+		int newSize = size;
+		for (int i = size - 1; i >= 0 && removed < tokensToRemove; i--) {
+			if (tokens[i] == playerID) {
+				System.arraycopy(tokens, i + 1, tokens, i, newSize - i - 1);
+				newSize--;
+				removed++;
+			}
+		}
+		size = newSize;
+		tokensOfPlayers[playerID] -= removed;
+		return removed;
+	}
+
+	/**
+	 * Removes all the tokens.
+	 */
+	void clear() {
+		size = 0;
+		for (int i = 0; i < tokensOfPlayers.length; i++)
+			tokensOfPlayers[i] = 0;
+	}
+
+	/**
+	 * Returns the number of tokens in the track.
+	 *
+	 * @return the number of tokens.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if and only if the track has no tokens.
+	 *
+	 * @return true if and only if the track has no tokens.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the player of the token in the specified position.
+	 *
+	 * @param index the position of the token, 0 is the first token added.
+	 * @return the player of the token.
+	 * @throws IndexOutOfBoundsException if there isn't a token in the position.
+	 */
+	public Player get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return players[tokens[index]];
+	}
+
+	/**
+	 * Returns the number of tokens of the player.
+	 *
+	 * @param player the player.
+	 * @return the number of tokens of the player.
+	 */
+	public int getTokensOf(Player player) {
+		return player.getPlayerID() < tokensOfPlayers.length ? tokensOfPlayers[player.getPlayerID()] : 0;
+	}
+
+	/**
+	 * Returns the players that left a token sorted by number of tokens, the players with the same number of tokens
+	 * are in the order of their first token.
+	 *
+	 * @return the sorted players.
+	 */
+	public List<Player> getSortedPlayers() {
+		DamageDone damageDone = new DamageDone();
+		int countedPlayers = 0; // Bitmask of the player IDs already counted.
+		for (int i = 0; i < size; i++) {
+			// The first token of a player counts all its tokens, so every player is added once.
+			int playerID = tokens[i];
+			if ((countedPlayers & (1 << playerID)) == 0) {
+				countedPlayers |= 1 << playerID;
+				damageDone.damageUp(players[playerID], tokensOfPlayers[playerID]);
+			}
+		}
+		return damageDone.getSortedPlayers();
+	}
+
+	/**
+	 * Returns the players of the tokens, in order.
+	 *
+	 * @return the players of the tokens.
+	 */
+	public List<Player> toList() {
+		List<Player> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			list.add(players[tokens[i]]);
+		return list;
+	}
+
+	/**
+	 * Returns the colors of the players of the tokens, in order.
+	 *
+	 * @return the colors of the tokens.
+	 */
+	public List<Color.CharacterColorType> toColors() {
+		List<Color.CharacterColorType> colors = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			colors.add(players[tokens[i]].getPlayerColor());
+		return colors;
+	}
+
+}
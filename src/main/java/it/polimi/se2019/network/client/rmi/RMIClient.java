@@ -3,6 +3,7 @@ package it.polimi.se2019.network.client.rmi;
 import it.polimi.se2019.network.client.ConnectionToServerInterface;
 import it.polimi.se2019.network.client.MessageReceiverInterface;
 import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.server.rmi.RMIServer;
 import it.polimi.se2019.network.server.rmi.RMIServerSkeletonInterface;
 import it.polimi.se2019.utils.Utils;
 
@@ -12,11 +13,17 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is the bridge between the server and the client.
  * The server calls methods of this class in order to communicate with the client.
  * And the client does the same in order to communicate with the server.
+ * The client sends periodically a heartbeat to the server, a failed heartbeat means that the connection has been lost.
+ * When the client closes the connection it tells it to the server, that otherwise would find out only when the heartbeats expire.
  *
  * @author Desno365
  */
@@ -25,7 +32,8 @@ public class RMIClient implements ConnectionToServerInterface, RMIClientInterfac
 	private RMIServerSkeletonInterface rmiServerSkeleton;
 	private MessageReceiverInterface messageReceiver;
 	private RMIClientInterface stub;
-	private boolean active;
+	private ScheduledExecutorService heartbeatSender;
+	private volatile boolean active;
 
 
 	/**
@@ -47,8 +55,8 @@ public class RMIClient implements ConnectionToServerInterface, RMIClientInterfac
 			// Register client's stub to the server.
 			rmiServerSkeleton.registerClient(stub);
 
-			// Starts listener for connection interruption.
-			startConnectionListener();
+			// Starts the heartbeats, used by both the client and the server to find a connection interruption.
+			startHeartbeats();
 
 			Utils.logInfo("Client remote object is ready.");
 			active = true;
@@ -89,59 +97,78 @@ public class RMIClient implements ConnectionToServerInterface, RMIClientInterfac
 	 */
 	@Override // Of ConnectionToServerInterface.
 	public void closeConnectionWithServer() {
-		active = false;
-		try {
-			UnicastRemoteObject.unexportObject(this, true);
-		} catch (NoSuchObjectException e) {
-			Utils.logError("Error in RMIClient: closeConnectionWithServer()", e);
+		if (isConnectionActive()) {
+			try {
+				rmiServerSkeleton.disconnect(stub);
+			} catch (RemoteException e) {
+				Utils.logError("Error in RMIClient: closeConnectionWithServer()", e);
+			}
 		}
+		closeLocalConnection();
 	}
 
 	/**
-	 * Called by the RMI server in order to send a message.
+	 * Called by the RMI server in order to send the messages queued since the last call.
 	 *
-	 * @param message the message sent by the server.
+	 * @param messages the messages sent by the server, in the order they have been sent.
 	 * @throws RemoteException
 	 */
 	@Override // Of RMIClientInterface.
-	public void receiveMessage(Message message) throws RemoteException {
-		messageReceiver.processMessage(message);
+	public void receiveMessages(List<Message> messages) throws RemoteException {
+		for (Message message : messages)
+			messageReceiver.processMessage(message);
 	}
 
+
 	/**
-	 * Called by the RMI server to check for a connection lost.
-	 * When this method interrupts the server knows the connection has been lost.
-	 *
-	 * @throws RemoteException
-	 * @throws InterruptedException
+	 * Starts the thread that sends the heartbeats to the server.
+	 * If the server closed the connection or can't be reached reports the lost of connection to the message receiver.
 	 */
-	@Override // Of RMIClientInterface.
-	public synchronized void connectionListenerSubjectInClient() throws RemoteException, InterruptedException {
-		while (isConnectionActive())
-			wait();
+	private void startHeartbeats() {
+		int configHeartbeatPeriodMs = Utils.getServerConfig().getRmiHeartbeatPeriodMs();
+		long heartbeatPeriodMs = configHeartbeatPeriodMs > 0 ? configHeartbeatPeriodMs : RMIServer.DEFAULT_HEARTBEAT_PERIOD_MS;
+		heartbeatSender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "CUSTOM: RMI Heartbeat Sender");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeatSender.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatPeriodMs, heartbeatPeriodMs, TimeUnit.MILLISECONDS);
 	}
 
-
 	/**
-	 * Starts the thread that listens for a connection lost with the server.
-	 * If a lost of connection is found reports it to the message receiver.
+	 * Sends a heartbeat to the server.
+	 * Note: runs on the heartbeat sender thread.
 	 */
-	private void startConnectionListener() {
-		new Thread(() -> {
-			try {
-				rmiServerSkeleton.connectionListenerSubjectInServer(stub); // Thread waits here if server is connected.
-
+	private void sendHeartbeat() {
+		if (!isConnectionActive())
+			return;
+		try {
+			if (!rmiServerSkeleton.heartbeat(stub)) {
 				// Executed when the server closes the connection manually, without generating any error.
 				Utils.logWarning("Connection closed by the server.");
-				closeConnectionWithServer();
-				messageReceiver.lostConnection();
-			} catch (Exception e) {
-				Utils.logError("Lost connection with the server.", e);
-
-				// Executed when the connection with the server has been lost.
-				closeConnectionWithServer();
+				closeLocalConnection();
 				messageReceiver.lostConnection();
 			}
-		}, "CUSTOM: RMI Connection Listener").start();
+		} catch (Exception e) {
+			Utils.logError("Lost connection with the server.", e);
+
+			// Executed when the connection with the server has been lost.
+			closeLocalConnection();
+			messageReceiver.lostConnection();
+		}
+	}
+
+	/**
+	 * Stops the heartbeats and the remote object of the client, without telling the server.
+	 */
+	private void closeLocalConnection() {
+		active = false;
+		if (heartbeatSender != null)
+			heartbeatSender.shutdown();
+		try {
+			UnicastRemoteObject.unexportObject(this, true);
+		} catch (NoSuchObjectException e) {
+			Utils.logError("Error in RMIClient: closeLocalConnection()", e);
+		}
 	}
 }
@@ -4,6 +4,7 @@ import it.polimi.se2019.network.message.Message;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * The remote interface used by the RMI server to communicate with the client.
@@ -11,19 +12,10 @@ import java.rmi.RemoteException;
 public interface RMIClientInterface extends Remote {
 
 	/**
-	 * Called by the RMI server in order to send a message.
+	 * Called by the RMI server in order to send the messages queued since the last call.
 	 *
-	 * @param message the message sent by the server.
+	 * @param messages the messages sent by the server, in the order they have been sent.
 	 * @throws RemoteException
 	 */
-	void receiveMessage(Message message) throws RemoteException;
-
-	/**
-	 * Called by the RMI server to check for a connection lost.
-	 * When this method interrupts the server knows the connection has been lost.
-	 *
-	 * @throws RemoteException
-	 * @throws InterruptedException
-	 */
-	void connectionListenerSubjectInClient() throws RemoteException, InterruptedException;
+	void receiveMessages(List<Message> messages) throws RemoteException;
 }
@@ -3,16 +3,21 @@ package it.polimi.se2019.network.client.socket;
 import it.polimi.se2019.network.client.ConnectionToServerInterface;
 import it.polimi.se2019.network.client.MessageReceiverInterface;
 import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.MessageCodec;
+import it.polimi.se2019.network.message.MessageSerializer;
 import it.polimi.se2019.utils.Utils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 
 /**
  * Socket that receives messages from the server and forwards them to the message handler.
  * Also sends client's messages to the server.
+ * Messages are exchanged as length-prefixed frames encoded with the codec specified in the server config.
  *
  * @author MarcerAndrea
  */
@@ -20,8 +25,9 @@ public class ClientSocket extends Thread implements ConnectionToServerInterface
 
 	private Socket socketClient;
 	private MessageReceiverInterface messageReceiver;
-	private ObjectInputStream objInStream;
-	private ObjectOutputStream objOutStream;
+	private DataInputStream dataInStream;
+	private DataOutputStream dataOutStream;
+	private final MessageCodec codec = MessageSerializer.createCodec();
 	private boolean active;
 
 
@@ -36,8 +42,8 @@ public class ClientSocket extends Thread implements ConnectionToServerInterface
 		active = true;
 		try {
 			socketClient = new Socket(Utils.getServerConfig().getHost(), Utils.getServerConfig().getSocketPort());
-			objOutStream = new ObjectOutputStream(socketClient.getOutputStream());
-			objInStream = new ObjectInputStream(socketClient.getInputStream());
+			dataOutStream = new DataOutputStream(new BufferedOutputStream(socketClient.getOutputStream()));
+			dataInStream = new DataInputStream(new BufferedInputStream(socketClient.getInputStream()));
 			this.start();
 		} catch (IOException e) {
 			Utils.logError("Failed to connect to the server.", e);
@@ -55,7 +61,7 @@ public class ClientSocket extends Thread implements ConnectionToServerInterface
 	@Override // Of ConnectionToServerInterface.
 	public void sendMessage(Message message) {
 		try {
-			objOutStream.writeObject(message);
+			MessageSerializer.writeFrame(message, codec, dataOutStream);
 		} catch (IOException e) {
 			Utils.logError("Error in ClientSocket: sendMessage()", e);
 		}
@@ -91,14 +97,14 @@ public class ClientSocket extends Thread implements ConnectionToServerInterface
 	public void run() {
 		try {
 			while (isConnectionActive()) {
-				final Message message = (Message) objInStream.readObject();
+				final Message message = MessageSerializer.readFrame(codec, dataInStream);
 
 				// Run in another thread so the processing of a message,
 				// that includes waiting for user input,
 				// doesn't stop the reception of other messages or a connection lost event.
 				new Thread(() -> messageReceiver.processMessage(message), "CUSTOM: Socket Message Processing").start();
 			}
-		} catch (IOException | ClassNotFoundException e) {
+		} catch (IOException e) {
 			Utils.logError("Connection closed by the server.", e);
 			closeConnectionWithServer();
 			messageReceiver.lostConnection();
@@ -0,0 +1,732 @@
+package it.polimi.se2019.network.message;
+
+import it.polimi.se2019.model.cards.ammo.AmmoType;
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.gamemap.SquareRep;
+import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.utils.PlayerRepPosition;
+import it.polimi.se2019.utils.QuestionContainer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary codec for the messages.
+ * Every message starts with a byte identifying its class followed by the ordinals of its MessageType and MessageSubtype,
+ * ints are written as varints, enums as their ordinal and player names through a table of the connection,
+ * so after the first time a name is sent only its index is written.
+ * The table has a fixed capacity, is used only for the names of the players (free text is always written as a string)
+ * and the names of a message are added to it only after the whole message has been encoded or decoded.
+ * Reps and the other objects of the model don't have a binary format: every rep is written as its own serialized block,
+ * taken from a cache shared by all the connections, so a rep broadcast to all the players is serialized only once.
+ *
+ * @author MarcerAndrea
+ */
+public class BinaryMessageCodec implements MessageCodec {
+
+	private static final int SERIALIZED_MESSAGE = 0;
+	private static final int MESSAGE = 1;
+	private static final int ACTION_REQUEST_MESSAGE = 2;
+	private static final int ASK_OPTIONS_MESSAGE = 3;
+	private static final int COORDINATES_ANSWER_MESSAGE = 4;
+	private static final int COORDINATES_REQUEST_MESSAGE = 5;
+	private static final int END_GAME_MESSAGE = 6;
+	private static final int END_REQUEST_MESSAGE = 7;
+	private static final int GAME_CONFIG_MESSAGE = 8;
+	private static final int INT_MESSAGE = 9;
+	private static final int NICKNAME_MESSAGE = 10;
+	private static final int PAYMENT_MESSAGE = 11;
+	private static final int REP_MESSAGE = 12;
+	private static final int REQUEST_CHOICE_IN_ARRAY_MESSAGE = 13;
+	private static final int REQUEST_CHOICE_WITH_EXTRA_INFO = 14;
+	private static final int STRING_MESSAGE = 15;
+	private static final int SWAP_MESSAGE = 16;
+	private static final int TIMER_FOR_START_MESSAGE = 17;
+	private static final int WAITING_PLAYERS_MESSAGE = 18;
+	private static final int REP_DELTA_MESSAGE = 19;
+
+	private static final int HAS_GAME_MAP_REP = 1;
+	private static final int HAS_GAME_BOARD_REP = 2;
+
+	private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+	private static final MessageSubtype[] MESSAGE_SUBTYPES = MessageSubtype.values();
+	private static final AmmoType[] AMMO_TYPES = AmmoType.values();
+
+	private static final int SERIALIZED_REP_CACHE_CAPACITY = 1024;
+	private static final SerializedRepCache SERIALIZED_REP_CACHE = new SerializedRepCache(SERIALIZED_REP_CACHE_CAPACITY);
+
+	private static final int NAMES_TABLE_CAPACITY = 64;
+	private static final int NULL_NAME = 0;
+	private static final int NAME_NOT_IN_TABLE = 1; // Followed by the name, that isn't added to the table since it's full.
+	private static final int NEW_NAME = 2; // Followed by the name, that is added to the table.
+	private static final int FIRST_NAME_INDEX = 3; // The index in the table plus this value is written for the names already sent.
+
+	private final Map<String, Integer> encodedNames = new HashMap<>();
+	private final List<String> decodedNames = new ArrayList<>();
+	private final List<String> pendingNames = new ArrayList<>(); // Names of the message being encoded or decoded, not yet in the table.
+
+
+	/**
+	 * Encodes the message into an array of bytes.
+	 *
+	 * @param message the message to encode.
+	 * @return the encoded message.
+	 * @throws IOException if the message can't be encoded.
+	 */
+	@Override
+	public byte[] encode(Message message) throws IOException {
+		Encoder encoder = new Encoder();
+		pendingNames.clear();
+		writeMessage(encoder, message);
+		for (String name : pendingNames)
+			encodedNames.put(name, encodedNames.size());
+		pendingNames.clear();
+		return encoder.toByteArray();
+	}
+
+	/**
+	 * Decodes a message from a portion of an array of bytes.
+	 *
+	 * @param bytes  the array containing the encoded message.
+	 * @param offset the index of the first byte of the message.
+	 * @param length the number of bytes of the message.
+	 * @return the decoded message.
+	 * @throws IOException if the bytes are not a valid encoded message.
+	 */
+	@Override
+	public Message decode(byte[] bytes, int offset, int length) throws IOException {
+		try {
+			Decoder decoder = new Decoder(bytes, offset, length);
+			pendingNames.clear();
+			Message message = readMessage(decoder);
+			if (decoder.position != offset + length)
+				throw new StreamCorruptedException("Unexpected bytes at the end of the message.");
+			decodedNames.addAll(pendingNames);
+			pendingNames.clear();
+			return message;
+		} catch (RuntimeException e) {
+			throw new StreamCorruptedException("Invalid message: " + e);
+		}
+	}
+
+
+	/**
+	 * Returns the cache of the serialized reps shared by all the connections.
+	 *
+	 * @return the cache of the serialized reps.
+	 */
+	static SerializedRepCache getSerializedRepCache() {
+		return SERIALIZED_REP_CACHE;
+	}
+
+
+	// ####################################
+	// MESSAGES
+	// ####################################
+
+	/**
+	 * Writes the class, the MessageType, the MessageSubtype and the content of the message.
+	 *
+	 * @param encoder the encoder where the message is written.
+	 * @param message the message to write.
+	 * @throws IOException if the message can't be encoded.
+	 */
+	private void writeMessage(Encoder encoder, Message message) throws IOException {
+		int messageClass = getMessageClass(message);
+		encoder.write(messageClass);
+		if (messageClass == SERIALIZED_MESSAGE) {
+			encoder.writeSerialized(message);
+			return;
+		}
+		encoder.write(message.getMessageType().ordinal());
+		encoder.write(message.getMessageSubtype().ordinal());
+
+		switch (messageClass) {
+			case ACTION_REQUEST_MESSAGE:
+				encoder.writeBoolean(((ActionRequestMessage) message).isActivablePowerups());
+				encoder.writeBoolean(((ActionRequestMessage) message).isActivableWeapons());
+				break;
+			case ASK_OPTIONS_MESSAGE:
+				encoder.writeSerialized(((AskOptionsMessage) message).getQuestionContainer());
+				break;
+			case COORDINATES_ANSWER_MESSAGE:
+				encoder.writeCoordinates(((CoordinatesAnswerMessage) message).getSingleCoordinates());
+				break;
+			case COORDINATES_REQUEST_MESSAGE:
+				List<Coordinates> coordinatesList = ((CoordinatesRequestMessage) message).getCoordinates();
+				encoder.writeVarInt(coordinatesList.size());
+				for (Coordinates coordinates : coordinatesList)
+					encoder.writeCoordinates(coordinates);
+				break;
+			case END_GAME_MESSAGE:
+				encoder.writeSerialized(new ArrayList<>(((EndGameMessage) message).getFinalPlayersInfo()));
+				break;
+			case END_REQUEST_MESSAGE:
+				encoder.writeBoolean(((EndRequestMessage) message).isActivablePowerups());
+				break;
+			case GAME_CONFIG_MESSAGE:
+				encoder.writeSignedVarInt(((GameConfigMessage) message).getMapIndex());
+				encoder.writeSignedVarInt(((GameConfigMessage) message).getSkulls());
+				break;
+			case INT_MESSAGE:
+				encoder.writeSignedVarInt(((IntMessage) message).getContent());
+				break;
+			case NICKNAME_MESSAGE:
+			case STRING_MESSAGE:
+				writeText(encoder, ((StringMessage) message).getContent());
+				break;
+			case PAYMENT_MESSAGE:
+				writePaymentMessage(encoder, (PaymentMessage) message);
+				break;
+			case REP_MESSAGE:
+				writeRepMessage(encoder, (RepMessage) message);
+				break;
+			case REP_DELTA_MESSAGE:
+				writeRepDeltaMessage(encoder, (RepDeltaMessage) message);
+				break;
+			case REQUEST_CHOICE_WITH_EXTRA_INFO:
+				writeText(encoder, ((RequestChoiceWithExtraInfo) message).getInfo());
+				encoder.writeIntList(((RequestChoiceWithExtraInfo) message).getAvailableIndexes());
+				break;
+			case REQUEST_CHOICE_IN_ARRAY_MESSAGE:
+				encoder.writeIntList(((RequestChoiceInArrayMessage) message).getAvailableIndexes());
+				break;
+			case SWAP_MESSAGE:
+				encoder.writeSignedVarInt(((SwapMessage) message).getIndexToGrab());
+				encoder.writeSignedVarInt(((SwapMessage) message).getIndexToDiscard());
+				break;
+			case TIMER_FOR_START_MESSAGE:
+				encoder.writeVarLong(((TimerForStartMessage) message).getDelayInMs());
+				break;
+			case WAITING_PLAYERS_MESSAGE:
+				List<String> names = ((WaitingPlayersMessage) message).getWaitingPlayersNames();
+				encoder.writeVarInt(names.size());
+				for (String name : names)
+					writeName(encoder, name);
+				break;
+			default: // MESSAGE has no content.
+				break;
+		}
+	}
+
+	/**
+	 * Reads a message written by writeMessage.
+	 *
+	 * @param decoder the decoder where the message is read.
+	 * @return the message read.
+	 * @throws IOException if the bytes are not a valid encoded message.
+	 */
+	private Message readMessage(Decoder decoder) throws IOException {
+		int messageClass = decoder.read();
+		if (messageClass == SERIALIZED_MESSAGE)
+			return (Message) decoder.readSerialized();
+		MessageType messageType = MESSAGE_TYPES[decoder.read()];
+		MessageSubtype messageSubtype = MESSAGE_SUBTYPES[decoder.read()];
+
+		switch (messageClass) {
+			case MESSAGE:
+				return new Message(messageType, messageSubtype);
+			case ACTION_REQUEST_MESSAGE:
+				return new ActionRequestMessage(decoder.readBoolean(), decoder.readBoolean());
+			case ASK_OPTIONS_MESSAGE:
+				return new AskOptionsMessage((QuestionContainer) decoder.readSerialized(), messageType, messageSubtype);
+			case COORDINATES_ANSWER_MESSAGE:
+				return new CoordinatesAnswerMessage(decoder.readCoordinates(), messageType);
+			case COORDINATES_REQUEST_MESSAGE:
+				int numberOfCoordinates = decoder.readVarInt();
+				List<Coordinates> coordinatesList = new ArrayList<>();
+				for (int i = 0; i < numberOfCoordinates; i++)
+					coordinatesList.add(decoder.readCoordinates());
+				return new CoordinatesRequestMessage(coordinatesList, messageType);
+			case END_GAME_MESSAGE:
+				@SuppressWarnings("unchecked")
+				List<PlayerRepPosition> finalPlayersInfo = (List<PlayerRepPosition>) decoder.readSerialized();
+				return new EndGameMessage(finalPlayersInfo, messageSubtype);
+			case END_REQUEST_MESSAGE:
+				return new EndRequestMessage(decoder.readBoolean());
+			case GAME_CONFIG_MESSAGE:
+				GameConfigMessage gameConfigMessage = new GameConfigMessage(messageSubtype);
+				gameConfigMessage.setMapIndex(decoder.readSignedVarInt());
+				gameConfigMessage.setSkulls(decoder.readSignedVarInt());
+				return gameConfigMessage;
+			case INT_MESSAGE:
+				return new IntMessage(decoder.readSignedVarInt(), messageType, messageSubtype);
+			case NICKNAME_MESSAGE:
+				return new NicknameMessage(readText(decoder), messageSubtype);
+			case PAYMENT_MESSAGE:
+				return readPaymentMessage(decoder, messageSubtype);
+			case REP_MESSAGE:
+				return readRepMessage(decoder);
+			case REP_DELTA_MESSAGE:
+				return readRepDeltaMessage(decoder);
+			case REQUEST_CHOICE_IN_ARRAY_MESSAGE:
+				return new RequestChoiceInArrayMessage(decoder.readIntList(), messageType);
+			case REQUEST_CHOICE_WITH_EXTRA_INFO:
+				String info = readText(decoder);
+				return new RequestChoiceWithExtraInfo(info, decoder.readIntList(), messageType);
+			case STRING_MESSAGE:
+				return new StringMessage(readText(decoder), messageType, messageSubtype);
+			case SWAP_MESSAGE:
+				int indexToGrab = decoder.readSignedVarInt();
+				return new SwapMessage(indexToGrab, decoder.readSignedVarInt());
+			case TIMER_FOR_START_MESSAGE:
+				return new TimerForStartMessage(decoder.readVarLong(), messageSubtype);
+			case WAITING_PLAYERS_MESSAGE:
+				int numberOfNames = decoder.readVarInt();
+				List<String> names = new ArrayList<>();
+				for (int i = 0; i < numberOfNames; i++)
+					names.add(readName(decoder));
+				return new WaitingPlayersMessage(names);
+			default:
+				throw new StreamCorruptedException("Unknown message class: " + messageClass + ".");
+		}
+	}
+
+	/**
+	 * Returns the identifier of the class of the message, or SERIALIZED_MESSAGE if the class doesn't have a binary format.
+	 *
+	 * @param message the message.
+	 * @return the identifier of the class of the message.
+	 */
+	private static int getMessageClass(Message message) {
+		Class<?> messageClass = message.getClass();
+		if (messageClass == Message.class)
+			return MESSAGE;
+		if (messageClass == ActionRequestMessage.class)
+			return ACTION_REQUEST_MESSAGE;
+		if (messageClass == AskOptionsMessage.class)
+			return ASK_OPTIONS_MESSAGE;
+		if (messageClass == CoordinatesAnswerMessage.class)
+			return COORDINATES_ANSWER_MESSAGE;
+		if (messageClass == CoordinatesRequestMessage.class)
+			return COORDINATES_REQUEST_MESSAGE;
+		if (messageClass == EndGameMessage.class)
+			return END_GAME_MESSAGE;
+		if (messageClass == EndRequestMessage.class)
+			return END_REQUEST_MESSAGE;
+		if (messageClass == GameConfigMessage.class)
+			return GAME_CONFIG_MESSAGE;
+		if (messageClass == IntMessage.class)
+			return INT_MESSAGE;
+		if (messageClass == NicknameMessage.class)
+			return NICKNAME_MESSAGE;
+		if (messageClass == PaymentMessage.class)
+			return PAYMENT_MESSAGE;
+		if (messageClass == RepMessage.class)
+			return REP_MESSAGE;
+		if (messageClass == RepDeltaMessage.class)
+			return REP_DELTA_MESSAGE;
+		if (messageClass == RequestChoiceInArrayMessage.class)
+			return REQUEST_CHOICE_IN_ARRAY_MESSAGE;
+		if (messageClass == RequestChoiceWithExtraInfo.class)
+			return REQUEST_CHOICE_WITH_EXTRA_INFO;
+		if (messageClass == StringMessage.class)
+			return STRING_MESSAGE;
+		if (messageClass == SwapMessage.class)
+			return SWAP_MESSAGE;
+		if (messageClass == TimerForStartMessage.class)
+			return TIMER_FOR_START_MESSAGE;
+		if (messageClass == WaitingPlayersMessage.class)
+			return WAITING_PLAYERS_MESSAGE;
+		return SERIALIZED_MESSAGE;
+	}
+
+	/**
+	 * Writes the content of a PaymentMessage, its lists can be null.
+	 *
+	 * @param encoder        the encoder where the message is written.
+	 * @param paymentMessage the message to write.
+	 */
+	private void writePaymentMessage(Encoder encoder, PaymentMessage paymentMessage) {
+		List<AmmoType> priceToPay = paymentMessage.getPriceToPay();
+		encoder.writeBoolean(priceToPay != null);
+		if (priceToPay != null) {
+			encoder.writeVarInt(priceToPay.size());
+			for (AmmoType ammoType : priceToPay)
+				encoder.write(ammoType.ordinal());
+		}
+		List<Integer> powerupsUsed = paymentMessage.getPowerupsUsed();
+		encoder.writeBoolean(powerupsUsed != null);
+		if (powerupsUsed != null)
+			encoder.writeIntList(powerupsUsed);
+		encoder.writeBoolean(paymentMessage.canAffordAlsoWithAmmo());
+	}
+
+	/**
+	 * Reads the content of a PaymentMessage written by writePaymentMessage.
+	 *
+	 * @param decoder        the decoder where the message is read.
+	 * @param messageSubtype the subtype of the message.
+	 * @return the message read.
+	 */
+	private PaymentMessage readPaymentMessage(Decoder decoder, MessageSubtype messageSubtype) {
+		List<AmmoType> priceToPay = null;
+		if (decoder.readBoolean()) {
+			int size = decoder.readVarInt();
+			priceToPay = new ArrayList<>();
+			for (int i = 0; i < size; i++)
+				priceToPay.add(AMMO_TYPES[decoder.read()]);
+		}
+		PaymentMessage paymentMessage = new PaymentMessage(priceToPay, messageSubtype);
+		if (decoder.readBoolean())
+			paymentMessage.setPowerupsUsed(decoder.readIntList());
+		return paymentMessage.setCanAffordAlsoWithAmmo(decoder.readBoolean());
+	}
+
+	/**
+	 * Writes the inner message of a RepMessage and its reps, every rep is a serialized block taken from the shared cache.
+	 *
+	 * @param encoder    the encoder where the message is written.
+	 * @param repMessage the message to write.
+	 * @throws IOException if the reps can't be serialized.
+	 */
+	private void writeRepMessage(Encoder encoder, RepMessage repMessage) throws IOException {
+		encoder.writeVarInt(repMessage.getRepVersion());
+		Message innerMessage = repMessage.getMessage();
+		encoder.writeBoolean(innerMessage != null);
+		if (innerMessage != null)
+			writeMessage(encoder, innerMessage);
+
+		encoder.writeBoolean(repMessage.hasReps());
+		if (repMessage.hasReps()) {
+			int flags = (repMessage.getGameMapRep() != null ? HAS_GAME_MAP_REP : 0) | (repMessage.getGameBoardRep() != null ? HAS_GAME_BOARD_REP : 0);
+			encoder.write(flags);
+			if (repMessage.getGameMapRep() != null)
+				encoder.writeSharedRep(repMessage.getGameMapRep());
+			if (repMessage.getGameBoardRep() != null)
+				encoder.writeSharedRep(repMessage.getGameBoardRep());
+			encoder.writeVarInt(repMessage.getPlayersRep().size());
+			for (PlayerRep playerRep : repMessage.getPlayersRep())
+				encoder.writeSharedRep(playerRep);
+		}
+	}
+
+	/**
+	 * Reads a RepMessage written by writeRepMessage.
+	 *
+	 * @param decoder the decoder where the message is read.
+	 * @return the message read.
+	 * @throws IOException if the reps can't be deserialized.
+	 */
+	private RepMessage readRepMessage(Decoder decoder) throws IOException {
+		RepMessage repMessage = new RepMessage();
+		repMessage.setRepVersion(decoder.readVarInt());
+		if (decoder.readBoolean())
+			repMessage.addMessage(readMessage(decoder));
+
+		if (decoder.readBoolean()) {
+			int flags = decoder.read();
+			if ((flags & HAS_GAME_MAP_REP) != 0)
+				repMessage.addGameMapRep((GameMapRep) decoder.readSerialized());
+			if ((flags & HAS_GAME_BOARD_REP) != 0)
+				repMessage.addGameBoardRep((GameBoardRep) decoder.readSerialized());
+			int numberOfPlayersRep = decoder.readVarInt();
+			for (int i = 0; i < numberOfPlayersRep; i++)
+				repMessage.addPlayersRep((PlayerRep) decoder.readSerialized());
+		}
+		return repMessage;
+	}
+
+
+	/**
+	 * Writes the versions and the inner message of a RepDeltaMessage, every changed rep is a serialized block taken from the shared cache.
+	 *
+	 * @param encoder         the encoder where the message is written.
+	 * @param repDeltaMessage the message to write.
+	 * @throws IOException if the reps can't be serialized.
+	 */
+	private void writeRepDeltaMessage(Encoder encoder, RepDeltaMessage repDeltaMessage) throws IOException {
+		encoder.writeVarInt(repDeltaMessage.getBaseVersion());
+		encoder.writeVarInt(repDeltaMessage.getVersion());
+		Message innerMessage = repDeltaMessage.getMessage();
+		encoder.writeBoolean(innerMessage != null);
+		if (innerMessage != null)
+			writeMessage(encoder, innerMessage);
+
+		encoder.writeBoolean(repDeltaMessage.hasChanges());
+		if (repDeltaMessage.hasChanges()) {
+			encoder.writeVarInt(repDeltaMessage.getChangedSquares().size());
+			for (SquareRep squareRep : repDeltaMessage.getChangedSquares())
+				encoder.writeSharedRep(squareRep);
+			Map<String, Coordinates> playersCoordinates = repDeltaMessage.getPlayersCoordinates();
+			encoder.writeBoolean(playersCoordinates != null);
+			if (playersCoordinates != null)
+				encoder.writeSharedRep(playersCoordinates); // The same map of the GameMapRep, shared by all the players.
+			encoder.writeBoolean(repDeltaMessage.getGameBoardRep() != null);
+			if (repDeltaMessage.getGameBoardRep() != null)
+				encoder.writeSharedRep(repDeltaMessage.getGameBoardRep());
+			encoder.writeVarInt(repDeltaMessage.getPlayersRep().size());
+			for (PlayerRep playerRep : repDeltaMessage.getPlayersRep())
+				encoder.writeSharedRep(playerRep);
+		}
+	}
+
+	/**
+	 * Reads a RepDeltaMessage written by writeRepDeltaMessage.
+	 *
+	 * @param decoder the decoder where the message is read.
+	 * @return the message read.
+	 * @throws IOException if the reps can't be deserialized.
+	 */
+	@SuppressWarnings("unchecked")
+	private RepDeltaMessage readRepDeltaMessage(Decoder decoder) throws IOException {
+		int baseVersion = decoder.readVarInt();
+		RepDeltaMessage repDeltaMessage = new RepDeltaMessage(baseVersion, decoder.readVarInt());
+		if (decoder.readBoolean())
+			repDeltaMessage.addMessage(readMessage(decoder));
+
+		if (decoder.readBoolean()) {
+			int numberOfChangedSquares = decoder.readVarInt();
+			for (int i = 0; i < numberOfChangedSquares; i++)
+				repDeltaMessage.addChangedSquare((SquareRep) decoder.readSerialized());
+			if (decoder.readBoolean())
+				repDeltaMessage.setPlayersCoordinates((Map<String, Coordinates>) decoder.readSerialized());
+			if (decoder.readBoolean())
+				repDeltaMessage.addGameBoardRep((GameBoardRep) decoder.readSerialized());
+			int numberOfPlayersRep = decoder.readVarInt();
+			for (int i = 0; i < numberOfPlayersRep; i++)
+				repDeltaMessage.addPlayersRep((PlayerRep) decoder.readSerialized());
+		}
+		return repDeltaMessage;
+	}
+
+
+	// ####################################
+	// NAMES TABLE
+	// ####################################
+
+	/**
+	 * Writes the name of a player: NULL_NAME if null, the index in the table plus FIRST_NAME_INDEX if the name has already been sent,
+	 * otherwise NEW_NAME followed by the string, or NAME_NOT_IN_TABLE followed by the string if the table is full.
+	 * A new name is added to the table only when the whole message has been encoded.
+	 *
+	 * @param encoder the encoder where the name is written.
+	 * @param name    the name to write.
+	 */
+	private void writeName(Encoder encoder, String name) {
+		if (name == null) {
+			encoder.writeVarInt(NULL_NAME);
+			return;
+		}
+		Integer index = encodedNames.get(name);
+		if (index == null && pendingNames.contains(name))
+			index = encodedNames.size() + pendingNames.indexOf(name);
+		if (index != null) {
+			encoder.writeVarInt(index + FIRST_NAME_INDEX);
+		} else if (encodedNames.size() + pendingNames.size() < NAMES_TABLE_CAPACITY) {
+			encoder.writeVarInt(NEW_NAME);
+			encoder.writeString(name);
+			pendingNames.add(name);
+		} else {
+			encoder.writeVarInt(NAME_NOT_IN_TABLE);
+			encoder.writeString(name);
+		}
+	}
+
+	/**
+	 * Reads a name written by writeName.
+	 *
+	 * @param decoder the decoder where the name is read.
+	 * @return the name read.
+	 */
+	private String readName(Decoder decoder) {
+		int value = decoder.readVarInt();
+		if (value == NULL_NAME)
+			return null;
+		if (value == NAME_NOT_IN_TABLE)
+			return decoder.readString();
+		if (value == NEW_NAME) {
+			if (decodedNames.size() + pendingNames.size() >= NAMES_TABLE_CAPACITY)
+				throw new IllegalStateException("The table of the names is full.");
+			String name = decoder.readString();
+			pendingNames.add(name);
+			return name;
+		}
+		int index = value - FIRST_NAME_INDEX;
+		return index < decodedNames.size() ? decodedNames.get(index) : pendingNames.get(index - decodedNames.size());
+	}
+
+	/**
+	 * Writes a text that can be null, without using the table of the names.
+	 *
+	 * @param encoder the encoder where the text is written.
+	 * @param text    the text to write.
+	 */
+	private static void writeText(Encoder encoder, String text) {
+		encoder.writeBoolean(text != null);
+		if (text != null)
+			encoder.writeString(text);
+	}
+
+	/**
+	 * Reads a text written by writeText.
+	 *
+	 * @param decoder the decoder where the text is read.
+	 * @return the text read.
+	 */
+	private static String readText(Decoder decoder) {
+		return decoder.readBoolean() ? decoder.readString() : null;
+	}
+
+
+	// ####################################
+	// ENCODER AND DECODER
+	// ####################################
+
+	/**
+	 * Buffer with the methods to write the primitive values of the format.
+	 */
+	private static class Encoder extends ByteArrayOutputStream {
+
+		private Encoder() {
+			super(64);
+		}
+
+		private void writeBoolean(boolean value) {
+			write(value ? 1 : 0);
+		}
+
+		private void writeVarInt(int value) {
+			while ((value & ~0x7F) != 0) {
+				write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			write(value);
+		}
+
+		private void writeSignedVarInt(int value) {
+			writeVarInt((value << 1) ^ (value >> 31)); // ZigZag encoding, so small negative values use few bytes.
+		}
+
+		private void writeVarLong(long value) {
+			while ((value & ~0x7FL) != 0) {
+				write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			write((int) value);
+		}
+
+		private void writeString(String string) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			write(bytes, 0, bytes.length);
+		}
+
+		private void writeCoordinates(Coordinates coordinates) {
+			writeVarInt(coordinates.getRow());
+			writeVarInt(coordinates.getColumn());
+		}
+
+		private void writeIntList(List<Integer> list) {
+			writeVarInt(list.size());
+			for (Integer value : list)
+				writeSignedVarInt(value);
+		}
+
+		private void writeSerialized(Object object) throws IOException {
+			ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+			try (ObjectOutputStream objOutStream = new ObjectOutputStream(byteStream)) {
+				objOutStream.writeObject(object);
+			}
+			writeVarInt(byteStream.size());
+			byteStream.writeTo(this);
+		}
+
+		private void writeSharedRep(Object rep) throws IOException {
+			byte[] bytes = SERIALIZED_REP_CACHE.getSerialized(rep);
+			writeVarInt(bytes.length);
+			write(bytes, 0, bytes.length);
+		}
+	}
+
+	/**
+	 * Reads the primitive values of the format from an array of bytes.
+	 */
+	private static class Decoder {
+
+		private final byte[] bytes;
+		private final int end;
+		private int position;
+
+		private Decoder(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.position = offset;
+			this.end = offset + length;
+		}
+
+		private int read() {
+			if (position >= end)
+				throw new IndexOutOfBoundsException("End of the message reached.");
+			return bytes[position++] & 0xFF;
+		}
+
+		private boolean readBoolean() {
+			return read() != 0;
+		}
+
+		private int readVarInt() {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				int b = read();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					return value;
+			}
+			throw new IllegalArgumentException("Varint too long.");
+		}
+
+		private int readSignedVarInt() {
+			int value = readVarInt();
+			return (value >>> 1) ^ -(value & 1);
+		}
+
+		private long readVarLong() {
+			long value = 0;
+			for (int shift = 0; shift < 70; shift += 7) {
+				int b = read();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					return value;
+			}
+			throw new IllegalArgumentException("Varlong too long.");
+		}
+
+		private String readString() {
+			int length = readVarInt();
+			if (length < 0 || length > end - position)
+				throw new IndexOutOfBoundsException("String longer than the message.");
+			String string = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return string;
+		}
+
+		private Coordinates readCoordinates() {
+			int row = readVarInt();
+			return Coordinates.of(row, readVarInt());
+		}
+
+		private List<Integer> readIntList() {
+			int size = readVarInt();
+			List<Integer> list = new ArrayList<>();
+			for (int i = 0; i < size; i++)
+				list.add(readSignedVarInt());
+			return list;
+		}
+
+		private Object readSerialized() throws IOException {
+			int length = readVarInt();
+			if (length < 0 || length > end - position)
+				throw new IndexOutOfBoundsException("Serialized block longer than the message.");
+			try (ObjectInputStream objInStream = new ObjectInputStream(new ByteArrayInputStream(bytes, position, length))) {
+				Object object = objInStream.readObject();
+				position += length;
+				return object;
+			} catch (ClassNotFoundException e) {
+				throw new InvalidObjectException("Invalid serialized block: " + e.getMessage());
+			}
+		}
+	}
+}
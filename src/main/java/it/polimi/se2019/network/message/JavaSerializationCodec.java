@@ -0,0 +1,45 @@
+package it.polimi.se2019.network.message;
+
+import java.io.*;
+
+/**
+ * Codec that uses the Java serialization, every message carries the descriptors of all the classes it contains.
+ *
+ * @author MarcerAndrea
+ */
+public class JavaSerializationCodec implements MessageCodec {
+
+	/**
+	 * Serializes the message into an array of bytes.
+	 *
+	 * @param message the message to encode.
+	 * @return the serialized message.
+	 * @throws IOException if the serialization fails.
+	 */
+	@Override
+	public byte[] encode(Message message) throws IOException {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objOutStream = new ObjectOutputStream(byteStream)) {
+			objOutStream.writeObject(message);
+		}
+		return byteStream.toByteArray();
+	}
+
+	/**
+	 * Deserializes a message from a portion of an array of bytes.
+	 *
+	 * @param bytes  the array containing the serialized message.
+	 * @param offset the index of the first byte of the message.
+	 * @param length the number of bytes of the message.
+	 * @return the deserialized message.
+	 * @throws IOException if the bytes are not a valid serialized message.
+	 */
+	@Override
+	public Message decode(byte[] bytes, int offset, int length) throws IOException {
+		try (ObjectInputStream objInStream = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+			return (Message) objInStream.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new InvalidObjectException("Invalid message: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package it.polimi.se2019.network.message;
+
+import java.io.*;
+
+/**
+ * Codec that uses the Java serialization with an ObjectOutputStream and an ObjectInputStream open for the whole connection,
+ * so the class descriptors and the objects already sent are replaced by a reference to them.
+ * Every message is still encoded into its own frame, but the frames must be decoded in the same order they are encoded.
+ * The streams keep a reference to every object sent, so they are reset every resetCadence messages to release them.
+ * Note: the messages and the objects they contain must not be changed after being sent, otherwise the client would receive the old version.
+ *
+ * @author MarcerAndrea
+ */
+public class JavaStreamCodec implements MessageCodec {
+
+	/**
+	 * Number of messages after which the streams are reset if not specified in the server config.
+	 */
+	public static final int DEFAULT_RESET_CADENCE = 32;
+
+	private final int resetCadence;
+	private final ByteArrayOutputStream encodedBytes = new ByteArrayOutputStream();
+	private ObjectOutputStream objOutStream;
+	private int messagesSinceReset = 0;
+
+	private final FrameInputStream frameInStream = new FrameInputStream();
+	private ObjectInputStream objInStream;
+
+
+	/**
+	 * Creates a codec that resets the streams every resetCadence messages.
+	 *
+	 * @param resetCadence the number of messages after which the streams are reset.
+	 */
+	public JavaStreamCodec(int resetCadence) {
+		if (resetCadence <= 0)
+			throw new IllegalArgumentException("The reset cadence must be positive.");
+		this.resetCadence = resetCadence;
+	}
+
+
+	/**
+	 * Serializes the message into an array of bytes, the first message also contains the header of the stream.
+	 *
+	 * @param message the message to encode.
+	 * @return the serialized message.
+	 * @throws IOException if the serialization fails.
+	 */
+	@Override
+	public byte[] encode(Message message) throws IOException {
+		if (objOutStream == null) {
+			objOutStream = new ObjectOutputStream(encodedBytes);
+		} else if (messagesSinceReset >= resetCadence) {
+			objOutStream.reset(); // The reset marker precedes the message, so the decoder reads it together with the message.
+			messagesSinceReset = 0;
+		}
+		objOutStream.writeObject(message);
+		objOutStream.flush();
+		messagesSinceReset++;
+
+		byte[] bytes = encodedBytes.toByteArray();
+		encodedBytes.reset();
+		return bytes;
+	}
+
+	/**
+	 * Deserializes a message from a portion of an array of bytes.
+	 *
+	 * @param bytes  the array containing the serialized message.
+	 * @param offset the index of the first byte of the message.
+	 * @param length the number of bytes of the message.
+	 * @return the deserialized message.
+	 * @throws IOException if the bytes are not a valid serialized message.
+	 */
+	@Override
+	public Message decode(byte[] bytes, int offset, int length) throws IOException {
+		frameInStream.setFrame(bytes, offset, length);
+		try {
+			if (objInStream == null)
+				objInStream = new ObjectInputStream(frameInStream);
+			Message message = (Message) objInStream.readObject();
+			if (frameInStream.available() > 0)
+				throw new StreamCorruptedException("The frame contains more than a message.");
+			return message;
+		} catch (EOFException e) {
+			throw new StreamCorruptedException("The frame doesn't contain a whole message.");
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new InvalidObjectException("Invalid message: " + e.getMessage());
+		}
+	}
+
+
+	// ####################################
+	// PRIVATE CLASSES
+	// ####################################
+
+	/**
+	 * Stream that reads the bytes of the current frame, the ObjectInputStream reads from it all the frames of the connection.
+	 */
+	private static class FrameInputStream extends InputStream {
+
+		private byte[] bytes = new byte[0];
+		private int position;
+		private int end;
+
+		private void setFrame(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.position = offset;
+			this.end = offset + length;
+		}
+
+		@Override
+		public int read() {
+			return position < end ? bytes[position++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (position >= end)
+				return -1;
+			int read = Math.min(len, end - position);
+			System.arraycopy(bytes, position, b, off, read);
+			position += read;
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return end - position;
+		}
+	}
+}
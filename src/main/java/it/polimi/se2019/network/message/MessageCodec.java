@@ -0,0 +1,33 @@
+package it.polimi.se2019.network.message;
+
+import java.io.IOException;
+
+/**
+ * Converts messages to arrays of bytes and back.
+ * A codec can keep a state shared by all the messages of a connection, so every connection must use its own instance
+ * and encode/decode the messages in the same order they are sent/received.
+ *
+ * @author MarcerAndrea
+ */
+public interface MessageCodec {
+
+	/**
+	 * Encodes the message into an array of bytes.
+	 *
+	 * @param message the message to encode.
+	 * @return the encoded message.
+	 * @throws IOException if the message can't be encoded.
+	 */
+	byte[] encode(Message message) throws IOException;
+
+	/**
+	 * Decodes a message from a portion of an array of bytes.
+	 *
+	 * @param bytes  the array containing the encoded message.
+	 * @param offset the index of the first byte of the message.
+	 * @param length the number of bytes of the message.
+	 * @return the decoded message.
+	 * @throws IOException if the bytes are not a valid encoded message.
+	 */
+	Message decode(byte[] bytes, int offset, int length) throws IOException;
+}
@@ -0,0 +1,231 @@
+package it.polimi.se2019.network.message;
+
+import it.polimi.se2019.utils.ServerConfig;
+import it.polimi.se2019.utils.Utils;
+
+import java.io.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Sends and receives messages as length-prefixed frames, used by the socket transports.
+ * Each frame is made of the length of the encoded message (a 4 bytes int) followed by the message encoded with a MessageCodec.
+ * If the frame compression is enabled in the server config, the encoded messages bigger than COMPRESSION_THRESHOLD are compressed with DEFLATE:
+ * the highest bit of the length is set and the frame contains the length of the uncompressed message followed by the compressed bytes.
+ * Every frame is compressed independently, so no compression state is shared between frames and the receiver doesn't need to know the config.
+ *
+ * @author MarcerAndrea
+ */
+public final class MessageSerializer {
+
+	/**
+	 * Number of bytes of the length that precedes every frame.
+	 */
+	public static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+
+	/**
+	 * Max length of an encoded message, bigger frames are considered corrupted.
+	 */
+	public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+	/**
+	 * Min length of an encoded message to be compressed, smaller messages don't gain enough from the compression.
+	 */
+	public static final int COMPRESSION_THRESHOLD = 256;
+
+	private static final int COMPRESSED_FRAME_FLAG = 0x80000000;
+
+	// Every thread that writes or reads frames reuses its own Deflater and Inflater, since creating them allocates native memory.
+	private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+	private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+
+	private MessageSerializer() {
+	}
+
+
+	/**
+	 * Creates the codec specified in the server config, server and clients must use the same one.
+	 * Every connection must have its own codec.
+	 *
+	 * @return a new codec for a connection.
+	 */
+	public static MessageCodec createCodec() {
+		ServerConfig serverConfig = Utils.getServerConfig();
+		if (serverConfig.isBinaryMessageCodec())
+			return new BinaryMessageCodec();
+		if (serverConfig.isJavaStreamMessageCodec())
+			return new JavaStreamCodec(serverConfig.getStreamResetCadence() > 0 ? serverConfig.getStreamResetCadence() : JavaStreamCodec.DEFAULT_RESET_CADENCE);
+		return new JavaSerializationCodec();
+	}
+
+	/**
+	 * Encodes the message with the codec and writes it on the stream as a length-prefixed frame.
+	 * The codec is used while holding the lock of the stream, so the messages are encoded in the same order they are written.
+	 *
+	 * @param message       the message to write.
+	 * @param codec         the codec of the connection.
+	 * @param dataOutStream the stream where the frame will be written.
+	 * @throws IOException if the encoding or the writing fails.
+	 */
+	public static void writeFrame(Message message, MessageCodec codec, DataOutputStream dataOutStream) throws IOException {
+		synchronized (dataOutStream) {
+			dataOutStream.write(encodeFrame(message, codec));
+			dataOutStream.flush();
+		}
+	}
+
+	/**
+	 * Reads a length-prefixed frame from the stream and decodes the message it contains.
+	 * Blocks until the whole frame is received.
+	 *
+	 * @param codec        the codec of the connection.
+	 * @param dataInStream the stream where the frame will be read.
+	 * @return the message contained in the frame.
+	 * @throws IOException if the reading fails or the frame is corrupted.
+	 */
+	public static Message readFrame(MessageCodec codec, DataInputStream dataInStream) throws IOException {
+		int header = dataInStream.readInt();
+		byte[] bytes = new byte[getFrameLength(header)];
+		dataInStream.readFully(bytes);
+		return decodeFrame(codec, header, bytes);
+	}
+
+	/**
+	 * Encodes the message with the codec into a whole frame, length prefix included, compressing it if enabled in the server config.
+	 * The messages of a connection must be encoded in the same order they are written.
+	 *
+	 * @param message the message to encode.
+	 * @param codec   the codec of the connection.
+	 * @return the bytes of the frame.
+	 * @throws IOException if the encoding fails.
+	 */
+	public static byte[] encodeFrame(Message message, MessageCodec codec) throws IOException {
+		return encodeFrame(codec.encode(message), Utils.getServerConfig().isFrameCompression());
+	}
+
+	/**
+	 * Creates a frame, length prefix included, that contains the encoded message.
+	 *
+	 * @param bytes    the encoded message.
+	 * @param compress true if the message should be compressed when bigger than COMPRESSION_THRESHOLD.
+	 * @return the bytes of the frame.
+	 */
+	public static byte[] encodeFrame(byte[] bytes, boolean compress) {
+		if (compress && bytes.length >= COMPRESSION_THRESHOLD) {
+			byte[] compressedFrame = compressFrame(bytes);
+			if (compressedFrame != null)
+				return compressedFrame;
+		}
+		ByteArrayOutputStream frame = new ByteArrayOutputStream(LENGTH_PREFIX_BYTES + bytes.length);
+		writeInt(frame, bytes.length);
+		frame.write(bytes, 0, bytes.length);
+		return frame.toByteArray();
+	}
+
+	/**
+	 * Returns the number of bytes that follow the length prefix of a frame.
+	 *
+	 * @param header the length prefix of the frame.
+	 * @return the length of the frame without its prefix.
+	 * @throws StreamCorruptedException if the length is not valid.
+	 */
+	public static int getFrameLength(int header) throws StreamCorruptedException {
+		int length = header & ~COMPRESSED_FRAME_FLAG;
+		if (length <= 0 || length > MAX_FRAME_LENGTH)
+			throw new StreamCorruptedException("Invalid frame length: " + length + ".");
+		return length;
+	}
+
+	/**
+	 * Decodes the message contained in a frame, decompressing it if needed.
+	 *
+	 * @param codec  the codec of the connection.
+	 * @param header the length prefix of the frame.
+	 * @param bytes  the bytes that follow the length prefix.
+	 * @return the message contained in the frame.
+	 * @throws IOException if the frame is corrupted.
+	 */
+	public static Message decodeFrame(MessageCodec codec, int header, byte[] bytes) throws IOException {
+		if ((header & COMPRESSED_FRAME_FLAG) == 0)
+			return codec.decode(bytes, 0, bytes.length);
+		byte[] decompressed = decompressFrame(bytes);
+		return codec.decode(decompressed, 0, decompressed.length);
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Compresses the encoded message into a frame.
+	 *
+	 * @param bytes the encoded message.
+	 * @return the compressed frame, or null if the compression doesn't reduce the size of the message.
+	 */
+	private static byte[] compressFrame(byte[] bytes) {
+		Deflater deflater = DEFLATERS.get();
+		deflater.reset();
+		deflater.setInput(bytes);
+		deflater.finish();
+
+		ByteArrayOutputStream frame = new ByteArrayOutputStream(bytes.length);
+		writeInt(frame, 0); // The length is written when known.
+		writeInt(frame, bytes.length);
+		byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+		while (!deflater.finished()) {
+			int compressedLength = deflater.deflate(buffer);
+			frame.write(buffer, 0, compressedLength);
+			if (frame.size() >= LENGTH_PREFIX_BYTES + bytes.length)
+				return null;
+		}
+
+		byte[] frameBytes = frame.toByteArray();
+		int header = (frameBytes.length - LENGTH_PREFIX_BYTES) | COMPRESSED_FRAME_FLAG;
+		for (int i = 0; i < LENGTH_PREFIX_BYTES; i++)
+			frameBytes[i] = (byte) (header >>> (24 - 8 * i));
+		return frameBytes;
+	}
+
+	/**
+	 * Decompresses a compressed frame into the encoded message.
+	 *
+	 * @param bytes the bytes that follow the length prefix of the frame.
+	 * @return the encoded message.
+	 * @throws IOException if the frame is corrupted.
+	 */
+	private static byte[] decompressFrame(byte[] bytes) throws IOException {
+		DataInputStream frameStream = new DataInputStream(new ByteArrayInputStream(bytes));
+		int length = frameStream.readInt();
+		if (length <= 0 || length > MAX_FRAME_LENGTH)
+			throw new StreamCorruptedException("Invalid decompressed frame length: " + length + ".");
+
+		Inflater inflater = INFLATERS.get();
+		inflater.reset();
+		inflater.setInput(bytes, Integer.BYTES, bytes.length - Integer.BYTES);
+		byte[] decompressed = new byte[length];
+		try {
+			int decompressedLength = 0;
+			while (decompressedLength < length && !inflater.finished()) {
+				int inflated = inflater.inflate(decompressed, decompressedLength, length - decompressedLength);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+				decompressedLength += inflated;
+			}
+			if (decompressedLength != length || !inflater.finished())
+				throw new StreamCorruptedException("Invalid compressed frame.");
+		} catch (DataFormatException e) {
+			throw new StreamCorruptedException("Invalid compressed frame: " + e.getMessage());
+		}
+		return decompressed;
+	}
+
+	private static void writeInt(ByteArrayOutputStream stream, int value) {
+		stream.write(value >>> 24);
+		stream.write(value >>> 16);
+		stream.write(value >>> 8);
+		stream.write(value);
+	}
+}
@@ -0,0 +1,162 @@
+package it.polimi.se2019.network.message;
+
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.SquareRep;
+import it.polimi.se2019.model.player.PlayerRep;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Message used to send only the changes of the reps since the last version received by the player.
+ * It contains the squares of the map that changed, the positions of the players if they changed, and the GameBoardRep and PlayerReps that changed.
+ * The client can apply it only if its reps have the base version, otherwise it must ask a full RepMessage.
+ * @author MarcerAndrea
+ */
+public class RepDeltaMessage extends Message {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int baseVersion;
+	private final int version;
+	private Message message = null;
+	private final ArrayList<SquareRep> changedSquares = new ArrayList<>();
+	private HashMap<String, Coordinates> playersCoordinates = null;
+	private GameBoardRep gameBoardRep = null;
+	private final ArrayList<PlayerRep> playersRep = new ArrayList<>();
+
+
+	/**
+	 * Constructs a message.
+	 *
+	 * @param baseVersion the version of the reps the changes must be applied to.
+	 * @param version     the version of the reps after applying the changes.
+	 */
+	public RepDeltaMessage(int baseVersion, int version) {
+		super(MessageType.UPDATE_REPS, MessageSubtype.INFO);
+		this.baseVersion = baseVersion;
+		this.version = version;
+	}
+
+
+	/**
+	 * Adds an inner message to this RepDeltaMessage.
+	 *
+	 * @param message the message to add.
+	 */
+	public void addMessage(Message message) {
+		this.message = message;
+	}
+
+	/**
+	 * Adds a square of the map that changed.
+	 *
+	 * @param squareRep the rep of the square.
+	 */
+	public void addChangedSquare(SquareRep squareRep) {
+		changedSquares.add(squareRep);
+	}
+
+	/**
+	 * Sets the new positions of the players.
+	 *
+	 * @param playersCoordinates the positions of the players.
+	 */
+	public void setPlayersCoordinates(Map<String, Coordinates> playersCoordinates) {
+		this.playersCoordinates = new HashMap<>(playersCoordinates);
+	}
+
+	/**
+	 * Adds the rep of the GameBoard.
+	 *
+	 * @param gameBoardRep the rep of the GameBoard.
+	 */
+	public void addGameBoardRep(GameBoardRep gameBoardRep) {
+		this.gameBoardRep = gameBoardRep;
+	}
+
+	/**
+	 * Adds the rep of a player that changed.
+	 *
+	 * @param playerRep the rep of the player.
+	 */
+	public void addPlayersRep(PlayerRep playerRep) {
+		playersRep.add(playerRep);
+	}
+
+
+	/**
+	 * Returns the version of the reps the changes must be applied to.
+	 *
+	 * @return the version of the reps the changes must be applied to.
+	 */
+	public int getBaseVersion() {
+		return baseVersion;
+	}
+
+	/**
+	 * Returns the version of the reps after applying the changes.
+	 *
+	 * @return the version of the reps after applying the changes.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the inner message contained in this RepDeltaMessage.
+	 *
+	 * @return the inner message contained in this RepDeltaMessage.
+	 */
+	public Message getMessage() {
+		return message;
+	}
+
+	/**
+	 * Returns the squares of the map that changed.
+	 *
+	 * @return the squares of the map that changed.
+	 */
+	public List<SquareRep> getChangedSquares() {
+		return changedSquares;
+	}
+
+	/**
+	 * Returns the new positions of the players, or null if they didn't change.
+	 *
+	 * @return the new positions of the players, or null if they didn't change.
+	 */
+	public Map<String, Coordinates> getPlayersCoordinates() {
+		return playersCoordinates;
+	}
+
+	/**
+	 * Returns the rep of the GameBoard, or null if it didn't change.
+	 *
+	 * @return the rep of the GameBoard, or null if it didn't change.
+	 */
+	public GameBoardRep getGameBoardRep() {
+		return gameBoardRep;
+	}
+
+	/**
+	 * Returns the reps of the players that changed.
+	 *
+	 * @return the reps of the players that changed.
+	 */
+	public List<PlayerRep> getPlayersRep() {
+		return playersRep;
+	}
+
+	/**
+	 * Returns true if this RepDeltaMessage contains changes.
+	 *
+	 * @return true if this RepDeltaMessage contains changes.
+	 */
+	public boolean hasChanges() {
+		return !changedSquares.isEmpty() || playersCoordinates != null || gameBoardRep != null || !playersRep.isEmpty();
+	}
+}
@@ -18,6 +18,7 @@ public class RepMessage extends Message {
 	private GameBoardRep gameBoardRep = null;
 	private List<PlayerRep> playersRep = new ArrayList<>();
 	private boolean hasReps = false;
+	private int repVersion = 0;
 
 
 	/**
@@ -74,6 +75,17 @@ public class RepMessage extends Message {
 	}
 
 
+	/**
+	 * Sets the version of the reps, used by the client to apply the following RepDeltaMessages.
+	 * A RepMessage with version 0 is not versioned.
+	 *
+	 * @param repVersion the version of the reps.
+	 */
+	public void setRepVersion(int repVersion) {
+		this.repVersion = repVersion;
+	}
+
+
 	/**
 	 * Returns the inner message contained in this RepMessage.
 	 *
@@ -118,4 +130,13 @@ public class RepMessage extends Message {
 	public boolean hasReps() {
 		return hasReps;
 	}
+
+	/**
+	 * Returns the version of the reps contained in this RepMessage, or 0 if not versioned.
+	 *
+	 * @return the version of the reps.
+	 */
+	public int getRepVersion() {
+		return repVersion;
+	}
 }
@@ -0,0 +1,118 @@
+package it.polimi.se2019.network.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the serialized reps shared by all the connections.
+ * The model creates a new rep only when something changes and sends the same instance to all the players,
+ * so a rep broadcast to every player is serialized once and the same bytes are written on every connection.
+ * The reps are found by reference, and only the most recently used ones are kept.
+ *
+ * @author MarcerAndrea
+ */
+class SerializedRepCache {
+
+	private final int capacity;
+	private final LinkedHashMap<IdentityKey, byte[]> serializedReps;
+
+	// Metrics of the cache, guarded by this.
+	private long hits = 0;
+	private long misses = 0;
+
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param capacity the max number of serialized reps kept.
+	 */
+	SerializedRepCache(int capacity) {
+		this.capacity = capacity;
+		this.serializedReps = new LinkedHashMap<IdentityKey, byte[]>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<IdentityKey, byte[]> eldest) {
+				return size() > SerializedRepCache.this.capacity;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the serialized rep, serializing it only if it isn't in the cache.
+	 * Note: the rep must not be changed after being serialized.
+	 *
+	 * @param rep the rep to serialize.
+	 * @return the bytes of the serialized rep, they must not be modified.
+	 * @throws IOException if the serialization fails.
+	 */
+	byte[] getSerialized(Object rep) throws IOException {
+		IdentityKey key = new IdentityKey(rep);
+		synchronized (this) {
+			byte[] bytes = serializedReps.get(key);
+			if (bytes != null) {
+				hits++;
+				return bytes;
+			}
+			misses++;
+		}
+
+		// Serialized without holding the lock, two connections could serialize the same rep at the same time but the result is the same.
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objOutStream = new ObjectOutputStream(byteStream)) {
+			objOutStream.writeObject(rep);
+		}
+		byte[] bytes = byteStream.toByteArray();
+		synchronized (this) {
+			serializedReps.put(key, bytes);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of reps written using the bytes in the cache.
+	 *
+	 * @return the number of hits.
+	 */
+	synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of reps that have been serialized.
+	 *
+	 * @return the number of misses.
+	 */
+	synchronized long getMisses() {
+		return misses;
+	}
+
+
+	// ####################################
+	// PRIVATE CLASSES
+	// ####################################
+
+	/**
+	 * Key that compares the reps by reference, two reps with the same content but different instances are serialized separately.
+	 */
+	private static class IdentityKey {
+
+		private final Object rep;
+
+		private IdentityKey(Object rep) {
+			this.rep = rep;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof IdentityKey && ((IdentityKey) obj).rep == rep;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(rep);
+		}
+	}
+}
@@ -1,15 +1,56 @@
 package it.polimi.se2019.network.server;
 
 import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.RepDeltaMessage;
+import it.polimi.se2019.network.message.RepMessage;
+import it.polimi.se2019.utils.LogCategory;
+import it.polimi.se2019.utils.Utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the methods of the client that can be called by the server.
  * Basically this class represents what the server can do with the client.
+ * The messages to send are added to a bounded queue and written by a thread of a shared pool, so a slow client never blocks the thread that sends the message.
+ * A RepMessage, that contains all the reps, replaces the messages with only reps that are still in the queue.
+ * When the queue is full the oldest message with only reps is dropped (the client will ask the reps again since the version of its reps won't match),
+ * if there are no messages with only reps the client is too slow and it is disconnected.
+ * A connection can also be closed after writing all the queued messages, so the last messages of a match reach the client before the close.
+ * The writer takes all the queued messages at once, so a connection can write them together; if the connection has a flush interval
+ * the writer waits it before taking the messages, so the messages sent in the meantime are written together.
  * @author Desno365
  */
 public abstract class AbstractConnectionToClient {
 
+	private static final int OUTBOUND_QUEUE_CAPACITY = 256;
+	private static final ExecutorService WRITERS_POOL = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "CUSTOM: Outbound Messages Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "CUSTOM: Outbound Messages Flush Scheduler");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	private String nickname;
+	private final ArrayDeque<Message> outboundQueue = new ArrayDeque<>();
+	private boolean writerScheduled = false; // Guarded by outboundQueue.
+	private boolean outboundClosed = false; // Guarded by outboundQueue.
+	private boolean closeAfterDraining = false; // True if the writer must close the connection when the queue is empty, guarded by outboundQueue.
+
+	// Metrics of the outbound queue, guarded by outboundQueue.
+	private int maxOutboundQueueDepth = 0;
+	private long coalescedMessages = 0;
+	private long droppedMessages = 0;
 
 
 	/**
@@ -44,14 +85,256 @@ public abstract class AbstractConnectionToClient {
 	}
 
 	/**
-	 * Send a message to the client.
+	 * Queues a message to send to the client, it will be written after all the messages previously queued.
 	 *
 	 * @param message the message to send.
 	 */
-	public abstract void sendMessage(Message message);
+	public void sendMessage(Message message) {
+		boolean overflow = false;
+		synchronized (outboundQueue) {
+			if (outboundClosed)
+				return;
+
+			if (message instanceof RepMessage)
+				removeQueuedRepsAtTail();
+			if (outboundQueue.size() >= OUTBOUND_QUEUE_CAPACITY && !removeOldestQueuedReps()) {
+				overflow = true;
+				outboundClosed = true;
+				outboundQueue.clear();
+			} else {
+				outboundQueue.add(message);
+				maxOutboundQueueDepth = Math.max(maxOutboundQueueDepth, outboundQueue.size());
+				if (!writerScheduled) {
+					writerScheduled = true;
+					scheduleWriter();
+				}
+			}
+		}
+
+		if (overflow) {
+			Utils.logWarning(LogCategory.NETWORK, () -> "AbstractConnectionToClient -> sendMessage(): the outbound queue of " + getNickname() + " is full, closing the connection.");
+			closeConnectionWithClient();
+		}
+	}
 
 	/**
 	 * Closes the connection with the client.
 	 */
 	public abstract void closeConnectionWithClient();
+
+	/**
+	 * Closes the connection with the client after all the queued messages have been written.
+	 * The messages sent after calling this method are discarded.
+	 */
+	public void closeConnectionAfterDraining() {
+		boolean closeNow;
+		synchronized (outboundQueue) {
+			if (outboundClosed)
+				return;
+			outboundClosed = true;
+			closeNow = !writerScheduled;
+			closeAfterDraining = writerScheduled; // The scheduled writer closes the connection when the queue is empty.
+		}
+		if (closeNow)
+			closeWhenWritten();
+	}
+
+
+	// ####################################
+	// OUTBOUND QUEUE METRICS
+	// ####################################
+
+	/**
+	 * Returns the number of messages waiting to be written.
+	 *
+	 * @return the number of messages in the outbound queue.
+	 */
+	public int getOutboundQueueDepth() {
+		synchronized (outboundQueue) {
+			return outboundQueue.size();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of messages that have been waiting to be written at the same time.
+	 *
+	 * @return the maximum depth of the outbound queue.
+	 */
+	public int getMaxOutboundQueueDepth() {
+		synchronized (outboundQueue) {
+			return maxOutboundQueueDepth;
+		}
+	}
+
+	/**
+	 * Returns the number of messages with only reps that have been replaced by a RepMessage before being written.
+	 *
+	 * @return the number of coalesced messages.
+	 */
+	public long getCoalescedMessages() {
+		synchronized (outboundQueue) {
+			return coalescedMessages;
+		}
+	}
+
+	/**
+	 * Returns the number of messages with only reps that have been dropped because the outbound queue was full.
+	 *
+	 * @return the number of dropped messages.
+	 */
+	public long getDroppedMessages() {
+		synchronized (outboundQueue) {
+			return droppedMessages;
+		}
+	}
+
+
+	// ####################################
+	// PROTECTED METHODS
+	// ####################################
+
+	/**
+	 * Writes a message to the client, called by the writer of the outbound queue one message at a time and in the order they have been queued.
+	 * It can block until the message is written.
+	 *
+	 * @param message the message to write.
+	 */
+	protected abstract void writeMessage(Message message);
+
+	/**
+	 * Writes the messages taken together from the queue, in the order they have been queued.
+	 * By default every message is written with writeMessage, a connection can override it to write them all at once.
+	 *
+	 * @param messages the messages to write.
+	 */
+	protected void writeMessages(List<Message> messages) {
+		for (Message message : messages) {
+			try {
+				writeMessage(message);
+			} catch (RuntimeException e) {
+				Utils.logError("AbstractConnectionToClient: writing a message to the client failed.", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the time the writer waits before taking the queued messages, so the messages sent in the meantime are written together.
+	 * By default the writer doesn't wait.
+	 *
+	 * @return the flush interval in milliseconds, 0 to write the messages as soon as possible.
+	 */
+	protected long getFlushIntervalMs() {
+		return 0;
+	}
+
+	/**
+	 * Closes the connection after the messages given to writeMessage have reached the client.
+	 * By default writeMessage returns when the message is written, so the connection is closed immediately;
+	 * a connection that writes the messages later can override it to close when they have been written.
+	 */
+	protected void closeWhenWritten() {
+		closeConnectionWithClient();
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Schedules the writer on the writers pool, after the flush interval if the connection has one.
+	 */
+	private void scheduleWriter() {
+		long flushIntervalMs = getFlushIntervalMs();
+		if (flushIntervalMs > 0)
+			FLUSH_SCHEDULER.schedule(() -> WRITERS_POOL.execute(this::writeQueuedMessages), flushIntervalMs, TimeUnit.MILLISECONDS);
+		else
+			WRITERS_POOL.execute(this::writeQueuedMessages);
+	}
+
+	/**
+	 * Writes all the queued messages together until the queue is empty.
+	 * If the connection has a flush interval, the messages queued while writing are written after another interval.
+	 * If the connection must be closed after draining the queue, it is closed when the queue is empty.
+	 * Note: runs on a thread of the writers pool.
+	 */
+	private void writeQueuedMessages() {
+		while (true) {
+			List<Message> messages;
+			synchronized (outboundQueue) {
+				if (outboundQueue.isEmpty()) {
+					writerScheduled = false;
+					break;
+				}
+				messages = new ArrayList<>(outboundQueue);
+				outboundQueue.clear();
+			}
+			try {
+				writeMessages(messages);
+			} catch (RuntimeException e) {
+				Utils.logError("AbstractConnectionToClient: writing the messages to the client failed.", e);
+			}
+			if (getFlushIntervalMs() > 0) {
+				synchronized (outboundQueue) {
+					if (!outboundQueue.isEmpty()) {
+						scheduleWriter();
+						return;
+					}
+					writerScheduled = false;
+				}
+				break;
+			}
+		}
+
+		boolean closeNow;
+		synchronized (outboundQueue) {
+			// The queue is empty and no new messages can be queued after closeConnectionAfterDraining.
+			closeNow = closeAfterDraining;
+			closeAfterDraining = false;
+		}
+		if (closeNow)
+			closeWhenWritten();
+	}
+
+	/**
+	 * Removes the messages with only reps at the end of the queue, since a RepMessage that contains all the reps is going to be queued after them.
+	 * Messages before a message that isn't only reps are kept, so the reps seen by the client with each request don't change.
+	 */
+	private void removeQueuedRepsAtTail() {
+		while (!outboundQueue.isEmpty() && isOnlyReps(outboundQueue.peekLast())) {
+			outboundQueue.pollLast();
+			coalescedMessages++;
+		}
+	}
+
+	/**
+	 * Removes the oldest queued message with only reps.
+	 *
+	 * @return true if a message has been removed.
+	 */
+	private boolean removeOldestQueuedReps() {
+		Iterator<Message> iterator = outboundQueue.iterator();
+		while (iterator.hasNext()) {
+			if (isOnlyReps(iterator.next())) {
+				iterator.remove();
+				droppedMessages++;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the message contains only reps and no inner message, so it can be replaced or dropped without losing a request.
+	 *
+	 * @param message the message to check.
+	 * @return true if the message contains only reps.
+	 */
+	private static boolean isOnlyReps(Message message) {
+		if (message instanceof RepMessage)
+			return ((RepMessage) message).getMessage() == null;
+		if (message instanceof RepDeltaMessage)
+			return ((RepDeltaMessage) message).getMessage() == null;
+		return false;
+	}
 }
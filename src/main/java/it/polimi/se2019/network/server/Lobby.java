@@ -2,28 +2,64 @@ package it.polimi.se2019.network.server;
 
 import it.polimi.se2019.network.message.*;
 import it.polimi.se2019.utils.GameConstants;
-import it.polimi.se2019.utils.SingleTimer;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
- * Represents the waiting room of the server.
+ * Represents the matchmaking of the server: the waiting rooms and the matches.
+ * The Lobby lock only protects the nicknames, the matches and the choice of the waiting room of a new client,
+ * the clients are added to the waiting rooms and the waiting rooms start their matches holding only the lock of the waiting room.
+ * To avoid deadlocks the lock of a waiting room can be taken before the Lobby lock, never after.
+ * The clients in the matches are indexed by connection and by nickname, so routing a message to its match doesn't need the lock
+ * and doesn't depend on the number of players in the server.
+ * The matches report themselves when their game ends and are dismantled in the next call to dismantleFinishedMatches.
  * @author Desno365
  */
 class Lobby {
 
-	private ArrayList<Match> matches = new ArrayList<>();
-	private ArrayList<AbstractConnectionToClient> waitingRoom = new ArrayList<>();
-	private long timeTimerStart;
-	private SingleTimer singleTimer = new SingleTimer();
+	private Set<Match> matches = new HashSet<>();
+	private final Queue<Match> finishedMatches = new ConcurrentLinkedQueue<>();
+	private final List<WaitingRoom> waitingRooms = new ArrayList<>();
+	private final Map<AbstractConnectionToClient, WaitingRoom> waitingRoomsOfClients = new ConcurrentHashMap<>();
+	private final Map<AbstractConnectionToClient, Long> waitingStartTimes = new ConcurrentHashMap<>();
+	private final Set<String> waitingNicknames = ConcurrentHashMap.newKeySet();
+	private final Map<AbstractConnectionToClient, Match> matchesOfClients = new ConcurrentHashMap<>();
+	private final Map<String, Match> matchesOfNicknames = new ConcurrentHashMap<>();
+	private final Map<String, Match> matchesOfDisconnectedNicknames = new ConcurrentHashMap<>();
+	private final Supplier<Executor> matchExecutorSupplier;
+
+	// Matchmaking metrics.
+	private final LongAdder matchedClients = new LongAdder();
+	private final LongAdder totalTimeToMatchNanos = new LongAdder();
+	private final AtomicLong maxTimeToMatchNanos = new AtomicLong();
 
 
 	/**
-	 * Add a client to the lobby.
+	 * Creates a new Lobby.
+	 *
+	 * @param matchExecutorSupplier supplier called once for every new match to obtain the executor that processes its messages.
+	 */
+	Lobby(Supplier<Executor> matchExecutorSupplier) {
+		this.matchExecutorSupplier = matchExecutorSupplier;
+	}
+
+
+	/**
+	 * Add a client to the lobby, in the waiting room with the most players.
 	 * If the waiting room has reached the minimum number of players a timer starts and when it ends the game starts.
 	 * If the waiting room has reached the maximum number of players the game starts immediately.
 	 *
@@ -31,31 +67,43 @@ class Lobby {
 	 * @param nickname the nickname the client wants to use.
 	 */
 	void registerClient(AbstractConnectionToClient client, String nickname) {
-		if (isNicknameUsed(nickname)) {
-			Match inMatch = getMatchOfDisconnectedClient(nickname);
-			if (inMatch == null) {
-				Utils.logInfo("\tNickname already used, asking a new nickname.");
-				client.sendMessage(new Message(MessageType.NICKNAME, MessageSubtype.ERROR));
-			} else {
-				Utils.logInfo("\tNickname of a disconnected client. Reconnecting to the Match...");
-				setNickname(client, nickname);
-				inMatch.setParticipantAsReconnected(client);
+		synchronized (this) {
+			if (isNicknameUsed(nickname)) {
+				Match inMatch = getMatchOfDisconnectedClient(nickname);
+				if (inMatch == null) {
+					Utils.logInfo("\tNickname already used, asking a new nickname.");
+					client.sendMessage(new Message(MessageType.NICKNAME, MessageSubtype.ERROR));
+				} else {
+					Utils.logInfo("\tNickname of a disconnected client. Reconnecting to the Match...");
+					setNickname(client, nickname);
+					inMatch.setParticipantAsReconnected(client);
+					matchesOfDisconnectedNicknames.remove(nickname);
+					matchesOfClients.put(client, inMatch);
+				}
+				return;
 			}
-		} else {
-			setNickname(client, nickname);
-			waitingRoom.add(client);
-			checkIfWaitingRoomIsReady(client);
+			client.setNickname(nickname);
+			waitingNicknames.add(nickname);
 		}
+		// The nickname is reserved, the messages are sent without holding the Lobby lock.
+		Utils.logInfo(LogCategory.NETWORK, () -> "\tNickname of client \"" + client.hashCode() + "\" set to \"" + nickname + "\".");
+		client.sendMessage(new NicknameMessage(nickname, MessageSubtype.OK));
+		joinWaitingRoom(client);
 	}
 
 	/**
-	 * Removes the client from the waiting room if present.
+	 * Removes the client from its waiting room if present.
+	 * Note: doesn't acquire the lock of the Lobby.
 	 *
 	 * @param client the client to remove from the waiting room.
 	 */
 	void removeWaitingClient(AbstractConnectionToClient client) {
-		waitingRoom.remove(client);
-		checkIfWaitingRoomIsReady(null);
+		WaitingRoom waitingRoom = waitingRoomsOfClients.get(client);
+		if (waitingRoom != null && waitingRoom.remove(client)) {
+			waitingRoomsOfClients.remove(client);
+			waitingStartTimes.remove(client);
+			waitingNicknames.remove(client.getNickname());
+		}
 	}
 
 	/**
@@ -65,61 +113,109 @@ class Lobby {
 	 * @param client the client that lost the connection.
 	 */
 	void clientDisconnectedFromMatch(AbstractConnectionToClient client) {
-		Match match = getMatchOfClient(client);
-		if (match != null) { // If the client was a participant of a match.
-			if (match.isMatchStarted()) { // If client was a participant in an already started match report it to the Match.
+		List<AbstractConnectionToClient> participantsOfTheDismantledMatch;
+		synchronized (this) {
+			Match match = getMatchOfClient(client);
+			if (match == null) // If the client wasn't a participant of a match.
+				return;
+			if (!match.cancelMatch()) { // If client was a participant in an already started match report it to the Match.
 				match.setParticipantAsDisconnected(client);
-			} else { // The client was a participant of a match that isn't started yet. Dismantle the match.
-				List<AbstractConnectionToClient> participantsOfTheDismantledMatch = match.getParticipants();
-				participantsOfTheDismantledMatch.remove(client); // Remove the disconnected client from this list.
+				matchesOfClients.remove(client);
+				matchesOfDisconnectedNicknames.put(client.getNickname(), match);
+				return;
+			}
 
-				// Remove the match from the matches list.
-				matches.remove(match);
+			// The client was a participant of a match that isn't started yet, now canceled. Dismantle the match.
+			participantsOfTheDismantledMatch = match.getParticipants();
+			participantsOfTheDismantledMatch.remove(client); // Remove the disconnected client from this list.
 
-				// Add the participants of the dismantled match to the waiting room.
-				for (AbstractConnectionToClient participant : participantsOfTheDismantledMatch) {
-					waitingRoom.add(participant);
-					checkIfWaitingRoomIsReady(participant);
-				}
-			}
+			// Remove the match from the matches list.
+			matches.remove(match);
+			removeFromIndexes(match);
+			participantsOfTheDismantledMatch.forEach(participant -> waitingNicknames.add(participant.getNickname()));
 		}
+
+		// Add the participants of the dismantled match to the waiting rooms.
+		participantsOfTheDismantledMatch.forEach(this::joinWaitingRoom);
 	}
 
 	/**
 	 * Returns the Match that the client is in, or null if it isn't in any Match.
+	 * Note: doesn't acquire the lock of the Lobby.
 	 *
 	 * @param client the client.
 	 * @return the match in which the client is playing.
 	 */
 	Match getMatchOfClient(AbstractConnectionToClient client) {
-		for (Match match : matches) {
-			for (AbstractConnectionToClient clientInMatch : match.getParticipants()) {
-				if (clientInMatch == client)
-					return match;
-			}
-		}
-		return null;
+		return matchesOfClients.get(client);
 	}
 
 	/**
-	 * Dismantle all finished matches and returns a list of clients that need to be disconnected.
+	 * Dismantle all the matches that reported the end of their game and returns a list of clients that need to be disconnected.
 	 * @return a list of clients that need to be disconnected.
 	 */
 	List<AbstractConnectionToClient> dismantleFinishedMatches() {
+		if (finishedMatches.isEmpty())
+			return new ArrayList<>();
+
 		List<AbstractConnectionToClient> disconnectedClients = new ArrayList<>();
-		Iterator<Match> iter = matches.iterator();
-		while (iter.hasNext()) {
-			Match match = iter.next();
-			if (match.isMatchFinished()) {
-				iter.remove();
-				Utils.logInfo("Lobby -> dismantleFinishedMatches(): a match has been dismantled. There are now " + matches.size() + " matches.");
-				disconnectedClients.addAll(match.getParticipants());
+		synchronized (this) {
+			Match match;
+			while ((match = finishedMatches.poll()) != null) {
+				if (matches.remove(match)) {
+					removeFromIndexes(match);
+					Utils.logInfo(LogCategory.NETWORK, () -> "Lobby -> dismantleFinishedMatches(): a match has been dismantled. There are now " + matches.size() + " matches.");
+					disconnectedClients.addAll(match.getParticipants());
+					match.dismantle();
+				}
 			}
 		}
 		return disconnectedClients;
 	}
 
 
+	// ####################################
+	// MATCHMAKING METRICS
+	// ####################################
+
+	/**
+	 * Returns the number of clients in the waiting rooms.
+	 *
+	 * @return the number of clients in the waiting rooms.
+	 */
+	int getNumberOfWaitingClients() {
+		return waitingRoomsOfClients.size();
+	}
+
+	/**
+	 * Returns the number of waiting rooms that are accepting clients.
+	 *
+	 * @return the number of open waiting rooms.
+	 */
+	synchronized int getNumberOfWaitingRooms() {
+		return (int) waitingRooms.stream().filter(waitingRoom -> !waitingRoom.isClosed()).count();
+	}
+
+	/**
+	 * Returns the average time waited by the clients in the waiting rooms before the start of their match.
+	 *
+	 * @return the average time to match in milliseconds.
+	 */
+	long getAverageTimeToMatchMs() {
+		long clients = matchedClients.sum();
+		return clients == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalTimeToMatchNanos.sum() / clients);
+	}
+
+	/**
+	 * Returns the maximum time waited by a client in a waiting room before the start of its match.
+	 *
+	 * @return the maximum time to match in milliseconds.
+	 */
+	long getMaxTimeToMatchMs() {
+		return TimeUnit.NANOSECONDS.toMillis(maxTimeToMatchNanos.get());
+	}
+
+
 	// ####################################
 	// PRIVATE METHODS
 	// ####################################
@@ -131,19 +227,12 @@ class Lobby {
 	 * @return true if the nickname is already used.
 	 */
 	private boolean isNicknameUsed(String nickname) {
-		// Check in the waiting room list.
-		if (waitingRoom.stream().anyMatch(client -> client.getNickname().equals(nickname)))
+		// Check in the waiting rooms.
+		if (waitingNicknames.contains(nickname))
 			return true;
 
-		// Check in the started matches.
-		for (Match match : matches) {
-			for (AbstractConnectionToClient clientInMatch : match.getParticipants()) {
-				if (clientInMatch.getNickname().equals(nickname))
-					return true;
-			}
-		}
-
-		return false;
+		// Check in the matches.
+		return matchesOfNicknames.containsKey(nickname);
 	}
 
 	/**
@@ -153,7 +242,7 @@ class Lobby {
 	 * @param nickname the nickname to set to the client.
 	 */
 	private void setNickname(AbstractConnectionToClient client, String nickname) {
-		Utils.logInfo("\tNickname of client \"" + client.hashCode() + "\" set to \"" + nickname + "\".");
+		Utils.logInfo(LogCategory.NETWORK, () -> "\tNickname of client \"" + client.hashCode() + "\" set to \"" + nickname + "\".");
 		client.setNickname(nickname);
 		client.sendMessage(new NicknameMessage(client.getNickname(), MessageSubtype.OK));
 	}
@@ -166,109 +255,103 @@ class Lobby {
 	 * @return the match of the client if it is a disconnected participant, or null if it isn't.
 	 */
 	private Match getMatchOfDisconnectedClient(String nickname) {
-		for (Match match : matches) {
-			for (AbstractConnectionToClient disconnectedClient : match.getDisconnectedParticipants()) {
-				if (disconnectedClient.getNickname().equals(nickname))
-					return match;
-			}
-		}
-		return null;
+		return matchesOfDisconnectedNicknames.get(nickname);
 	}
 
 	/**
-	 * Should be called after adding or removing a client to the waiting room.
-	 * Check if the waiting room has reached the minimum number of players (and schedule the timer for the match to start).
-	 * Check if the waiting room has reached the maximum number of players (and start the match immediately).
+	 * Adds the participants of the match to the indexes of the clients in the matches.
 	 *
-	 * @param newestClient the latest added client. Can be null if not called after adding a client.
+	 * @param match the match.
 	 */
-	private void checkIfWaitingRoomIsReady(AbstractConnectionToClient newestClient) {
-		// Send a message to all the clients in the waiting room.
-		sendWaitingPlayersMessages();
-
-		// Logic for starting the match or the timer.
-		if (waitingRoom.size() == GameConstants.MAX_PLAYERS) {
-			// Reached the maximum number of players. Cancel the timer and start the match.
-			startMatchInWaitingRoom();
-		} else if (waitingRoom.size() == GameConstants.MIN_PLAYERS) {
-			if (Utils.DEBUG_BYPASS_CONFIGURATION) {
-				startMatchInWaitingRoom();
-				return;
-			}
-			// Reached the minimum number of players. Start a timer for starting the match if not already started.
-			if (!singleTimer.isRunning()) {
-				startTimerForMatchStart();
-				sendTimerStartedMessages();
-			}
-		} else if (waitingRoom.size() < GameConstants.MIN_PLAYERS) {
-			// If a timer has been started, cancels it since now the number of players is less than the minimum.
-			if (singleTimer.isRunning()) {
-				singleTimer.cancel();
-				sendTimerCanceledMessages();
-			}
-		} else {
-			// Number of players between the minimum and the maximum. Send to the new client the remaining time for starting the match.
-			if (singleTimer.isRunning() && newestClient != null) {
-				long timePassedAfterTimerStart = System.currentTimeMillis() - timeTimerStart;
-				long timeRemainingInTimer = Utils.getServerConfig().getWaitingTimeInLobbyMs() - timePassedAfterTimerStart;
-				newestClient.sendMessage(new TimerForStartMessage(timeRemainingInTimer, MessageSubtype.INFO));
-			}
+	private void addToIndexes(Match match) {
+		for (AbstractConnectionToClient participant : match.getParticipants()) {
+			matchesOfClients.put(participant, match);
+			matchesOfNicknames.put(participant.getNickname(), match);
 		}
 	}
 
 	/**
-	 * Start the match with the clients in the waiting room and cancels the timer.
-	 */
-	private void startMatchInWaitingRoom() {
-		// Stop the timer if it is running, used when reaching the maximum number of players.
-		singleTimer.cancel();
-
-		// Start a new match.
-		Match match = new Match(waitingRoom);
-		matches.add(match);
-		waitingRoom.clear();
-		match.requestMatchConfig();
-	}
-
-	/**
-	 * Sends a message to all the players in the waiting room with the list of players in the waiting room.
+	 * Removes the participants of the match, also the disconnected ones, from the indexes of the clients in the matches.
+	 *
+	 * @param match the match.
 	 */
-	private void sendWaitingPlayersMessages() {
-		if (!waitingRoom.isEmpty()) {
-			// Create a list of player names.
-			List<String> playersNames = waitingRoom.stream()
-					.map(AbstractConnectionToClient::getNickname)
-					.collect(Collectors.toList());
-
-			// Send the message with all nicknames.
-			waitingRoom.forEach(client -> client.sendMessage(new WaitingPlayersMessage(playersNames)));
+	private void removeFromIndexes(Match match) {
+		for (AbstractConnectionToClient participant : match.getParticipants()) {
+			matchesOfClients.remove(participant, match);
+			matchesOfNicknames.remove(participant.getNickname(), match);
+		}
+		for (AbstractConnectionToClient disconnectedParticipant : match.getDisconnectedParticipants()) {
+			matchesOfClients.remove(disconnectedParticipant, match);
+			matchesOfDisconnectedNicknames.remove(disconnectedParticipant.getNickname(), match);
 		}
 	}
 
 	/**
-	 * Starts the timer that make the match start.
+	 * Adds the client to the open waiting room with the most players, or to a new waiting room if all the others are full or closed.
+	 * The waiting room could close before the client is added, in this case another one is chosen.
+	 * Note: must be called without holding the Lobby lock.
+	 *
+	 * @param client the client to add, its nickname must be in the waiting nicknames.
 	 */
-	private void startTimerForMatchStart() {
-		timeTimerStart = System.currentTimeMillis();
-		final Lobby lobby = this;
-		singleTimer.start(() -> {
-			Utils.logInfo("Timer ended => Starting the match...");
-			lobby.startMatchInWaitingRoom();
-		}, Utils.getServerConfig().getWaitingTimeInLobbyMs());
+	private void joinWaitingRoom(AbstractConnectionToClient client) {
+		waitingStartTimes.put(client, System.nanoTime());
+		WaitingRoom waitingRoom;
+		do {
+			waitingRoom = chooseWaitingRoom();
+			waitingRoomsOfClients.put(client, waitingRoom); // Before adding the client, since the match could start while adding it.
+		} while (!waitingRoom.add(client));
 	}
 
 	/**
-	 * Sends a message to all the players in the waiting room, informing them about the start of the timer.
+	 * Reserves a place in the open waiting room with the most taken places, creating a new one if all the others are full.
+	 * The closed waiting rooms are discarded.
+	 *
+	 * @return the waiting room for a new client.
 	 */
-	private void sendTimerStartedMessages() {
-		waitingRoom.forEach(client -> client.sendMessage(new TimerForStartMessage(Utils.getServerConfig().getWaitingTimeInLobbyMs(), MessageSubtype.INFO)));
+	private synchronized WaitingRoom chooseWaitingRoom() {
+		waitingRooms.removeIf(WaitingRoom::isClosed);
+		WaitingRoom chosenWaitingRoom = null;
+		for (WaitingRoom waitingRoom : waitingRooms) {
+			int takenPlaces = waitingRoom.getTakenPlaces();
+			if (takenPlaces < GameConstants.MAX_PLAYERS && (chosenWaitingRoom == null || takenPlaces > chosenWaitingRoom.getTakenPlaces()))
+				chosenWaitingRoom = waitingRoom;
+		}
+		if (chosenWaitingRoom == null || !chosenWaitingRoom.reservePlace()) {
+			chosenWaitingRoom = new WaitingRoom(this::startMatch);
+			chosenWaitingRoom.reservePlace();
+			waitingRooms.add(chosenWaitingRoom);
+		}
+		return chosenWaitingRoom;
 	}
 
 	/**
-	 * Sends a message to all the players in the waiting room, informing them about the cancellation of the timer.
+	 * Starts a new match with the specified clients, that leave their waiting room.
+	 * Note: called by the waiting room while holding its lock.
+	 *
+	 * @param participants the clients of the match.
 	 */
-	private void sendTimerCanceledMessages() {
-		waitingRoom.forEach(client -> client.sendMessage(new Message(MessageType.TIMER_FOR_START, MessageSubtype.ERROR)));
+	private void startMatch(List<AbstractConnectionToClient> participants) {
+		Match match = new Match(participants, matchExecutorSupplier.get(), finishedMatches::add);
+		synchronized (this) {
+			matches.add(match);
+			addToIndexes(match);
+		}
+
+		long now = System.nanoTime();
+		for (AbstractConnectionToClient participant : participants) {
+			waitingRoomsOfClients.remove(participant);
+			waitingNicknames.remove(participant.getNickname());
+			Long waitingStartTime = waitingStartTimes.remove(participant);
+			if (waitingStartTime != null) {
+				long timeToMatch = now - waitingStartTime;
+				matchedClients.increment();
+				totalTimeToMatchNanos.add(timeToMatch);
+				maxTimeToMatchNanos.accumulateAndGet(timeToMatch, Math::max);
+			}
+		}
+		Utils.logInfo(LogCategory.NETWORK, () -> "Lobby -> startMatch(): started a match with " + participants.size() + " players. There are now " + getNumberOfWaitingClients() + " waiting clients, average time to match: " + getAverageTimeToMatchMs() + " ms.");
+
+		match.requestMatchConfig();
 	}
 
 }
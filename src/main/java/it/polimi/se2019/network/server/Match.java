@@ -1,30 +1,44 @@
 package it.polimi.se2019.network.server;
 
 import it.polimi.se2019.controller.Controller;
+import it.polimi.se2019.model.ModelSnapshot;
 import it.polimi.se2019.network.message.GameConfigMessage;
 import it.polimi.se2019.network.message.Message;
 import it.polimi.se2019.network.message.MessageSubtype;
 import it.polimi.se2019.network.message.MessageType;
 import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.SingleTimer;
 import it.polimi.se2019.utils.Utils;
 import it.polimi.se2019.view.server.VirtualView;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Represents a single Match with all his participants.
+ * Everything that reaches the Controller (votes, messages, disconnections, timers) is queued on the executor of the match,
+ * so the game of a match is processed by one task at a time without blocking the other matches.
+ * After every task the match checks if its game ended, and in that case reports itself as finished only once.
+ * The participants are changed by the Lobby when they disconnect and reconnect, so the lists of the participants are guarded by the lock of the match,
+ * while the VirtualViews are created and updated only on the executor of the match.
  * @author Desno365
  */
 class Match {
 
 	private final int numberOfParticipants;
-	private ArrayList<AbstractConnectionToClient> participants;
-	private ArrayList<AbstractConnectionToClient> disconnectedParticipants = new ArrayList<>();
-	private HashMap<AbstractConnectionToClient, VirtualView> virtualViews = new HashMap<>();
-	private boolean matchStarted = false;
+	private final Executor matchExecutor;
+	private final Consumer<Match> onMatchFinished;
+	private boolean finishReported = false;
+	private ArrayList<AbstractConnectionToClient> participants; // Guarded by this.
+	private ArrayList<AbstractConnectionToClient> disconnectedParticipants = new ArrayList<>(); // Guarded by this.
+	private Map<AbstractConnectionToClient, VirtualView> virtualViews = new ConcurrentHashMap<>(); // Changed only on the executor of the match.
+	private volatile boolean matchStarted = false;
+	private volatile boolean matchCanceled = false;
 	private SingleTimer singleTimer = new SingleTimer();
-	private Controller controller;
+	private volatile Controller controller;
 
 	// Game config attributes.
 	private HashMap<AbstractConnectionToClient, Integer> skullsChosen = new HashMap<>();
@@ -34,13 +48,17 @@ class Match {
 	/**
 	 * Create a new match with the specified clients.
 	 *
-	 * @param participants a map that contains all the clients for this match and their nicknames.
+	 * @param participants    a map that contains all the clients for this match and their nicknames.
+	 * @param matchExecutor   the executor that processes, one at a time, all the events of this match.
+	 * @param onMatchFinished called on the executor of the match when its game ends.
 	 */
-	Match(List<AbstractConnectionToClient> participants) {
+	Match(List<AbstractConnectionToClient> participants, Executor matchExecutor, Consumer<Match> onMatchFinished) {
 		numberOfParticipants = participants.size();
 		if (numberOfParticipants < GameConstants.MIN_PLAYERS || numberOfParticipants > GameConstants.MAX_PLAYERS)
 			throw new IllegalArgumentException("The number of participants for this match (" + numberOfParticipants + ") is not valid.");
 		this.participants = new ArrayList<>(participants);
+		this.matchExecutor = matchExecutor;
+		this.onMatchFinished = onMatchFinished;
 	}
 
 
@@ -55,38 +73,63 @@ class Match {
 		if (isMatchStarted())
 			return;
 
-		for (AbstractConnectionToClient client : participants)
+		for (AbstractConnectionToClient client : getParticipants())
 			client.sendMessage(new Message(MessageType.GAME_CONFIG, MessageSubtype.REQUEST));
 
 		Utils.logInfo("Starting timer for Match answer.");
-		singleTimer.start(this::initializeGame, (Utils.getServerConfig()).getTurnTimeLimitMs());
+		singleTimer.start(() -> execute(this::initializeGame), (Utils.getServerConfig()).getTurnTimeLimitMs());
 	}
 
 	/**
-	 * Add the vote of a client for game configurations.
+	 * Queues the vote of a client for game configurations.
 	 *
 	 * @param client   the client tha made the vote.
 	 * @param skulls   skulls voted.
 	 * @param mapIndex map voted.
 	 */
 	void addConfigVote(AbstractConnectionToClient client, int skulls, int mapIndex) {
-		if (isMatchStarted()) {
-			Utils.logInfo("\tMatch already started, GameConfigMessage ignored.");
-			return;
-		}
-
-		if (participants.contains(client) && !skullsChosen.containsKey(client) && !mapChosen.containsKey(client)) { // Check if the client is in the Match and if he didn't already vote.
-			Utils.logInfo("\tAdding game config vote with skulls " + skulls + ", map index " + mapIndex + ".");
-
-			skullsChosen.put(client, skulls);
-			mapChosen.put(client, mapIndex);
+		execute(() -> processConfigVote(client, skulls, mapIndex));
+	}
 
-			numberOfAnswers++;
-			if (numberOfAnswers >= numberOfParticipants) {
-				Utils.logInfo("\t\tAll participants sent their votes. Initializing the game.");
-				initializeGame();
+	/**
+	 * Queues the message of a client, that will be forwarded to its VirtualView (if present).
+	 *
+	 * @param client  the client that sent the message.
+	 * @param message the message.
+	 */
+	void forwardMessageToVirtualView(AbstractConnectionToClient client, Message message) {
+		execute(() -> {
+			VirtualView virtualView = getVirtualViewOfClient(client);
+			if (virtualView != null) {
+				Utils.logInfo(LogCategory.NETWORK, () -> "Match -> forwardMessageToVirtualView(): forwarding the message to the VirtualView of \"" + client.getNickname() + "\".");
+				virtualView.onMessageReceived(message);
 			}
+		});
+	}
+
+	/**
+	 * Cancels a match that isn't started yet, so that pending votes and timers won't start its game.
+	 *
+	 * @return true if the match has been canceled, false if it already started.
+	 */
+	boolean cancelMatch() {
+		synchronized (this) {
+			if (matchStarted)
+				return false;
+			matchCanceled = true;
 		}
+		singleTimer.cancel();
+		return true;
+	}
+
+	/**
+	 * Releases the game of a finished match, so the Model can be garbage collected even if some events of the match are still queued.
+	 */
+	void dismantle() {
+		execute(() -> {
+			virtualViews.clear();
+			controller = null;
+		});
 	}
 
 	/**
@@ -94,12 +137,13 @@ class Match {
 	 *
 	 * @return a list with all the participants of this match.
 	 */
-	List<AbstractConnectionToClient> getParticipants() {
+	synchronized List<AbstractConnectionToClient> getParticipants() {
 		return new ArrayList<>(participants);
 	}
 
 	/**
 	 * Returns the VirtualView associated to the client, or null if this match doesn't have the VirtualView of the client.
+	 * Note: the VirtualViews are created on the executor of the match, after the match is started.
 	 *
 	 * @param client the client.
 	 * @return the VirtualView associated to the client.
@@ -119,11 +163,16 @@ class Match {
 
 	/**
 	 * Returns true if this match finished and is ready to be dismantled.
+	 * It reads the last snapshot of the model, so it doesn't need to run on the executor of the match.
 	 *
 	 * @return true if this match finished and is ready to be dismantled.
 	 */
 	boolean isMatchFinished() {
-		return matchStarted && controller.isGameEnded();
+		Controller currentController = controller;
+		if (!matchStarted || currentController == null)
+			return false;
+		ModelSnapshot modelSnapshot = currentController.getModelSnapshot();
+		return modelSnapshot != null && modelSnapshot.isGameEnded();
 	}
 
 
@@ -136,7 +185,7 @@ class Match {
 	 *
 	 * @return a list with all the disconnected participants of this match.
 	 */
-	List<AbstractConnectionToClient> getDisconnectedParticipants() {
+	synchronized List<AbstractConnectionToClient> getDisconnectedParticipants() {
 		return new ArrayList<>(disconnectedParticipants);
 	}
 
@@ -147,22 +196,26 @@ class Match {
 	 * @param client the disconnected client.
 	 */
 	void setParticipantAsDisconnected(AbstractConnectionToClient client) {
-		if (!participants.contains(client)) {
-			Utils.logError("Participant can't be set as disconnected since it doesn't exist in this Match.", new IllegalStateException());
-			return;
-		}
-
-		// Add client to the disconnected participants list.
-		disconnectedParticipants.add(client);
+		synchronized (this) {
+			if (!participants.contains(client)) {
+				Utils.logError("Participant can't be set as disconnected since it doesn't exist in this Match.", new IllegalStateException());
+				return;
+			}
 
-		Utils.logInfo("Match -> setParticipantAsDisconnected(): reported disconnection of player \"" + client.getNickname() + "\" to the Match. In this match there are " + disconnectedParticipants.size() + " players disconnected.");
+			// Add client to the disconnected participants list.
+			disconnectedParticipants.add(client);
+			int numberOfDisconnected = disconnectedParticipants.size();
+			Utils.logInfo(LogCategory.NETWORK, () -> "Match -> setParticipantAsDisconnected(): reported disconnection of player \"" + client.getNickname() + "\" to the Match. In this match there are " + numberOfDisconnected + " players disconnected.");
+		}
 
 		// Forward disconnection information to the VirtualView.
-		VirtualView virtualView = getVirtualViewOfClient(client);
-		if (virtualView == null)
-			Utils.logError("The VirtualView should always be set if the match is started.", new IllegalStateException());
-		else
-			virtualView.onClientDisconnected();
+		execute(() -> {
+			VirtualView virtualView = getVirtualViewOfClient(client);
+			if (virtualView == null)
+				Utils.logError("The VirtualView should always be set if the match is started.", new IllegalStateException());
+			else
+				virtualView.onClientDisconnected();
+		});
 	}
 
 	/**
@@ -171,25 +224,34 @@ class Match {
 	 * @param client the reconnected client.
 	 */
 	void setParticipantAsReconnected(AbstractConnectionToClient client) {
-		Optional<AbstractConnectionToClient> oldClient = disconnectedParticipants.stream().filter(p -> p.getNickname().equals(client.getNickname())).findFirst();
-		if (oldClient.isPresent()) {
-			// Remove client from the disconnected participants list.
-			disconnectedParticipants.remove(oldClient.get());
+		AbstractConnectionToClient oldClient;
+		synchronized (this) {
+			Optional<AbstractConnectionToClient> disconnectedClient = disconnectedParticipants.stream().filter(p -> p.getNickname().equals(client.getNickname())).findFirst();
+			if (!disconnectedClient.isPresent())
+				return;
+			oldClient = disconnectedClient.get();
 
-			Utils.logInfo("Match -> setParticipantAsReconnected(): reported reconnection of player \"" + client.getNickname() + "\" to the Match. In this match there are " + disconnectedParticipants.size() + " players disconnected.");
+			// Remove client from the disconnected participants list.
+			disconnectedParticipants.remove(oldClient);
+			int numberOfDisconnected = disconnectedParticipants.size();
+			Utils.logInfo(LogCategory.NETWORK, () -> "Match -> setParticipantAsReconnected(): reported reconnection of player \"" + client.getNickname() + "\" to the Match. In this match there are " + numberOfDisconnected + " players disconnected.");
 
 			// Update client in the participants list.
 			participants.removeIf(participant -> participant.getNickname().equals(client.getNickname()));
 			participants.add(client);
+		}
 
-			// Update client in the virtualviews hashmap.
-			VirtualView virtualView = getVirtualViewOfClient(oldClient.get());
-			virtualViews.remove(oldClient.get());
+		// Update client in the virtualviews hashmap and forward reconnection information to the VirtualView.
+		// The VirtualView of the old client exists, since the participants have been copied for the VirtualViews before any disconnection.
+		execute(() -> {
+			VirtualView virtualView = virtualViews.remove(oldClient);
+			if (virtualView == null) {
+				Utils.logError("The VirtualView should always be set if the match is started.", new IllegalStateException());
+				return;
+			}
 			virtualViews.put(client, virtualView);
-
-			// Forward reconnection information to the VirtualView.
 			virtualView.onClientReconnected(client);
-		}
+		});
 	}
 
 
@@ -197,33 +259,84 @@ class Match {
 	// PRIVATE METHODS
 	// ####################################
 
+	/**
+	 * Queues the task on the executor of the match, after the task checks if the game ended.
+	 *
+	 * @param task the task to run.
+	 */
+	private void execute(Runnable task) {
+		matchExecutor.execute(() -> {
+			task.run();
+			if (!finishReported && isMatchFinished()) {
+				finishReported = true;
+				onMatchFinished.accept(this);
+			}
+		});
+	}
+
+	/**
+	 * Add the vote of a client for game configurations.
+	 * Note: runs on the executor of the match.
+	 *
+	 * @param client   the client tha made the vote.
+	 * @param skulls   skulls voted.
+	 * @param mapIndex map voted.
+	 */
+	private void processConfigVote(AbstractConnectionToClient client, int skulls, int mapIndex) {
+		if (isMatchStarted()) {
+			Utils.logInfo("\tMatch already started, GameConfigMessage ignored.");
+			return;
+		}
+
+		if (getParticipants().contains(client) && !skullsChosen.containsKey(client) && !mapChosen.containsKey(client)) { // Check if the client is in the Match and if he didn't already vote.
+			Utils.logInfo(LogCategory.NETWORK, () -> "\tAdding game config vote with skulls " + skulls + ", map index " + mapIndex + ".");
+
+			skullsChosen.put(client, skulls);
+			mapChosen.put(client, mapIndex);
+
+			numberOfAnswers++;
+			if (numberOfAnswers >= numberOfParticipants) {
+				Utils.logInfo("\t\tAll participants sent their votes. Initializing the game.");
+				initializeGame();
+			}
+		}
+	}
+
 	/**
 	 * Start the match.
+	 * Note: runs on the executor of the match.
 	 */
 	private void initializeGame() {
+		// The participants are copied when the match starts, so a participant can't disconnect before its VirtualView is in the copy.
+		List<AbstractConnectionToClient> startingParticipants;
+		synchronized (this) {
+			if (isMatchStarted() || matchCanceled)
+				return;
+			matchStarted = true;
+			startingParticipants = new ArrayList<>(participants);
+		}
+
 		Utils.logInfo("Cancelling timer for Match answer.");
 		singleTimer.cancel();
 
 		// Find votes.
 		int skulls = findVotedNumberOfSkulls();
 		GameConstants.MapType mapType = findVotedMap();
-		Utils.logInfo("Match -> initializeGame(): initializing a new game with skulls: " + skulls + ", mapName: \"" + mapType.getMapName() + "\".");
+		Utils.logInfo(LogCategory.NETWORK, () -> "Match -> initializeGame(): initializing a new game with skulls: " + skulls + ", mapName: \"" + mapType.getMapName() + "\".");
 
 		// Send messages with votes.
-		sendVotesResultMessages(skulls, mapType);
+		sendVotesResultMessages(startingParticipants, skulls, mapType);
 
 		// Create virtualViews.
-		for (AbstractConnectionToClient client : participants) {
-			Utils.logInfo("Match => initializeGame(): Added Virtual View to " + client.getNickname());
-			VirtualView virtualView = new VirtualView(client);
+		for (AbstractConnectionToClient client : startingParticipants) {
+			Utils.logInfo(LogCategory.NETWORK, () -> "Match => initializeGame(): Added Virtual View to " + client.getNickname());
+			VirtualView virtualView = new VirtualView(client, this::execute);
 			virtualViews.put(client, virtualView);
 		}
 
 		// Create Controller.
 		controller = new Controller(mapType, virtualViews.values(), skulls);
 		controller.startGame();
-
-		matchStarted = true;
 	}
 
 	/**
@@ -270,11 +383,12 @@ class Match {
 	/**
 	 * Send a message with the result of the poll.
 	 *
+	 * @param clients the clients to send the message to.
 	 * @param skulls  average number of skulls voted.
 	 * @param mapType most voted map type.
 	 */
-	private void sendVotesResultMessages(int skulls, GameConstants.MapType mapType) {
-		for (AbstractConnectionToClient client : participants) {
+	private void sendVotesResultMessages(List<AbstractConnectionToClient> clients, int skulls, GameConstants.MapType mapType) {
+		for (AbstractConnectionToClient client : clients) {
 			GameConfigMessage gameConfigMessage = new GameConfigMessage(MessageSubtype.INFO);
 			gameConfigMessage.setSkulls(skulls);
 			gameConfigMessage.setMapIndex(mapType.ordinal());
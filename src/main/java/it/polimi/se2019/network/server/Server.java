@@ -1,5 +1,7 @@
 package it.polimi.se2019.network.server;
 
+import it.polimi.se2019.model.cards.CardCatalog;
+import it.polimi.se2019.network.server.nio.NioSocketServer;
 import it.polimi.se2019.network.server.rmi.RMIServer;
 import it.polimi.se2019.network.server.socket.SocketServer;
 import it.polimi.se2019.utils.Utils;
@@ -18,6 +20,7 @@ public class Server {
 
 	private ServerEventsListener serverEventsListener = new ServerEventsListener();
 	private SocketServer socketServer;
+	private NioSocketServer nioSocketServer;
 	private RMIServer rmiServer;
 
 	/**
@@ -26,6 +29,7 @@ public class Server {
 	 * @param args
 	 */
 	public static void main(String[] args) {
+		CardCatalog.getCardCatalog(); // Loads the cards at startup, so the first match doesn't wait for it.
 		Server server = new Server();
 		server.startRMIServerAsynchronously();
 		server.startSocketServerAsynchronously();
@@ -45,12 +49,15 @@ public class Server {
 	}
 
 	/**
-	 * Starts the socket server.
+	 * Starts the socket server, using the NIO one if specified in the server config.
 	 * Doesn't stop the calling thread.
 	 */
 	private void startSocketServerAsynchronously() {
 		try {
-			socketServer = new SocketServer(serverEventsListener);
+			if (Utils.getServerConfig().isNioSocketServer())
+				nioSocketServer = new NioSocketServer(serverEventsListener);
+			else
+				socketServer = new SocketServer(serverEventsListener);
 		} catch (IOException e) {
 			Utils.logError("Failed to start Socket server.", e);
 		}
@@ -71,6 +78,8 @@ public class Server {
 			serverEventsListener.closeAllConnections();
 			if (socketServer != null)
 				socketServer.close();
+			if (nioSocketServer != null)
+				nioSocketServer.close();
 			if (rmiServer != null)
 				rmiServer.close();
 			System.exit(0);
@@ -1,26 +1,66 @@
 package it.polimi.se2019.network.server;
 
 import it.polimi.se2019.network.message.*;
+import it.polimi.se2019.utils.LogCategory;
+import it.polimi.se2019.utils.SerialExecutor;
 import it.polimi.se2019.utils.Utils;
-import it.polimi.se2019.view.server.VirtualView;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Listen to events produced by a client connected to the server:
  * - Connection started: processed in onClientConnection;
  * - Connection lost: processed in onConnectionLost;
  * - Message received: processed in onMessageReceived.
+ * Lobby operations are serialized by the Lobby itself, while messages directed to a match are queued on the executor of that match,
+ * so different matches are processed in parallel.
+ * Finished matches are dismantled periodically by a background thread, the reaper.
  * @author Desno365
  */
 public class ServerEventsListener implements ServerEventsListenerInterface {
 
 	private static final int NICKNAME_MAX_LENGTH = 16;
 	private static final int NICKNAME_MIN_LENGTH = 1;
+	private static final long REAPER_PERIOD_MS = 1000;
 
-	private Lobby lobby = new Lobby();
-	private ArrayList<AbstractConnectionToClient> connectedClients = new ArrayList<>();
+	private final Lobby lobby;
+	private final Set<AbstractConnectionToClient> connectedClients = ConcurrentHashMap.newKeySet();
+	private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "CUSTOM: Match Reaper");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+
+	/**
+	 * Creates a new ServerEventsListener where each match processes its messages on its own SerialExecutor.
+	 */
+	public ServerEventsListener() {
+		this(SerialExecutor::new);
+	}
+
+	/**
+	 * Creates a new ServerEventsListener where the executors of the matches are provided by the specified supplier.
+	 *
+	 * @param matchExecutorSupplier supplier called once for every new match to obtain the executor that processes its messages.
+	 */
+	ServerEventsListener(Supplier<Executor> matchExecutorSupplier) {
+		lobby = new Lobby(matchExecutorSupplier);
+		reaper.scheduleWithFixedDelay(() -> {
+			try {
+				dismantleFinishedMatches();
+			} catch (RuntimeException e) {
+				Utils.logError("Error while dismantling the finished matches.", e); // Catch everything, an exception would stop the reaper.
+			}
+		}, REAPER_PERIOD_MS, REAPER_PERIOD_MS, TimeUnit.MILLISECONDS);
+	}
 
 
 	/**
@@ -29,9 +69,9 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 	 * @param client the client starting the connection.
 	 */
 	@Override
-	public synchronized void onClientConnection(AbstractConnectionToClient client) {
+	public void onClientConnection(AbstractConnectionToClient client) {
 		connectedClients.add(client);
-		Utils.logInfo("ServerEventsListener -> onClientConnection(): started connection with client \"" + client.hashCode() + "\". There are " + connectedClients.size() + " clients registered.");
+		Utils.logInfo(LogCategory.NETWORK, () -> "ServerEventsListener -> onClientConnection(): started connection with client \"" + client.hashCode() + "\". There are " + connectedClients.size() + " clients registered.");
 		client.sendMessage(new Message(MessageType.NICKNAME, MessageSubtype.REQUEST));
 	}
 
@@ -41,10 +81,10 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 	 * @param client the client that lost the connection.
 	 */
 	@Override
-	public synchronized void onConnectionLost(AbstractConnectionToClient client) {
+	public void onConnectionLost(AbstractConnectionToClient client) {
 		// Remove client from the connected clients list.
 		connectedClients.remove(client);
-		Utils.logInfo("ServerEventsListener -> onConnectionLost(): lost connection with client \"" + client.hashCode() + "\". There are " + connectedClients.size() + " clients registered.");
+		Utils.logInfo(LogCategory.NETWORK, () -> "ServerEventsListener -> onConnectionLost(): lost connection with client \"" + client.hashCode() + "\". There are " + connectedClients.size() + " clients registered.");
 
 		// Remove the client from the waiting room if present.
 		lobby.removeWaitingClient(client);
@@ -60,14 +100,12 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 	 * @param message the message received.
 	 */
 	@Override
-	public synchronized void onMessageReceived(AbstractConnectionToClient client, Message message) {
-		dismantleFinishedMatches();
-		
+	public void onMessageReceived(AbstractConnectionToClient client, Message message) {
 		// Discard messages of not registered clients.
 		if (!connectedClients.contains(client))
 			return;
 
-		Utils.logInfo("ServerEventsListener -> onMessageReceived(): received a message from \"" + client.hashCode() + "\" of type: " + message.getMessageType() + ", and subtype: " + message.getMessageSubtype() + ".");
+		Utils.logInfo(LogCategory.NETWORK, () -> "ServerEventsListener -> onMessageReceived(): received a message from \"" + client.hashCode() + "\" of type: " + message.getMessageType() + ", and subtype: " + message.getMessageSubtype() + ".");
 
 		if (client.isNicknameSet()) {
 			if (message.getMessageType() == MessageType.GAME_CONFIG && message.getMessageSubtype() == MessageSubtype.ANSWER)
@@ -81,9 +119,10 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 	}
 
 	/**
-	 * Closes all the connections with the clients.
+	 * Stops the reaper and closes all the connections with the clients.
 	 */
 	void closeAllConnections() {
+		reaper.shutdownNow();
 		for (AbstractConnectionToClient client : connectedClients) {
 			client.closeConnectionWithClient();
 		}
@@ -143,7 +182,7 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 	}
 
 	/**
-	 * Forwards the message of the client to its VirtualView (if present).
+	 * Queues the message of the client on its Match, that will forward it to the VirtualView (if present).
 	 *
 	 * @param client  the client that sent the message.
 	 * @param message the message.
@@ -151,11 +190,8 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 	private void forwardMessageToVirtualView(AbstractConnectionToClient client, Message message) {
 		Match match = lobby.getMatchOfClient(client);
 		if (match != null) { // If the client is in a match.
-			VirtualView virtualView = match.getVirtualViewOfClient(client);
-			if (virtualView != null) {
-				Utils.logInfo("\tForwarding the message to the VirtualView.");
-				virtualView.onMessageReceived(message);
-			}
+			Utils.logInfo("\tForwarding the message to the Match.");
+			match.forwardMessageToVirtualView(client, message);
 		} else {
 			Utils.logError("Client has no match", new NullPointerException());
 		}
@@ -163,14 +199,16 @@ public class ServerEventsListener implements ServerEventsListenerInterface {
 
 	/**
 	 * Dismantle all finished matches and disconnect their participant if still connected.
+	 * The connections are closed after writing the messages still queued, like the end of the game and the leaderboard.
+	 * Note: runs on the reaper thread.
 	 */
 	private void dismantleFinishedMatches() {
 		List<AbstractConnectionToClient> disconnectedClients = lobby.dismantleFinishedMatches();
 		if(!disconnectedClients.isEmpty())
-			Utils.logInfo("ServerEventsListener -> dismantleFinishedMatches(): found " + disconnectedClients.size() + " clients to be disconnected.");
+			Utils.logInfo(LogCategory.NETWORK, () -> "ServerEventsListener -> dismantleFinishedMatches(): found " + disconnectedClients.size() + " clients to be disconnected.");
 		for (AbstractConnectionToClient client : disconnectedClients) {
 			connectedClients.remove(client);
-			client.closeConnectionWithClient();
+			client.closeConnectionAfterDraining();
 		}
 	}
 
@@ -0,0 +1,222 @@
+package it.polimi.se2019.network.server;
+
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.MessageSubtype;
+import it.polimi.se2019.network.message.MessageType;
+import it.polimi.se2019.network.message.TimerForStartMessage;
+import it.polimi.se2019.network.message.WaitingPlayersMessage;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.SingleTimer;
+import it.polimi.se2019.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A group of clients waiting for the start of their match.
+ * Every waiting room has its own lock and its own timer, so different waiting rooms fill up and start their matches in parallel.
+ * When the match starts the waiting room is closed and can't be used anymore, the same happens when all its clients leave.
+ * The places are reserved before adding the clients, so the clients that arrive together are spread on different waiting rooms
+ * instead of all waiting for the lock of the same one.
+ * @author Desno365
+ */
+class WaitingRoom {
+
+	private final List<AbstractConnectionToClient> clients = new ArrayList<>();
+	private final SingleTimer singleTimer = new SingleTimer();
+	private final Consumer<List<AbstractConnectionToClient>> onMatchReady;
+	private long timeTimerStart;
+	private final AtomicInteger places = new AtomicInteger(); // Clients in the waiting room plus reserved places.
+	private volatile boolean closed;
+
+
+	/**
+	 * Creates a new empty waiting room.
+	 *
+	 * @param onMatchReady called with the clients of the waiting room when their match has to start, while holding the lock of the waiting room.
+	 */
+	WaitingRoom(Consumer<List<AbstractConnectionToClient>> onMatchReady) {
+		this.onMatchReady = onMatchReady;
+	}
+
+
+	/**
+	 * Reserves a place for a client that will be added.
+	 * Note: doesn't acquire the lock of the waiting room.
+	 *
+	 * @return false if the waiting room is full.
+	 */
+	boolean reservePlace() {
+		int currentPlaces;
+		do {
+			currentPlaces = places.get();
+			if (currentPlaces >= GameConstants.MAX_PLAYERS)
+				return false;
+		} while (!places.compareAndSet(currentPlaces, currentPlaces + 1));
+		return true;
+	}
+
+	/**
+	 * Adds a client, that has reserved a place, to the waiting room.
+	 * If the waiting room has reached the minimum number of players a timer starts and when it ends the match starts.
+	 * If the waiting room has reached the maximum number of players the match starts immediately.
+	 *
+	 * @param client the client to add.
+	 * @return false if the waiting room is closed and the client hasn't been added.
+	 */
+	synchronized boolean add(AbstractConnectionToClient client) {
+		if (closed)
+			return false;
+		clients.add(client);
+		checkIfReady(client);
+		return true;
+	}
+
+	/**
+	 * Removes the client from the waiting room if present, the waiting room is closed if it becomes empty.
+	 *
+	 * @param client the client to remove.
+	 * @return true if the client was in the waiting room.
+	 */
+	synchronized boolean remove(AbstractConnectionToClient client) {
+		if (closed || !clients.remove(client))
+			return false;
+		places.decrementAndGet();
+		if (clients.isEmpty()) {
+			singleTimer.cancel();
+			closed = true;
+		} else {
+			checkIfReady(null);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of clients in the waiting room plus the places reserved by the clients that are being added.
+	 * Note: doesn't acquire the lock of the waiting room.
+	 *
+	 * @return the number of taken places.
+	 */
+	int getTakenPlaces() {
+		return places.get();
+	}
+
+	/**
+	 * Returns true if the match of the waiting room started or all the clients left.
+	 * Note: doesn't acquire the lock of the waiting room.
+	 *
+	 * @return true if the waiting room is closed.
+	 */
+	boolean isClosed() {
+		return closed;
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Should be called after adding or removing a client.
+	 * Check if the waiting room has reached the minimum number of players (and schedule the timer for the match to start).
+	 * Check if the waiting room has reached the maximum number of players (and start the match immediately).
+	 *
+	 * @param newestClient the latest added client. Can be null if not called after adding a client.
+	 */
+	private void checkIfReady(AbstractConnectionToClient newestClient) {
+		// Send a message to all the clients in the waiting room.
+		sendWaitingPlayersMessages();
+
+		// Logic for starting the match or the timer.
+		if (clients.size() == GameConstants.MAX_PLAYERS) {
+			// Reached the maximum number of players. Cancel the timer and start the match.
+			startMatch();
+		} else if (clients.size() == GameConstants.MIN_PLAYERS) {
+			if (Utils.DEBUG_BYPASS_CONFIGURATION) {
+				startMatch();
+				return;
+			}
+			// Reached the minimum number of players. Start a timer for starting the match if not already started.
+			if (!singleTimer.isRunning()) {
+				startTimerForMatchStart();
+				sendTimerStartedMessages();
+			}
+		} else if (clients.size() < GameConstants.MIN_PLAYERS) {
+			// If a timer has been started, cancels it since now the number of players is less than the minimum.
+			if (singleTimer.isRunning()) {
+				singleTimer.cancel();
+				sendTimerCanceledMessages();
+			}
+		} else {
+			// Number of players between the minimum and the maximum. Send to the new client the remaining time for starting the match.
+			if (singleTimer.isRunning() && newestClient != null) {
+				long timePassedAfterTimerStart = System.currentTimeMillis() - timeTimerStart;
+				long timeRemainingInTimer = Utils.getServerConfig().getWaitingTimeInLobbyMs() - timePassedAfterTimerStart;
+				newestClient.sendMessage(new TimerForStartMessage(timeRemainingInTimer, MessageSubtype.INFO));
+			}
+		}
+	}
+
+	/**
+	 * Closes the waiting room and starts the match with its clients.
+	 */
+	private void startMatch() {
+		// Stop the timer if it is running, used when reaching the maximum number of players.
+		singleTimer.cancel();
+		closed = true;
+		onMatchReady.accept(new ArrayList<>(clients));
+		clients.clear();
+	}
+
+	/**
+	 * Sends a message to all the players in the waiting room with the list of players in the waiting room.
+	 */
+	private void sendWaitingPlayersMessages() {
+		if (!clients.isEmpty()) {
+			// Create a list of player names.
+			List<String> playersNames = clients.stream()
+					.map(AbstractConnectionToClient::getNickname)
+					.collect(Collectors.toList());
+
+			// Send the message with all nicknames.
+			clients.forEach(client -> client.sendMessage(new WaitingPlayersMessage(playersNames)));
+		}
+	}
+
+	/**
+	 * Starts the timer that make the match start.
+	 */
+	private void startTimerForMatchStart() {
+		timeTimerStart = System.currentTimeMillis();
+		singleTimer.start(this::onTimerForMatchStartEnded, Utils.getServerConfig().getWaitingTimeInLobbyMs());
+	}
+
+	/**
+	 * Called by the timer thread when the timer for the match start ends.
+	 * The waiting room is checked again since a client could have left while the timer was ending.
+	 */
+	private synchronized void onTimerForMatchStartEnded() {
+		if (!closed && clients.size() >= GameConstants.MIN_PLAYERS) {
+			Utils.logInfo("Timer ended => Starting the match...");
+			startMatch();
+		}
+	}
+
+	/**
+	 * Sends a message to all the players in the waiting room, informing them about the start of the timer.
+	 */
+	private void sendTimerStartedMessages() {
+		clients.forEach(client -> client.sendMessage(new TimerForStartMessage(Utils.getServerConfig().getWaitingTimeInLobbyMs(), MessageSubtype.INFO)));
+	}
+
+	/**
+	 * Sends a message to all the players in the waiting room, informing them about the cancellation of the timer.
+	 */
+	private void sendTimerCanceledMessages() {
+		clients.forEach(client -> client.sendMessage(new Message(MessageType.TIMER_FOR_START, MessageSubtype.ERROR)));
+	}
+
+}
@@ -0,0 +1,186 @@
+package it.polimi.se2019.network.server.nio;
+
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.MessageCodec;
+import it.polimi.se2019.network.message.MessageSerializer;
+import it.polimi.se2019.network.message.RepMessage;
+import it.polimi.se2019.network.server.AbstractConnectionToClient;
+import it.polimi.se2019.network.server.ServerEventsListenerInterface;
+import it.polimi.se2019.utils.LogCategory;
+import it.polimi.se2019.utils.SerialExecutor;
+import it.polimi.se2019.utils.Utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection to a client handled by the NioSocketServer.
+ * The channel is read and written only by the selector thread, messages to send are queued and written when the channel is writable.
+ * Received messages are dispatched to the ServerEventsListener on a SerialExecutor, so they keep their order without using the selector thread.
+ *
+ * @author MarcerAndrea
+ */
+public class NioConnectionToClient extends AbstractConnectionToClient {
+
+	private final NioSocketServer nioSocketServer;
+	private final SocketChannel channel;
+	private final ServerEventsListenerInterface serverEventsListener;
+	private final Executor eventsExecutor;
+	private final MessageCodec codec = MessageSerializer.createCodec();
+
+	private final Queue<ByteBuffer> outgoingFrames = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+	private volatile boolean closeWhenFramesWritten = false;
+	private final ByteBuffer lengthBuffer = ByteBuffer.allocate(MessageSerializer.LENGTH_PREFIX_BYTES);
+	private ByteBuffer frameBuffer;
+	private int frameHeader; // Length prefix of the frame being read.
+
+
+	/**
+	 * Create a new NioConnectionToClient.
+	 *
+	 * @param nioSocketServer      the server that owns the selector of the channel.
+	 * @param channel              the channel connected to the client.
+	 * @param serverEventsListener the event listener to which all events are forwarded.
+	 * @param workersPool          the pool where the events are processed.
+	 */
+	NioConnectionToClient(NioSocketServer nioSocketServer, SocketChannel channel, ServerEventsListenerInterface serverEventsListener, Executor workersPool) {
+		this.nioSocketServer = nioSocketServer;
+		this.channel = channel;
+		this.serverEventsListener = serverEventsListener;
+		this.eventsExecutor = new SerialExecutor(workersPool);
+	}
+
+
+	/**
+	 * Writes a message to the client.
+	 * The message is encoded in the writer thread and written later by the selector thread.
+	 *
+	 * @param message the message to write.
+	 */
+	@Override
+	protected void writeMessage(Message message) {
+		Utils.logInfo(LogCategory.NETWORK, () -> "NioConnectionToClient -> writeMessage(): writing a message to " + hashCode() + " " + message +
+				(message instanceof RepMessage ? " inner message " + ((RepMessage) message).getMessage() : ""));
+		if (closed.get())
+			return;
+		try {
+			synchronized (outgoingFrames) { // The codec must encode the messages in the same order they are queued.
+				outgoingFrames.add(ByteBuffer.wrap(MessageSerializer.encodeFrame(message, codec)));
+			}
+			nioSocketServer.requestWrite(this);
+		} catch (IOException e) {
+			Utils.logError("NIO: send message to client failed.", e);
+		}
+	}
+
+	/**
+	 * Closes the connection after the selector thread has written all the queued frames.
+	 */
+	@Override
+	protected void closeWhenWritten() {
+		closeWhenFramesWritten = true;
+		nioSocketServer.requestWrite(this);
+	}
+
+	/**
+	 * Closes the connection with the client.
+	 */
+	@Override
+	public void closeConnectionWithClient() {
+		if (!closed.compareAndSet(false, true))
+			return;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			Utils.logError("Error in closeConnectionWithClient", e);
+		}
+		eventsExecutor.execute(() -> serverEventsListener.onConnectionLost(this));
+	}
+
+
+	/**
+	 * Returns the channel connected to the client.
+	 *
+	 * @return the channel connected to the client.
+	 */
+	SocketChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Notifies the ServerEventsListener that the client connected.
+	 */
+	void notifyConnection() {
+		eventsExecutor.execute(() -> serverEventsListener.onClientConnection(this));
+	}
+
+	/**
+	 * Reads all the available bytes from the channel and dispatches the complete messages.
+	 * Called only by the selector thread.
+	 *
+	 * @throws IOException if the connection is lost or a frame is corrupted.
+	 */
+	void readAvailableBytes() throws IOException {
+		List<Message> receivedMessages = new ArrayList<>();
+		int read;
+		do {
+			ByteBuffer currentBuffer = frameBuffer == null ? lengthBuffer : frameBuffer;
+			read = channel.read(currentBuffer);
+			if (!currentBuffer.hasRemaining())
+				completeBuffer(receivedMessages);
+		} while (read > 0);
+
+		for (Message message : receivedMessages)
+			eventsExecutor.execute(() -> serverEventsListener.onMessageReceived(this, message));
+
+		if (read < 0)
+			throw new IOException("Connection closed by the client.");
+	}
+
+	/**
+	 * Writes the queued frames until the channel can't accept more bytes.
+	 * If the connection must be closed after the frames have been written, it is closed when all of them have been written.
+	 * Called only by the selector thread.
+	 *
+	 * @return true if all the queued frames have been written.
+	 * @throws IOException if the connection is lost.
+	 */
+	boolean writeQueuedFrames() throws IOException {
+		ByteBuffer frame;
+		while ((frame = outgoingFrames.peek()) != null) {
+			channel.write(frame);
+			if (frame.hasRemaining())
+				return false;
+			outgoingFrames.poll();
+		}
+		if (closeWhenFramesWritten)
+			closeConnectionWithClient();
+		return true;
+	}
+
+	/**
+	 * Processes a buffer that has been filled: the length prefix allocates the buffer for the frame, while a full frame is deserialized.
+	 *
+	 * @param receivedMessages the list where the deserialized message is added.
+	 * @throws IOException if the frame is corrupted.
+	 */
+	private void completeBuffer(List<Message> receivedMessages) throws IOException {
+		if (frameBuffer == null) {
+			lengthBuffer.flip();
+			frameHeader = lengthBuffer.getInt();
+			lengthBuffer.clear();
+			frameBuffer = ByteBuffer.allocate(MessageSerializer.getFrameLength(frameHeader));
+		} else {
+			receivedMessages.add(MessageSerializer.decodeFrame(codec, frameHeader, frameBuffer.array()));
+			frameBuffer = null;
+		}
+	}
+}
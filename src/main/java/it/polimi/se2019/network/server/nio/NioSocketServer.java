@@ -0,0 +1,174 @@
+package it.polimi.se2019.network.server.nio;
+
+import it.polimi.se2019.network.server.ServerEventsListenerInterface;
+import it.polimi.se2019.utils.Utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Socket server that handles all the clients with a single selector thread, instead of a thread for every client.
+ * Messages are exchanged as length-prefixed frames and the received ones are processed by a small pool of workers.
+ *
+ * @author MarcerAndrea
+ */
+public class NioSocketServer extends Thread implements Closeable {
+
+	private static final int WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	private final ServerEventsListenerInterface serverEventsListener; //General serverEventsListener that works both with RMI and Socket
+	private final ExecutorService workersPool;
+	private final Queue<NioConnectionToClient> pendingWrites = new ConcurrentLinkedQueue<>();
+	private Selector selector;
+	private ServerSocketChannel serverChannel;
+
+	private volatile boolean active = false;
+
+	/**
+	 * Starts a thread that listens for new connections and for the messages of the connected clients.
+	 *
+	 * @param serverEventsListener the event listener to which all events are forwarded.
+	 * @throws IOException
+	 */
+	public NioSocketServer(ServerEventsListenerInterface serverEventsListener) throws IOException {
+		super("CUSTOM: NIO Socket Selector"); // Give a name to the thread for debugging purposes.
+		this.serverEventsListener = serverEventsListener;
+		this.workersPool = Executors.newFixedThreadPool(WORKERS, runnable -> new Thread(runnable, "CUSTOM: NIO Socket Worker"));
+		startServerChannel();
+	}
+
+	/**
+	 * Waits for events on the channels: accepts new clients, reads incoming frames and writes the queued ones.
+	 */
+	@Override // Of Thread.
+	public void run() {
+		while (isActive()) {
+			try {
+				selector.select();
+				registerPendingWrites();
+				Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+				while (iterator.hasNext()) {
+					SelectionKey key = iterator.next();
+					iterator.remove();
+					processKey(key);
+				}
+			} catch (ClosedSelectorException e) {
+				Utils.logInfo("NioSocketServer => run(): NIO socket server closed by request.");
+			} catch (IOException e) {
+				Utils.logError("Error in NioSocketServer: run()", e);
+			}
+		}
+	}
+
+	/**
+	 * Closes the server.
+	 */
+	@Override // Of Closeable.
+	public void close() {
+		active = false;
+		try {
+			serverChannel.close();
+			selector.close();
+			workersPool.shutdown();
+			Utils.logInfo("NioSocketServer => close(): NIO socket server stopped.");
+		} catch (IOException e) {
+			Utils.logError("Error in NioSocketServer: close()", e);
+		}
+	}
+
+	/**
+	 * Returns true if and only if the server is active.
+	 *
+	 * @return true if and only if the server is active.
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Asks the selector thread to write the queued frames of the connection.
+	 *
+	 * @param connection the connection with frames to write.
+	 */
+	void requestWrite(NioConnectionToClient connection) {
+		pendingWrites.add(connection);
+		selector.wakeup();
+	}
+
+	/**
+	 * Starts the server channel.
+	 *
+	 * @throws IOException
+	 */
+	private void startServerChannel() throws IOException {
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(Utils.getServerConfig().getSocketPort()));
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		active = true;
+		start(); // Starts the Thread.
+		Utils.logInfo("NioSocketServer => startServerChannel(): NIO socket server is ready.");
+	}
+
+	/**
+	 * Adds the write interest to the connections that have frames to write, the interest is removed when all the frames have been written.
+	 */
+	private void registerPendingWrites() {
+		NioConnectionToClient connection;
+		while ((connection = pendingWrites.poll()) != null) {
+			SelectionKey key = connection.getChannel().keyFor(selector);
+			if (key != null && key.isValid())
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		}
+	}
+
+	/**
+	 * Processes the operations ready on a key.
+	 *
+	 * @param key the selected key.
+	 */
+	private void processKey(SelectionKey key) {
+		if (key.isValid() && key.isAcceptable()) {
+			acceptClient();
+			return;
+		}
+
+		NioConnectionToClient connection = (NioConnectionToClient) key.attachment();
+		try {
+			if (key.isValid() && key.isReadable())
+				connection.readAvailableBytes();
+			if (key.isValid() && key.isWritable() && connection.writeQueuedFrames() && key.isValid()) // The connection can be closed after writing the frames.
+				key.interestOps(SelectionKey.OP_READ);
+		} catch (IOException | CancelledKeyException e) {
+			Utils.logError("Connection lost.", e);
+			connection.closeConnectionWithClient();
+		}
+	}
+
+	/**
+	 * Accepts a new client and registers its channel for reading.
+	 */
+	private void acceptClient() {
+		try {
+			SocketChannel clientChannel = serverChannel.accept();
+			if (clientChannel == null)
+				return;
+			clientChannel.configureBlocking(false);
+			clientChannel.socket().setTcpNoDelay(true);
+			NioConnectionToClient connection = new NioConnectionToClient(this, clientChannel, serverEventsListener, workersPool);
+			clientChannel.register(selector, SelectionKey.OP_READ, connection);
+			Utils.logInfo("NioSocketServer => acceptClient(): a new connection to a client has been created with NIO.");
+			connection.notifyConnection();
+		} catch (IOException e) {
+			Utils.logError("Error in NioSocketServer: acceptClient()", e);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package it.polimi.se2019.network.server.rmi;
 import it.polimi.se2019.network.client.rmi.RMIClientInterface;
 import it.polimi.se2019.network.message.Message;
 import it.polimi.se2019.network.server.ServerEventsListenerInterface;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
 import java.io.Closeable;
@@ -11,18 +12,32 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements the RMI server.
+ * No thread is dedicated to a client: the messages received are handed to the event listener on the thread of the remote call,
+ * and the lost of connection is found by a single thread that checks the heartbeats sent periodically by the clients.
+ * A client that closes the connection tells it to the server, so the connection is lost immediately.
  *
  * @author Desno365
  */
 public class RMIServer extends UnicastRemoteObject implements RMIServerSkeletonInterface, Closeable {
 
+	/**
+	 * Heartbeat period used if not specified in the server config.
+	 */
+	public static final long DEFAULT_HEARTBEAT_PERIOD_MS = 1000;
+	private static final int HEARTBEAT_TIMEOUT_PERIODS = 5; // Number of periods without heartbeats after which the connection is lost.
+
 	private transient ServerEventsListenerInterface serverEventsListener;
 	private transient Registry registry;
-	private transient HashMap<RMIClientInterface, ServerClientRMI> connections = new HashMap<>();
+	private transient Map<RMIClientInterface, ServerClientRMI> connections = new ConcurrentHashMap<>();
+	private transient ScheduledExecutorService heartbeatChecker;
 	private boolean active;
 
 	/**
@@ -32,9 +47,22 @@ public class RMIServer extends UnicastRemoteObject implements RMIServerSkeletonI
 	 * @throws RemoteException
 	 */
 	public RMIServer(ServerEventsListenerInterface serverEventsListener) throws RemoteException {
+		this(serverEventsListener, true);
+	}
+
+	/**
+	 * Creates a new instance of a RMIServer, started only if specified.
+	 * A server that isn't started isn't registered on the RMI registry and doesn't check the heartbeats by itself.
+	 *
+	 * @param serverEventsListener the event listener to which all events are forwarded.
+	 * @param startServer          true if the server has to be started.
+	 * @throws RemoteException
+	 */
+	RMIServer(ServerEventsListenerInterface serverEventsListener, boolean startServer) throws RemoteException {
 		super();
 		this.serverEventsListener = serverEventsListener;
-		startRMIServer();
+		if (startServer)
+			startRMIServer();
 	}
 
 
@@ -46,10 +74,9 @@ public class RMIServer extends UnicastRemoteObject implements RMIServerSkeletonI
 	 */
 	@Override // Of RMIServerSkeletonInterface.
 	public void registerClient(RMIClientInterface rmiClientInterface) throws RemoteException {
-		ServerClientRMI newServerClientRMI = new ServerClientRMI(serverEventsListener, rmiClientInterface);
+		ServerClientRMI newServerClientRMI = new ServerClientRMI(rmiClientInterface);
 		connections.put(rmiClientInterface, newServerClientRMI);
 		serverEventsListener.onClientConnection(newServerClientRMI);
-		newServerClientRMI.startConnectionListener();
 	}
 
 	/**
@@ -60,22 +87,44 @@ public class RMIServer extends UnicastRemoteObject implements RMIServerSkeletonI
 	 */
 	@Override // Of RMIServerSkeletonInterface.
 	public void receiveMessage(RMIClientInterface rmiClientInterface, Message message) throws RemoteException {
-		final ServerClientRMI serverClientRMI = connections.get(rmiClientInterface);
+		ServerClientRMI serverClientRMI = connections.get(rmiClientInterface);
+		if (serverClientRMI == null)
+			return;
 
-		// Process the message in a thread so the thread of the client isn't put in wait.
-		new Thread(() -> serverEventsListener.onMessageReceived(serverClientRMI, message), "CUSTOM: RMI On Message Reception Processing").start();
+		// The event listener only queues the message on the executor of the match, so the thread of the client isn't put in wait.
+		serverEventsListener.onMessageReceived(serverClientRMI, message);
+	}
+
+	/**
+	 * Records the heartbeat of the client. This method is called remotely by the client.
+	 *
+	 * @param rmiClientInterface the client sending the heartbeat.
+	 * @return false if the connection has been closed by the server.
+	 * @throws RemoteException
+	 */
+	@Override // Of RMIServerSkeletonInterface.
+	public boolean heartbeat(RMIClientInterface rmiClientInterface) throws RemoteException {
+		ServerClientRMI serverClientRMI = connections.get(rmiClientInterface);
+		if (serverClientRMI == null || !serverClientRMI.isConnectionActive())
+			return false;
+		serverClientRMI.onHeartbeat();
+		return true;
 	}
 
 	/**
-	 * Called by the RMI client to check for a connection lost.
-	 * When this method interrupts the client knows the connection has been lost.
+	 * Reports as lost the connection of a client that closed it. This method is called remotely by the client.
 	 *
+	 * @param rmiClientInterface the client closing the connection.
 	 * @throws RemoteException
-	 * @throws InterruptedException
 	 */
 	@Override // Of RMIServerSkeletonInterface.
-	public void connectionListenerSubjectInServer(RMIClientInterface rmiClientInterface) throws RemoteException, InterruptedException {
-		connections.get(rmiClientInterface).connectionListenerSubjectInServer(); // Blocks the thread if active.
+	public void disconnect(RMIClientInterface rmiClientInterface) throws RemoteException {
+		ServerClientRMI serverClientRMI = connections.remove(rmiClientInterface);
+		if (serverClientRMI == null) // Already reported by the heartbeat checker.
+			return;
+		Utils.logInfo(LogCategory.NETWORK, () -> "RMIServer -> disconnect(): client " + serverClientRMI.hashCode() + " closed the connection.");
+		serverClientRMI.closeConnectionWithClient();
+		serverEventsListener.onConnectionLost(serverClientRMI);
 	}
 
 	/**
@@ -84,6 +133,8 @@ public class RMIServer extends UnicastRemoteObject implements RMIServerSkeletonI
 	@Override // Of Closeable.
 	public void close() {
 		active = false;
+		if (heartbeatChecker != null)
+			heartbeatChecker.shutdownNow();
 		try {
 			if (registry != null) {
 				registry.unbind("Server");
@@ -127,7 +178,47 @@ public class RMIServer extends UnicastRemoteObject implements RMIServerSkeletonI
 		registry = LocateRegistry.createRegistry(Utils.getServerConfig().getRmiPort());
 		registry.rebind("Server", this);
 
+		int configHeartbeatPeriodMs = Utils.getServerConfig().getRmiHeartbeatPeriodMs();
+		long heartbeatPeriodMs = configHeartbeatPeriodMs > 0 ? configHeartbeatPeriodMs : DEFAULT_HEARTBEAT_PERIOD_MS;
+		heartbeatChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "CUSTOM: RMI Heartbeat Checker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeatChecker.scheduleWithFixedDelay(() -> {
+			try {
+				checkHeartbeats(heartbeatPeriodMs * HEARTBEAT_TIMEOUT_PERIODS);
+			} catch (RuntimeException e) {
+				Utils.logError("Error while checking the heartbeats of the RMI clients.", e); // Catch everything, an exception would stop the checker.
+			}
+		}, heartbeatPeriodMs, heartbeatPeriodMs, TimeUnit.MILLISECONDS);
+
 		Utils.logInfo("RMIServer => startRMISocket(): RMI server is ready.");
 		active = true;
 	}
+
+	/**
+	 * Reports as lost the connections closed by the server and the connections of the clients that stopped sending heartbeats.
+	 * The clients of the connections closed by the server find out at their next heartbeat.
+	 * A connection is removed before being reported, so it is reported only once even if the client disconnects at the same time.
+	 * Note: runs on the heartbeat checker thread.
+	 *
+	 * @param timeoutMs the max time between two heartbeats.
+	 */
+	void checkHeartbeats(long timeoutMs) {
+		long currentTime = System.currentTimeMillis();
+		for (Map.Entry<RMIClientInterface, ServerClientRMI> entry : connections.entrySet()) {
+			ServerClientRMI serverClientRMI = entry.getValue();
+			if (!serverClientRMI.isConnectionActive()) {
+				if (connections.remove(entry.getKey(), serverClientRMI)) { // Not already removed by disconnect.
+					Utils.logInfo(LogCategory.NETWORK, () -> "RMIServer -> checkHeartbeats(): connection with client " + serverClientRMI.hashCode() + " closed by the server.");
+					serverEventsListener.onConnectionLost(serverClientRMI);
+				}
+			} else if (serverClientRMI.isHeartbeatExpired(currentTime, timeoutMs) && connections.remove(entry.getKey(), serverClientRMI)) { // Not already removed by disconnect.
+				Utils.logWarning(LogCategory.NETWORK, () -> "RMIServer -> checkHeartbeats(): no heartbeat from client " + serverClientRMI.hashCode() + ", lost connection.");
+				serverClientRMI.closeConnectionWithClient();
+				serverEventsListener.onConnectionLost(serverClientRMI);
+			}
+		}
+	}
 }
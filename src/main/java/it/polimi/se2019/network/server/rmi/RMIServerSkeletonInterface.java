@@ -30,12 +30,20 @@ public interface RMIServerSkeletonInterface extends Remote {
 	void receiveMessage(RMIClientInterface rmiClientInterface, Message message) throws RemoteException;
 
 	/**
-	 * Called by the RMI client to check for a connection lost.
-	 * When this method interrupts the client knows the connection has been lost.
+	 * Called periodically by the RMI client to tell the server that it is still connected.
+	 * The server considers the connection lost if it doesn't receive a heartbeat for some periods.
 	 *
-	 * @param rmiClientInterface the client checking for connection lost.
+	 * @param rmiClientInterface the client sending the heartbeat.
+	 * @return false if the connection has been closed by the server, so the client must close it too.
 	 * @throws RemoteException
-	 * @throws InterruptedException
 	 */
-	void connectionListenerSubjectInServer(RMIClientInterface rmiClientInterface) throws RemoteException, InterruptedException;
+	boolean heartbeat(RMIClientInterface rmiClientInterface) throws RemoteException;
+
+	/**
+	 * Called by the RMI client when it closes the connection, so the server doesn't wait for the heartbeats to expire.
+	 *
+	 * @param rmiClientInterface the client closing the connection.
+	 * @throws RemoteException
+	 */
+	void disconnect(RMIClientInterface rmiClientInterface) throws RemoteException;
 }
@@ -2,102 +2,121 @@ package it.polimi.se2019.network.server.rmi;
 
 import it.polimi.se2019.network.client.rmi.RMIClientInterface;
 import it.polimi.se2019.network.message.Message;
-import it.polimi.se2019.network.message.MessageType;
-import it.polimi.se2019.network.message.RepMessage;
 import it.polimi.se2019.network.server.AbstractConnectionToClient;
-import it.polimi.se2019.network.server.ServerEventsListenerInterface;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Represents an RMI client in the server. By using this class the server can send messages to the client and listen to a lost of connection.
+ * Represents an RMI client in the server. By using this class the server can send messages to the client.
+ * The queued messages are sent with a single remote call every flush interval, while the lost of connection is found by the RMIServer using the heartbeats of the client.
  *
  * @author Desno365
  */
 public class ServerClientRMI extends AbstractConnectionToClient {
 
-	private ServerEventsListenerInterface serverEventsListener;
+	/**
+	 * Flush interval used if not specified in the server config.
+	 */
+	static final long DEFAULT_FLUSH_INTERVAL_MS = 5;
+
 	private RMIClientInterface rmiClientInterface;
-	private boolean active;
+	private final long flushIntervalMs;
+	private volatile boolean active;
+	private volatile long lastHeartbeatTime;
 
 
 	/**
 	 * Create a new ServerClientRMI instance.
 	 *
-	 * @param serverEventsListener the event listener to which all events are forwarded.
-	 * @param rmiClientInterface   the client to associate with this instance.
+	 * @param rmiClientInterface the client to associate with this instance.
 	 */
-	ServerClientRMI(ServerEventsListenerInterface serverEventsListener, RMIClientInterface rmiClientInterface) {
+	ServerClientRMI(RMIClientInterface rmiClientInterface) {
 		active = true;
-		this.serverEventsListener = serverEventsListener;
 		this.rmiClientInterface = rmiClientInterface;
+		int configFlushIntervalMs = Utils.getServerConfig().getRmiFlushIntervalMs();
+		flushIntervalMs = configFlushIntervalMs > 0 ? configFlushIntervalMs : DEFAULT_FLUSH_INTERVAL_MS;
+		lastHeartbeatTime = System.currentTimeMillis();
 		Utils.logInfo("ServerClientRMI => ServerClientRMI(): a new connection to a client has been created with RMI.");
 	}
 
 
 	/**
-	 * Send a message to the client.
+	 * Closes the connection, the RMIServer reports it as lost at its next check of the heartbeats.
+	 */
+	@Override
+	public void closeConnectionWithClient() {
+		active = false;
+	}
+
+
+	// ####################################
+	// PROTECTED METHODS
+	// ####################################
+
+	/**
+	 * Writes a message to the client, blocking until the remote call returns.
+	 *
+	 * @param message the message to write.
+	 */
+	@Override
+	protected void writeMessage(Message message) {
+		writeMessages(Collections.singletonList(message));
+	}
+
+	/**
+	 * Writes all the messages to the client with a single remote call, blocking until it returns.
 	 *
-	 * @param message the message to send.
+	 * @param messages the messages to write.
 	 */
 	@Override
-	public void sendMessage(Message message) {
-		Utils.logInfo("ServerClientRMI -> sendMessage(): sending a message to " + hashCode() + " " + message +
-				(message.getMessageType().equals(MessageType.UPDATE_REPS) ? " inner message " + ((RepMessage) message).getMessage() : ""));
-		// Send the message in a thread so the server isn't put in wait.
-		new Thread(() -> {
-			try {
-				rmiClientInterface.receiveMessage(message);
-			} catch (Exception e) {
-				Utils.logError("RMI: send message to client failed.", e);
-			}
-		}, "CUSTOM: RMI Message Sending").start();
+	protected void writeMessages(List<Message> messages) {
+		Utils.logInfo(LogCategory.NETWORK, () -> "ServerClientRMI -> writeMessages(): writing " + messages.size() + " messages to " + hashCode());
+		// The server isn't put in wait since the messages are written by the writer of the outbound queue.
+		try {
+			rmiClientInterface.receiveMessages(new ArrayList<>(messages));
+		} catch (Exception e) {
+			Utils.logError("RMI: send messages to client failed.", e);
+		}
 	}
 
 	@Override
-	public void closeConnectionWithClient() {
-		active = false;
+	protected long getFlushIntervalMs() {
+		return flushIntervalMs;
 	}
 
 
+	// ####################################
+	// HEARTBEAT METHODS
+	// ####################################
+
 	/**
-	 * Starts the thread that listens for a connection lost with the client.
-	 * If a lost of connection is found reports it to the event listener.
+	 * Records that a heartbeat has been received from the client.
 	 */
-	void startConnectionListener() {
-		new Thread(() -> {
-			try {
-				rmiClientInterface.connectionListenerSubjectInClient();
-
-				// Executed when the client closes the connection manually, without generating any error.
-				Utils.logWarning("Connection closed by the client.");
-				closeConnectionWithClient();
-				serverEventsListener.onConnectionLost(this);
-			} catch (Exception e) {
-				Utils.logError("Lost connection with the client.", e);
-
-				// Executed when the connection with the server has been lost.
-				closeConnectionWithClient();
-				serverEventsListener.onConnectionLost(this);
-			}
-		}, "CUSTOM: RMI Connection Listener").start();
+	void onHeartbeat() {
+		lastHeartbeatTime = System.currentTimeMillis();
 	}
 
 	/**
-	 * Returns true if and only if the connection with the client is active.
+	 * Returns true if no heartbeat has been received from the client for more than the timeout.
 	 *
-	 * @return true if and only if the connection with the client is active.
+	 * @param currentTime the current time in milliseconds.
+	 * @param timeoutMs   the max time between two heartbeats.
+	 * @return true if the heartbeats of the client have expired.
 	 */
-	private boolean isConnectionActive() {
-		return active;
+	boolean isHeartbeatExpired(long currentTime, long timeoutMs) {
+		return currentTime - lastHeartbeatTime > timeoutMs;
 	}
 
 	/**
-	 * Method to use as subject to check for connectivity change.
+	 * Returns true if and only if the connection with the client is active.
 	 *
-	 * @throws InterruptedException
+	 * @return true if and only if the connection with the client is active.
 	 */
-	synchronized void connectionListenerSubjectInServer() throws InterruptedException {
-		while (isConnectionActive())
-			wait();
+	boolean isConnectionActive() {
+		return active;
 	}
 }
@@ -1,19 +1,20 @@
 package it.polimi.se2019.network.server.socket;
 
 import it.polimi.se2019.network.message.Message;
-import it.polimi.se2019.network.message.MessageType;
+import it.polimi.se2019.network.message.MessageCodec;
+import it.polimi.se2019.network.message.MessageSerializer;
 import it.polimi.se2019.network.message.RepMessage;
 import it.polimi.se2019.network.server.AbstractConnectionToClient;
 import it.polimi.se2019.network.server.ServerEventsListenerInterface;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.Utils;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.Socket;
 
 /**
  * Contains the socket to communicate with a client. It sends messages through the output stream and receives them through the input stream.
+ * Messages are exchanged as length-prefixed frames encoded with the codec specified in the server config.
  *
  * @author MarcerAndrea
  */
@@ -22,8 +23,9 @@ public class ServerClientSocket extends AbstractConnectionToClient implements Ru
 	private ServerEventsListenerInterface serverEventsListener;
 	private Socket socket;
 	private boolean active;
-	private ObjectInputStream objInStream;
-	private ObjectOutputStream objOutStream;
+	private DataInputStream dataInStream;
+	private DataOutputStream dataOutStream;
+	private final MessageCodec codec = MessageSerializer.createCodec();
 
 	/**
 	 * Create a new ServerClientSocket instance.
@@ -37,8 +39,8 @@ public class ServerClientSocket extends AbstractConnectionToClient implements Ru
 		this.socket = socket;
 
 		try {
-			objOutStream = new ObjectOutputStream(socket.getOutputStream());
-			objInStream = new ObjectInputStream(socket.getInputStream());
+			dataOutStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			dataInStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
 			new Thread(this, "CUSTOM: Socket Connection to Client").start();
 			Utils.logInfo("ServerClientSocket => ServerClientSocket(): a new connection to a client has been created with Socket.");
 		} catch (IOException e) {
@@ -63,9 +65,9 @@ public class ServerClientSocket extends AbstractConnectionToClient implements Ru
 	public void run() {
 		try {
 			while (isConnectionActive()) {
-				serverEventsListener.onMessageReceived(this, (Message) objInStream.readObject());
+				serverEventsListener.onMessageReceived(this, MessageSerializer.readFrame(codec, dataInStream));
 			}
-		} catch (IOException | ClassNotFoundException e) {
+		} catch (IOException e) {
 			Utils.logError("Connection lost.", e);
 			serverEventsListener.onConnectionLost(this);
 		} finally {
@@ -74,16 +76,16 @@ public class ServerClientSocket extends AbstractConnectionToClient implements Ru
 	}
 
 	/**
-	 * Send a message to the client.
+	 * Writes a message to the client, blocking until the frame is written on the socket.
 	 *
-	 * @param message the message to send.
+	 * @param message the message to write.
 	 */
 	@Override
-	public void sendMessage(Message message) {
-		Utils.logInfo("ServerClientSocket -> sendMessage(): sending a message to " + hashCode() + " " + message +
-				(message.getMessageType().equals(MessageType.UPDATE_REPS) ? " inner message " + ((RepMessage) message).getMessage() : ""));
+	protected void writeMessage(Message message) {
+		Utils.logInfo(LogCategory.NETWORK, () -> "ServerClientSocket -> writeMessage(): writing a message to " + hashCode() + " " + message +
+				(message instanceof RepMessage ? " inner message " + ((RepMessage) message).getMessage() : ""));
 		try {
-			objOutStream.writeObject(message);
+			MessageSerializer.writeFrame(message, codec, dataOutStream);
 		} catch (IOException e) {
 			Utils.logError("Socket: send message to client failed.", e);
 		}
@@ -0,0 +1,125 @@
+package it.polimi.se2019.utils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes the logs on a background thread, so the threads that log don't wait for the console.
+ * The lines are buffered and the stream is flushed only when there are no more lines to write.
+ * If the buffer is full the thread that logs waits for space in the buffer, so the lines are never written out of order.
+ * When the JVM shuts down the lines still in the buffer are written, and the lines logged after that are written directly.
+ *
+ * @author Desno365
+ */
+class AsyncLogWriter {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final long SHUTDOWN_JOIN_TIMEOUT_MS = 1000;
+
+	private final PrintStream printStream;
+	private final BlockingQueue<String> lines = new ArrayBlockingQueue<>(BUFFER_SIZE);
+	private Thread writerThread;
+	private volatile boolean closed = false;
+
+
+	/**
+	 * Creates a writer on the specified stream, the thread is started when the first line is written.
+	 *
+	 * @param printStream the stream where to write the lines.
+	 */
+	AsyncLogWriter(PrintStream printStream) {
+		this.printStream = printStream;
+	}
+
+
+	/**
+	 * Adds the line to the lines to write, waiting if the buffer is full.
+	 *
+	 * @param line the line to write.
+	 */
+	void write(String line) {
+		startIfNeeded();
+		if (closed) {
+			writeRemainingLines(line);
+			return;
+		}
+		try {
+			lines.put(line);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			writeRemainingLines(line); // Don't lose the line, write it after the buffered ones.
+			return;
+		}
+		if (closed) // Closed while adding the line, so it could have been added after the last drain.
+			writeRemainingLines(null);
+	}
+
+	/**
+	 * Starts the thread that writes the lines if it isn't running, and registers the hook that writes the buffered lines at shutdown.
+	 */
+	private synchronized void startIfNeeded() {
+		if (writerThread != null)
+			return;
+		writerThread = new Thread(this::writeLines, "CUSTOM: Async Log Writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "CUSTOM: Async Log Writer Shutdown"));
+	}
+
+	/**
+	 * Writes the lines until the thread is interrupted.
+	 * The lines taken from the buffer are always written before checking the interruption.
+	 */
+	private void writeLines() {
+		List<String> linesToWrite = new ArrayList<>();
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				linesToWrite.add(lines.take());
+				lines.drainTo(linesToWrite);
+				synchronized (printStream) {
+					for (String line : linesToWrite)
+						printStream.println(line);
+					printStream.flush();
+				}
+				linesToWrite.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops the writer thread after it has written the lines it took, then writes the lines still in the buffer.
+	 * Note: called by the shutdown hook.
+	 */
+	void close() {
+		closed = true;
+		writerThread.interrupt();
+		try {
+			writerThread.join(SHUTDOWN_JOIN_TIMEOUT_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writeRemainingLines(null);
+	}
+
+	/**
+	 * Writes all the lines in the buffer, followed by the specified line if not null.
+	 *
+	 * @param lastLine the line to write after the buffered ones, or null.
+	 */
+	private void writeRemainingLines(String lastLine) {
+		List<String> remainingLines = new ArrayList<>();
+		synchronized (printStream) {
+			lines.drainTo(remainingLines);
+			for (String line : remainingLines)
+				printStream.println(line);
+			if (lastLine != null)
+				printStream.println(lastLine);
+			printStream.flush();
+		}
+	}
+}
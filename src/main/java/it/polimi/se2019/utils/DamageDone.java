@@ -3,28 +3,35 @@ package it.polimi.se2019.utils;
 import it.polimi.se2019.model.player.Player;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Data structure that helps with counting players and damage done on damage boards.
+ * The players are kept in the order of their first damage and their damage in a parallel array of primitives,
+ * the players are found by their ID, so counting a damage doesn't search the players and doesn't box the counter.
  *
  * @author Marchingegno
  */
 public class DamageDone {
-	private ArrayList<Player> players;
-	private ArrayList<Integer> damages;
+	private final Player[] players = new Player[GameConstants.MAX_PLAYERS];
+	private final int[] damages = new int[GameConstants.MAX_PLAYERS];
+	private final int[] indexesOfPlayers = new int[GameConstants.MAX_PLAYERS]; // Index of each player in players, by player ID.
+	private int numberOfPlayers;
 
 
 	public DamageDone() {
-		this.players = new ArrayList<>();
-		this.damages = new ArrayList<>();
+		Arrays.fill(indexesOfPlayers, -1);
 	}
 
 	/**
 	 * Only for testing purposes.
 	 */
 	public List<Integer> getDamages() {
-		return new ArrayList<>(damages);
+		List<Integer> damagesList = new ArrayList<>(numberOfPlayers);
+		for (int i = 0; i < numberOfPlayers; i++)
+			damagesList.add(damages[i]);
+		return damagesList;
 	}
 
 
@@ -32,7 +39,7 @@ public class DamageDone {
 	 * Only for testing purposes.
 	 */
 	public List<Player> getPlayers() {
-		return new ArrayList<>(players);
+		return new ArrayList<>(Arrays.asList(players).subList(0, numberOfPlayers));
 	}
 
 	/**
@@ -41,66 +48,51 @@ public class DamageDone {
 	 * @param player the player that did the damage.
 	 */
 	public void damageUp(Player player) {
+		damageUp(player, 1);
+	}
 
-		int indexOfPlayer;
-		int oldDamage;
-
-		if (!players.contains(player)) {
-			addPlayer(player);
+	/**
+	 * Increments the damage of the player by the specified amount.
+	 *
+	 * @param player the player that did the damage.
+	 * @param amount the amount of damage to add.
+	 */
+	public void damageUp(Player player, int amount) {
+		int indexOfPlayer = indexesOfPlayers[player.getPlayerID()];
+		if (indexOfPlayer == -1) {
+			indexOfPlayer = numberOfPlayers++;
+			indexesOfPlayers[player.getPlayerID()] = indexOfPlayer;
+			players[indexOfPlayer] = player;
 		}
-
-		indexOfPlayer = players.indexOf(player);
-		oldDamage = damages.get(indexOfPlayer);
-		damages.set(indexOfPlayer, (oldDamage + 1));
+		damages[indexOfPlayer] += amount;
 	}
 
 	/**
 	 * Sort all players and return the list.
+	 * The players with the same damage keep the order of their first damage.
 	 * @return the sorted list.
 	 */
 	public List<Player> getSortedPlayers() {
 		sort();
-		return new ArrayList<>(players);
-	}
-
-
-	private void addPlayer(Player player) {
-		players.add(player);
-		damages.add(0);
+		return getPlayers();
 	}
 
 
 	private void sort() {
-		//Lazy bubble sort implementation
-		if (damages.size() <= 1) {
-			return;
-		}
-		Player pToSwap;
-		Integer iToSwap;
-
-		while (!isSorted()) {
-			for (int i = damages.size() - 1; i > 0; i--) {
-				if (damages.get(i) > damages.get(i - 1)) {
-					//Swap in damages
-					iToSwap = damages.get(i);
-					damages.set(i, damages.get(i - 1));
-					damages.set(i - 1, iToSwap);
-
-					//Swap in players
-					pToSwap = players.get(i);
-					players.set(i, players.get(i - 1));
-					players.set(i - 1, pToSwap);
-				}
-			}
-		}
-	}
-
-	private boolean isSorted() {
-		for (int i = 0; i < damages.size() - 1; i++) {
-			if (damages.get(i) < damages.get(i + 1)) {
-				return false;
+		//Stable insertion sort, there are at most five players.
+		for (int i = 1; i < numberOfPlayers; i++) {
+			Player playerToInsert = players[i];
+			int damageToInsert = damages[i];
+			int j = i - 1;
+			while (j >= 0 && damages[j] < damageToInsert) {
+				players[j + 1] = players[j];
+				damages[j + 1] = damages[j];
+				j--;
 			}
+			players[j + 1] = playerToInsert;
+			damages[j + 1] = damageToInsert;
 		}
-		return true;
+		for (int i = 0; i < numberOfPlayers; i++)
+			indexesOfPlayers[players[i].getPlayerID()] = i;
 	}
 }
@@ -0,0 +1,14 @@
+package it.polimi.se2019.utils;
+
+/**
+ * Categories of the logs, each category has its own level that can be changed at runtime with {@link Utils#setLogLevel(LogCategory, java.util.logging.Level)}.
+ *
+ * @author Desno365
+ */
+public enum LogCategory {
+	GENERAL,
+	MODEL,
+	WEAPONS,
+	REPS,
+	NETWORK
+}
@@ -47,7 +47,7 @@ public class MacroActionBuilder {
 	}
 
 	public MacroAction build() {
-		Utils.logInfo("MacroActionBuilder -> build(): Building " + name + ": moves = " + moveDistance + (grabActive ? " grab" : "") + (reloadActive ? " reload" : "") + (shootActive ? " shoot" : ""));
+		Utils.logInfo(LogCategory.GENERAL, () -> "MacroActionBuilder -> build(): Building " + name + ": moves = " + moveDistance + (grabActive ? " grab" : "") + (reloadActive ? " reload" : "") + (shootActive ? " shoot" : ""));
 		return new MacroAction(moveDistance, grabActive, reloadActive, shootActive, name);
 	}
 
@@ -0,0 +1,74 @@
+package it.polimi.se2019.utils;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor that runs the submitted tasks one at a time and in the order they have been submitted, borrowing the threads of a shared pool.
+ * Tasks of the same SerialExecutor never run concurrently, while tasks of different SerialExecutors run in parallel:
+ * each instance behaves like the mailbox of an actor.
+ *
+ * @author Desno365
+ */
+public class SerialExecutor implements Executor {
+
+	private static final int SHARED_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+	private static final ExecutorService SHARED_POOL = Executors.newFixedThreadPool(SHARED_POOL_SIZE, runnable -> {
+		Thread thread = new Thread(runnable, "CUSTOM: Serial Executor Worker");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Executor backingExecutor;
+	private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+	private Runnable activeTask;
+
+
+	/**
+	 * Creates a new SerialExecutor that runs its tasks on the pool shared by all the SerialExecutors.
+	 */
+	public SerialExecutor() {
+		this(SHARED_POOL);
+	}
+
+	/**
+	 * Creates a new SerialExecutor that runs its tasks on the specified executor.
+	 *
+	 * @param backingExecutor the executor that will actually run the tasks.
+	 */
+	public SerialExecutor(Executor backingExecutor) {
+		this.backingExecutor = backingExecutor;
+	}
+
+
+	/**
+	 * Adds the task to the queue of this executor, it will be run after all the tasks previously submitted.
+	 *
+	 * @param task the task to run.
+	 */
+	@Override
+	public synchronized void execute(Runnable task) {
+		tasks.add(() -> {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				Utils.logError("SerialExecutor: a task terminated with an exception.", e);
+			} finally {
+				scheduleNext();
+			}
+		});
+		if (activeTask == null)
+			scheduleNext();
+	}
+
+	/**
+	 * Hands the next task in the queue to the backing executor, if there is one.
+	 */
+	private synchronized void scheduleNext() {
+		activeTask = tasks.poll();
+		if (activeTask != null)
+			backingExecutor.execute(activeTask);
+	}
+}
@@ -11,6 +11,12 @@ public class ServerConfig {
 	private String host;
 	private int rmiPort;
 	private int socketPort;
+	private String socketServerType;
+	private String messageCodec;
+	private int streamResetCadence;
+	private String frameCompression;
+	private int rmiFlushIntervalMs;
+	private int rmiHeartbeatPeriodMs;
 
 	public long getWaitingTimeInLobbyMs() {
 		return waitingTimeInLobby * 1000L; // Convert seconds to milliseconds.
@@ -31,4 +37,71 @@ public class ServerConfig {
 	public int getSocketPort() {
 		return socketPort;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns true if the socket connections are handled by the NIO server instead of a thread for every client.
+	 *
+	 * @return true if the socket connections use the NIO server.
+	 */
+	public boolean isNioSocketServer() {
+		return "nio".equalsIgnoreCase(socketServerType);
+	}
+
+	/**
+	 * Returns true if the socket connections encode the messages with the binary codec instead of the Java serialization.
+	 * Server and clients must use the same value.
+	 *
+	 * @return true if the socket connections use the binary codec.
+	 */
+	public boolean isBinaryMessageCodec() {
+		return !"java".equalsIgnoreCase(messageCodec) && !isJavaStreamMessageCodec();
+	}
+
+	/**
+	 * Returns true if the socket connections encode the messages with the Java serialization on streams open for the whole connection.
+	 * Server and clients must use the same value.
+	 *
+	 * @return true if the socket connections use the Java stream codec.
+	 */
+	public boolean isJavaStreamMessageCodec() {
+		return "java-stream".equalsIgnoreCase(messageCodec);
+	}
+
+	/**
+	 * Returns the number of messages after which the streams of the Java stream codec are reset, or 0 if not specified.
+	 *
+	 * @return the reset cadence of the Java stream codec.
+	 */
+	public int getStreamResetCadence() {
+		return streamResetCadence;
+	}
+
+	/**
+	 * Returns true if the socket connections compress the big frames with DEFLATE.
+	 * The receiver recognizes the compressed frames, so server and clients can use different values.
+	 *
+	 * @return true if the socket connections compress the frames.
+	 */
+	public boolean isFrameCompression() {
+		return "deflate".equalsIgnoreCase(frameCompression);
+	}
+
+	/**
+	 * Returns the time the server waits before sending to an RMI client the queued messages with a single remote call, or 0 if not specified.
+	 *
+	 * @return the flush interval of the RMI connections in milliseconds.
+	 */
+	public int getRmiFlushIntervalMs() {
+		return rmiFlushIntervalMs;
+	}
+
+	/**
+	 * Returns the time between two heartbeats sent by an RMI client to the server, or 0 if not specified.
+	 * Server and clients should use the same value.
+	 *
+	 * @return the heartbeat period of the RMI connections in milliseconds.
+	 */
+	public int getRmiHeartbeatPeriodMs() {
+		return rmiHeartbeatPeriodMs;
+	}
+}
@@ -1,35 +1,44 @@
 package it.polimi.se2019.utils;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implements a timer with the isRunning() method.
+ * All the timers are scheduled on a single thread shared by the whole application, so starting a timer doesn't create a new thread.
+ * The runnables are executed on the shared thread: they must be short and should only queue the real work.
  *
  * @author Desno365
  */
 public class SingleTimer {
 
-	private Timer timer;
-	private Runnable runnableOnEnd;
+	private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+	// Metrics of all the timers.
+	private static final AtomicInteger outstandingTimers = new AtomicInteger();
+	private static final LongAdder firedTimers = new LongAdder();
+	private static final LongAdder totalFiringLagNanos = new LongAdder();
+	private static final AtomicLong maxFiringLagNanos = new AtomicLong();
+
+	private ScheduledFuture<?> scheduledTask;
 
 
 	/**
-	 * Starts the timer.
+	 * Starts the timer, if the timer is already running it is canceled and restarted.
 	 *
 	 * @param runnableOnEnd runnable to run when the timer ends.
 	 * @param delay         delay of the timer.
 	 */
-	public void start(Runnable runnableOnEnd, long delay) {
-		this.runnableOnEnd = runnableOnEnd;
-		timer = new Timer();
-		timer.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				onEnd();
-			}
-		}, delay);
-		Utils.logInfo("SingleTimer: Scheduled a timer for " + delay + " milliseconds.");
+	public synchronized void start(Runnable runnableOnEnd, long delay) {
+		cancel();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		outstandingTimers.incrementAndGet();
+		scheduledTask = SCHEDULER.schedule(() -> onEnd(runnableOnEnd, deadline), delay, TimeUnit.MILLISECONDS);
+		Utils.logInfo(LogCategory.GENERAL, () -> "SingleTimer: Scheduled a timer for " + delay + " milliseconds.");
 	}
 
 	/**
@@ -37,24 +46,89 @@ public class SingleTimer {
 	 *
 	 * @return true if the timer is running.
 	 */
-	public boolean isRunning() {
-		return timer != null;
+	public synchronized boolean isRunning() {
+		return scheduledTask != null;
 	}
 
 	/**
 	 * Cancels the timer.
 	 */
-	public void cancel() {
-		if (timer != null)
-			timer.cancel();
-		timer = null;
+	public synchronized void cancel() {
+		if (scheduledTask != null && scheduledTask.cancel(false))
+			outstandingTimers.decrementAndGet();
+		scheduledTask = null;
+	}
+
+
+	// ####################################
+	// METRICS
+	// ####################################
+
+	/**
+	 * Returns the number of timers that are scheduled and not yet ended or canceled.
+	 *
+	 * @return the number of outstanding timers.
+	 */
+	public static int getOutstandingTimers() {
+		return outstandingTimers.get();
+	}
+
+	/**
+	 * Returns the number of timers that ended.
+	 *
+	 * @return the number of timers that ended.
+	 */
+	public static long getFiredTimers() {
+		return firedTimers.sum();
+	}
+
+	/**
+	 * Returns the average delay between the scheduled end of the timers and the moment they actually ended.
+	 *
+	 * @return the average firing lag in nanoseconds.
+	 */
+	public static long getAverageFiringLagNanos() {
+		long fired = firedTimers.sum();
+		return fired == 0 ? 0 : totalFiringLagNanos.sum() / fired;
+	}
+
+	/**
+	 * Returns the maximum delay between the scheduled end of a timer and the moment it actually ended.
+	 *
+	 * @return the maximum firing lag in nanoseconds.
+	 */
+	public static long getMaxFiringLagNanos() {
+		return maxFiringLagNanos.get();
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static ScheduledThreadPoolExecutor createScheduler() {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "CUSTOM: Timer Scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.setRemoveOnCancelPolicy(true); // Canceled timers are removed immediately instead of waiting their end in the queue.
+		return scheduler;
 	}
 
+	private static void onEnd(Runnable runnable, long deadline) {
+		long lag = System.nanoTime() - deadline;
+		outstandingTimers.decrementAndGet();
+		firedTimers.increment();
+		totalFiringLagNanos.add(Math.max(lag, 0));
+		maxFiringLagNanos.accumulateAndGet(lag, Math::max);
 
-	private void onEnd() {
 		Utils.logInfo("SingleTimer: Timer ended.");
-		if (runnableOnEnd != null)
-			runnableOnEnd.run();
+		try {
+			runnable.run();
+		} catch (RuntimeException e) {
+			Utils.logError("SingleTimer: the runnable of the timer threw an exception.", e); // The shared thread must survive.
+		}
 	}
 
 }
@@ -1,5 +1,7 @@
 package it.polimi.se2019.utils;
 
+import java.util.Arrays;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,7 +17,13 @@ public class Utils {
 	public static final boolean DEBUG_REPS = false;
 	private static final boolean ENABLE_WEAPON_LOG = false;
 	private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
-	private static boolean logEnabled = false;
+	private static final String INFO_PREFIX = Color.getColoredString("INFO:", Color.CharacterColorType.RED, Color.BackgroundColorType.BLUE) + " ";
+	private static final String WARNING_PREFIX = Color.getColoredString("WARNING:", Color.CharacterColorType.RED, Color.BackgroundColorType.YELLOW) + " ";
+	private static final String WEAPON_PREFIX = Color.getColoredString("WEAPON:", Color.CharacterColorType.RED, Color.BackgroundColorType.MAGENTA) + " ";
+	private static final AsyncLogWriter asyncLogWriter = new AsyncLogWriter(System.out);
+	private static volatile boolean logEnabled = false;
+	private static volatile boolean logAsync = true;
+	private static volatile int[] logLevels = createDefaultLogLevels(); // Level of each LogCategory, replaced when a level changes.
 	private static final ServerConfig serverConfig = new ServerConfigParser().parseConfig();
 
 	/**
@@ -29,15 +37,56 @@ public class Utils {
 		Utils.logEnabled = logEnabled;
 	}
 
+	/**
+	 * Sets if the logs are written by a background thread or directly by the thread that logs.
+	 *
+	 * @param logAsync true if the logs have to be written by a background thread.
+	 */
+	public static void setLogAsync(boolean logAsync) {
+		Utils.logAsync = logAsync;
+	}
+
+	/**
+	 * Sets the minimum level of the logs of the category, the logs with a lower level are ignored without creating their message.
+	 *
+	 * @param category the category of the logs.
+	 * @param level    the minimum level, Level.OFF to disable the category.
+	 */
+	public static synchronized void setLogLevel(LogCategory category, Level level) {
+		int[] newLogLevels = logLevels.clone();
+		newLogLevels[category.ordinal()] = level.intValue();
+		logLevels = newLogLevels;
+	}
+
+	/**
+	 * Returns true if the logs of the category with the specified level are written.
+	 *
+	 * @param category the category of the log.
+	 * @param level    the level of the log.
+	 * @return true if the logs of the category with the specified level are written.
+	 */
+	public static boolean isLogEnabled(LogCategory category, Level level) {
+		return logEnabled && level.intValue() >= logLevels[category.ordinal()];
+	}
+
 	/**
 	 * Method to log a weapon.
 	 *
 	 * @param msg the log.
 	 */
 	public static void logWeapon(String msg) {
-		if (ENABLE_WEAPON_LOG) {
-			System.out.println(Color.getColoredString("WEAPON:", Color.CharacterColorType.RED, Color.BackgroundColorType.MAGENTA) + " " + msg);
-		}
+		if (ENABLE_WEAPON_LOG && isLogEnabled(LogCategory.WEAPONS, Level.INFO))
+			writeLog(WEAPON_PREFIX + msg);
+	}
+
+	/**
+	 * Method to log a weapon, the message is created only if the log is written.
+	 *
+	 * @param msgSupplier the supplier of the log.
+	 */
+	public static void logWeapon(Supplier<String> msgSupplier) {
+		if (ENABLE_WEAPON_LOG && isLogEnabled(LogCategory.WEAPONS, Level.INFO))
+			writeLog(WEAPON_PREFIX + msgSupplier.get());
 	}
 
 	/**
@@ -46,7 +95,17 @@ public class Utils {
 	 */
 	public static void logRep(String msg) {
 		if (DEBUG_REPS) {
-			logInfo(msg);
+			logInfo(LogCategory.REPS, () -> msg);
+		}
+	}
+
+	/**
+	 * Method to log a rep, the message is created only if the log is written.
+	 * @param msgSupplier the supplier of the log.
+	 */
+	public static void logRep(Supplier<String> msgSupplier) {
+		if (DEBUG_REPS) {
+			logInfo(LogCategory.REPS, msgSupplier);
 		}
 	}
 
@@ -65,9 +124,18 @@ public class Utils {
 	 * @param msg the log.
 	 */
 	public static void logWarning(String msg) {
-		if (logEnabled) {
-			System.out.println(Color.getColoredString("WARNING:", Color.CharacterColorType.RED, Color.BackgroundColorType.YELLOW) + " " + msg);
-		}
+		if (isLogEnabled(LogCategory.GENERAL, Level.WARNING))
+			writeLog(WARNING_PREFIX + msg);
+	}
+
+	/**
+	 * Method to log a warning of a category, the message is created only if the log is written.
+	 * @param category the category of the log.
+	 * @param msgSupplier the supplier of the log.
+	 */
+	public static void logWarning(LogCategory category, Supplier<String> msgSupplier) {
+		if (isLogEnabled(category, Level.WARNING))
+			writeLog(WARNING_PREFIX + msgSupplier.get());
 	}
 
 	/**
@@ -75,9 +143,49 @@ public class Utils {
 	 * @param msg the log.
 	 */
 	public static void logInfo(String msg) {
-		if (logEnabled) {
-			System.out.println(Color.getColoredString("INFO:", Color.CharacterColorType.RED, Color.BackgroundColorType.BLUE) + " " + msg);
-		}
+		if (isLogEnabled(LogCategory.GENERAL, Level.INFO))
+			writeLog(INFO_PREFIX + msg);
+	}
+
+	/**
+	 * Method to log an info of a category.
+	 * @param category the category of the log.
+	 * @param msg the log.
+	 */
+	public static void logInfo(LogCategory category, String msg) {
+		if (isLogEnabled(category, Level.INFO))
+			writeLog(INFO_PREFIX + msg);
+	}
+
+	/**
+	 * Method to log an info of a category, the message is created only if the log is written.
+	 * @param category the category of the log.
+	 * @param msgSupplier the supplier of the log.
+	 */
+	public static void logInfo(LogCategory category, Supplier<String> msgSupplier) {
+		if (isLogEnabled(category, Level.INFO))
+			writeLog(INFO_PREFIX + msgSupplier.get());
+	}
+
+	/**
+	 * Writes the log on the standard output, directly or with the background thread.
+	 * @param line the log to write.
+	 */
+	private static void writeLog(String line) {
+		if (logAsync)
+			asyncLogWriter.write(line);
+		else
+			System.out.println(line);
+	}
+
+	/**
+	 * Returns the default levels of the categories.
+	 * @return the default levels of the categories.
+	 */
+	private static int[] createDefaultLogLevels() {
+		int[] defaultLogLevels = new int[LogCategory.values().length];
+		Arrays.fill(defaultLogLevels, Level.INFO.intValue());
+		return defaultLogLevels;
 	}
 
 	static Logger getGlobalLogger() {
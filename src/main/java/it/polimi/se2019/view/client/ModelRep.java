@@ -3,6 +3,7 @@ package it.polimi.se2019.view.client;
 import it.polimi.se2019.model.gameboard.GameBoardRep;
 import it.polimi.se2019.model.gamemap.GameMapRep;
 import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.network.message.RepDeltaMessage;
 import it.polimi.se2019.utils.Utils;
 
 import java.util.ArrayList;
@@ -19,6 +20,7 @@ public class ModelRep {
 	private GameBoardRep gameBoardRep;
 	private GameMapRep gameMapRep;
 	private List<PlayerRep> playersRep = new ArrayList<>();
+	private int repVersion = 0;
 
 	public GameBoardRep getGameBoardRep() {
 		return gameBoardRep;
@@ -87,4 +89,37 @@ public class ModelRep {
 		Utils.logRep("ModelRep -> setPlayersRep(): Received a new PlayersRep of " + playerRepToSet.getPlayerName());
 		playersRep.add(playerRepToSet);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns true if a RepMessage with the specified version must be applied: it isn't versioned or it's newer than the current reps.
+	 * If true the version of the reps is updated.
+	 * @param version the version of the RepMessage.
+	 * @return true if the RepMessage must be applied.
+	 */
+	public boolean acceptRepVersion(int version) {
+		if (version != 0 && version <= repVersion)
+			return false;
+		if (version != 0)
+			repVersion = version;
+		return true;
+	}
+
+	/**
+	 * Applies in place the changes contained in the RepDeltaMessage.
+	 * @param repDeltaMessage the message with the changes.
+	 * @return false if the changes can't be applied because they refer to a different version of the reps.
+	 */
+	public boolean applyRepDelta(RepDeltaMessage repDeltaMessage) {
+		if (repDeltaMessage.getBaseVersion() != repVersion || gameMapRep == null) {
+			Utils.logRep("ModelRep -> applyRepDelta(): received changes for version " + repDeltaMessage.getBaseVersion() + " but the reps have version " + repVersion);
+			return false;
+		}
+		gameMapRep.applyChanges(repDeltaMessage.getChangedSquares(), repDeltaMessage.getPlayersCoordinates());
+		if (repDeltaMessage.getGameBoardRep() != null)
+			setGameBoardRep(repDeltaMessage.getGameBoardRep());
+		for (PlayerRep playerRep : repDeltaMessage.getPlayersRep())
+			setPlayerRep(playerRep);
+		repVersion = repDeltaMessage.getVersion();
+		return true;
+	}
+}
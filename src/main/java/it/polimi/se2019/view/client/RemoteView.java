@@ -24,9 +24,13 @@ import java.util.UUID;
  */
 public abstract class RemoteView implements ViewInterface, MessageReceiverInterface {
 
+	private static final int MAX_DELTAS_WHILE_RESYNC = 64; // Rejected deltas after which the reps are asked again, in case the full reps have been lost.
+
 	private ConnectionToServerInterface connectionToServer;
 	private String nickname;
 	private ModelRep modelRep = new ModelRep();
+	private boolean resyncPending = false; // True if all the reps have been asked to the server and haven't arrived yet.
+	private int deltasWhileResync = 0;
 
 
 	/**
@@ -84,7 +88,13 @@ public abstract class RemoteView implements ViewInterface, MessageReceiverInterf
 				}
 				break;
 			case UPDATE_REPS:
-				if (message.getMessageSubtype() == MessageSubtype.INFO) {
+				if (message.getMessageSubtype() == MessageSubtype.INFO && message instanceof RepDeltaMessage) {
+					Utils.logInfo("\tRemoteView -> processMessage(): Applying changes of reps.");
+					RepDeltaMessage repDeltaMessage = (RepDeltaMessage) message;
+					updateReps(repDeltaMessage);
+					if (repDeltaMessage.getMessage() != null)
+						processMessage(repDeltaMessage.getMessage());
+				} else if (message.getMessageSubtype() == MessageSubtype.INFO) {
 					Utils.logInfo("\tRemoteView -> processMessage(): Updating reps.");
 					RepMessage repMessage = (RepMessage) message;
 					updateReps(repMessage);
@@ -235,6 +245,11 @@ public abstract class RemoteView implements ViewInterface, MessageReceiverInterf
 	 * @param repMessage the message containing the Representations.
 	 */
 	private void updateReps(RepMessage repMessage) {
+		if (!modelRep.acceptRepVersion(repMessage.getRepVersion())) {
+			Utils.logInfo("RemoteView -> updateReps(): ignored reps older than the current ones.");
+			return;
+		}
+		resyncPending = false;
 		updateGameMapRep(repMessage.getGameMapRep());
 		updateGameBoardRep(repMessage.getGameBoardRep());
 		for (PlayerRep playerRep : repMessage.getPlayersRep()) {
@@ -244,6 +259,26 @@ public abstract class RemoteView implements ViewInterface, MessageReceiverInterf
 		updateDisplay();
 	}
 
+	/**
+	 * Applies the changes of the Representations contained in the RepDeltaMessage.
+	 * If the changes refer to a different version of the Representations, all the Representations are asked to the server.
+	 * The changes already sent by the server refer to the old version too, so they are ignored until all the Representations arrive.
+	 *
+	 * @param repDeltaMessage the message containing the changes of the Representations.
+	 */
+	private void updateReps(RepDeltaMessage repDeltaMessage) {
+		if (modelRep.applyRepDelta(repDeltaMessage)) {
+			Utils.logInfo("Reps Updated");
+			updateDisplay();
+		} else if (!resyncPending || ++deltasWhileResync >= MAX_DELTAS_WHILE_RESYNC) {
+			resyncPending = true;
+			deltasWhileResync = 0;
+			sendMessage(new Message(MessageType.UPDATE_REPS, MessageSubtype.ERROR));
+		} else {
+			Utils.logInfo("RemoteView -> updateReps(): ignored changes of reps while waiting for all the reps.");
+		}
+	}
+
 	/**
 	 * Updates the display.
 	 */
@@ -0,0 +1,122 @@
+package it.polimi.se2019.view.server;
+
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.gamemap.SquareRep;
+import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.RepDeltaMessage;
+import it.polimi.se2019.network.message.RepMessage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the last reps sent to a client and converts the reps to send into a RepDeltaMessage with only the changes.
+ * A full RepMessage is sent the first time, after a reconnection and when the client asks it because its reps have a different version.
+ * The reps of the squares are recreated by the model only when a square changes, so a changed square is found comparing the references.
+ *
+ * @author Desno365
+ */
+class RepDeltaTracker {
+
+	private int version = 0;
+	private boolean fullRepsRequired = true;
+	private GameMapRep lastGameMapRep;
+	private GameBoardRep lastGameBoardRep;
+	private final Map<String, PlayerRep> lastPlayersRep = new LinkedHashMap<>();
+
+
+	/**
+	 * The next message created will contain all the reps instead of only the changes.
+	 */
+	void requireFullReps() {
+		fullRepsRequired = true;
+	}
+
+	/**
+	 * Returns the message to send to the client for the specified reps: a RepDeltaMessage if the client has the previous version of the reps,
+	 * otherwise a RepMessage with all the reps known.
+	 *
+	 * @param pendingReps the reps that changed since the last message, with the inner message to send.
+	 * @return the message to send to the client.
+	 */
+	Message createRepMessage(RepMessage pendingReps) {
+		Message message;
+		if (fullRepsRequired || lastGameMapRep == null || hasDifferentSize(pendingReps.getGameMapRep()))
+			message = createFullRepMessage(pendingReps);
+		else
+			message = createRepDeltaMessage(pendingReps);
+
+		// Save the reps sent.
+		if (pendingReps.getGameMapRep() != null)
+			lastGameMapRep = pendingReps.getGameMapRep();
+		if (pendingReps.getGameBoardRep() != null)
+			lastGameBoardRep = pendingReps.getGameBoardRep();
+		for (PlayerRep playerRep : pendingReps.getPlayersRep())
+			lastPlayersRep.put(playerRep.getPlayerName(), playerRep);
+		fullRepsRequired = false;
+		return message;
+	}
+
+
+	/**
+	 * Creates a RepMessage with the pending reps and the last reps sent for the ones that didn't change.
+	 *
+	 * @param pendingReps the reps that changed since the last message.
+	 * @return a RepMessage with all the reps known.
+	 */
+	private RepMessage createFullRepMessage(RepMessage pendingReps) {
+		RepMessage fullRepMessage = new RepMessage();
+		GameMapRep gameMapRep = pendingReps.getGameMapRep() != null ? pendingReps.getGameMapRep() : lastGameMapRep;
+		if (gameMapRep != null)
+			fullRepMessage.addGameMapRep(gameMapRep);
+		GameBoardRep gameBoardRep = pendingReps.getGameBoardRep() != null ? pendingReps.getGameBoardRep() : lastGameBoardRep;
+		if (gameBoardRep != null)
+			fullRepMessage.addGameBoardRep(gameBoardRep);
+		lastPlayersRep.values().forEach(fullRepMessage::addPlayersRep);
+		pendingReps.getPlayersRep().forEach(fullRepMessage::addPlayersRep); // Replaces the old rep of the same player.
+		fullRepMessage.addMessage(pendingReps.getMessage());
+		fullRepMessage.setRepVersion(++version);
+		return fullRepMessage;
+	}
+
+	/**
+	 * Creates a RepDeltaMessage with the squares that changed and the pending reps of the GameBoard and of the players.
+	 *
+	 * @param pendingReps the reps that changed since the last message.
+	 * @return a RepDeltaMessage with the changes since the last message.
+	 */
+	private RepDeltaMessage createRepDeltaMessage(RepMessage pendingReps) {
+		RepDeltaMessage repDeltaMessage = new RepDeltaMessage(version, version + 1);
+		version++;
+
+		GameMapRep gameMapRep = pendingReps.getGameMapRep();
+		if (gameMapRep != null) {
+			SquareRep[][] lastSquares = lastGameMapRep.getMapRep();
+			SquareRep[][] squares = gameMapRep.getMapRep();
+			for (int i = 0; i < gameMapRep.getNumOfRows(); i++) {
+				for (int j = 0; j < gameMapRep.getNumOfColumns(); j++) {
+					if (squares[i][j] != lastSquares[i][j])
+						repDeltaMessage.addChangedSquare(squares[i][j]);
+				}
+			}
+			if (!gameMapRep.getPlayersCoordinates().equals(lastGameMapRep.getPlayersCoordinates()))
+				repDeltaMessage.setPlayersCoordinates(gameMapRep.getPlayersCoordinates());
+		}
+		repDeltaMessage.addGameBoardRep(pendingReps.getGameBoardRep());
+		pendingReps.getPlayersRep().forEach(repDeltaMessage::addPlayersRep);
+		repDeltaMessage.addMessage(pendingReps.getMessage());
+		return repDeltaMessage;
+	}
+
+	/**
+	 * Returns true if the GameMapRep has a size different from the last one sent, so it can't be compared square by square.
+	 *
+	 * @param gameMapRep the GameMapRep to check, can be null.
+	 * @return true if the GameMapRep has a size different from the last one sent.
+	 */
+	private boolean hasDifferentSize(GameMapRep gameMapRep) {
+		return gameMapRep != null && (gameMapRep.getNumOfRows() != lastGameMapRep.getNumOfRows() || gameMapRep.getNumOfColumns() != lastGameMapRep.getNumOfColumns());
+	}
+}
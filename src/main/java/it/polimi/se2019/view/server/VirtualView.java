@@ -10,6 +10,7 @@ import it.polimi.se2019.model.player.Player;
 import it.polimi.se2019.model.player.PlayerRep;
 import it.polimi.se2019.network.message.*;
 import it.polimi.se2019.network.server.AbstractConnectionToClient;
+import it.polimi.se2019.utils.LogCategory;
 import it.polimi.se2019.utils.PlayerRepPosition;
 import it.polimi.se2019.utils.QuestionContainer;
 import it.polimi.se2019.utils.SingleTimer;
@@ -19,17 +20,32 @@ import it.polimi.se2019.view.ViewInterface;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.Executor;
 
 public class VirtualView extends Observable implements ViewInterface {
 
 	private AbstractConnectionToClient client;
 	private RepMessage repMessage = new RepMessage();
+	private final RepDeltaTracker repDeltaTracker = new RepDeltaTracker();
 	private boolean connected = true;
 	private SingleTimer singleTimer = new SingleTimer();
+	private final Executor eventExecutor;
 
 
 	public VirtualView(AbstractConnectionToClient client) {
+		this(client, Runnable::run);
+	}
+
+	/**
+	 * Creates a VirtualView whose timer events are queued on the specified executor,
+	 * the same one that processes the messages of the match, so the Controller is never accessed concurrently.
+	 *
+	 * @param client        the client associated to this VirtualView.
+	 * @param eventExecutor the executor of the match.
+	 */
+	public VirtualView(AbstractConnectionToClient client, Executor eventExecutor) {
 		this.client = client;
+		this.eventExecutor = eventExecutor;
 	}
 
 
@@ -46,7 +62,10 @@ public class VirtualView extends Observable implements ViewInterface {
 	}
 
 	public void onMessageReceived(Message message) {
-		if (connected) {
+		if (connected && message.getMessageType() == MessageType.UPDATE_REPS) { // The reps of the client have a different version.
+			repDeltaTracker.requireFullReps();
+			sendFullReps();
+		} else if (connected) {
 			singleTimer.cancel();
 			setChanged();
 			notifyObservers(new Event(this, message)); // Attach the VirtualView itself to the Event sent to Observer(s) (Controller).
@@ -70,6 +89,7 @@ public class VirtualView extends Observable implements ViewInterface {
 	public void onClientReconnected(AbstractConnectionToClient client) {
 		this.client = client;
 		connected = true;
+		repDeltaTracker.requireFullReps();
 		Utils.logInfo("VirtualView -> onClientReconnected(): set client as connected.");
 		setChanged();
 		notifyObservers(new Event(this, new Message(MessageType.CONNECTION, MessageSubtype.INFO)));
@@ -158,19 +178,19 @@ public class VirtualView extends Observable implements ViewInterface {
 	@Override
 	public void updateGameBoardRep(GameBoardRep gameBoardRepToUpdate) {
 		repMessage.addGameBoardRep(gameBoardRepToUpdate);
-		Utils.logRep("Added to " + getNickname() + "'s packet the Game Board rep");
+		Utils.logRep(() -> "Added to " + getNickname() + "'s packet the Game Board rep");
 	}
 
 	@Override
 	public void updateGameMapRep(GameMapRep gameMapRepToUpdate) {
 		repMessage.addGameMapRep(gameMapRepToUpdate);
-		Utils.logRep("Added to " + getNickname() + "'s packet the Game Map rep");
+		Utils.logRep(() -> "Added to " + getNickname() + "'s packet the Game Map rep");
 	}
 
 	@Override
 	public void updatePlayerRep(PlayerRep playerRepToUpdate) {
 		repMessage.addPlayersRep(playerRepToUpdate);
-		Utils.logRep("Added to " + getNickname() + "'s packet the Player rep of " + playerRepToUpdate.getPlayerName());
+		Utils.logRep(() -> "Added to " + getNickname() + "'s packet the Player rep of " + playerRepToUpdate.getPlayerName());
 	}
 
 
@@ -180,15 +200,15 @@ public class VirtualView extends Observable implements ViewInterface {
 			return;
 
 		if (repMessage.hasReps()) {
-			Utils.logInfo("VirtualView -> sendMessage(): sending the reps with inner message " + message + " to " + getNickname() + ".");
+			Utils.logInfo(LogCategory.GENERAL, () -> "VirtualView -> sendMessage(): sending the reps with inner message " + message + " to " + getNickname() + ".");
 			repMessage.addMessage(message);
-			client.sendMessage(repMessage);
+			client.sendMessage(repDeltaTracker.createRepMessage(repMessage));
 			repMessage = new RepMessage();
 		} else if (message != null) {
-			Utils.logInfo("VirtualView -> sendMessage(): no reps to send to " + getNickname() + ".");
+			Utils.logInfo(LogCategory.GENERAL, () -> "VirtualView -> sendMessage(): no reps to send to " + getNickname() + ".");
 			client.sendMessage(message);
 		} else {
-			Utils.logInfo("VirtualView -> sendMessage(): nothing to send to " + getNickname() + " (null message and no reps).");
+			Utils.logInfo(LogCategory.GENERAL, () -> "VirtualView -> sendMessage(): nothing to send to " + getNickname() + " (null message and no reps).");
 		}
 
 		// Starts a timer for the player answer, but only if the message is a REQUEST.
@@ -196,9 +216,15 @@ public class VirtualView extends Observable implements ViewInterface {
 			startRequestTimer();
 	}
 
+	private void sendFullReps() {
+		Utils.logInfo(LogCategory.GENERAL, () -> "VirtualView -> sendFullReps(): sending all the reps to " + getNickname() + ".");
+		client.sendMessage(repDeltaTracker.createRepMessage(repMessage));
+		repMessage = new RepMessage();
+	}
+
 	private void startRequestTimer() {
 		Utils.logInfo("Starting timer for VirtualView answer.");
-		singleTimer.start(this::onClientDisconnected, Utils.getServerConfig().getTurnTimeLimitMs());
+		singleTimer.start(() -> eventExecutor.execute(this::onClientDisconnected), Utils.getServerConfig().getTurnTimeLimitMs());
 	}
 
 
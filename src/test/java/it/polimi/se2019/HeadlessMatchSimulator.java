@@ -0,0 +1,239 @@
+package it.polimi.se2019;
+
+import it.polimi.se2019.controller.Controller;
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.MessageType;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.LatencyHistogram;
+import it.polimi.se2019.utils.PlayerRepPosition;
+import it.polimi.se2019.utils.Utils;
+import it.polimi.se2019.view.server.VirtualView;
+import it.polimi.se2019.view.server.VirtualViewDriver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays complete games without clients: every player is a bot VirtualView that answers the requests of the Controller with random legal choices.
+ * The matches are played in parallel, each one on a single thread like the matches of the server, to expose the scaling limits of the Controller and the Model.
+ * At the end it reports the games and turns per second, the allocation rate, the time needed to create a match and the time spent by the Controller to handle each type of message.
+ * The number of games and of parallel matches can be passed as arguments.
+ * @author Desno365
+ */
+public class HeadlessMatchSimulator {
+
+	private static final int DEFAULT_NUMBER_OF_GAMES = 200;
+	private static final int WARMUP_GAMES = 50;
+	private static final int MAX_TURNS_PER_GAME = 300;
+	private static final long SEED = 0;
+
+
+	/**
+	 * Run this main to start the simulation.
+	 * @param args number of games and number of parallel matches, both optional.
+	 */
+	public static void main(String[] args) throws Exception {
+		int numberOfGames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_GAMES;
+		int parallelMatches = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		Utils.setLogEnabled(false);
+
+		simulate(WARMUP_GAMES, parallelMatches);
+		Statistics statistics = simulate(numberOfGames, parallelMatches);
+		statistics.print(parallelMatches);
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static Statistics simulate(int numberOfGames, int parallelMatches) throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(parallelMatches, runnable -> new Thread(runnable, "CUSTOM: Simulated Match"));
+		AtomicInteger nextGame = new AtomicInteger();
+		List<Future<Statistics>> futures = new ArrayList<>();
+
+		long startTime = System.nanoTime();
+		for (int i = 0; i < parallelMatches; i++) {
+			futures.add(executorService.submit(() -> {
+				Statistics statistics = new Statistics();
+				long startBytes = BenchmarkUtils.getAllocatedBytesOfCurrentThread();
+				int game;
+				while ((game = nextGame.getAndIncrement()) < numberOfGames)
+					new SimulatedMatch(new Random(SEED + game), statistics).play();
+				statistics.allocatedBytes = BenchmarkUtils.getAllocatedBytesOfCurrentThread() - startBytes;
+				return statistics;
+			}));
+		}
+
+		Statistics total = new Statistics();
+		for (Future<Statistics> future : futures)
+			total.add(future.get());
+		total.elapsedNanos = System.nanoTime() - startTime;
+		executorService.shutdown();
+		return total;
+	}
+
+
+	// ####################################
+	// SIMULATED MATCH
+	// ####################################
+
+	/**
+	 * A match whose messages are queued and handled one at a time by the thread that plays it.
+	 */
+	private static class SimulatedMatch {
+
+		private final Random random;
+		private final Statistics statistics;
+		private final Queue<QueuedMessage> messages = new ArrayDeque<>();
+		private int turns;
+		private boolean ended;
+
+		private SimulatedMatch(Random random, Statistics statistics) {
+			this.random = random;
+			this.statistics = statistics;
+		}
+
+		private void play() {
+			List<VirtualView> bots = new ArrayList<>();
+			int numberOfPlayers = GameConstants.MIN_PLAYERS + random.nextInt(1 + GameConstants.MAX_PLAYERS - GameConstants.MIN_PLAYERS);
+			for (int i = 0; i < numberOfPlayers; i++)
+				bots.add(new BotVirtualView("bot" + i, this));
+			GameConstants.MapType mapType = GameConstants.MapType.values()[random.nextInt(GameConstants.MapType.values().length)];
+			int skulls = GameConstants.MIN_SKULLS + random.nextInt(1 + GameConstants.MAX_SKULLS - GameConstants.MIN_SKULLS);
+
+			try {
+				long creationStartTime = System.nanoTime();
+				Controller controller = new Controller(mapType, bots, skulls);
+				statistics.matchCreation.record(System.nanoTime() - creationStartTime);
+				controller.startGame();
+				QueuedMessage queuedMessage;
+				while (!ended && (queuedMessage = messages.poll()) != null) {
+					long startTime = System.nanoTime();
+					queuedMessage.virtualView.onMessageReceived(queuedMessage.message);
+					statistics.recordLatency(queuedMessage.message.getMessageType(), System.nanoTime() - startTime);
+				}
+				if (controller.isGameEnded())
+					statistics.finishedGames++;
+				else if (ended)
+					statistics.truncatedGames++;
+				else
+					statistics.stalledGames++;
+			} catch (RuntimeException e) {
+				Utils.logError("HeadlessMatchSimulator: the match threw an exception.", e);
+				statistics.failedGames++;
+			}
+			statistics.turns += turns;
+		}
+
+		private boolean onTurnEnded() {
+			turns++;
+			if (turns >= MAX_TURNS_PER_GAME)
+				ended = true;
+			return !ended;
+		}
+	}
+
+	private static class QueuedMessage {
+
+		private final VirtualView virtualView;
+		private final Message message;
+
+		private QueuedMessage(VirtualView virtualView, Message message) {
+			this.virtualView = virtualView;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * Bot player that tests all the actions and queues its answers in the match.
+	 */
+	private static class BotVirtualView extends VirtualViewDriver {
+
+		private final SimulatedMatch simulatedMatch;
+
+		private BotVirtualView(String nickname, SimulatedMatch simulatedMatch) {
+			super(nickname, true, true, true);
+			this.simulatedMatch = simulatedMatch;
+		}
+
+		@Override
+		public void sendReps() {
+			// The reps are already applied to the ModelRep of the bot.
+		}
+
+		@Override
+		public void endOfGame(List<PlayerRepPosition> finalPlayersInfo) {
+			simulatedMatch.ended = true;
+		}
+
+		@Override
+		protected void sendMessageToController(Message message) {
+			simulatedMatch.messages.add(new QueuedMessage(this, message));
+		}
+
+		@Override
+		protected boolean canTestContinue() {
+			return simulatedMatch.onTurnEnded();
+		}
+	}
+
+
+	// ####################################
+	// STATISTICS
+	// ####################################
+
+	/**
+	 * Statistics of the matches played by a thread, merged at the end of the simulation.
+	 */
+	private static class Statistics {
+
+		private int finishedGames;
+		private int truncatedGames;
+		private int stalledGames;
+		private int failedGames;
+		private long turns;
+		private long allocatedBytes;
+		private long elapsedNanos;
+		private final Map<MessageType, LatencyHistogram> latencies = new EnumMap<>(MessageType.class);
+		private final LatencyHistogram matchCreation = new LatencyHistogram();
+
+		private void recordLatency(MessageType messageType, long nanos) {
+			latencies.computeIfAbsent(messageType, key -> new LatencyHistogram()).record(nanos);
+		}
+
+		private void add(Statistics statistics) {
+			finishedGames += statistics.finishedGames;
+			truncatedGames += statistics.truncatedGames;
+			stalledGames += statistics.stalledGames;
+			failedGames += statistics.failedGames;
+			turns += statistics.turns;
+			allocatedBytes += statistics.allocatedBytes;
+			matchCreation.add(statistics.matchCreation);
+			statistics.latencies.forEach((messageType, histogram) -> latencies.computeIfAbsent(messageType, key -> new LatencyHistogram()).add(histogram));
+		}
+
+		private void print(int parallelMatches) {
+			int games = finishedGames + truncatedGames + stalledGames + failedGames;
+			double seconds = elapsedNanos / 1e9;
+			System.out.println("Games: " + games + " on " + parallelMatches + " parallel matches (finished " + finishedGames + ", truncated at " + MAX_TURNS_PER_GAME + " turns " + truncatedGames + ", stalled " + stalledGames + ", failed " + failedGames + ").");
+			System.out.println(String.format("Throughput: %.1f games/s, %.0f turns/s.", games / seconds, turns / seconds));
+			System.out.println(String.format("Allocation: %.1f MB/s, %d bytes per turn.", allocatedBytes / seconds / (1024 * 1024), turns == 0 ? 0 : allocatedBytes / turns));
+			System.out.println("Match creation: " + BenchmarkUtils.formatMicroseconds(matchCreation.getMean()) + " mean, " +
+					BenchmarkUtils.formatMicroseconds(matchCreation.getPercentile(0.50)) + " p50, " + BenchmarkUtils.formatMicroseconds(matchCreation.getPercentile(0.99)) + " p99.");
+			System.out.println(String.format("%-28s %10s %10s %10s %10s", "Message type", "count", "mean us", "p50 us", "p99 us"));
+			latencies.forEach((messageType, histogram) -> System.out.println(String.format("%-28s %10d %10.1f %10.1f %10.1f",
+					messageType, histogram.getCount(), histogram.getMean() / 1000, histogram.getPercentile(0.50) / 1000, histogram.getPercentile(0.99) / 1000)));
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package it.polimi.se2019.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ActivabilityCacheTest {
+
+	private ActivabilityCache activabilityCache;
+
+	@Before
+	public void setUp() {
+		activabilityCache = new ActivabilityCache();
+	}
+
+	@Test
+	public void get_sameStateVersion_cachedResultReturned() {
+		List<Integer> result = new ArrayList<>(Arrays.asList(0, 2));
+		assertNull(activabilityCache.get(ActivabilityCache.Query.WEAPONS, "player", 1));
+		activabilityCache.put(ActivabilityCache.Query.WEAPONS, "player", 1, result);
+
+		assertSame(result, activabilityCache.get(ActivabilityCache.Query.WEAPONS, "player", 1));
+		assertEquals(1, activabilityCache.getHits());
+		assertEquals(1, activabilityCache.getMisses());
+	}
+
+	@Test
+	public void get_differentStateVersion_nullReturned() {
+		activabilityCache.put(ActivabilityCache.Query.WEAPONS, "player", 1, new ArrayList<>());
+
+		assertNull(activabilityCache.get(ActivabilityCache.Query.WEAPONS, "player", 2));
+	}
+
+	@Test
+	public void get_differentPlayerOrQuery_nullReturned() {
+		activabilityCache.put(ActivabilityCache.Query.ON_TURN_POWERUPS, "player", 1, new ArrayList<>());
+
+		assertNull(activabilityCache.get(ActivabilityCache.Query.ON_TURN_POWERUPS, "otherPlayer", 1));
+		assertNull(activabilityCache.get(ActivabilityCache.Query.ON_SHOOT_POWERUPS, "player", 1));
+	}
+}
@@ -0,0 +1,132 @@
+package it.polimi.se2019.model;
+
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.utils.GameConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ModelSnapshotTest {
+
+	private static final int READERS = 4;
+	private static final int STRESS_MOVES = 3000;
+
+	private Model model;
+	private List<String> playerNames;
+
+
+	@Before
+	public void setUp() {
+		playerNames = new ArrayList<>();
+		for (int i = 0; i < GameConstants.MAX_PLAYERS; i++)
+			playerNames.add("player" + i);
+		model = new Model(GameConstants.MapType.BIG_MAP.getMapName(), playerNames, GameConstants.MAX_SKULLS);
+	}
+
+	@Test
+	public void getSnapshot_repsNeverUpdated_nullReturned() {
+		assertNull(model.getSnapshot());
+	}
+
+	@Test
+	public void getSnapshot_playerMoved_newSnapshotPublished() {
+		spawnAllPlayers();
+		ModelSnapshot previousSnapshot = model.getSnapshot();
+
+		model.movePlayerTo(playerNames.get(0), new Coordinates(1, 1));
+		ModelSnapshot snapshot = model.getSnapshot();
+
+		assertTrue(snapshot.getVersion() > previousSnapshot.getVersion());
+		assertEquals(new Coordinates(1, 1), snapshot.getGameMapRep().getPlayerCoordinates(playerNames.get(0)));
+		assertNotEquals(new Coordinates(1, 1), previousSnapshot.getGameMapRep().getPlayerCoordinates(playerNames.get(0)));
+		assertEquals(playerNames.size(), snapshot.getPlayerReps().size());
+		assertFalse(snapshot.isGameEnded());
+	}
+
+	@Test
+	public void getSnapshot_playerMoved_unchangedRepsShared() {
+		spawnAllPlayers();
+		ModelSnapshot previousSnapshot = model.getSnapshot();
+
+		model.movePlayerTo(playerNames.get(0), new Coordinates(1, 1));
+		ModelSnapshot snapshot = model.getSnapshot();
+
+		assertSame(previousSnapshot.getGameBoardRep(), snapshot.getGameBoardRep());
+		for (String playerName : playerNames)
+			assertSame(previousSnapshot.getPlayerRep(playerName), snapshot.getPlayerRep(playerName));
+	}
+
+	@Test
+	public void getSnapshot_concurrentReadersDuringGame_consistentSnapshotsRead() throws Exception {
+		spawnAllPlayers();
+		Map<Long, Map<String, Coordinates>> expectedPositions = new HashMap<>();
+		expectedPositions.put(model.getSnapshot().getVersion(), readPositions(model.getSnapshot()));
+
+		ExecutorService executorService = Executors.newFixedThreadPool(READERS);
+		CountDownLatch writerDone = new CountDownLatch(1);
+		List<Future<List<ModelSnapshot>>> readers = new ArrayList<>();
+		for (int i = 0; i < READERS; i++)
+			readers.add(executorService.submit(() -> readSnapshotsUntil(writerDone)));
+
+		Random random = new Random(0);
+		for (int i = 0; i < STRESS_MOVES; i++) {
+			String playerName = playerNames.get(i % playerNames.size());
+			List<Coordinates> reachableCoordinates = model.getReachableCoordinates(playerName, 3);
+			model.movePlayerTo(playerName, reachableCoordinates.get(random.nextInt(reachableCoordinates.size())));
+			expectedPositions.put(model.getSnapshot().getVersion(), readPositions(model.getSnapshot()));
+		}
+		writerDone.countDown();
+
+		int readSnapshots = 0;
+		for (Future<List<ModelSnapshot>> reader : readers) {
+			for (ModelSnapshot snapshot : reader.get(30, TimeUnit.SECONDS)) {
+				assertEquals(expectedPositions.get(snapshot.getVersion()), readPositions(snapshot));
+				readSnapshots++;
+			}
+		}
+		executorService.shutdown();
+		assertTrue(readSnapshots > 0);
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private void spawnAllPlayers() {
+		for (String playerName : playerNames) {
+			model.addSpawnPowerupCardTo(playerName);
+			model.spawnPlayer(playerName, 0);
+		}
+	}
+
+	/**
+	 * Reads the snapshots until the writer is done, checking that every snapshot is complete and that the versions never go back.
+	 * Returns the snapshots with a new version, to compare them with the state of the writer at the same version.
+	 */
+	private List<ModelSnapshot> readSnapshotsUntil(CountDownLatch writerDone) {
+		List<ModelSnapshot> readSnapshots = new ArrayList<>();
+		long lastVersion = -1;
+		while (writerDone.getCount() > 0) {
+			ModelSnapshot snapshot = model.getSnapshot();
+			assertTrue(snapshot.getVersion() >= lastVersion);
+			assertEquals(playerNames.size(), snapshot.getPlayerReps().size());
+			assertEquals(playerNames.size(), snapshot.getGameMapRep().getPlayersCoordinates().size());
+			if (snapshot.getVersion() > lastVersion)
+				readSnapshots.add(snapshot);
+			lastVersion = snapshot.getVersion();
+		}
+		return readSnapshots;
+	}
+
+	private Map<String, Coordinates> readPositions(ModelSnapshot snapshot) {
+		Map<String, Coordinates> positions = new HashMap<>();
+		for (String playerName : playerNames)
+			positions.put(playerName, snapshot.getGameMapRep().getPlayerCoordinates(playerName));
+		return positions;
+	}
+}
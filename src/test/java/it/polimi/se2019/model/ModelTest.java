@@ -1,11 +1,13 @@
 package it.polimi.se2019.model;
 
+import it.polimi.se2019.model.cards.CardCatalog;
 import it.polimi.se2019.model.cards.ammo.AmmoCard;
 import it.polimi.se2019.model.cards.ammo.AmmoType;
 import it.polimi.se2019.model.cards.powerups.Newton;
 import it.polimi.se2019.model.cards.powerups.PowerupCard;
 import it.polimi.se2019.model.cards.powerups.TargetingScope;
 import it.polimi.se2019.model.cards.powerups.Teleporter;
+import it.polimi.se2019.model.cards.weapons.LockRifle;
 import it.polimi.se2019.model.cards.weapons.WeaponCard;
 import it.polimi.se2019.model.gamemap.Coordinates;
 import it.polimi.se2019.model.player.Player;
@@ -675,6 +677,51 @@ public class ModelTest {
         assertEquals(1, model.getActivableOnShootPowerups(player1.getPlayerName()).size());
     }
 
+    @Test
+    public void getActivableOnTurnPowerups_powerupUsedToPay_powerupNoLongerActivable() {
+        Player player1 = model.getGameBoard().getPlayers().get(0);
+        while (!player1.getPlayerBoard().getPowerupCards().isEmpty())
+            player1.getPlayerBoard().removePowerup(0);
+        PowerupCard teleporter = new Teleporter(AmmoType.RED_AMMO);
+        teleporter.setOwner(player1);
+        teleporter.setGameBoard(model.getGameBoard());
+        player1.getPlayerBoard().addPowerup(teleporter);
+        assertEquals(1, model.getActivableOnTurnPowerups(player1Name).size());
+
+        List<AmmoType> price = new ArrayList<>();
+        price.add(AmmoType.RED_AMMO);
+        List<Integer> indexesOfThePowerups = new ArrayList<>();
+        indexesOfThePowerups.add(0);
+        model.pay(player1Name, price, indexesOfThePowerups);
+
+        assertTrue(model.getActivableOnTurnPowerups(player1Name).isEmpty());
+    }
+
+    @Test
+    public void getActivableWeapons_weaponReloaded_weaponActivable() {
+        WeaponCard lockRifle = giveLockRifleToPlayer1WithTargetInSight();
+        lockRifle.reset();
+        assertTrue(model.getActivableWeapons(player1Name).isEmpty());
+
+        model.reloadWeapon(player1Name, 0);
+
+        assertEquals(1, model.getActivableWeapons(player1Name).size());
+    }
+
+    @Test
+    public void getActivableWeapons_targetDamaged_weaponNoLongerActivable() {
+        giveLockRifleToPlayer1WithTargetInSight();
+        assertEquals(1, model.getActivableWeapons(player1Name).size());
+
+        model.initialWeaponActivation(player1Name, 0);
+        for (int i = 0; i < 5 && !model.isTheWeaponConcluded(player1Name); i++)
+            model.doWeaponStep(player1Name, 0);
+        model.handleWeaponEnd(player1Name);
+
+        assertFalse(model.getGameBoard().getPlayers().get(1).getPlayerBoard().getDamageBoard().isEmpty());
+        assertTrue(model.getActivableWeapons(player1Name).isEmpty());
+    }
+
     @Test
     public void onTurnPowerup_correctInput_correctOutput() {
         // Prepare powerups.
@@ -713,4 +760,19 @@ public class ModelTest {
 		model.addSpawnPowerupCardTo(player1.getPlayerName());
 		assertEquals(powerupsCount + 1, player1.getPlayerBoard().getPowerupCards().size());
 	}
+
+    private WeaponCard giveLockRifleToPlayer1WithTargetInSight() {
+        Player player1 = model.getGameBoard().getPlayers().get(0);
+        WeaponCard lockRifle = null;
+        for (WeaponCard weaponCard : CardCatalog.getCardCatalog().createWeapons()) {
+            if (weaponCard instanceof LockRifle)
+                lockRifle = weaponCard;
+        }
+        lockRifle.setOwner(player1);
+        lockRifle.setGameBoard(model.getGameBoard());
+        player1.getPlayerBoard().addWeapon(lockRifle);
+        model.movePlayerTo(player1Name, new Coordinates(0, 0));
+        model.movePlayerTo(player2Name, new Coordinates(0, 1));
+        return lockRifle;
+    }
 }
\ No newline at end of file
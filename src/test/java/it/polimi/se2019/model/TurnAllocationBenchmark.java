@@ -0,0 +1,79 @@
+package it.polimi.se2019.model;
+
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.Square;
+import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.network.message.MessageType;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.Utils;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the bytes allocated by the model during a turn with the logs disabled.
+ * Each turn the current player moves to a random square, grabs the ammo if it can,
+ * then the activable weapons and powerups are checked, the map is refilled and the turn passes to the next player.
+ * @author Desno365
+ */
+public class TurnAllocationBenchmark {
+
+	private static final int WARMUP_TURNS = 20000;
+	private static final int MEASURED_TURNS = 50000;
+	private static final int TURNS_PER_GAME = 200;
+	private static final int MOVEMENTS = 3;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		Utils.setLogEnabled(false);
+		Random random = new Random(0);
+
+		playTurns(WARMUP_TURNS, random);
+
+		long startBytes = BenchmarkUtils.getAllocatedBytesOfCurrentThread();
+		long startTime = System.nanoTime();
+		playTurns(MEASURED_TURNS, random);
+		long time = System.nanoTime() - startTime;
+		long allocatedBytes = BenchmarkUtils.getAllocatedBytesOfCurrentThread() - startBytes;
+
+		System.out.println("Turns: " + MEASURED_TURNS + " (new game every " + TURNS_PER_GAME + " turns).");
+		System.out.println("Allocated: " + (allocatedBytes / MEASURED_TURNS) + " bytes per turn.");
+		System.out.println("Time: " + BenchmarkUtils.formatMicroseconds((double) time / MEASURED_TURNS) + " per turn.");
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static void playTurns(int numberOfTurns, Random random) {
+		ModelDriver model = null;
+		for (int turn = 0; turn < numberOfTurns; turn++) {
+			if (turn % TURNS_PER_GAME == 0)
+				model = BenchmarkUtils.createSpawnedModel(GameConstants.MapType.BIG_MAP);
+			playTurn(model, random);
+		}
+	}
+
+	private static void playTurn(ModelDriver model, Random random) {
+		String playerName = model.getCurrentPlayerName();
+		Player player = model.getPlayerFromName(playerName);
+
+		List<Coordinates> reachableCoordinates = model.getReachableCoordinates(playerName, MOVEMENTS);
+		model.movePlayerTo(playerName, reachableCoordinates.get(random.nextInt(reachableCoordinates.size())));
+
+		Square square = model.getGameBoard().getGameMap().getPlayerSquare(player);
+		if (model.getGrabMessageType() == MessageType.GRAB_AMMO && square.canGrab(player))
+			model.grabAmmoCard(playerName);
+
+		model.getActivableWeapons(playerName);
+		model.getActivableOnTurnPowerups(playerName);
+		model.fillGameMap();
+		model.nextPlayerTurn();
+	}
+}
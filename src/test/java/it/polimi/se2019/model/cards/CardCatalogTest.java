@@ -0,0 +1,58 @@
+package it.polimi.se2019.model.cards;
+
+import it.polimi.se2019.model.cards.powerups.PowerupCard;
+import it.polimi.se2019.model.cards.weapons.WeaponCard;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class CardCatalogTest {
+
+	@Test
+	public void createWeapons_calledTwice_newInstancesOfAllWeapons() {
+		List<WeaponCard> weapons = CardCatalog.getCardCatalog().createWeapons();
+		List<WeaponCard> otherWeapons = CardCatalog.getCardCatalog().createWeapons();
+		assertEquals(21, weapons.size());
+		assertEquals(weapons.size(), otherWeapons.size());
+		for (int i = 0; i < weapons.size(); i++) {
+			assertNotSame(weapons.get(i), otherWeapons.get(i));
+			assertEquals(weapons.get(i).getCardName(), otherWeapons.get(i).getCardName());
+		}
+	}
+
+	@Test
+	public void createPowerups_calledTwice_newInstances() {
+		List<PowerupCard> powerups = CardCatalog.getCardCatalog().createPowerups();
+		List<PowerupCard> otherPowerups = CardCatalog.getCardCatalog().createPowerups();
+		assertFalse(powerups.isEmpty());
+		assertEquals(powerups.size(), otherPowerups.size());
+		for (int i = 0; i < powerups.size(); i++)
+			assertNotSame(powerups.get(i), otherPowerups.get(i));
+	}
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void getAmmoCards_modifyList_shouldThrowException() {
+		assertFalse(CardCatalog.getCardCatalog().getAmmoCards().isEmpty());
+		CardCatalog.getCardCatalog().getAmmoCards().clear();
+	}
+
+	@Test
+	public void constructor_unknownPowerup_throwsExceptionWithName() {
+		try {
+			new CardCatalog("/decks/Weapon.json", "/decks/UnknownPowerupDeck.json", "/decks/AmmoDeck.json");
+			fail("Expected an IllegalStateException.");
+		} catch (IllegalStateException e) {
+			assertEquals("No such powerup: Portal gun", e.getCause().getMessage());
+		}
+	}
+
+	@Test (expected = IllegalStateException.class)
+	public void constructor_missingFile_throwsException() {
+		new CardCatalog("/decks/Weapon.json", "/decks/PowerupDeck.json", "/decks/MissingAmmoDeck.json");
+	}
+}
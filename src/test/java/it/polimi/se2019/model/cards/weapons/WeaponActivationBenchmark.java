@@ -0,0 +1,99 @@
+package it.polimi.se2019.model.cards.weapons;
+
+import it.polimi.se2019.model.ModelDriver;
+import it.polimi.se2019.model.cards.CardCatalog;
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.GameMap;
+import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.Utils;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the time and the memory needed to check if the weapons whose targets depend on the positions of the players can be activated,
+ * on the big map with 5 players moved to random squares.
+ * @author Marchingegno
+ */
+public class WeaponActivationBenchmark {
+
+	private static final String[] WEAPONS = {"Railgun", "Thor", "Flamethrower", "Furnace"};
+	private static final int POSITIONS = 1000;
+	private static final int WARMUP_ROUNDS = 50;
+	private static final int MEASURED_ROUNDS = 100;
+	private static final long SEED = 0;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		Utils.setLogEnabled(false);
+		ModelDriver model = new ModelDriver(GameConstants.MapType.BIG_MAP.getMapName(), BenchmarkUtils.createPlayerNames(GameConstants.MAX_PLAYERS), GameConstants.MAX_SKULLS);
+		GameMap gameMap = model.getGameBoard().getGameMap();
+		List<Player> players = model.getGameBoard().getPlayers();
+		List<Coordinates> allCoordinates = gameMap.getAllCoordinates();
+
+		Random random = new Random(SEED);
+		Coordinates[][] positions = new Coordinates[POSITIONS][players.size()];
+		for (Coordinates[] position : positions) {
+			for (int i = 0; i < position.length; i++)
+				position[i] = allCoordinates.get(random.nextInt(allCoordinates.size()));
+		}
+
+		for (String weaponName : WEAPONS) {
+			WeaponCard weapon = createWeapon(weaponName);
+			weapon.setGameBoard(model.getGameBoard());
+			weapon.setOwner(players.get(0));
+
+			for (int i = 0; i < WARMUP_ROUNDS; i++)
+				checkActivation(weapon, gameMap, players, positions);
+
+			long checks = (long) MEASURED_ROUNDS * POSITIONS;
+			long elapsedTime = 0;
+			long allocatedBytes = BenchmarkUtils.getAllocatedBytesOfCurrentThread();
+			int activable = 0;
+			for (int i = 0; i < MEASURED_ROUNDS; i++) {
+				long[] result = checkActivation(weapon, gameMap, players, positions);
+				activable += result[0];
+				elapsedTime += result[1];
+			}
+			allocatedBytes = BenchmarkUtils.getAllocatedBytesOfCurrentThread() - allocatedBytes;
+
+			System.out.println(weaponName + ": " + BenchmarkUtils.formatNanoseconds(elapsedTime / checks) + " per check, " + (allocatedBytes / checks) + " bytes per check (including the moves), activable in " + (activable * 100 / checks) + "% of the positions.");
+		}
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Moves the players to every position and checks the weapon, returns the number of positions where it can be activated
+	 * and the time spent to check it, the moves are not measured.
+	 */
+	private static long[] checkActivation(WeaponCard weapon, GameMap gameMap, List<Player> players, Coordinates[][] positions) {
+		long[] activableAndTime = new long[2];
+		for (Coordinates[] position : positions) {
+			for (int i = 0; i < position.length; i++)
+				gameMap.movePlayerTo(players.get(i), position[i]);
+			long startTime = System.nanoTime();
+			if (weapon.canBeActivated())
+				activableAndTime[0]++;
+			activableAndTime[1] += System.nanoTime() - startTime;
+		}
+		return activableAndTime;
+	}
+
+	private static WeaponCard createWeapon(String weaponName) {
+		for (WeaponCard weapon : CardCatalog.getCardCatalog().createWeapons()) {
+			if (weapon.getClass().getSimpleName().equals(weaponName))
+				return weapon;
+		}
+		throw new IllegalArgumentException("No such weapon: " + weaponName);
+	}
+}
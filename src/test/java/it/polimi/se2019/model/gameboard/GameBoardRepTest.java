@@ -60,6 +60,16 @@ public class GameBoardRepTest {
 		}
 	}
 
+	@Test(expected = UnsupportedOperationException.class)
+	public void getDoubleKills_modifyList_throwsException() {
+		gameBoardRep.getDoubleKills().clear();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getKillShoots_modifyList_throwsException() {
+		gameBoardRep.getKillShoots().clear();
+	}
+
 	@Test
 	public void getCurrentPlayer_initialState_correctOutput() {
 		assertEquals(gameBoard.getCurrentPlayer().getPlayerName(), gameBoardRep.getCurrentPlayer());
@@ -4,6 +4,8 @@ import it.polimi.se2019.utils.CardinalDirection;
 import it.polimi.se2019.utils.exceptions.NegativeCoordinatesException;
 import org.junit.Test;
 
+import java.io.*;
+
 import static org.junit.Assert.*;
 
 public class CoordinatesTest {
@@ -100,6 +102,30 @@ public class CoordinatesTest {
 
 	@Test
 	public void hashCode_correctInput_correctOutput() {
-		assertEquals(320 , new Coordinates( 7 , 3).hashCode());
+		assertEquals(458755 , new Coordinates( 7 , 3).hashCode());
+		assertNotEquals(new Coordinates(0, 1).hashCode(), new Coordinates(0, 2).hashCode());
+	}
+
+	@Test
+	public void of_sameIndexes_sameInstance() {
+		assertSame(Coordinates.of(2, 1), Coordinates.of(2, 1));
+		assertEquals(new Coordinates(2, 1), Coordinates.of(2, 1));
+		assertSame(Coordinates.of(1, 1), Coordinates.getDirectionCoordinates(Coordinates.of(2, 1), CardinalDirection.UP));
+	}
+
+	@Test
+	public void readResolve_deserializedCoordinates_sameInstance() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+			outputStream.writeObject(Coordinates.of(2, 3));
+		}
+		try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertSame(Coordinates.of(2, 3), inputStream.readObject());
+		}
+	}
+
+	@Test (expected = NegativeCoordinatesException.class)
+	public void of_negativeIndex_throwsNegativeCoordinatesException() {
+		Coordinates.of(-1, 0);
 	}
 }
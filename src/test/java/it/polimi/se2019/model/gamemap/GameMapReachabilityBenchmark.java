@@ -0,0 +1,64 @@
+package it.polimi.se2019.model.gamemap;
+
+import it.polimi.se2019.model.ModelDriver;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+
+import java.util.List;
+
+/**
+ * Measures the time needed by reachableCoordinates to compute the reachable coordinates from every square of the map,
+ * at distances from 1 to 4 on all the maps.
+ * @author MarcerAndrea
+ */
+public class GameMapReachabilityBenchmark {
+
+	private static final int MAX_DISTANCE = 4;
+	private static final int WARMUP_ITERATIONS = 2000;
+	private static final int MEASURED_ITERATIONS = 10000;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		for (GameConstants.MapType mapType : GameConstants.MapType.values()) {
+			GameMap gameMap = createGameMap(mapType);
+			List<Coordinates> allCoordinates = gameMap.getAllCoordinates();
+			System.out.println("####################################");
+			System.out.println(mapType.getMapName() + " (" + allCoordinates.size() + " squares)");
+			for (int distance = 1; distance <= MAX_DISTANCE; distance++)
+				runBenchmark(gameMap, allCoordinates, distance);
+		}
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static void runBenchmark(GameMap gameMap, List<Coordinates> allCoordinates, int distance) {
+		int reachedSquares = 0;
+
+		// Warm up the JIT.
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			for (Coordinates coordinates : allCoordinates)
+				reachedSquares += gameMap.reachableCoordinates(coordinates, distance).size();
+		}
+
+		long startTime = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			for (Coordinates coordinates : allCoordinates)
+				reachedSquares += gameMap.reachableCoordinates(coordinates, distance).size();
+		}
+		long time = (System.nanoTime() - startTime) / ((long) MEASURED_ITERATIONS * allCoordinates.size());
+
+		// Printing reachedSquares prevents the JIT from removing the calls.
+		System.out.println("\tDistance " + distance + ": " + BenchmarkUtils.formatNanoseconds(time) + " per call (checksum " + reachedSquares + ").");
+	}
+
+	private static GameMap createGameMap(GameConstants.MapType mapType) {
+		return new ModelDriver(mapType.getMapName(), BenchmarkUtils.createPlayerNames(GameConstants.MIN_PLAYERS), GameConstants.MIN_SKULLS).getGameBoard().getGameMap();
+	}
+}
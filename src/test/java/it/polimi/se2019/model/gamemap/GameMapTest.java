@@ -56,6 +56,16 @@ public class GameMapTest {
 		assertEquals(4, mediumMap.getNumOfColumns());
 	}
 
+	@Test
+	public void constructor_sameMapName_onlyTopologyShared() {
+		GameMap otherMediumMap = new ModelDriver(GameConstants.MapType.MEDIUM1_MAP.getMapName(), players, 8).getGameBoard().getGameMap();
+		Coordinates coordinates = new Coordinates(1, 1);
+		assertSame(MapTopology.getMapTopology(GameConstants.MapType.MEDIUM1_MAP.getMapName()), MapTopology.getMapTopology(GameConstants.MapType.MEDIUM1_MAP.getMapName()));
+		assertNotSame(mediumMap.getSquare(coordinates), otherMediumMap.getSquare(coordinates));
+		assertEquals(mediumMap.getAllCoordinates(), otherMediumMap.getAllCoordinates());
+		assertEquals(mediumMap.reachableCoordinates(coordinates, 2), otherMediumMap.reachableCoordinates(coordinates, 2));
+	}
+
 	@Test
 	public void getAllCoordinates_mediumMap_correctOutput() {
 		List<Coordinates> correctCoordinates = new ArrayList<>();
@@ -727,6 +737,16 @@ public class GameMapTest {
 		assertFalse(mediumMap.isVisible(player1, player2));
 	}
 
+	@Test
+	public void isVisible_squareIndexes_correctOutput() {
+		int square = mediumMap.getSquareIndex(new Coordinates(1, 2));
+		assertTrue(mediumMap.isVisible(square, square));
+		assertTrue(mediumMap.isVisible(square, mediumMap.getSquareIndex(new Coordinates(0, 0))));
+		assertTrue(mediumMap.isVisible(square, mediumMap.getSquareIndex(new Coordinates(2, 3))));
+		assertFalse(mediumMap.isVisible(square, mediumMap.getSquareIndex(new Coordinates(1, 1))));
+		assertFalse(mediumMap.isVisible(mediumMap.getSquareIndex(new Coordinates(0, 0)), mediumMap.getSquareIndex(new Coordinates(2, 3))));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void visible_samePlayer_expectIllegalArgumentException() {
 		Player player1 = mediumModel.getGameBoard().getPlayers().get(0);
@@ -852,6 +872,49 @@ public class GameMapTest {
 		}
 	}
 
+	@Test
+	public void getPlayersIn_playersMoved_playersMaskUpdated() {
+		Player player1 = mediumModel.getGameBoard().getPlayers().get(0);
+		Player player2 = mediumModel.getGameBoard().getPlayers().get(1);
+		int square = mediumMap.getSquareIndex(new Coordinates(1, 2));
+
+		mediumMap.movePlayerTo(player1, new Coordinates(1, 2));
+		mediumMap.movePlayerTo(player2, new Coordinates(1, 2));
+		assertEquals(mediumMap.getPlayerMask(player1) | mediumMap.getPlayerMask(player2), mediumMap.getPlayersIn(GameMap.getSquareMask(square)));
+
+		mediumMap.movePlayerTo(player2, new Coordinates(0, 0));
+		assertEquals(mediumMap.getPlayerMask(player1), mediumMap.getPlayersIn(GameMap.getSquareMask(square)));
+		assertEquals(square, mediumMap.getPlayerSquareIndex(player1));
+		assertEquals(1, mediumMap.getPlayersFromCoordinates(new Coordinates(1, 2)).size());
+	}
+
+	@Test
+	public void getReachableSquares_mediumMap_sameSquaresOfReachableCoordinates() {
+		for (Coordinates start : mediumMap.getAllCoordinates()) {
+			for (int distance = 0; distance <= 4; distance++) {
+				long reachableSquares = mediumMap.getReachableSquares(mediumMap.getSquareIndex(start), distance);
+				List<Coordinates> reachableCoordinates = mediumMap.reachableCoordinates(start, distance);
+				assertEquals(reachableCoordinates.size(), Long.bitCount(reachableSquares));
+				for (Coordinates coordinates : reachableCoordinates)
+					assertTrue((reachableSquares & GameMap.getSquareMask(mediumMap.getSquareIndex(coordinates))) != 0);
+			}
+		}
+	}
+
+	@Test
+	public void getVisiblePlayersMask_mediumMap_sameOfGetVisiblePlayers() {
+		List<Player> gamePlayers = mediumModel.getGameBoard().getPlayers();
+		mediumMap.movePlayerTo(gamePlayers.get(0), new Coordinates(1, 2));
+		mediumMap.movePlayerTo(gamePlayers.get(1), new Coordinates(1, 3));
+		mediumMap.movePlayerTo(gamePlayers.get(2), new Coordinates(1, 0));
+		mediumMap.movePlayerTo(gamePlayers.get(3), new Coordinates(2, 2));
+
+		int visiblePlayers = mediumMap.getVisiblePlayersMask(gamePlayers.get(0));
+		assertEquals(mediumMap.getVisiblePlayers(gamePlayers.get(0)), mediumMap.getPlayers(visiblePlayers));
+		assertEquals(0, visiblePlayers & mediumMap.getPlayerMask(gamePlayers.get(0)));
+		assertEquals(0, visiblePlayers & mediumMap.getPlayerMask(gamePlayers.get(4)));
+	}
+
 	@Test(expected = OutOfBoundariesException.class)
 	public void getSquare_mediumMap_() {
 		mediumMap.getSquare(new Coordinates(2, 0));
@@ -866,4 +929,38 @@ public class GameMapTest {
 		mediumMap.notifyObservers();
 		mediumMap.updateRep();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void updateRep_cardGrabbed_onlyGrabbedSquareUpdated() {
+		mediumMap.updateRep();
+		GameMapRep previousRep = (GameMapRep) mediumMap.getRep();
+		mediumMap.grabCard(new Coordinates(1, 1), 0);
+		mediumMap.updateRep();
+		GameMapRep gameMapRep = (GameMapRep) mediumMap.getRep();
+
+		assertNotSame(previousRep, gameMapRep);
+		for (int i = 0; i < mediumMap.getNumOfRows(); i++) {
+			for (int j = 0; j < mediumMap.getNumOfColumns(); j++) {
+				if (i == 1 && j == 1)
+					assertNotSame(previousRep.getMapRep()[i][j], gameMapRep.getMapRep()[i][j]);
+				else
+					assertSame(previousRep.getMapRep()[i][j], gameMapRep.getMapRep()[i][j]);
+			}
+		}
+		assertSame(previousRep.getPlayersCoordinates(), gameMapRep.getPlayersCoordinates());
+	}
+
+	@Test
+	public void updateRep_playerMoved_playersPositionsUpdated() {
+		Player player = mediumModel.getGameBoard().getPlayers().get(0);
+		mediumMap.updateRep();
+		GameMapRep previousRep = (GameMapRep) mediumMap.getRep();
+		mediumMap.movePlayerTo(player, new Coordinates(0, 1));
+		mediumMap.updateRep();
+		GameMapRep gameMapRep = (GameMapRep) mediumMap.getRep();
+
+		assertNull(previousRep.getPlayerCoordinates(player.getPlayerName()));
+		assertEquals(new Coordinates(0, 1), gameMapRep.getPlayerCoordinates(player.getPlayerName()));
+		assertSame(previousRep.getMapRep()[0][1], gameMapRep.getMapRep()[0][1]);
+	}
+}
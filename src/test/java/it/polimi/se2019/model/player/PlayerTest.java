@@ -157,4 +157,33 @@ public class PlayerTest {
 		player1.updateRep();
 		assertTrue(((PlayerRep) player1.getRep(player2.getPlayerName())).isHidden());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void getRep_askedByOtherPlayers_sameHiddenRepUntilUpdate() {
+		player1.updateRep();
+		PlayerRep hiddenRep = (PlayerRep) player1.getRep(player2.getPlayerName());
+		assertSame(hiddenRep, player1.getRep("anotherPlayer"));
+		player1.forceUpdateOfReps();
+		assertNotSame(hiddenRep, player1.getRep(player2.getPlayerName()));
+	}
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void getRep_modifyDamageBoard_shouldThrowException() {
+		player1.updateRep();
+		((PlayerRep) player1.getRep(player2.getPlayerName())).getDamageBoard().clear();
+	}
+
+	@Test
+	public void updateRep_marksAndThenDamageAdded_repUpdated() {
+		player1.updateRep();
+		player1.addMarks(player2, 1);
+		player1.updateRep();
+		assertEquals(1, ((PlayerRep) player1.getRep()).getMarks().size());
+		assertTrue(((PlayerRep) player1.getRep()).getDamageBoard().isEmpty());
+
+		player1.addDamage(player2, 1);
+		player1.updateRep();
+		assertTrue(((PlayerRep) player1.getRep()).getMarks().isEmpty());
+		assertEquals(2, ((PlayerRep) player1.getRep()).getDamageBoard().size());
+	}
+}
@@ -0,0 +1,86 @@
+package it.polimi.se2019.model.player;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class TokenTrackTest {
+
+	private static final Player player1 = new Player("Test 1", 0);
+	private static final Player player2 = new Player("Test 2", 1);
+	private static final Player player3 = new Player("Test 3", 2);
+
+	private TokenTrack tokenTrack;
+
+	@Before
+	public void setUp() {
+		tokenTrack = new TokenTrack(4);
+	}
+
+	@Test
+	public void add_fullTrack_tokenNotAdded() {
+		for (int i = 0; i < 4; i++)
+			assertTrue(tokenTrack.add(player1));
+		assertFalse(tokenTrack.add(player2));
+		assertEquals(4, tokenTrack.size());
+		assertEquals(0, tokenTrack.getTokensOf(player2));
+	}
+
+	@Test
+	public void removeLast_tokensOfMorePlayers_lastTokensRemovedAndOrderKept() {
+		tokenTrack.add(player1);
+		tokenTrack.add(player2);
+		tokenTrack.add(player1);
+		tokenTrack.add(player3);
+
+		assertEquals(1, tokenTrack.removeLast(player1, 1));
+		assertEquals(Arrays.asList(player1, player2, player3), tokenTrack.toList());
+		assertEquals(1, tokenTrack.getTokensOf(player1));
+
+		assertEquals(1, tokenTrack.removeLast(player1, 5));
+		assertEquals(Arrays.asList(player2, player3), tokenTrack.toList());
+		assertEquals(0, tokenTrack.removeLast(player1, 5));
+	}
+
+	@Test
+	public void getSortedPlayers_sameNumberOfTokens_firstTokenWins() {
+		tokenTrack.add(player2);
+		tokenTrack.add(player1);
+		tokenTrack.add(player1);
+		tokenTrack.add(player2);
+
+		assertEquals(Arrays.asList(player2, player1), tokenTrack.getSortedPlayers());
+	}
+
+	@Test
+	public void clear_tokensAdded_trackEmpty() {
+		tokenTrack.add(player1);
+		tokenTrack.add(player2);
+
+		tokenTrack.clear();
+
+		assertTrue(tokenTrack.isEmpty());
+		assertEquals(0, tokenTrack.getTokensOf(player1));
+		assertTrue(tokenTrack.getSortedPlayers().isEmpty());
+	}
+
+	@Test
+	public void toColors_tokensAdded_colorsOfThePlayersInOrder() {
+		tokenTrack.add(player3);
+		tokenTrack.add(player1);
+
+		assertEquals(Arrays.asList(player3.getPlayerColor(), player1.getPlayerColor()), tokenTrack.toColors());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void get_indexAfterLastToken_throwsException() {
+		tokenTrack.add(player1);
+		tokenTrack.get(1);
+	}
+}
@@ -0,0 +1,144 @@
+package it.polimi.se2019.network.message;
+
+import it.polimi.se2019.model.cards.ammo.AmmoType;
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.model.player.PlayerRep;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author MarcerAndrea
+ */
+public class BinaryMessageCodecTest {
+
+	private BinaryMessageCodec serverCodec;
+	private BinaryMessageCodec clientCodec;
+
+	@Before
+	public void setUp() {
+		serverCodec = new BinaryMessageCodec();
+		clientCodec = new BinaryMessageCodec();
+	}
+
+	@Test
+	public void encode_intMessage_correctOutput() throws IOException {
+		IntMessage decoded = (IntMessage) sendToClient(new IntMessage(-3, MessageType.SPAWN, MessageSubtype.ANSWER));
+		assertEquals(-3, decoded.getContent());
+		assertEquals(MessageType.SPAWN, decoded.getMessageType());
+		assertEquals(MessageSubtype.ANSWER, decoded.getMessageSubtype());
+	}
+
+	@Test
+	public void encode_coordinatesRequestMessage_correctOutput() throws IOException {
+		List<Coordinates> coordinates = Arrays.asList(new Coordinates(0, 1), new Coordinates(2, 300));
+		CoordinatesRequestMessage decoded = (CoordinatesRequestMessage) sendToClient(new CoordinatesRequestMessage(coordinates, MessageType.MOVE));
+		assertEquals(coordinates, decoded.getCoordinates());
+		assertEquals(MessageType.MOVE, decoded.getMessageType());
+	}
+
+	@Test
+	public void encode_paymentMessageWithNullList_correctOutput() throws IOException {
+		PaymentMessage paymentMessage = new PaymentMessage(Arrays.asList(AmmoType.RED_AMMO, AmmoType.BLUE_AMMO), MessageSubtype.REQUEST).setCanAffordAlsoWithAmmo(true);
+		PaymentMessage decoded = (PaymentMessage) sendToClient(paymentMessage);
+		assertEquals(paymentMessage.getPriceToPay(), decoded.getPriceToPay());
+		assertNull(decoded.getPowerupsUsed());
+		assertTrue(decoded.canAffordAlsoWithAmmo());
+	}
+
+	@Test
+	public void encode_repMessageWithInnerMessage_correctOutput() throws IOException {
+		RepMessage repMessage = new RepMessage();
+		repMessage.addMessage(new ActionRequestMessage(true, false));
+		RepMessage decoded = (RepMessage) sendToClient(repMessage);
+		assertFalse(decoded.hasReps());
+		assertTrue(((ActionRequestMessage) decoded.getMessage()).isActivablePowerups());
+		assertFalse(((ActionRequestMessage) decoded.getMessage()).isActivableWeapons());
+	}
+
+	@Test
+	public void encode_repDeltaMessageWithCoordinates_correctOutput() throws IOException {
+		Map<String, Coordinates> playersCoordinates = new HashMap<>();
+		playersCoordinates.put("player1", Coordinates.of(1, 2));
+		RepDeltaMessage repDeltaMessage = new RepDeltaMessage(3, 4);
+		repDeltaMessage.setPlayersCoordinates(playersCoordinates);
+		repDeltaMessage.addMessage(new ActionRequestMessage(false, true));
+
+		RepDeltaMessage decoded = (RepDeltaMessage) sendToClient(repDeltaMessage);
+		assertEquals(3, decoded.getBaseVersion());
+		assertEquals(4, decoded.getVersion());
+		assertEquals(playersCoordinates, decoded.getPlayersCoordinates());
+		assertTrue(decoded.getChangedSquares().isEmpty());
+		assertNull(decoded.getGameBoardRep());
+		assertTrue(((ActionRequestMessage) decoded.getMessage()).isActivableWeapons());
+	}
+
+	@Test
+	public void encode_repeatedNames_namesSentOnlyOnce() throws IOException {
+		List<String> names = Arrays.asList("player1", "player2", "player3");
+		byte[] firstMessage = serverCodec.encode(new WaitingPlayersMessage(names));
+		byte[] secondMessage = serverCodec.encode(new WaitingPlayersMessage(names));
+		assertTrue(secondMessage.length < firstMessage.length);
+		assertEquals(names, ((WaitingPlayersMessage) clientCodec.decode(firstMessage, 0, firstMessage.length)).getWaitingPlayersNames());
+		assertEquals(names, ((WaitingPlayersMessage) clientCodec.decode(secondMessage, 0, secondMessage.length)).getWaitingPlayersNames());
+	}
+
+	@Test
+	public void encode_repeatedStringMessages_textNotAddedToNamesTable() throws IOException {
+		byte[] firstMessage = serverCodec.encode(new StringMessage("Invalid nickname", MessageType.NICKNAME, MessageSubtype.ERROR));
+		byte[] secondMessage = serverCodec.encode(new StringMessage("Invalid nickname", MessageType.NICKNAME, MessageSubtype.ERROR));
+		assertEquals(firstMessage.length, secondMessage.length);
+		assertEquals("Invalid nickname", ((StringMessage) clientCodec.decode(secondMessage, 0, secondMessage.length)).getContent());
+	}
+
+	@Test
+	public void encode_moreNamesThanTableCapacity_allNamesDecoded() throws IOException {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			names.add("player" + i);
+		for (int i = 0; i < 2; i++) {
+			WaitingPlayersMessage decoded = (WaitingPlayersMessage) sendToClient(new WaitingPlayersMessage(names));
+			assertEquals(names, decoded.getWaitingPlayersNames());
+		}
+	}
+
+	@Test
+	public void encode_messageFailedAfterNewName_nameNotAddedToTable() throws IOException {
+		RepDeltaMessage failingMessage = new RepDeltaMessage(0, 1);
+		failingMessage.addMessage(new WaitingPlayersMessage(Collections.singletonList("player1")));
+		failingMessage.addPlayersRep(new PlayerRep(new Player("player1", 0)) {
+			// Anonymous class that references the test, so it can't be serialized.
+		});
+		try {
+			serverCodec.encode(failingMessage);
+			fail("The message shouldn't be encoded.");
+		} catch (IOException e) {
+			// The client never receives the failed message.
+		}
+
+		WaitingPlayersMessage decoded = (WaitingPlayersMessage) sendToClient(new WaitingPlayersMessage(Arrays.asList("player1", "player2")));
+		assertEquals(Arrays.asList("player1", "player2"), decoded.getWaitingPlayersNames());
+	}
+
+	@Test (expected = StreamCorruptedException.class)
+	public void decode_truncatedMessage_shouldThrowException() throws IOException {
+		byte[] bytes = serverCodec.encode(new SwapMessage(1, 2));
+		clientCodec.decode(bytes, 0, bytes.length - 1);
+	}
+
+	private Message sendToClient(Message message) throws IOException {
+		byte[] bytes = serverCodec.encode(message);
+		return clientCodec.decode(bytes, 0, bytes.length);
+	}
+}
@@ -0,0 +1,90 @@
+package it.polimi.se2019.network.message;
+
+import it.polimi.se2019.model.gameboard.GameBoard;
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the time needed to encode with the binary codec the reps sent to all the players after a change of the model,
+ * on the big map with 5 players: every player receives the same GameMapRep and GameBoardRep, its own PlayerRep and the hidden PlayerRep of the others.
+ * The reps are recreated before every broadcast, like the model does when they change.
+ * @author MarcerAndrea
+ */
+public class BroadcastEncodingBenchmark {
+
+	private static final int WARMUP_BROADCASTS = 8000;
+	private static final int MEASURED_BROADCASTS = 5000;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) throws IOException {
+		GameBoard gameBoard = BenchmarkUtils.createSpawnedModel(GameConstants.MapType.BIG_MAP).getGameBoard();
+		List<MessageCodec> codecs = new ArrayList<>();
+		for (int i = 0; i < gameBoard.getPlayers().size(); i++)
+			codecs.add(new BinaryMessageCodec());
+
+		long[] bytesAndTime = new long[2];
+		for (int i = 0; i < WARMUP_BROADCASTS; i++)
+			encodeBroadcast(createBroadcast(gameBoard, i), codecs, bytesAndTime);
+		SerializedRepCache serializedRepCache = BinaryMessageCodec.getSerializedRepCache();
+		long startHits = serializedRepCache.getHits();
+		long startMisses = serializedRepCache.getMisses();
+		bytesAndTime = new long[2];
+		for (int i = 0; i < MEASURED_BROADCASTS; i++)
+			encodeBroadcast(createBroadcast(gameBoard, i), codecs, bytesAndTime);
+		long bytes = bytesAndTime[0];
+		long elapsedTime = bytesAndTime[1];
+
+		System.out.println("Players: " + codecs.size() + ", broadcasts: " + MEASURED_BROADCASTS + ".");
+		System.out.println("Encoding: " + BenchmarkUtils.formatMicroseconds((double) elapsedTime / MEASURED_BROADCASTS) + " per broadcast, " + (bytes / MEASURED_BROADCASTS) + " bytes per broadcast.");
+		System.out.println("Reps serialized: " + (serializedRepCache.getMisses() - startMisses) / MEASURED_BROADCASTS + " per broadcast, reused: " + (serializedRepCache.getHits() - startHits) / MEASURED_BROADCASTS + " per broadcast.");
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Encodes the messages of a broadcast, adding the bytes and the time needed to bytesAndTime.
+	 * Only the encoding is measured, not the creation of the reps.
+	 */
+	private static void encodeBroadcast(List<RepMessage> broadcast, List<MessageCodec> codecs, long[] bytesAndTime) throws IOException {
+		long startTime = System.nanoTime();
+		for (int i = 0; i < codecs.size(); i++)
+			bytesAndTime[0] += codecs.get(i).encode(broadcast.get(i)).length;
+		bytesAndTime[1] += System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Recreates the reps and returns the messages of the broadcast, one for every player.
+	 */
+	private static List<RepMessage> createBroadcast(GameBoard gameBoard, int repVersion) {
+		gameBoard.getGameMap().forceUpdateOfReps();
+		gameBoard.forceUpdateOfReps();
+		gameBoard.getPlayers().forEach(Player::forceUpdateOfReps);
+
+		List<RepMessage> broadcast = new ArrayList<>();
+		for (Player receiver : gameBoard.getPlayers()) {
+			RepMessage repMessage = new RepMessage();
+			repMessage.addGameMapRep((GameMapRep) gameBoard.getGameMap().getRep());
+			repMessage.addGameBoardRep((GameBoardRep) gameBoard.getRep());
+			for (Player player : gameBoard.getPlayers())
+				repMessage.addPlayersRep((PlayerRep) player.getRep(receiver.getPlayerName()));
+			repMessage.setRepVersion(repVersion);
+			broadcast.add(repMessage);
+		}
+		return broadcast;
+	}
+}
@@ -0,0 +1,57 @@
+package it.polimi.se2019.network.message;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author MarcerAndrea
+ */
+public class JavaStreamCodecTest {
+
+	private static final int RESET_CADENCE = 3;
+
+	private JavaStreamCodec serverCodec;
+	private JavaStreamCodec clientCodec;
+
+	@Before
+	public void setUp() {
+		serverCodec = new JavaStreamCodec(RESET_CADENCE);
+		clientCodec = new JavaStreamCodec(RESET_CADENCE);
+	}
+
+	@Test
+	public void encode_sameClassTwice_secondMessageSmaller() throws IOException {
+		byte[] firstMessage = serverCodec.encode(new SwapMessage(1, 2));
+		byte[] secondMessage = serverCodec.encode(new SwapMessage(3, 4));
+		assertTrue(secondMessage.length < firstMessage.length);
+		assertEquals(1, ((SwapMessage) clientCodec.decode(firstMessage, 0, firstMessage.length)).getIndexToGrab());
+		assertEquals(3, ((SwapMessage) clientCodec.decode(secondMessage, 0, secondMessage.length)).getIndexToGrab());
+	}
+
+	@Test
+	public void encode_moreMessagesThanResetCadence_correctOutput() throws IOException {
+		List<String> names = Arrays.asList("player1", "player2", "player3");
+		for (int i = 0; i < RESET_CADENCE * 3 + 1; i++) {
+			byte[] bytes = serverCodec.encode(new WaitingPlayersMessage(names));
+			assertEquals(names, ((WaitingPlayersMessage) clientCodec.decode(bytes, 0, bytes.length)).getWaitingPlayersNames());
+		}
+	}
+
+	@Test (expected = StreamCorruptedException.class)
+	public void decode_truncatedMessage_shouldThrowException() throws IOException {
+		byte[] bytes = serverCodec.encode(new SwapMessage(1, 2));
+		clientCodec.decode(bytes, 0, bytes.length - 1);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_zeroResetCadence_shouldThrowException() {
+		new JavaStreamCodec(0);
+	}
+}
@@ -0,0 +1,107 @@
+package it.polimi.se2019.network.message;
+
+import it.polimi.se2019.model.gameboard.GameBoard;
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+
+import java.io.IOException;
+/**
+ * Compares the size and the encoding/decoding time of the messages with the Java serialization and with the binary codec.
+ * The messages are the ones sent to a client during a turn on the big map with 5 players,
+ * including the reps sent after a move as a full RepMessage and as a RepDeltaMessage.
+ * @author MarcerAndrea
+ */
+public class MessageCodecBenchmark {
+
+	private static final int WARMUP_ITERATIONS = 2000;
+	private static final int MEASURED_ITERATIONS = 5000;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) throws IOException {
+		RepMessage fullRepMessage = createFullRepMessage();
+		RepMessage playerRepMessage = createPlayerRepMessage();
+		Message actionRequest = new ActionRequestMessage(true, true);
+
+		runBenchmark("RepMessage with all the reps", fullRepMessage);
+		runBenchmark("RepMessage with the rep of a player", playerRepMessage);
+		runBenchmark("ActionRequestMessage", actionRequest);
+		runBenchmark("RepMessage sent after a move", createMoveRepMessage());
+		runBenchmark("RepDeltaMessage sent after a move", createMoveRepDeltaMessage());
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static void runBenchmark(String description, Message message) throws IOException {
+		System.out.println("####################################");
+		System.out.println(description);
+		runBenchmark("Java serialization", new JavaSerializationCodec(), new JavaSerializationCodec(), message);
+		runBenchmark("Binary codec", new BinaryMessageCodec(), new BinaryMessageCodec(), message);
+	}
+
+	private static void runBenchmark(String codecName, MessageCodec encoder, MessageCodec decoder, Message message) throws IOException {
+		// Warm up the JIT.
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			byte[] bytes = encoder.encode(message);
+			decoder.decode(bytes, 0, bytes.length);
+		}
+
+		byte[] bytes = null;
+		long startTime = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++)
+			bytes = encoder.encode(message);
+		long encodeTime = (System.nanoTime() - startTime) / MEASURED_ITERATIONS;
+
+		startTime = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++)
+			decoder.decode(bytes, 0, bytes.length);
+		long decodeTime = (System.nanoTime() - startTime) / MEASURED_ITERATIONS;
+
+		System.out.println("\t" + codecName + ": " + bytes.length + " bytes, encode " + BenchmarkUtils.formatNanoseconds(encodeTime) + ", decode " + BenchmarkUtils.formatNanoseconds(decodeTime) + ".");
+	}
+
+	private static RepMessage createFullRepMessage() {
+		GameBoard gameBoard = BenchmarkUtils.createSpawnedModel(GameConstants.MapType.BIG_MAP).getGameBoard();
+		RepMessage repMessage = new RepMessage();
+		repMessage.addGameMapRep((GameMapRep) gameBoard.getGameMap().getRep());
+		repMessage.addGameBoardRep((GameBoardRep) gameBoard.getRep());
+		for (Player player : gameBoard.getPlayers())
+			repMessage.addPlayersRep((PlayerRep) player.getRep());
+		repMessage.addMessage(new ActionRequestMessage(true, true));
+		return repMessage;
+	}
+
+	private static RepMessage createMoveRepMessage() {
+		GameBoard gameBoard = BenchmarkUtils.createSpawnedModel(GameConstants.MapType.BIG_MAP).getGameBoard();
+		RepMessage repMessage = new RepMessage();
+		repMessage.addGameMapRep((GameMapRep) gameBoard.getGameMap().getRep());
+		repMessage.addMessage(new ActionRequestMessage(true, true));
+		return repMessage;
+	}
+
+	private static RepDeltaMessage createMoveRepDeltaMessage() {
+		GameBoard gameBoard = BenchmarkUtils.createSpawnedModel(GameConstants.MapType.BIG_MAP).getGameBoard();
+		RepDeltaMessage repDeltaMessage = new RepDeltaMessage(1, 2);
+		repDeltaMessage.setPlayersCoordinates(((GameMapRep) gameBoard.getGameMap().getRep()).getPlayersCoordinates());
+		repDeltaMessage.addMessage(new ActionRequestMessage(true, true));
+		return repDeltaMessage;
+	}
+
+	private static RepMessage createPlayerRepMessage() {
+		GameBoard gameBoard = BenchmarkUtils.createSpawnedModel(GameConstants.MapType.BIG_MAP).getGameBoard();
+		RepMessage repMessage = new RepMessage();
+		repMessage.addPlayersRep((PlayerRep) gameBoard.getPlayers().get(0).getRep());
+		repMessage.addMessage(new ActionRequestMessage(true, true));
+		return repMessage;
+	}
+}
@@ -0,0 +1,73 @@
+package it.polimi.se2019.network.message;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author MarcerAndrea
+ */
+public class MessageSerializerTest {
+
+	@Test
+	public void encodeFrame_bigMessageWithCompression_compressedAndDecoded() throws IOException {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			names.add("player" + i);
+		byte[] bytes = new JavaSerializationCodec().encode(new WaitingPlayersMessage(names));
+
+		byte[] frame = MessageSerializer.encodeFrame(bytes, true);
+		assertTrue(frame.length < bytes.length);
+		WaitingPlayersMessage decoded = (WaitingPlayersMessage) readFrame(frame);
+		assertEquals(names, decoded.getWaitingPlayersNames());
+	}
+
+	@Test
+	public void encodeFrame_smallMessageWithCompression_notCompressed() throws IOException {
+		byte[] bytes = new BinaryMessageCodec().encode(new SwapMessage(1, 2));
+		assertTrue(bytes.length < MessageSerializer.COMPRESSION_THRESHOLD);
+
+		byte[] frame = MessageSerializer.encodeFrame(bytes, true);
+		assertEquals(MessageSerializer.LENGTH_PREFIX_BYTES + bytes.length, frame.length);
+		assertEquals(MessageType.SWAP_WEAPON, readFrame(new BinaryMessageCodec(), frame).getMessageType());
+	}
+
+	@Test
+	public void encodeFrame_incompressibleMessage_notCompressed() throws IOException {
+		StringBuilder name = new StringBuilder();
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++)
+			name.append((char) ('!' + random.nextInt(90)));
+		List<String> names = new ArrayList<>();
+		names.add(name.toString());
+		byte[] bytes = new JavaSerializationCodec().encode(new WaitingPlayersMessage(names));
+
+		byte[] frame = MessageSerializer.encodeFrame(bytes, true);
+		assertTrue(frame.length <= MessageSerializer.LENGTH_PREFIX_BYTES + bytes.length);
+		assertEquals(names, ((WaitingPlayersMessage) readFrame(frame)).getWaitingPlayersNames());
+	}
+
+	@Test (expected = StreamCorruptedException.class)
+	public void readFrame_corruptedCompressedFrame_shouldThrowException() throws IOException {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			names.add("player" + i);
+		byte[] frame = MessageSerializer.encodeFrame(new JavaSerializationCodec().encode(new WaitingPlayersMessage(names)), true);
+		for (int i = MessageSerializer.LENGTH_PREFIX_BYTES + Integer.BYTES; i < frame.length; i++)
+			frame[i] = (byte) 0xFF;
+		readFrame(frame);
+	}
+
+	private Message readFrame(byte[] frame) throws IOException {
+		return readFrame(new JavaSerializationCodec(), frame);
+	}
+
+	private Message readFrame(MessageCodec codec, byte[] frame) throws IOException {
+		return MessageSerializer.readFrame(codec, new DataInputStream(new ByteArrayInputStream(frame)));
+	}
+}
@@ -0,0 +1,52 @@
+package it.polimi.se2019.network.message;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author MarcerAndrea
+ */
+public class SerializedRepCacheTest {
+
+	private SerializedRepCache serializedRepCache;
+
+	@Before
+	public void setUp() {
+		serializedRepCache = new SerializedRepCache(2);
+	}
+
+	@Test
+	public void getSerialized_sameInstanceTwice_serializedOnce() throws IOException {
+		ArrayList<String> rep = new ArrayList<>(Arrays.asList("player1", "player2"));
+		byte[] firstBytes = serializedRepCache.getSerialized(rep);
+		byte[] secondBytes = serializedRepCache.getSerialized(rep);
+		assertSame(firstBytes, secondBytes);
+		assertEquals(1, serializedRepCache.getHits());
+		assertEquals(1, serializedRepCache.getMisses());
+	}
+
+	@Test
+	public void getSerialized_equalInstances_serializedSeparately() throws IOException {
+		serializedRepCache.getSerialized(new ArrayList<>(Arrays.asList("player1", "player2")));
+		serializedRepCache.getSerialized(new ArrayList<>(Arrays.asList("player1", "player2")));
+		assertEquals(0, serializedRepCache.getHits());
+		assertEquals(2, serializedRepCache.getMisses());
+	}
+
+	@Test
+	public void getSerialized_moreRepsThanCapacity_eldestRemoved() throws IOException {
+		ArrayList<String> firstRep = new ArrayList<>();
+		serializedRepCache.getSerialized(firstRep);
+		serializedRepCache.getSerialized(new ArrayList<>());
+		serializedRepCache.getSerialized(new ArrayList<>());
+		serializedRepCache.getSerialized(firstRep);
+		assertEquals(0, serializedRepCache.getHits());
+		assertEquals(4, serializedRepCache.getMisses());
+	}
+}
@@ -0,0 +1,263 @@
+package it.polimi.se2019.network.server;
+
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.MessageSubtype;
+import it.polimi.se2019.network.message.MessageType;
+import it.polimi.se2019.network.message.RepDeltaMessage;
+import it.polimi.se2019.network.message.RepMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class AbstractConnectionToClientTest {
+
+	private static final int QUEUE_CAPACITY = 256;
+
+	private BlockedConnection connection;
+
+
+	@Before
+	public void setUp() {
+		connection = new BlockedConnection();
+	}
+
+	@Test
+	public void sendMessage_manyMessages_writtenInOrder() throws InterruptedException {
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Message message = new Message(MessageType.ACTION, MessageSubtype.REQUEST);
+			messages.add(message);
+			connection.sendMessage(message);
+		}
+
+		connection.unblockAndAwait(messages.size());
+
+		assertEquals(messages, connection.getWrittenMessages());
+	}
+
+	@Test
+	public void sendMessage_repMessageAfterOnlyReps_onlyRepsCoalesced() throws InterruptedException {
+		Message request = new Message(MessageType.ACTION, MessageSubtype.REQUEST);
+		RepMessage fullReps = new RepMessage();
+		connection.sendMessage(request);
+		connection.awaitWriting();
+		connection.sendMessage(new RepDeltaMessage(0, 1));
+		connection.sendMessage(new RepDeltaMessage(1, 2));
+		connection.sendMessage(fullReps);
+
+		connection.unblockAndAwait(2);
+
+		assertEquals(2, connection.getCoalescedMessages());
+		assertEquals(request, connection.getWrittenMessages().get(0));
+		assertSame(fullReps, connection.getWrittenMessages().get(1));
+	}
+
+	@Test
+	public void sendMessage_repMessageAfterRequest_requestKept() throws InterruptedException {
+		RepDeltaMessage repsWithRequest = new RepDeltaMessage(0, 1);
+		repsWithRequest.addMessage(new Message(MessageType.ACTION, MessageSubtype.REQUEST));
+		connection.sendMessage(new Message(MessageType.ACTION, MessageSubtype.INFO));
+		connection.awaitWriting();
+		connection.sendMessage(repsWithRequest);
+		connection.sendMessage(new RepMessage());
+
+		connection.unblockAndAwait(3);
+
+		assertEquals(0, connection.getCoalescedMessages());
+		assertSame(repsWithRequest, connection.getWrittenMessages().get(1));
+	}
+
+	@Test
+	public void sendMessage_queueFullWithReps_oldestRepsDropped() throws InterruptedException {
+		connection.sendMessage(new Message(MessageType.ACTION, MessageSubtype.INFO));
+		connection.awaitWriting();
+		RepDeltaMessage oldestReps = new RepDeltaMessage(0, 1);
+		connection.sendMessage(oldestReps);
+		for (int i = 1; i < QUEUE_CAPACITY; i++)
+			connection.sendMessage(new Message(MessageType.ACTION, MessageSubtype.INFO));
+		Message lastMessage = new Message(MessageType.END_TURN, MessageSubtype.REQUEST);
+		connection.sendMessage(lastMessage);
+
+		connection.unblockAndAwait(QUEUE_CAPACITY + 1);
+
+		assertEquals(1, connection.getDroppedMessages());
+		assertFalse(connection.getWrittenMessages().contains(oldestReps));
+		assertSame(lastMessage, connection.getWrittenMessages().get(QUEUE_CAPACITY));
+		assertFalse(connection.isClosed());
+	}
+
+	@Test
+	public void sendMessage_queueFullWithoutReps_connectionClosed() throws InterruptedException {
+		connection.sendMessage(new Message(MessageType.ACTION, MessageSubtype.INFO));
+		connection.awaitWriting();
+		for (int i = 0; i < QUEUE_CAPACITY + 1; i++)
+			connection.sendMessage(new Message(MessageType.ACTION, MessageSubtype.INFO));
+
+		assertTrue(connection.isClosed());
+		assertEquals(0, connection.getOutboundQueueDepth());
+		assertEquals(QUEUE_CAPACITY, connection.getMaxOutboundQueueDepth());
+		connection.unblockAndAwait(1);
+	}
+
+	@Test
+	public void sendMessage_connectionWithFlushInterval_messagesWrittenTogether() throws InterruptedException {
+		BatchingConnection batchingConnection = new BatchingConnection();
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Message message = new Message(MessageType.ACTION, MessageSubtype.INFO);
+			messages.add(message);
+			batchingConnection.sendMessage(message);
+		}
+
+		List<Message> batch = batchingConnection.batches.poll(5, TimeUnit.SECONDS);
+		assertEquals(messages, batch);
+		assertEquals(0, batchingConnection.getOutboundQueueDepth());
+	}
+
+	@Test
+	public void closeConnectionAfterDraining_messagesQueued_allMessagesWrittenBeforeClose() throws InterruptedException {
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Message message = new Message(MessageType.ACTION, MessageSubtype.INFO);
+			messages.add(message);
+			connection.sendMessage(message);
+		}
+		connection.awaitWriting();
+
+		connection.closeConnectionAfterDraining();
+		connection.sendMessage(new Message(MessageType.END_TURN, MessageSubtype.REQUEST));
+		assertFalse(connection.isClosed());
+
+		connection.unblockAndAwait(messages.size());
+		connection.awaitClosed();
+
+		assertEquals(messages, connection.getWrittenMessages());
+		assertEquals(messages.size(), connection.getMessagesWrittenBeforeClose());
+		assertEquals(1, connection.getCloseCount());
+	}
+
+	@Test
+	public void closeConnectionAfterDraining_noMessagesQueued_closedImmediately() {
+		connection.closeConnectionAfterDraining();
+
+		assertTrue(connection.isClosed());
+		assertEquals(1, connection.getCloseCount());
+	}
+
+	@Test
+	public void closeConnectionAfterDraining_connectionWithFlushInterval_messagesWrittenBeforeClose() throws InterruptedException {
+		BatchingConnection batchingConnection = new BatchingConnection();
+		Message message = new Message(MessageType.ACTION, MessageSubtype.INFO);
+		batchingConnection.sendMessage(message);
+
+		batchingConnection.closeConnectionAfterDraining();
+
+		assertEquals(Collections.singletonList(message), batchingConnection.batches.poll(5, TimeUnit.SECONDS));
+		assertTrue(batchingConnection.closed.await(5, TimeUnit.SECONDS));
+	}
+
+
+	/**
+	 * Connection whose writer stays blocked on the first message until unblocked.
+	 */
+	private static class BlockedConnection extends AbstractConnectionToClient {
+
+		private final CountDownLatch writing = new CountDownLatch(1);
+		private final CountDownLatch unblocked = new CountDownLatch(1);
+		private final List<Message> writtenMessages = Collections.synchronizedList(new ArrayList<>());
+		private final CountDownLatch closed = new CountDownLatch(1);
+		private volatile int closeCount;
+		private volatile int messagesWrittenBeforeClose;
+
+		@Override
+		protected void writeMessage(Message message) {
+			writing.countDown();
+			try {
+				unblocked.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			writtenMessages.add(message);
+		}
+
+		@Override
+		public synchronized void closeConnectionWithClient() {
+			messagesWrittenBeforeClose = writtenMessages.size();
+			closeCount++;
+			closed.countDown();
+		}
+
+		private void awaitWriting() throws InterruptedException {
+			assertTrue(writing.await(5, TimeUnit.SECONDS));
+		}
+
+		private void unblockAndAwait(int numberOfMessages) throws InterruptedException {
+			unblocked.countDown();
+			long deadline = System.currentTimeMillis() + 5000;
+			while (writtenMessages.size() < numberOfMessages && System.currentTimeMillis() < deadline)
+				Thread.sleep(5);
+			assertEquals(numberOfMessages, writtenMessages.size());
+		}
+
+		private List<Message> getWrittenMessages() {
+			return new ArrayList<>(writtenMessages);
+		}
+
+		private void awaitClosed() throws InterruptedException {
+			assertTrue(closed.await(5, TimeUnit.SECONDS));
+		}
+
+		private boolean isClosed() {
+			return closed.getCount() == 0;
+		}
+
+		private int getCloseCount() {
+			return closeCount;
+		}
+
+		private int getMessagesWrittenBeforeClose() {
+			return messagesWrittenBeforeClose;
+		}
+	}
+
+	/**
+	 * Connection that writes the queued messages together after a long flush interval.
+	 */
+	private static class BatchingConnection extends AbstractConnectionToClient {
+
+		private final BlockingQueue<List<Message>> batches = new LinkedBlockingQueue<>();
+		private final CountDownLatch closed = new CountDownLatch(1);
+
+		@Override
+		protected void writeMessage(Message message) {
+			throw new UnsupportedOperationException("The messages must be written together.");
+		}
+
+		@Override
+		protected void writeMessages(List<Message> messages) {
+			batches.add(new ArrayList<>(messages));
+		}
+
+		@Override
+		protected long getFlushIntervalMs() {
+			return 200;
+		}
+
+		@Override
+		public void closeConnectionWithClient() {
+			closed.countDown();
+		}
+	}
+}
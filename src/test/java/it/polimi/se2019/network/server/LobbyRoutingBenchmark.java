@@ -0,0 +1,102 @@
+package it.polimi.se2019.network.server;
+
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the time needed by the Lobby to find the match of a client, done for every message received by the server,
+ * and to check the nickname of a client that wants to reconnect, with many clients connected.
+ * The matches are created but never initialized, since their executor discards the events.
+ * @author Desno365
+ */
+public class LobbyRoutingBenchmark {
+
+	private static final int NUMBER_OF_CLIENTS = 10000;
+	private static final int WARMUP_LOOKUPS = 200000;
+	private static final int MEASURED_LOOKUPS = 1000000;
+	private static final int WARMUP_REGISTRATIONS = 2000;
+	private static final int MEASURED_REGISTRATIONS = 10000;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		Utils.setLogEnabled(false);
+		Lobby lobby = new Lobby(() -> runnable -> { });
+
+		List<AbstractConnectionToClient> clients = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_CLIENTS - NUMBER_OF_CLIENTS % GameConstants.MAX_PLAYERS; i++) {
+			FakeConnection client = new FakeConnection();
+			lobby.registerClient(client, "player" + i);
+			clients.add(client);
+		}
+
+		Random random = new Random(0);
+		lookupMatches(lobby, clients, random, WARMUP_LOOKUPS);
+		long startTime = System.nanoTime();
+		int found = lookupMatches(lobby, clients, random, MEASURED_LOOKUPS);
+		long lookupTime = System.nanoTime() - startTime;
+
+		registerUsedNicknames(lobby, clients, random, WARMUP_REGISTRATIONS);
+		startTime = System.nanoTime();
+		registerUsedNicknames(lobby, clients, random, MEASURED_REGISTRATIONS);
+		long registrationTime = System.nanoTime() - startTime;
+
+		System.out.println("Clients in matches: " + clients.size() + " (found " + found + " of " + MEASURED_LOOKUPS + ").");
+		System.out.println("getMatchOfClient: " + BenchmarkUtils.formatNanoseconds(lookupTime / MEASURED_LOOKUPS) + " per call.");
+		System.out.println("registerClient with a used nickname: " + BenchmarkUtils.formatNanoseconds(registrationTime / MEASURED_REGISTRATIONS) + " per call.");
+		System.exit(0);
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static int lookupMatches(Lobby lobby, List<AbstractConnectionToClient> clients, Random random, int numberOfLookups) {
+		int found = 0;
+		for (int i = 0; i < numberOfLookups; i++) {
+			if (lobby.getMatchOfClient(clients.get(random.nextInt(clients.size()))) != null)
+				found++;
+		}
+		return found;
+	}
+
+	/**
+	 * Registers a new client with the nickname of a connected client, the Lobby checks if it is a reconnection and refuses the nickname.
+	 */
+	private static void registerUsedNicknames(Lobby lobby, List<AbstractConnectionToClient> clients, Random random, int numberOfRegistrations) {
+		FakeConnection newClient = new FakeConnection();
+		for (int i = 0; i < numberOfRegistrations; i++)
+			lobby.registerClient(newClient, clients.get(random.nextInt(clients.size())).getNickname());
+	}
+
+
+	// ####################################
+	// PRIVATE CLASSES
+	// ####################################
+
+	/**
+	 * Connection that discards all the messages.
+	 */
+	private static class FakeConnection extends AbstractConnectionToClient {
+
+		@Override
+		protected void writeMessage(Message message) {
+			// Messages are discarded.
+		}
+
+		@Override
+		public void closeConnectionWithClient() {
+			// Nothing to close.
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package it.polimi.se2019.network.server;
+
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.network.message.*;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.SerialExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Load test of the server: starts many concurrent matches played by bots and measures the latency between the answer of a bot
+ * and the next request of its match.
+ * The test is run twice: once with all the matches sharing a single executor (equivalent to the old global lock of ServerEventsListener)
+ * and once with an executor for every match.
+ * @author Desno365
+ */
+public class MatchLoadTester {
+
+	private static final int NUMBER_OF_MATCHES = 200;
+	private static final int SAMPLES_PER_MATCH = 200;
+	private static final int CLIENT_THREADS = 32;
+	private static final long TIMEOUT_SECONDS = 300;
+
+
+	/**
+	 * Run this main to start the load test.
+	 * @param args
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		SerialExecutor globalExecutor = new SerialExecutor();
+		runLoadTest("Single executor for all matches (global lock)", () -> globalExecutor);
+		runLoadTest("Executor for every match", SerialExecutor::new);
+		System.exit(0);
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static void runLoadTest(String description, Supplier<Executor> matchExecutorSupplier) throws InterruptedException {
+		ServerEventsListener serverEventsListener = new ServerEventsListener(matchExecutorSupplier);
+		ExecutorService clientThreads = Executors.newFixedThreadPool(CLIENT_THREADS);
+		CountDownLatch finishedMatches = new CountDownLatch(NUMBER_OF_MATCHES);
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+		// Bots are registered from this thread, so the players of every match are exactly the bots sharing the same MatchStats.
+		long startTime = System.nanoTime();
+		for (int i = 0; i < NUMBER_OF_MATCHES; i++) {
+			MatchStats matchStats = new MatchStats(finishedMatches, latencies);
+			for (int j = 0; j < GameConstants.MAX_PLAYERS; j++) {
+				BotConnection bot = new BotConnection(serverEventsListener, clientThreads, matchStats);
+				serverEventsListener.onClientConnection(bot);
+				serverEventsListener.onMessageReceived(bot, new NicknameMessage("m" + i + "p" + j, MessageSubtype.ANSWER));
+			}
+		}
+		boolean completed = finishedMatches.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		long elapsedTime = System.nanoTime() - startTime;
+		clientThreads.shutdownNow();
+		serverEventsListener.closeAllConnections();
+
+		List<Long> allLatencies;
+		synchronized (latencies) {
+			allLatencies = new ArrayList<>(latencies);
+		}
+		System.out.println("####################################");
+		System.out.println(description + (completed ? "" : " (TIMED OUT)"));
+		System.out.println("Matches: " + NUMBER_OF_MATCHES + ", samples: " + allLatencies.size() + ", elapsed: " + BenchmarkUtils.formatMilliseconds(elapsedTime) + ".");
+		System.out.println("p50: " + BenchmarkUtils.formatMicroseconds(BenchmarkUtils.getPercentile(allLatencies, 0.50)) + ", p99: " + BenchmarkUtils.formatMicroseconds(BenchmarkUtils.getPercentile(allLatencies, 0.99)) + ".");
+	}
+
+
+	// ####################################
+	// PRIVATE CLASSES
+	// ####################################
+
+	/**
+	 * Latency samples of a single match.
+	 * Only one player at a time is asked something, so the latency is measured from the last answer sent by any player of the match.
+	 */
+	private static class MatchStats {
+
+		private final CountDownLatch finishedMatches;
+		private final List<Long> latencies;
+		private final AtomicLong lastAnswerTime = new AtomicLong();
+		private int samples;
+
+		private MatchStats(CountDownLatch finishedMatches, List<Long> latencies) {
+			this.finishedMatches = finishedMatches;
+			this.latencies = latencies;
+		}
+
+		private void onAnswerSent() {
+			lastAnswerTime.set(System.nanoTime());
+		}
+
+		/**
+		 * Records a new sample and returns false if the match collected enough samples.
+		 */
+		private synchronized boolean onRequestReceived() {
+			if (samples >= SAMPLES_PER_MATCH)
+				return false;
+			long answerTime = lastAnswerTime.getAndSet(0);
+			if (answerTime != 0) {
+				latencies.add(System.nanoTime() - answerTime);
+				samples++;
+				if (samples == SAMPLES_PER_MATCH)
+					finishedMatches.countDown();
+			}
+			return samples < SAMPLES_PER_MATCH;
+		}
+	}
+
+	/**
+	 * Fake connection that answers the requests of the match, always choosing to move.
+	 * Answers are sent from the client threads, as if they came from the network.
+	 */
+	private static class BotConnection extends AbstractConnectionToClient {
+
+		private final ServerEventsListener serverEventsListener;
+		private final Executor clientThreads;
+		private final MatchStats matchStats;
+
+		private BotConnection(ServerEventsListener serverEventsListener, Executor clientThreads, MatchStats matchStats) {
+			this.serverEventsListener = serverEventsListener;
+			this.clientThreads = clientThreads;
+			this.matchStats = matchStats;
+		}
+
+		@Override
+		protected void writeMessage(Message message) {
+			Message request = message;
+			if (message instanceof RepMessage)
+				request = ((RepMessage) message).getMessage();
+			else if (message instanceof RepDeltaMessage)
+				request = ((RepDeltaMessage) message).getMessage();
+			if (request == null || request.getMessageSubtype() != MessageSubtype.REQUEST)
+				return;
+
+			Message answer = createAnswer(request);
+			if (answer == null || !matchStats.onRequestReceived())
+				return;
+
+			clientThreads.execute(() -> {
+				matchStats.onAnswerSent();
+				serverEventsListener.onMessageReceived(this, answer);
+			});
+		}
+
+		@Override
+		public void closeConnectionWithClient() {
+			// Nothing to close.
+		}
+
+		private Message createAnswer(Message request) {
+			switch (request.getMessageType()) {
+				case GAME_CONFIG:
+					GameConfigMessage gameConfigMessage = new GameConfigMessage(MessageSubtype.ANSWER);
+					gameConfigMessage.setSkulls(GameConstants.MAX_SKULLS);
+					gameConfigMessage.setMapIndex(0);
+					return gameConfigMessage;
+				case SPAWN:
+					return new IntMessage(0, MessageType.SPAWN, MessageSubtype.ANSWER);
+				case ACTION:
+					return new IntMessage(0, MessageType.ACTION, MessageSubtype.ANSWER); // With low damage the first MacroAction is Move.
+				case MOVE:
+					Coordinates coordinates = ((CoordinatesRequestMessage) request).getCoordinates().get(0);
+					return new CoordinatesAnswerMessage(coordinates, MessageType.MOVE);
+				case END_TURN:
+					return new Message(MessageType.END_TURN, MessageSubtype.ANSWER);
+				default:
+					return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package it.polimi.se2019.network.server;
+
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.MessageSubtype;
+import it.polimi.se2019.network.message.MessageType;
+import it.polimi.se2019.utils.GameConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class MatchTest {
+
+	private Queue<Runnable> matchTasks;
+	private List<FakeConnection> clients;
+	private Match match;
+
+
+	@Before
+	public void setUp() {
+		matchTasks = new ArrayDeque<>();
+		clients = new ArrayList<>();
+		for (int i = 0; i < GameConstants.MIN_PLAYERS; i++) {
+			FakeConnection client = new FakeConnection();
+			client.setNickname("player" + i);
+			clients.add(client);
+		}
+		match = new Match(new ArrayList<>(clients), matchTasks::add, finishedMatch -> { });
+	}
+
+	@After
+	public void tearDown() {
+		match.cancelMatch();
+	}
+
+	@Test
+	public void setParticipantAsReconnected_whileGameIsInitialized_virtualViewMovedToNewClient() {
+		FakeConnection disconnectingClient = clients.get(1);
+		FakeConnection reconnectingClient = new FakeConnection();
+		reconnectingClient.setNickname(disconnectingClient.getNickname());
+		// The result of the votes is sent while the game is initialized, after the match started but before the VirtualViews exist.
+		clients.get(0).onVotesResult = () -> {
+			match.setParticipantAsDisconnected(disconnectingClient);
+			match.setParticipantAsReconnected(reconnectingClient);
+		};
+
+		for (FakeConnection client : clients)
+			match.addConfigVote(client, GameConstants.MIN_SKULLS, 0);
+		runMatchTasks();
+
+		assertTrue(match.isMatchStarted());
+		assertTrue(match.getDisconnectedParticipants().isEmpty());
+		assertTrue(match.getParticipants().contains(reconnectingClient));
+		assertFalse(match.getParticipants().contains(disconnectingClient));
+		assertNotNull(match.getVirtualViewOfClient(reconnectingClient));
+		assertNull(match.getVirtualViewOfClient(disconnectingClient));
+	}
+
+	@Test
+	public void cancelMatch_matchStarted_notCanceled() {
+		for (FakeConnection client : clients)
+			match.addConfigVote(client, GameConstants.MIN_SKULLS, 0);
+		runMatchTasks();
+
+		assertFalse(match.cancelMatch());
+		assertTrue(match.isMatchStarted());
+	}
+
+	@Test
+	public void cancelMatch_matchNotStarted_votesIgnored() {
+		assertTrue(match.cancelMatch());
+
+		for (FakeConnection client : clients)
+			match.addConfigVote(client, GameConstants.MIN_SKULLS, 0);
+		runMatchTasks();
+
+		assertFalse(match.isMatchStarted());
+	}
+
+
+	private void runMatchTasks() {
+		Runnable task;
+		while ((task = matchTasks.poll()) != null)
+			task.run();
+	}
+
+
+	/**
+	 * Connection that discards the messages, and runs an action when it receives the result of the votes.
+	 */
+	private static class FakeConnection extends AbstractConnectionToClient {
+
+		private Runnable onVotesResult;
+
+		@Override
+		public void sendMessage(Message message) {
+			if (onVotesResult != null && message.getMessageType() == MessageType.GAME_CONFIG && message.getMessageSubtype() == MessageSubtype.INFO)
+				onVotesResult.run();
+		}
+
+		@Override
+		protected void writeMessage(Message message) {
+			// Messages are discarded.
+		}
+
+		@Override
+		public void closeConnectionWithClient() {
+			// Nothing to close.
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package it.polimi.se2019.network.server;
+
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.Utils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures how long the Lobby takes to put in a match a burst of clients that register at the same time from many threads.
+ * Writing a message to a fake client blocks the writing thread for a while, like a write on a slow socket,
+ * so the time spent sending messages while holding a lock shared by all the clients is visible.
+ * The matches are created but never initialized, since their executor discards the events.
+ * @author Desno365
+ */
+public class MatchmakingBurstBenchmark {
+
+	private static final int NUMBER_OF_CLIENTS = 1000;
+	private static final int REGISTERING_THREADS = 16;
+	private static final long SEND_TIME_NANOS = 50000;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		Utils.setLogEnabled(false);
+		Lobby lobby = new Lobby(() -> runnable -> { });
+		ExecutorService registeringThreads = Executors.newFixedThreadPool(REGISTERING_THREADS);
+		CountDownLatch registeredClients = new CountDownLatch(NUMBER_OF_CLIENTS);
+
+		long startTime = System.nanoTime();
+		for (int i = 0; i < NUMBER_OF_CLIENTS; i++) {
+			String nickname = "player" + i;
+			registeringThreads.execute(() -> {
+				lobby.registerClient(new SlowConnection(), nickname);
+				registeredClients.countDown();
+			});
+		}
+		registeredClients.await();
+		long elapsedTime = System.nanoTime() - startTime;
+		registeringThreads.shutdown();
+
+		System.out.println("Clients: " + NUMBER_OF_CLIENTS + " registered from " + REGISTERING_THREADS + " threads in " + BenchmarkUtils.formatMilliseconds(elapsedTime) + ".");
+		System.out.println("Waiting clients: " + lobby.getNumberOfWaitingClients() + " in " + lobby.getNumberOfWaitingRooms() + " waiting rooms.");
+		System.out.println("Time to match: average " + lobby.getAverageTimeToMatchMs() + " ms, max " + lobby.getMaxTimeToMatchMs() + " ms.");
+		System.exit(0);
+	}
+
+
+	// ####################################
+	// PRIVATE CLASSES
+	// ####################################
+
+	/**
+	 * Connection that discards the messages after blocking the writing thread.
+	 */
+	private static class SlowConnection extends AbstractConnectionToClient {
+
+		@Override
+		protected void writeMessage(Message message) {
+			LockSupport.parkNanos(SEND_TIME_NANOS);
+		}
+
+		@Override
+		public void closeConnectionWithClient() {
+			// Nothing to close.
+		}
+	}
+}
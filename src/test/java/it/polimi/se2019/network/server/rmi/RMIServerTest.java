@@ -0,0 +1,116 @@
+package it.polimi.se2019.network.server.rmi;
+
+import it.polimi.se2019.network.client.rmi.RMIClientInterface;
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.server.AbstractConnectionToClient;
+import it.polimi.se2019.network.server.ServerEventsListenerInterface;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class RMIServerTest {
+
+	private static final long TIMEOUT_MS = 60000;
+
+	private RecordingListener listener;
+	private RMIServer rmiServer;
+	private RMIClientInterface client;
+
+
+	@Before
+	public void setUp() throws RemoteException {
+		listener = new RecordingListener();
+		rmiServer = new RMIServer(listener, false);
+		client = messages -> { };
+		rmiServer.registerClient(client);
+	}
+
+	@After
+	public void tearDown() throws NoSuchObjectException {
+		UnicastRemoteObject.unexportObject(rmiServer, true);
+	}
+
+	@Test
+	public void checkHeartbeats_connectionClosedByServer_connectionLostReportedOnce() throws RemoteException {
+		ServerClientRMI connection = listener.getConnectedClient();
+		connection.closeConnectionWithClient();
+
+		rmiServer.checkHeartbeats(TIMEOUT_MS);
+		rmiServer.checkHeartbeats(TIMEOUT_MS);
+		rmiServer.disconnect(client);
+
+		assertEquals(Collections.singletonList(connection), listener.lostConnections);
+		assertFalse(rmiServer.heartbeat(client));
+	}
+
+	@Test
+	public void disconnect_connectionClosedByServer_connectionLostReportedOnce() throws RemoteException {
+		ServerClientRMI connection = listener.getConnectedClient();
+		connection.closeConnectionWithClient();
+
+		rmiServer.disconnect(client);
+		rmiServer.checkHeartbeats(TIMEOUT_MS);
+
+		assertEquals(Collections.singletonList(connection), listener.lostConnections);
+	}
+
+	@Test
+	public void checkHeartbeats_activeConnection_connectionNotLost() throws RemoteException {
+		rmiServer.checkHeartbeats(TIMEOUT_MS);
+
+		assertTrue(listener.lostConnections.isEmpty());
+		assertTrue(rmiServer.heartbeat(client));
+	}
+
+	@Test
+	public void checkHeartbeats_heartbeatExpired_connectionLostAndClosed() {
+		ServerClientRMI connection = listener.getConnectedClient();
+
+		rmiServer.checkHeartbeats(-1);
+
+		assertEquals(Collections.singletonList(connection), listener.lostConnections);
+		assertFalse(connection.isConnectionActive());
+	}
+
+
+	/**
+	 * Listener that records the connected clients and the lost connections.
+	 */
+	private static class RecordingListener implements ServerEventsListenerInterface {
+
+		private final List<AbstractConnectionToClient> connectedClients = new ArrayList<>();
+		private final List<AbstractConnectionToClient> lostConnections = new ArrayList<>();
+
+		@Override
+		public void onClientConnection(AbstractConnectionToClient client) {
+			connectedClients.add(client);
+		}
+
+		@Override
+		public void onConnectionLost(AbstractConnectionToClient client) {
+			lostConnections.add(client);
+		}
+
+		@Override
+		public void onMessageReceived(AbstractConnectionToClient client, Message message) {
+			// Messages are not needed by these tests.
+		}
+
+		private ServerClientRMI getConnectedClient() {
+			assertEquals(1, connectedClients.size());
+			return (ServerClientRMI) connectedClients.get(0);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package it.polimi.se2019.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class AsyncLogWriterTest {
+
+	private static final int LINES = 20000; // More lines than the buffer.
+
+	private ByteArrayOutputStream output;
+	private AsyncLogWriter asyncLogWriter;
+
+
+	@Before
+	public void setUp() {
+		output = new ByteArrayOutputStream();
+		asyncLogWriter = new AsyncLogWriter(new PrintStream(output, false));
+	}
+
+	@Test
+	public void write_moreLinesThanBuffer_allLinesWrittenInOrder() {
+		List<String> expectedLines = new ArrayList<>();
+		for (int i = 0; i < LINES; i++) {
+			expectedLines.add("line " + i);
+			asyncLogWriter.write("line " + i);
+		}
+
+		asyncLogWriter.close();
+
+		assertEquals(expectedLines, getWrittenLines());
+	}
+
+	@Test
+	public void write_afterClose_lineWrittenAfterBufferedLines() {
+		asyncLogWriter.write("first");
+		asyncLogWriter.close();
+
+		asyncLogWriter.write("second");
+
+		assertEquals(Arrays.asList("first", "second"), getWrittenLines());
+	}
+
+
+	private List<String> getWrittenLines() {
+		String writtenText = new String(output.toByteArray(), StandardCharsets.UTF_8);
+		return Arrays.asList(writtenText.split(System.lineSeparator()));
+	}
+}
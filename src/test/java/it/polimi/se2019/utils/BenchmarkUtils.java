@@ -0,0 +1,145 @@
+package it.polimi.se2019.utils;
+
+import it.polimi.se2019.model.ModelDriver;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contains the utilities shared by the benchmarks.
+ * The benchmarks are not JUnit tests: they are classes of the tests with a main, that must be run manually,
+ * and their options are the constants at the top of the class.
+ *
+ * @author Desno365
+ */
+public final class BenchmarkUtils {
+
+	/**
+	 * Since it's an utility class it can't be instantiated.
+	 */
+	private BenchmarkUtils() {
+		throw new IllegalStateException("Cannot create an instance of this utility class.");
+	}
+
+
+	// ####################################
+	// MODEL
+	// ####################################
+
+	/**
+	 * Returns the names of the players of a benchmark, "player0", "player1" and so on.
+	 *
+	 * @param numberOfPlayers the number of players.
+	 * @return the names of the players.
+	 */
+	public static List<String> createPlayerNames(int numberOfPlayers) {
+		List<String> playerNames = new ArrayList<>();
+		for (int i = 0; i < numberOfPlayers; i++)
+			playerNames.add("player" + i);
+		return playerNames;
+	}
+
+	/**
+	 * Creates a model on the specified map with the maximum number of players, all of them spawned on their first powerup.
+	 *
+	 * @param mapType the map of the model.
+	 * @return the model.
+	 */
+	public static ModelDriver createSpawnedModel(GameConstants.MapType mapType) {
+		List<String> playerNames = createPlayerNames(GameConstants.MAX_PLAYERS);
+		ModelDriver model = new ModelDriver(mapType.getMapName(), playerNames, GameConstants.MAX_SKULLS);
+		for (String playerName : playerNames) {
+			model.addSpawnPowerupCardTo(playerName);
+			model.spawnPlayer(playerName, 0);
+		}
+		return model;
+	}
+
+
+	// ####################################
+	// MEASUREMENTS
+	// ####################################
+
+	/**
+	 * Returns the bytes allocated so far by the calling thread.
+	 * Needs a JVM that supports the measurement of the allocated memory of a thread (HotSpot).
+	 *
+	 * @return the bytes allocated by the calling thread.
+	 */
+	public static long getAllocatedBytesOfCurrentThread() {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns the used heap after running the garbage collector a few times.
+	 *
+	 * @return the used heap in bytes.
+	 */
+	public static long getUsedHeapAfterGc() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Returns the exact percentile of the values, using the nearest-rank method.
+	 *
+	 * @param values     the values, they don't need to be sorted.
+	 * @param percentile the percentile, between 0 and 1.
+	 * @return the percentile of the values, or 0 if there are no values.
+	 */
+	public static long getPercentile(List<Long> values, double percentile) {
+		if (values.isEmpty())
+			return 0;
+		List<Long> sortedValues = new ArrayList<>(values);
+		Collections.sort(sortedValues);
+		int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+		return sortedValues.get(Math.max(0, index));
+	}
+
+
+	// ####################################
+	// FORMATTING
+	// ####################################
+
+	/**
+	 * Returns the time in nanoseconds, e.g. "250 ns".
+	 *
+	 * @param nanoseconds the time in nanoseconds.
+	 * @return the formatted time.
+	 */
+	public static String formatNanoseconds(long nanoseconds) {
+		return nanoseconds + " ns";
+	}
+
+	/**
+	 * Returns the time in microseconds with one decimal, e.g. "12.5 us".
+	 *
+	 * @param nanoseconds the time in nanoseconds.
+	 * @return the formatted time.
+	 */
+	public static String formatMicroseconds(double nanoseconds) {
+		return String.format("%.1f us", nanoseconds / 1000);
+	}
+
+	/**
+	 * Returns the time in milliseconds, e.g. "120 ms".
+	 *
+	 * @param nanoseconds the time in nanoseconds.
+	 * @return the formatted time.
+	 */
+	public static String formatMilliseconds(long nanoseconds) {
+		return TimeUnit.NANOSECONDS.toMillis(nanoseconds) + " ms";
+	}
+}
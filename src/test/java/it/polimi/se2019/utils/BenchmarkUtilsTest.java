@@ -0,0 +1,37 @@
+package it.polimi.se2019.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class BenchmarkUtilsTest {
+
+	@Test
+	public void getPercentile_unsortedValues_nearestRank() {
+		List<Long> values = new ArrayList<>();
+		for (long value = 100; value >= 1; value--)
+			values.add(value);
+
+		assertEquals(50, BenchmarkUtils.getPercentile(values, 0.50));
+		assertEquals(99, BenchmarkUtils.getPercentile(values, 0.99));
+		assertEquals(1, BenchmarkUtils.getPercentile(values, 0.0));
+		assertEquals(100, (long) values.get(0)); // The values are not sorted in place.
+	}
+
+	@Test
+	public void getPercentile_noValues_zero() {
+		assertEquals(0, BenchmarkUtils.getPercentile(new ArrayList<>(), 0.99));
+	}
+
+	@Test
+	public void createPlayerNames_threePlayers_namesInOrder() {
+		assertEquals(Arrays.asList("player0", "player1", "player2"), BenchmarkUtils.createPlayerNames(3));
+	}
+}
@@ -0,0 +1,99 @@
+package it.polimi.se2019.utils;
+
+/**
+ * Histogram of latencies for the benchmarks, with logarithmic buckets.
+ * Each power of two is split in SUB_BUCKETS buckets so the percentiles are within 1/SUB_BUCKETS of the real value.
+ * It doesn't allocate when recording, so it doesn't alter the measured allocation rate.
+ * It isn't thread safe: every thread should record in its own histogram, and the histograms can be merged at the end.
+ *
+ * @author Desno365
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKETS_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+
+	private final long[] buckets = new long[64 * SUB_BUCKETS];
+	private long count;
+	private long sum;
+
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanoseconds the latency in nanoseconds.
+	 */
+	public void record(long nanoseconds) {
+		buckets[getBucket(Math.max(nanoseconds, 1))]++;
+		count++;
+		sum += nanoseconds;
+	}
+
+	/**
+	 * Adds all the latencies recorded by the other histogram to this one.
+	 *
+	 * @param histogram the other histogram.
+	 */
+	public void add(LatencyHistogram histogram) {
+		for (int i = 0; i < buckets.length; i++)
+			buckets[i] += histogram.buckets[i];
+		count += histogram.count;
+		sum += histogram.sum;
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 *
+	 * @return the number of recorded latencies.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the recorded latencies in nanoseconds.
+	 *
+	 * @return the mean of the recorded latencies, or 0 if there are none.
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Returns the upper bound of the bucket that contains the percentile.
+	 *
+	 * @param percentile the percentile, between 0 and 1.
+	 * @return the percentile in nanoseconds, or 0 if there are no latencies.
+	 */
+	public double getPercentile(double percentile) {
+		long target = (long) Math.ceil(percentile * count);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= target && buckets[i] > 0)
+				return getBucketUpperBound(i);
+		}
+		return 0;
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	private static int getBucket(long nanoseconds) {
+		int magnitude = 63 - Long.numberOfLeadingZeros(nanoseconds);
+		if (magnitude < SUB_BUCKETS_BITS)
+			return (int) nanoseconds;
+		int subBucket = (int) (nanoseconds >>> (magnitude - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+		return (magnitude - SUB_BUCKETS_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static double getBucketUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int magnitude = bucket / SUB_BUCKETS + SUB_BUCKETS_BITS - 1;
+		int subBucket = bucket % SUB_BUCKETS;
+		return (double) ((SUB_BUCKETS + subBucket + 1L) << (magnitude - SUB_BUCKETS_BITS));
+	}
+}
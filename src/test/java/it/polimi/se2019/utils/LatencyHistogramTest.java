@@ -0,0 +1,52 @@
+package it.polimi.se2019.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class LatencyHistogramTest {
+
+	private LatencyHistogram latencyHistogram;
+
+	@Before
+	public void setUp() {
+		latencyHistogram = new LatencyHistogram();
+	}
+
+	@Test
+	public void getPercentile_recordedLatencies_withinOneEighthOfTheRealValue() {
+		for (long nanoseconds = 1; nanoseconds <= 100000; nanoseconds++)
+			latencyHistogram.record(nanoseconds);
+
+		assertEquals(100000, latencyHistogram.getCount());
+		assertEquals(50000.5, latencyHistogram.getMean(), 0.001);
+		assertEquals(50000, latencyHistogram.getPercentile(0.50), 50000 / 8.0);
+		assertEquals(99000, latencyHistogram.getPercentile(0.99), 99000 / 8.0);
+		assertTrue(latencyHistogram.getPercentile(0.99) >= 99000);
+	}
+
+	@Test
+	public void getPercentile_noLatencies_zero() {
+		assertEquals(0, latencyHistogram.getPercentile(0.50), 0);
+		assertEquals(0, latencyHistogram.getMean(), 0);
+	}
+
+	@Test
+	public void add_otherHistogram_latenciesMerged() {
+		LatencyHistogram otherHistogram = new LatencyHistogram();
+		latencyHistogram.record(4);
+		otherHistogram.record(2);
+		otherHistogram.record(6);
+
+		latencyHistogram.add(otherHistogram);
+
+		assertEquals(3, latencyHistogram.getCount());
+		assertEquals(4, latencyHistogram.getMean(), 0);
+		assertEquals(2, latencyHistogram.getPercentile(0.0), 0);
+		assertEquals(6, latencyHistogram.getPercentile(1.0), 0);
+	}
+}
@@ -0,0 +1,55 @@
+package it.polimi.se2019.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class SingleTimerTest {
+
+	@Test
+	public void start_delayElapsed_runnableRun() throws InterruptedException {
+		SingleTimer singleTimer = new SingleTimer();
+		CountDownLatch ended = new CountDownLatch(1);
+		long firedTimers = SingleTimer.getFiredTimers();
+
+		singleTimer.start(ended::countDown, 10);
+
+		assertTrue(singleTimer.isRunning());
+		assertTrue(ended.await(5, TimeUnit.SECONDS));
+		assertTrue(SingleTimer.getFiredTimers() > firedTimers);
+		assertTrue(SingleTimer.getMaxFiringLagNanos() >= 0);
+	}
+
+	@Test
+	public void cancel_runningTimer_runnableNotRun() throws InterruptedException {
+		SingleTimer singleTimer = new SingleTimer();
+		AtomicInteger runs = new AtomicInteger();
+
+		singleTimer.start(runs::incrementAndGet, 50);
+		singleTimer.cancel();
+		Thread.sleep(150);
+
+		assertFalse(singleTimer.isRunning());
+		assertEquals(0, runs.get());
+	}
+
+	@Test
+	public void start_runningTimer_onlyLastRunnableRun() throws InterruptedException {
+		SingleTimer singleTimer = new SingleTimer();
+		AtomicInteger firstRuns = new AtomicInteger();
+		CountDownLatch secondEnded = new CountDownLatch(1);
+
+		singleTimer.start(firstRuns::incrementAndGet, 50);
+		singleTimer.start(secondEnded::countDown, 100);
+
+		assertTrue(secondEnded.await(5, TimeUnit.SECONDS));
+		assertEquals(0, firstRuns.get());
+	}
+}
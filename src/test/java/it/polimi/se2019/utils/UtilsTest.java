@@ -2,9 +2,10 @@ package it.polimi.se2019.utils;
 
 import org.junit.Test;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * @author Desno365
@@ -16,6 +17,35 @@ public class UtilsTest {
 		assertEquals(Logger.getLogger(Logger.GLOBAL_LOGGER_NAME), Utils.getGlobalLogger());
 	}
 
+	@Test
+	public void logInfo_categoryDisabled_messageNotCreated() {
+		Utils.setLogEnabled(true);
+		Utils.setLogLevel(LogCategory.NETWORK, Level.OFF);
+		try {
+			assertFalse(Utils.isLogEnabled(LogCategory.NETWORK, Level.INFO));
+			assertTrue(Utils.isLogEnabled(LogCategory.MODEL, Level.INFO));
+			Utils.logInfo(LogCategory.NETWORK, () -> {
+				throw new AssertionError("The message of a disabled category has been created.");
+			});
+		} finally {
+			Utils.setLogLevel(LogCategory.NETWORK, Level.INFO);
+			Utils.setLogEnabled(false);
+		}
+	}
+
+	@Test
+	public void isLogEnabled_lowerLevel_false() {
+		Utils.setLogEnabled(true);
+		Utils.setLogLevel(LogCategory.MODEL, Level.WARNING);
+		try {
+			assertFalse(Utils.isLogEnabled(LogCategory.MODEL, Level.INFO));
+			assertTrue(Utils.isLogEnabled(LogCategory.MODEL, Level.WARNING));
+		} finally {
+			Utils.setLogLevel(LogCategory.MODEL, Level.INFO);
+			Utils.setLogEnabled(false);
+		}
+	}
+
 	@Test
 	public void getColoredString() {
 		assertEquals((char)27 + "[30;40mTEST" + (char)27 + "[39;49m", Color.getColoredString("TEST", Color.CharacterColorType.BLACK, Color.BackgroundColorType.BLACK));
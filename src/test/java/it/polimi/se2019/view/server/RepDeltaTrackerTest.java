@@ -0,0 +1,115 @@
+package it.polimi.se2019.view.server;
+
+import it.polimi.se2019.model.ModelDriver;
+import it.polimi.se2019.model.gameboard.GameBoard;
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.Coordinates;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.player.Player;
+import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.network.message.Message;
+import it.polimi.se2019.network.message.RepDeltaMessage;
+import it.polimi.se2019.network.message.RepMessage;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.view.client.ModelRep;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Desno365
+ */
+public class RepDeltaTrackerTest {
+
+	private static final String PLAYER_NAME = "player0";
+
+	private ModelDriver model;
+	private GameBoard gameBoard;
+	private RepDeltaTracker repDeltaTracker;
+	private ModelRep modelRep;
+
+	@Before
+	public void setUp() {
+		List<String> playerNames = new ArrayList<>();
+		for (int i = 0; i < GameConstants.MIN_PLAYERS; i++)
+			playerNames.add("player" + i);
+		model = new ModelDriver(GameConstants.MapType.BIG_MAP.getMapName(), playerNames, GameConstants.MIN_SKULLS);
+		for (String playerName : playerNames) {
+			model.addSpawnPowerupCardTo(playerName);
+			model.spawnPlayer(playerName, 0);
+		}
+		gameBoard = model.getGameBoard();
+		repDeltaTracker = new RepDeltaTracker();
+		modelRep = new ModelRep();
+	}
+
+	@Test
+	public void createRepMessage_firstMessage_fullRepMessage() {
+		Message message = repDeltaTracker.createRepMessage(createAllReps());
+		assertTrue(message instanceof RepMessage);
+		assertEquals(1, ((RepMessage) message).getRepVersion());
+		assertEquals(GameConstants.MIN_PLAYERS, ((RepMessage) message).getPlayersRep().size());
+	}
+
+	@Test
+	public void createRepMessage_playerMoved_onlyPositionsSent() {
+		receiveFullReps(repDeltaTracker.createRepMessage(createAllReps()));
+
+		Coordinates destination = model.getReachableCoordinates(PLAYER_NAME, 1).get(0);
+		model.movePlayerTo(PLAYER_NAME, destination);
+		RepMessage pendingReps = new RepMessage();
+		pendingReps.addGameMapRep((GameMapRep) gameBoard.getGameMap().getRep());
+		Message message = repDeltaTracker.createRepMessage(pendingReps);
+
+		assertTrue(message instanceof RepDeltaMessage);
+		RepDeltaMessage repDeltaMessage = (RepDeltaMessage) message;
+		assertTrue(repDeltaMessage.getChangedSquares().isEmpty());
+		assertNotNull(repDeltaMessage.getPlayersCoordinates());
+		assertTrue(modelRep.applyRepDelta(repDeltaMessage));
+		assertEquals(destination, modelRep.getGameMapRep().getPlayerCoordinates(PLAYER_NAME));
+	}
+
+	@Test
+	public void createRepMessage_fullRepsRequired_fullRepMessageWithAllReps() {
+		repDeltaTracker.createRepMessage(createAllReps());
+		repDeltaTracker.requireFullReps();
+
+		Message message = repDeltaTracker.createRepMessage(new RepMessage());
+		assertTrue(message instanceof RepMessage);
+		RepMessage repMessage = (RepMessage) message;
+		assertEquals(2, repMessage.getRepVersion());
+		assertNotNull(repMessage.getGameMapRep());
+		assertNotNull(repMessage.getGameBoardRep());
+		assertEquals(GameConstants.MIN_PLAYERS, repMessage.getPlayersRep().size());
+	}
+
+	@Test
+	public void applyRepDelta_differentVersion_changesNotApplied() {
+		receiveFullReps(repDeltaTracker.createRepMessage(createAllReps()));
+		repDeltaTracker.createRepMessage(createAllReps()); // Lost by the client.
+
+		RepDeltaMessage repDeltaMessage = (RepDeltaMessage) repDeltaTracker.createRepMessage(createAllReps());
+		assertFalse(modelRep.applyRepDelta(repDeltaMessage));
+	}
+
+	private RepMessage createAllReps() {
+		RepMessage repMessage = new RepMessage();
+		repMessage.addGameMapRep((GameMapRep) gameBoard.getGameMap().getRep());
+		repMessage.addGameBoardRep((GameBoardRep) gameBoard.getRep());
+		for (Player player : gameBoard.getPlayers())
+			repMessage.addPlayersRep((PlayerRep) player.getRep(PLAYER_NAME));
+		return repMessage;
+	}
+
+	private void receiveFullReps(Message message) {
+		RepMessage repMessage = (RepMessage) message;
+		assertTrue(modelRep.acceptRepVersion(repMessage.getRepVersion()));
+		modelRep.setGameMapRep(repMessage.getGameMapRep());
+		modelRep.setGameBoardRep(repMessage.getGameBoardRep());
+		repMessage.getPlayersRep().forEach(modelRep::setPlayerRep);
+	}
+}
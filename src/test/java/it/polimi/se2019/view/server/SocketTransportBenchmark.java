@@ -0,0 +1,321 @@
+package it.polimi.se2019.view.server;
+
+import it.polimi.se2019.controller.Controller;
+import it.polimi.se2019.model.gameboard.GameBoardRep;
+import it.polimi.se2019.model.gamemap.GameMapRep;
+import it.polimi.se2019.model.player.PlayerRep;
+import it.polimi.se2019.network.message.*;
+import it.polimi.se2019.utils.BenchmarkUtils;
+import it.polimi.se2019.utils.GameConstants;
+import it.polimi.se2019.utils.PlayerRepPosition;
+import it.polimi.se2019.utils.Utils;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures the bytes written on the socket and the heap retained by every connection over full simulated games,
+ * comparing an ObjectOutputStream open for the whole connection and never reset with the length-prefixed frames of MessageSerializer.
+ * The messages are the ones created by the VirtualView for the reps received by the bots, every answer of a bot is preceded by its request.
+ * The bytes are measured on the same games for all the transports, while the retained heap is measured playing new games with only one transport,
+ * so every transport is the only owner of the objects it retains.
+ * @author Desno365
+ */
+public class SocketTransportBenchmark {
+
+	private static final int DEFAULT_NUMBER_OF_GAMES = 30;
+	private static final int DEFAULT_RESET_CADENCE = 32;
+	private static final int MAX_TURNS_PER_GAME = 300;
+	private static final long SEED = 0;
+
+
+	/**
+	 * Run this main to start the benchmark.
+	 * @param args the number of games and the number of messages after which the streams of the Java stream codec are reset.
+	 */
+	public static void main(String[] args) throws IOException {
+		int numberOfGames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_GAMES;
+		int resetCadence = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RESET_CADENCE;
+		Utils.setLogEnabled(false);
+
+		List<TransportFactory> transports = new ArrayList<>();
+		transports.add(new TransportFactory("ObjectOutputStream never reset", ObjectStreamTransport::new));
+		transports.add(new TransportFactory("Java serialization frames", () -> new FrameTransport(new JavaSerializationCodec(), false)));
+		transports.add(new TransportFactory("Java serialization frames + DEFLATE", () -> new FrameTransport(new JavaSerializationCodec(), true)));
+		transports.add(new TransportFactory("Java stream codec frames reset every " + resetCadence, () -> new FrameTransport(new JavaStreamCodec(resetCadence), false)));
+		transports.add(new TransportFactory("Java stream codec frames + DEFLATE", () -> new FrameTransport(new JavaStreamCodec(resetCadence), true)));
+		transports.add(new TransportFactory("Binary codec frames", () -> new FrameTransport(new BinaryMessageCodec(), false)));
+		transports.add(new TransportFactory("Binary codec frames + DEFLATE", () -> new FrameTransport(new BinaryMessageCodec(), true)));
+
+		// Bytes on the wire, all the transports receive the same messages.
+		List<List<Transport>> connections = playGames(numberOfGames, transports);
+		long messages = connections.stream().mapToLong(transportsOfConnection -> transportsOfConnection.get(0).messages).sum();
+		System.out.println("Games: " + numberOfGames + ", connections: " + connections.size() + ", messages: " + messages + ".");
+		System.out.println(String.format("%-44s %12s %12s %12s %14s", "Transport", "total KB", "B/message", "KB/conn", "retained B/conn"));
+		for (int i = 0; i < transports.size(); i++) {
+			int transportIndex = i;
+			long bytes = connections.stream().mapToLong(transportsOfConnection -> transportsOfConnection.get(transportIndex).bytes).sum();
+			long retained = measureRetainedHeap(numberOfGames, transports.get(i));
+			System.out.println(String.format("%-44s %12d %12d %12d %14d", transports.get(i).name,
+					bytes / 1024, bytes / messages, bytes / 1024 / connections.size(), retained));
+		}
+	}
+
+
+	// ####################################
+	// PRIVATE METHODS
+	// ####################################
+
+	/**
+	 * Plays the games and returns the transports of every connection.
+	 */
+	private static List<List<Transport>> playGames(int numberOfGames, List<TransportFactory> transports) throws IOException {
+		List<List<Transport>> connections = new ArrayList<>();
+		for (int game = 0; game < numberOfGames; game++)
+			new SimulatedMatch(new Random(SEED + game), transports, connections).play();
+		return connections;
+	}
+
+	/**
+	 * Plays the games with only one transport and returns the heap retained by the transport of every connection at the end of the games.
+	 */
+	private static long measureRetainedHeap(int numberOfGames, TransportFactory transport) throws IOException {
+		List<TransportFactory> transports = new ArrayList<>();
+		transports.add(transport);
+		long heapBefore = BenchmarkUtils.getUsedHeapAfterGc();
+		List<List<Transport>> connections = playGames(numberOfGames, transports);
+		long heapWithConnections = BenchmarkUtils.getUsedHeapAfterGc();
+		int numberOfConnections = connections.size();
+		connections.clear();
+		long heapAfter = BenchmarkUtils.getUsedHeapAfterGc();
+		return Math.max(heapWithConnections - Math.max(heapBefore, heapAfter), 0) / numberOfConnections;
+	}
+
+
+	// ####################################
+	// SIMULATED MATCH
+	// ####################################
+
+	private static class SimulatedMatch {
+
+		private final Random random;
+		private final List<TransportFactory> transports;
+		private final List<List<Transport>> connections;
+		private final Queue<QueuedMessage> messages = new ArrayDeque<>();
+		private int turns;
+		private boolean ended;
+
+		private SimulatedMatch(Random random, List<TransportFactory> transports, List<List<Transport>> connections) {
+			this.random = random;
+			this.transports = transports;
+			this.connections = connections;
+		}
+
+		private void play() throws IOException {
+			List<VirtualView> bots = new ArrayList<>();
+			int numberOfPlayers = GameConstants.MIN_PLAYERS + random.nextInt(1 + GameConstants.MAX_PLAYERS - GameConstants.MIN_PLAYERS);
+			for (int i = 0; i < numberOfPlayers; i++) {
+				List<Transport> transportsOfConnection = new ArrayList<>();
+				for (TransportFactory transport : transports)
+					transportsOfConnection.add(transport.supplier.get());
+				connections.add(transportsOfConnection);
+				bots.add(new RecordingBot("bot" + i, this, transportsOfConnection));
+			}
+			GameConstants.MapType mapType = GameConstants.MapType.values()[random.nextInt(GameConstants.MapType.values().length)];
+			int skulls = GameConstants.MIN_SKULLS + random.nextInt(1 + GameConstants.MAX_SKULLS - GameConstants.MIN_SKULLS);
+
+			Controller controller = new Controller(mapType, bots, skulls);
+			controller.startGame();
+			QueuedMessage queuedMessage;
+			while (!ended && (queuedMessage = messages.poll()) != null)
+				queuedMessage.virtualView.onMessageReceived(queuedMessage.message);
+		}
+
+		private boolean onTurnEnded() {
+			turns++;
+			if (turns >= MAX_TURNS_PER_GAME)
+				ended = true;
+			return !ended;
+		}
+	}
+
+	private static class QueuedMessage {
+
+		private final VirtualView virtualView;
+		private final Message message;
+
+		private QueuedMessage(VirtualView virtualView, Message message) {
+			this.virtualView = virtualView;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * Bot that writes on its transports the messages that the VirtualView would send to the client.
+	 * The requests are approximated with a message of the same type of the answer, since the bot answers without sending the request.
+	 */
+	private static class RecordingBot extends VirtualViewDriver {
+
+		private final SimulatedMatch simulatedMatch;
+		private final List<Transport> transports;
+		private final RepDeltaTracker repDeltaTracker = new RepDeltaTracker();
+		private RepMessage pendingReps = new RepMessage();
+
+		private RecordingBot(String nickname, SimulatedMatch simulatedMatch, List<Transport> transports) {
+			super(nickname, true, true, true);
+			this.simulatedMatch = simulatedMatch;
+			this.transports = transports;
+		}
+
+		@Override
+		public void sendReps() {
+			if (pendingReps.hasReps())
+				write(null);
+		}
+
+		@Override
+		public void endOfGame(List<PlayerRepPosition> finalPlayersInfo) {
+			simulatedMatch.ended = true;
+		}
+
+		@Override
+		public void updateGameBoardRep(GameBoardRep gameBoardRepToUpdate) {
+			super.updateGameBoardRep(gameBoardRepToUpdate);
+			pendingReps.addGameBoardRep(gameBoardRepToUpdate);
+		}
+
+		@Override
+		public void updateGameMapRep(GameMapRep gameMapRepToUpdate) {
+			super.updateGameMapRep(gameMapRepToUpdate);
+			pendingReps.addGameMapRep(gameMapRepToUpdate);
+		}
+
+		@Override
+		public void updatePlayerRep(PlayerRep playerRepToUpdate) {
+			super.updatePlayerRep(playerRepToUpdate);
+			pendingReps.addPlayersRep(playerRepToUpdate);
+		}
+
+		@Override
+		protected void sendMessageToController(Message message) {
+			write(new Message(message.getMessageType(), MessageSubtype.REQUEST));
+			simulatedMatch.messages.add(new QueuedMessage(this, message));
+		}
+
+		@Override
+		protected boolean canTestContinue() {
+			return simulatedMatch.onTurnEnded();
+		}
+
+		private void write(Message request) {
+			Message message = request;
+			if (pendingReps.hasReps()) {
+				pendingReps.addMessage(request);
+				message = repDeltaTracker.createRepMessage(pendingReps);
+				pendingReps = new RepMessage();
+			}
+			try {
+				for (Transport transport : transports)
+					transport.write(message);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+
+	// ####################################
+	// TRANSPORTS
+	// ####################################
+
+	private static class TransportFactory {
+
+		private final String name;
+		private final Supplier<Transport> supplier;
+
+		private TransportFactory(String name, Supplier<Transport> supplier) {
+			this.name = name;
+			this.supplier = supplier;
+		}
+	}
+
+	private abstract static class Transport {
+
+		long messages;
+		long bytes;
+
+		abstract void write(Message message) throws IOException;
+	}
+
+	/**
+	 * An ObjectOutputStream open for the whole connection and never reset, it keeps a reference to every object written.
+	 */
+	private static class ObjectStreamTransport extends Transport {
+
+		private final ObjectOutputStream objOutStream;
+
+		private ObjectStreamTransport() {
+			try {
+				objOutStream = new ObjectOutputStream(new CountingOutputStream(this));
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		void write(Message message) throws IOException {
+			messages++;
+			objOutStream.writeObject(message);
+			objOutStream.flush();
+		}
+	}
+
+	/**
+	 * Length-prefixed frames created by MessageSerializer, every frame is encoded independently.
+	 */
+	private static class FrameTransport extends Transport {
+
+		private final MessageCodec codec;
+		private final boolean compress;
+
+		private FrameTransport(MessageCodec codec, boolean compress) {
+			this.codec = codec;
+			this.compress = compress;
+		}
+
+		@Override
+		void write(Message message) throws IOException {
+			messages++;
+			bytes += MessageSerializer.encodeFrame(codec.encode(message), compress).length;
+		}
+	}
+
+	/**
+	 * Stream that discards the bytes and counts them in the transport.
+	 */
+	private static class CountingOutputStream extends OutputStream {
+
+		private final Transport transport;
+
+		private CountingOutputStream(Transport transport) {
+			this.transport = transport;
+		}
+
+		@Override
+		public void write(int b) {
+			transport.bytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			transport.bytes += len;
+		}
+	}
+}
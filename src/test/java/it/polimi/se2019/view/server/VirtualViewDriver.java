@@ -325,6 +325,21 @@ public abstract class VirtualViewDriver extends VirtualView {
 
 	protected abstract void sendMessageToController(Message message);
 
+	/**
+	 * Called when the player wants to end the turn, counts the turns played by all the drivers.
+	 * @return true if the turn can be ended, false to stop the game.
+	 */
+	protected boolean canTestContinue() {
+		numberOfTurns++;
+		if (numberOfTurns < GameTester.MAX_NUMBER_OF_TURNS) {
+			Utils.logInfo(Color.getColoredString("##################", Color.CharacterColorType.YELLOW) + " TURN " + numberOfTurns + " ENDED (" + getNickname() + "'s turn) " + Color.getColoredString("##################", Color.CharacterColorType.YELLOW));
+			return true;
+		} else {
+			Utils.logInfo(Color.getColoredString("##################", Color.CharacterColorType.GREEN) + " TEST GAME FINISHED CORRECTLY " + Color.getColoredString("##################", Color.CharacterColorType.GREEN));
+			return false;
+		}
+	}
+
 
 	// ####################################
 	// PRIVATE METHODS
@@ -344,15 +359,4 @@ public abstract class VirtualViewDriver extends VirtualView {
 			Utils.logError("QuestionContainer doesn't contain a question!", new IllegalArgumentException());
 		}
 	}
-
-	private boolean canTestContinue() {
-		numberOfTurns++;
-		if (numberOfTurns < GameTester.MAX_NUMBER_OF_TURNS) {
-			Utils.logInfo(Color.getColoredString("##################", Color.CharacterColorType.YELLOW) + " TURN " + numberOfTurns + " ENDED (" + getNickname() + "'s turn) " + Color.getColoredString("##################", Color.CharacterColorType.YELLOW));
-			return true;
-		} else {
-			Utils.logInfo(Color.getColoredString("##################", Color.CharacterColorType.GREEN) + " TEST GAME FINISHED CORRECTLY " + Color.getColoredString("##################", Color.CharacterColorType.GREEN));
-			return false;
-		}
-	}
 }
\ No newline at end of file